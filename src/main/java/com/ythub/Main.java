@@ -1,49 +1,78 @@
 package com.ythub;
 
 import com.ythub.animation.AnimationEngine;
+import com.ythub.core.BatchGenerator;
 import com.ythub.core.Timeline;
 import com.ythub.core.VideoConfig;
 import com.ythub.core.VideoGenerator;
 import com.ythub.dsa.algorithms.BubbleSortVisualizerEnhanced;
+import com.ythub.rendering.EncoderProfile;
 import javafx.application.Platform;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.List;
 
 public class Main {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
         System.out.println("=== YTHub Video Generator ===");
         System.out.println("Starting video generation...\n");
 
+        List<String> flags = Arrays.asList(args);
         VideoConfig config;
 
-        if (args.length > 0 && args[0].equals("--1080p")) {
+        if (flags.contains("--1080p")) {
             config = new VideoConfig(VideoConfig.Resolution.HD_1080P_60);
-        } else if (args.length > 0 && args[0].equals("--fast")) {
+        } else if (flags.contains("--fast")) {
             config = new VideoConfig(VideoConfig.Resolution.HD_1080P_30);
         } else {
             config = new VideoConfig(VideoConfig.Resolution.UHD_4K);
         }
+        EncoderProfile.applyConfigured(config);
 
         System.out.println("Using FREE Google Text-to-Speech (no API key needed)");
         System.out.println("Configuration: " + config);
 
-        VideoGenerator generator = new VideoGenerator(config);
+        if (flags.contains("--batch")) {
+            generateBatch(config);
+            System.out.println("\n=== Batch Generation Complete ===");
+            Platform.exit();
+            return;
+        }
 
-        System.out.println("\nGenerating Comprehensive Bubble Sort video (10-15 minutes)...");
-        generateEnhancedBubbleSortVideo(generator, config);
+        try (VideoGenerator generator = new VideoGenerator(config)) {
+            System.out.println("\nGenerating Comprehensive Bubble Sort video (10-15 minutes)...");
+            generateEnhancedBubbleSortVideo(generator, config);
+        }
 
         System.out.println("\n=== Video Generation Complete ===");
 
         Platform.exit();
     }
 
+    private static void generateBatch(VideoConfig config) throws Exception {
+        System.out.println("\nGenerating every script under " + config.getScriptsDir() + "...");
+        try (BatchGenerator batch = new BatchGenerator(config)) {
+            for (BatchGenerator.JobResult result : batch.generateAll()) {
+                if (result.isSuccessful()) {
+                    System.out.printf("  %s -> %s (%.1fs)%n", result.getScript(),
+                        result.getOutput().getAbsolutePath(), result.getElapsedSeconds());
+                } else {
+                    System.out.printf("  %s FAILED: %s%n", result.getScript(), result.getError().getMessage());
+                }
+            }
+        }
+    }
+
     private static void generateEnhancedBubbleSortVideo(VideoGenerator generator, VideoConfig config) {
         Canvas canvas = new Canvas(config.getWidth(), config.getHeight());
         GraphicsContext gc = canvas.getGraphicsContext2D();
-        AnimationEngine animationEngine = new AnimationEngine(gc, config.getWidth(), config.getHeight());
+        AnimationEngine animationEngine = new AnimationEngine(gc, config.getWidth(), config.getHeight(),
+            Color.web(config.getBackgroundColor()));
 
         BubbleSortVisualizerEnhanced visualizer = new BubbleSortVisualizerEnhanced(config, animationEngine);
         Timeline timeline = visualizer.createComprehensiveBubbleSortVideo();
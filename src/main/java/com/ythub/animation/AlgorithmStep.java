@@ -0,0 +1,72 @@
+package com.ythub.animation;
+
+public class AlgorithmStep {
+
+    public enum StepType {
+        START,
+        COMPARE,
+        SWAP,
+        COMPLETE
+    }
+
+    private final StepType type;
+    private final int[] array;
+    private final int index1;
+    private final int index2;
+    private final String format;
+    private final int value1;
+    private final int value2;
+    private String description;
+
+    public AlgorithmStep(StepType type, int[] array, int index1, int index2, String description) {
+        this(type, array, index1, index2, null, 0, 0);
+        this.description = description;
+    }
+
+    public AlgorithmStep(StepType type, int[] array, int index1, int index2, String format, int value1, int value2) {
+        this.type = type;
+        this.array = array;
+        this.index1 = index1;
+        this.index2 = index2;
+        this.format = format;
+        this.value1 = value1;
+        this.value2 = value2;
+    }
+
+    public StepType getType() {
+        return type;
+    }
+
+    public int[] getArray() {
+        return array;
+    }
+
+    public int getIndex1() {
+        return index1;
+    }
+
+    public int getIndex2() {
+        return index2;
+    }
+
+    public int getValue1() {
+        return value1;
+    }
+
+    public int getValue2() {
+        return value2;
+    }
+
+    public String getDescription() {
+        if (description == null && format != null) {
+            description = String.format(format, value1, value2);
+        }
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AlgorithmStep{type=%s, index1=%d, index2=%d, description='%s'}",
+                type, index1, index2, getDescription());
+    }
+}
@@ -1,21 +1,50 @@
 package com.ythub.animation;
 
+import com.ythub.core.Scene;
 import javafx.scene.canvas.GraphicsContext;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 public class AnimationEngine {
 
+    public static final String SCENE_ALPHA = "scene.alpha";
+    public static final String HIGHLIGHT_ALPHA = "highlight.alpha";
+    public static final String HIGHLIGHT1_OFFSET = "highlight1.offset";
+    public static final String HIGHLIGHT2_OFFSET = "highlight2.offset";
+
+    private static final double FADE_PORTION = 0.2;
+    private static final double SWAP_PORTION = 0.6;
+
     private GraphicsContext gc;
     private int width;
     private int height;
+    private final javafx.scene.paint.Color background;
+    private final ArrayRasterizer arrayRasterizer = new ArrayRasterizer();
+    private final Map<Scene, SceneAnimation> sceneAnimations = Collections.synchronizedMap(new WeakHashMap<>());
 
-    public AnimationEngine(GraphicsContext gc, int width, int height) {
+    public AnimationEngine(GraphicsContext gc, int width, int height, javafx.scene.paint.Color background) {
         this.gc = gc;
         this.width = width;
         this.height = height;
+        this.background = background;
     }
 
     public void drawArray(int[] array, int highlightIndex1, int highlightIndex2, double x, double y, double barWidth, double maxBarHeight) {
+        double plotWidth = barWidth * array.length;
+
+        if (ArrayRasterizer.shouldRasterize(array.length, plotWidth)) {
+            arrayRasterizer.draw(gc, array, (int) x, (int) y, (int) plotWidth, (int) maxBarHeight,
+                    javafx.scene.paint.Color.web("#2196F3"), javafx.scene.paint.Color.RED,
+                    background, highlightIndex1, highlightIndex2);
+            return;
+        }
+
         int maxValue = findMax(array);
+        boolean drawLabels = ArrayRasterizer.shouldDrawLabels(array.length, plotWidth);
+        javafx.scene.paint.Color barColor = javafx.scene.paint.Color.web("#2196F3");
+        gc.setFont(javafx.scene.text.Font.font("Arial", 30));
 
         for (int i = 0; i < array.length; i++) {
             double barHeight = (array[i] / (double) maxValue) * maxBarHeight;
@@ -25,14 +54,15 @@ public class AnimationEngine {
             if (i == highlightIndex1 || i == highlightIndex2) {
                 gc.setFill(javafx.scene.paint.Color.RED);
             } else {
-                gc.setFill(javafx.scene.paint.Color.web("#2196F3"));
+                gc.setFill(barColor);
             }
 
             gc.fillRect(barX, barY, barWidth - 5, barHeight);
 
-            gc.setFill(javafx.scene.paint.Color.WHITE);
-            gc.setFont(javafx.scene.text.Font.font("Arial", 30));
-            gc.fillText(String.valueOf(array[i]), barX + barWidth / 4, y + maxBarHeight + 40);
+            if (drawLabels) {
+                gc.setFill(javafx.scene.paint.Color.WHITE);
+                gc.fillText(String.valueOf(array[i]), barX + barWidth / 4, y + maxBarHeight + 40);
+            }
         }
     }
 
@@ -58,6 +88,59 @@ public class AnimationEngine {
         gc.fillRect(0, 0, width, height);
     }
 
+    public SceneAnimation getSceneAnimation(Scene scene) {
+        SceneAnimation animation = sceneAnimations.get(scene);
+        if (animation == null) {
+            animation = buildSceneAnimation(scene);
+            sceneAnimations.put(scene, animation);
+        }
+        return animation;
+    }
+
+    private SceneAnimation buildSceneAnimation(Scene scene) {
+        SceneAnimation.Builder builder = new SceneAnimation.Builder();
+
+        switch (scene.getType()) {
+            case INTRO:
+            case TITLE_SLIDE:
+                builder.track(SCENE_ALPHA, new KeyframeTrack.Builder()
+                        .at(0, 0)
+                        .at(FADE_PORTION, 1, Easing.EASE_OUT)
+                        .build());
+                break;
+            case OUTRO:
+                builder.track(SCENE_ALPHA, new KeyframeTrack.Builder()
+                        .at(0, 0)
+                        .at(FADE_PORTION, 1, Easing.EASE_OUT)
+                        .at(1 - FADE_PORTION, 1, Easing.HOLD)
+                        .at(1, 0, Easing.EASE_IN)
+                        .build());
+                break;
+            case VISUALIZATION:
+                Object stepType = scene.getVisualData("stepType");
+                if (AlgorithmStep.StepType.SWAP.name().equals(stepType)) {
+                    builder.track(HIGHLIGHT1_OFFSET, new KeyframeTrack.Builder()
+                            .at(0, 1)
+                            .at(SWAP_PORTION, 0, Easing.EASE_IN_OUT)
+                            .build());
+                    builder.track(HIGHLIGHT2_OFFSET, new KeyframeTrack.Builder()
+                            .at(0, -1)
+                            .at(SWAP_PORTION, 0, Easing.EASE_IN_OUT)
+                            .build());
+                } else if (AlgorithmStep.StepType.COMPARE.name().equals(stepType)) {
+                    builder.track(HIGHLIGHT_ALPHA, new KeyframeTrack.Builder()
+                            .at(0, 0)
+                            .at(FADE_PORTION, 1, Easing.EASE_OUT)
+                            .build());
+                }
+                break;
+            default:
+                break;
+        }
+
+        return builder.build();
+    }
+
     private int findMax(int[] array) {
         int max = array[0];
         for (int value : array) {
@@ -0,0 +1,110 @@
+package com.ythub.animation;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.paint.Color;
+
+public class ArrayRasterizer {
+
+    public static final double MIN_VECTOR_BAR_WIDTH = 20;
+    public static final double MIN_LABEL_BAR_WIDTH = 60;
+
+    private int[] pixels = new int[0];
+    private int[] columnMin = new int[0];
+    private int[] columnMax = new int[0];
+    private int[] columnColor = new int[0];
+
+    public static boolean shouldRasterize(int length, double plotWidth) {
+        return length > 0 && plotWidth / length < MIN_VECTOR_BAR_WIDTH;
+    }
+
+    public static boolean shouldDrawLabels(int length, double plotWidth) {
+        return length > 0 && plotWidth / length >= MIN_LABEL_BAR_WIDTH;
+    }
+
+    public void draw(GraphicsContext gc, int[] array, int x, int y, int width, int height,
+                     Color barColor, Color highlightColor, Color backgroundColor,
+                     int highlight1, int highlight2) {
+        int[] frame = rasterize(array, width, height, toArgb(barColor), toArgb(highlightColor),
+                toArgb(backgroundColor), highlight1, highlight2);
+        gc.getPixelWriter().setPixels(x, y, width, height, PixelFormat.getIntArgbInstance(), frame, 0, width);
+    }
+
+    public int[] rasterize(int[] array, int width, int height, int barArgb, int highlightArgb,
+                           int backgroundArgb, int highlight1, int highlight2) {
+        ensureCapacity(width, height);
+
+        int n = array.length;
+        int maxValue = 1;
+        for (int x = 0; x < width; x++) {
+            int lo = (int) ((long) x * n / width);
+            int hi = Math.max(lo + 1, (int) ((long) (x + 1) * n / width));
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int i = lo; i < hi; i++) {
+                int value = array[i];
+                if (value < min) min = value;
+                if (value > max) max = value;
+            }
+            columnMin[x] = min;
+            columnMax[x] = max;
+            if (max > maxValue) maxValue = max;
+
+            boolean highlighted = (highlight1 >= lo && highlight1 < hi) || (highlight2 >= lo && highlight2 < hi);
+            columnColor[x] = highlighted ? highlightArgb : barArgb;
+        }
+
+        int envelopeOffset = width;
+        double scale = (double) height / maxValue;
+        for (int x = 0; x < width; x++) {
+            int minTop = height - (int) (Math.max(0, columnMin[x]) * scale);
+            int maxTop = height - (int) (Math.max(0, columnMax[x]) * scale);
+            columnMin[x] = minTop;
+            columnMax[x] = maxTop;
+            columnColor[envelopeOffset + x] = blend(columnColor[x], backgroundArgb);
+        }
+
+        int offset = 0;
+        for (int row = 0; row < height; row++) {
+            for (int x = 0; x < width; x++) {
+                int pixel;
+                if (row >= columnMin[x]) {
+                    pixel = columnColor[x];
+                } else if (row >= columnMax[x]) {
+                    pixel = columnColor[envelopeOffset + x];
+                } else {
+                    pixel = backgroundArgb;
+                }
+                pixels[offset++] = pixel;
+            }
+        }
+
+        return pixels;
+    }
+
+    private void ensureCapacity(int width, int height) {
+        if (pixels.length < width * height) {
+            pixels = new int[width * height];
+        }
+        if (columnMin.length < width) {
+            columnMin = new int[width];
+            columnMax = new int[width];
+            columnColor = new int[width * 2];
+        }
+    }
+
+    private static int blend(int argb, int backgroundArgb) {
+        int r = (((argb >> 16) & 0xFF) + ((backgroundArgb >> 16) & 0xFF)) >> 1;
+        int g = (((argb >> 8) & 0xFF) + ((backgroundArgb >> 8) & 0xFF)) >> 1;
+        int b = ((argb & 0xFF) + (backgroundArgb & 0xFF)) >> 1;
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+
+    public static int toArgb(Color color) {
+        int a = (int) Math.round(color.getOpacity() * 255);
+        int r = (int) Math.round(color.getRed() * 255);
+        int g = (int) Math.round(color.getGreen() * 255);
+        int b = (int) Math.round(color.getBlue() * 255);
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+}
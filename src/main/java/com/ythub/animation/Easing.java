@@ -0,0 +1,26 @@
+package com.ythub.animation;
+
+public enum Easing {
+    LINEAR,
+    EASE_IN,
+    EASE_OUT,
+    EASE_IN_OUT,
+    HOLD;
+
+    public double apply(double t) {
+        switch (this) {
+            case EASE_IN:
+                return t * t * t;
+            case EASE_OUT:
+                double inv = 1 - t;
+                return 1 - inv * inv * inv;
+            case EASE_IN_OUT:
+                return t < 0.5 ? 4 * t * t * t : 1 - Math.pow(-2 * t + 2, 3) / 2;
+            case HOLD:
+                return 0;
+            case LINEAR:
+            default:
+                return t;
+        }
+    }
+}
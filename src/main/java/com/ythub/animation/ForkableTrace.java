@@ -0,0 +1,12 @@
+package com.ythub.animation;
+
+import java.util.Iterator;
+
+public interface ForkableTrace extends Iterator<AlgorithmStep> {
+
+    ForkableTrace fork();
+
+    int[] saveState();
+
+    void restoreState(int[] state);
+}
@@ -0,0 +1,84 @@
+package com.ythub.animation;
+
+import java.util.Arrays;
+
+public class KeyframeTrack {
+
+    private final double[] times;
+    private final double[] values;
+    private final Easing[] easings;
+
+    private KeyframeTrack(double[] times, double[] values, Easing[] easings) {
+        this.times = times;
+        this.values = values;
+        this.easings = easings;
+    }
+
+    public double valueAt(double time) {
+        if (time <= times[0]) {
+            return values[0];
+        }
+        int last = times.length - 1;
+        if (time >= times[last]) {
+            return values[last];
+        }
+
+        int index = Arrays.binarySearch(times, time);
+        if (index >= 0) {
+            return values[index];
+        }
+
+        int next = -index - 1;
+        int prev = next - 1;
+        double t = (time - times[prev]) / (times[next] - times[prev]);
+        double eased = easings[next].apply(t);
+        return values[prev] + (values[next] - values[prev]) * eased;
+    }
+
+    public int getKeyframeCount() {
+        return times.length;
+    }
+
+    public double getStartTime() {
+        return times[0];
+    }
+
+    public double getEndTime() {
+        return times[times.length - 1];
+    }
+
+    public static class Builder {
+        private double[] times = new double[4];
+        private double[] values = new double[4];
+        private Easing[] easings = new Easing[4];
+        private int size;
+
+        public Builder at(double time, double value) {
+            return at(time, value, Easing.LINEAR);
+        }
+
+        public Builder at(double time, double value, Easing easing) {
+            if (size > 0 && time <= times[size - 1]) {
+                throw new IllegalArgumentException("Keyframes must be added in increasing time order: " + time);
+            }
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+                easings = Arrays.copyOf(easings, size * 2);
+            }
+            times[size] = time;
+            values[size] = value;
+            easings[size] = easing;
+            size++;
+            return this;
+        }
+
+        public KeyframeTrack build() {
+            if (size == 0) {
+                throw new IllegalStateException("A keyframe track needs at least one keyframe");
+            }
+            return new KeyframeTrack(Arrays.copyOf(times, size), Arrays.copyOf(values, size),
+                    Arrays.copyOf(easings, size));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ythub.animation;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SceneAnimation {
+
+    public static final SceneAnimation STATIC = new SceneAnimation(Collections.emptyMap());
+
+    private final Map<String, KeyframeTrack> tracks;
+
+    public SceneAnimation(Map<String, KeyframeTrack> tracks) {
+        this.tracks = tracks;
+    }
+
+    public double valueAt(String element, double progress, double defaultValue) {
+        KeyframeTrack track = tracks.get(element);
+        return track != null ? track.valueAt(progress) : defaultValue;
+    }
+
+    public boolean hasTrack(String element) {
+        return tracks.containsKey(element);
+    }
+
+    public boolean isStatic() {
+        return tracks.isEmpty();
+    }
+
+    public static class Builder {
+        private final Map<String, KeyframeTrack> tracks = new HashMap<>();
+
+        public Builder track(String element, KeyframeTrack track) {
+            tracks.put(element, track);
+            return this;
+        }
+
+        public SceneAnimation build() {
+            return tracks.isEmpty() ? STATIC : new SceneAnimation(tracks);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.ythub.animation;
+
+import com.ythub.core.Scene;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class StepSceneStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(StepSceneStream.class);
+
+    public static final String CONFIG_KEY = "stepScenes";
+
+    private static final double DEFAULT_RETAINED_SECONDS = 10;
+    private static final long MIN_CHECKPOINT_STEPS = 16_384;
+    static final int MAX_CHECKPOINTS = 64;
+
+    private final String algorithm;
+    private final int[] input;
+    private final StepScheduler scheduler;
+    private final Function<int[], Iterator<AlgorithmStep>> traceFactory;
+    private final long totalSteps;
+    private final Supplier<StepScheduler.ScheduledScenes> source;
+    private final double duration;
+    private final int sceneCount;
+    private final Deque<Scene> window = new ArrayDeque<>();
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+    private final long checkpointSteps;
+    private StepScheduler.ScheduledScenes cursor;
+    private double cursorTime;
+    private int rewinds;
+    private double retainedSeconds = DEFAULT_RETAINED_SECONDS;
+    private Scene lastScene;
+
+    public StepSceneStream(String algorithm, int[] input, StepScheduler scheduler,
+                           Function<int[], Iterator<AlgorithmStep>> traceFactory, long totalSteps) {
+        this(algorithm, input, scheduler, traceFactory, totalSteps, -1, -1);
+    }
+
+    public StepSceneStream(String algorithm, int[] input, StepScheduler scheduler,
+                           Function<int[], Iterator<AlgorithmStep>> traceFactory, long totalSteps,
+                           double duration, int sceneCount) {
+        this.algorithm = algorithm;
+        this.input = input;
+        this.scheduler = scheduler;
+        this.traceFactory = traceFactory;
+        this.totalSteps = totalSteps;
+        this.source = () -> scheduler.iterate(traceFactory.apply(input), totalSteps);
+        this.checkpointSteps = Math.max(MIN_CHECKPOINT_STEPS, (totalSteps + MAX_CHECKPOINTS - 1) / MAX_CHECKPOINTS);
+
+        if (sceneCount < 0) {
+            StepScheduler.Summary summary = scheduler.summarize(totalSteps);
+            duration = summary.getDuration();
+            sceneCount = summary.getSceneCount();
+            if (logger.isDebugEnabled()) {
+                verify(duration, sceneCount);
+            }
+        }
+        this.duration = duration;
+        this.sceneCount = sceneCount;
+        seek(0);
+    }
+
+    private void verify(double duration, int sceneCount) {
+        double total = 0;
+        int count = 0;
+        Iterator<Scene> scan = source.get();
+        while (scan.hasNext()) {
+            total += scan.next().getDuration();
+            count++;
+        }
+        if (total != duration || count != sceneCount) {
+            logger.warn("{} schedule summary says {} scenes / {}s but the trace produced {} scenes / {}s",
+                algorithm, sceneCount, duration, count, total);
+        }
+    }
+
+    public synchronized Scene sceneAt(double localTime) {
+        double time = Math.max(0, Math.min(localTime, duration - 1e-9));
+        double seekTime = time - 1.0 / scheduler.getFps();
+        if (!window.isEmpty() && time < window.peekFirst().getStartTime()) {
+            rewinds++;
+            seek(seekTime);
+        } else if (stepsBefore(seekTime) > cursor.getConsumed() + checkpointSteps) {
+            seek(seekTime);
+        }
+
+        while (cursor.hasNext() && (window.isEmpty() || window.peekLast().getEndTime() <= time)) {
+            Scene scene = cursor.next();
+            scene.setStartTime(cursorTime);
+            cursorTime += scene.getDuration();
+            checkpoint(cursor, cursorTime);
+            window.addLast(scene);
+            while (window.size() > 1 && window.peekFirst().getEndTime() < time - retainedSeconds) {
+                window.removeFirst();
+            }
+        }
+
+        Scene match = window.peekLast();
+        for (Scene scene : window) {
+            if (time < scene.getEndTime()) {
+                match = scene;
+                break;
+            }
+        }
+        return match;
+    }
+
+    public static Scene lastStep(Scene scene) {
+        if (scene != null && scene.getAnimationConfig(CONFIG_KEY) instanceof StepSceneStream steps
+                && steps.getSceneCount() > 0) {
+            return steps.lastScene();
+        }
+        return scene;
+    }
+
+    public synchronized Scene lastScene() {
+        if (lastScene == null) {
+            lastScene = sceneAt(duration);
+        }
+        return lastScene;
+    }
+
+    public synchronized void retainSeconds(double seconds) {
+        retainedSeconds = Math.max(retainedSeconds, seconds);
+    }
+
+    public synchronized List<Checkpoint> buildCheckpoints() {
+        lastScene();
+        return List.copyOf(checkpoints);
+    }
+
+    public synchronized void restoreCheckpoint(double time, long steps, long framesLeft, int emitted,
+                                               int[] traceState) {
+        long lastSteps = checkpoints.isEmpty() ? 0 : checkpoints.get(checkpoints.size() - 1).steps;
+        if (steps <= lastSteps) {
+            throw new IllegalArgumentException("Checkpoint at step " + steps + " does not follow step " + lastSteps);
+        }
+        Iterator<AlgorithmStep> trace = traceFactory.apply(input);
+        if (!(trace instanceof ForkableTrace forkable)) {
+            throw new IllegalStateException(algorithm + " traces cannot be restored from a checkpoint");
+        }
+        forkable.restoreState(traceState);
+        checkpoints.add(new Checkpoint(time, steps,
+            scheduler.resume(forkable, totalSteps, steps, framesLeft, emitted)));
+    }
+
+    private void checkpoint(StepScheduler.ScheduledScenes scenes, double time) {
+        long lastSteps = checkpoints.isEmpty() ? 0 : checkpoints.get(checkpoints.size() - 1).steps;
+        if (scenes.getConsumed() - lastSteps < checkpointSteps) {
+            return;
+        }
+        StepScheduler.ScheduledScenes fork = scenes.fork();
+        if (fork != null) {
+            checkpoints.add(new Checkpoint(time, scenes.getConsumed(), fork));
+        }
+    }
+
+    private int checkpointIndex(double time) {
+        int low = 0;
+        int high = checkpoints.size() - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (checkpoints.get(mid).time <= time) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private long stepsBefore(double time) {
+        int index = checkpointIndex(time);
+        return index >= 0 ? checkpoints.get(index).steps : 0;
+    }
+
+    private void seek(double time) {
+        window.clear();
+        int index = checkpointIndex(time);
+        if (index >= 0) {
+            Checkpoint checkpoint = checkpoints.get(index);
+            cursor = checkpoint.scenes.fork();
+            cursorTime = checkpoint.time;
+        } else {
+            cursor = source.get();
+            cursorTime = 0;
+        }
+    }
+
+    public double getDuration() {
+        return duration;
+    }
+
+    public int getSceneCount() {
+        return sceneCount;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int[] getInput() {
+        return input;
+    }
+
+    public StepScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public synchronized int getRewinds() {
+        return rewinds;
+    }
+
+    public synchronized int getCheckpointCount() {
+        return checkpoints.size();
+    }
+
+    public static class Checkpoint {
+        private final double time;
+        private final long steps;
+        private final StepScheduler.ScheduledScenes scenes;
+
+        Checkpoint(double time, long steps, StepScheduler.ScheduledScenes scenes) {
+            this.time = time;
+            this.steps = steps;
+            this.scenes = scenes;
+        }
+
+        public double getTime() {
+            return time;
+        }
+
+        public long getSteps() {
+            return steps;
+        }
+
+        public long getFramesLeft() {
+            return scenes.getFramesLeft();
+        }
+
+        public int getEmitted() {
+            return scenes.getEmitted();
+        }
+
+        public int[] getTraceState() {
+            return scenes.saveTraceState();
+        }
+    }
+}
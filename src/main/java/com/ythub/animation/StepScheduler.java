@@ -0,0 +1,290 @@
+package com.ythub.animation;
+
+import com.ythub.core.Scene;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+public class StepScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(StepScheduler.class);
+
+    private static final double DEFAULT_DETAIL_FRACTION = 0.25;
+
+    private final int fps;
+    private final double stepDuration;
+    private final double budgetSeconds;
+    private double detailFraction = DEFAULT_DETAIL_FRACTION;
+
+    public StepScheduler(int fps, double stepDuration, double budgetSeconds) {
+        this.fps = fps;
+        this.stepDuration = stepDuration;
+        this.budgetSeconds = budgetSeconds;
+    }
+
+    public static StepScheduler forScene(int fps, double stepDuration, double sceneDuration) {
+        return new StepScheduler(fps, stepDuration, Math.max(stepDuration, sceneDuration));
+    }
+
+    public void setDetailFraction(double detailFraction) {
+        this.detailFraction = Math.max(0, Math.min(1, detailFraction));
+    }
+
+    public int getFps() {
+        return fps;
+    }
+
+    public double getStepDuration() {
+        return stepDuration;
+    }
+
+    public double getBudgetSeconds() {
+        return budgetSeconds;
+    }
+
+    public double getDetailFraction() {
+        return detailFraction;
+    }
+
+    public int schedule(Iterator<AlgorithmStep> trace, long totalSteps, Consumer<Scene> sink) {
+        ScheduledScenes scenes = new ScheduledScenes(trace, totalSteps);
+        while (scenes.hasNext()) {
+            sink.accept(scenes.next());
+        }
+        return scenes.emitted;
+    }
+
+    public ScheduledScenes iterate(Iterator<AlgorithmStep> trace, long totalSteps) {
+        return new ScheduledScenes(trace, totalSteps);
+    }
+
+    public ScheduledScenes resume(Iterator<AlgorithmStep> trace, long totalSteps,
+                                  long consumed, long framesLeft, int emitted) {
+        return new ScheduledScenes(trace, totalSteps, consumed, framesLeft, emitted);
+    }
+
+    public Summary summarize(long totalSteps) {
+        boolean compressed = totalSteps * stepDuration > budgetSeconds;
+        long detailSteps = compressed
+                ? Math.min(totalSteps, (long) (budgetSeconds * detailFraction / stepDuration)) : totalSteps;
+        long framesLeft = compressed ? Math.max(1, (long) ((budgetSeconds - detailSteps * stepDuration) * fps)) : 0;
+        double frameDuration = 1.0 / fps;
+
+        double duration = 0;
+        int scenes = 0;
+        for (long step = 0; step < detailSteps; step++) {
+            duration += stepDuration;
+            scenes++;
+        }
+
+        long consumed = detailSteps;
+        while (consumed < totalSteps) {
+            long stepsLeft = totalSteps - consumed;
+            if (stepsLeft <= framesLeft) {
+                long framesPerScene = framesLeft / stepsLeft;
+                duration += framesPerScene * frameDuration;
+                scenes++;
+                consumed++;
+                framesLeft = Math.max(1, framesLeft - framesPerScene);
+                continue;
+            }
+
+            long batch = Math.min((stepsLeft + framesLeft - 1) / framesLeft, stepsLeft);
+            boolean terminal = batch == stepsLeft;
+            consumed += batch;
+            if (batch > (terminal ? 1 : 0)) {
+                duration += frameDuration;
+                scenes++;
+                framesLeft = Math.max(1, framesLeft - 1);
+            }
+            if (terminal) {
+                duration += stepDuration;
+                scenes++;
+            }
+        }
+        return new Summary(scenes, duration);
+    }
+
+    public class ScheduledScenes implements Iterator<Scene> {
+        private final Iterator<AlgorithmStep> trace;
+        private final long totalSteps;
+        private final boolean compressed;
+        private final long detailSteps;
+        private final Deque<Scene> pending = new ArrayDeque<>(2);
+        private long framesLeft;
+        private long consumed;
+        private int emitted;
+        private boolean reported;
+
+        ScheduledScenes(Iterator<AlgorithmStep> trace, long totalSteps) {
+            this.trace = trace;
+            this.totalSteps = totalSteps;
+            this.compressed = totalSteps * stepDuration > budgetSeconds;
+            this.detailSteps = compressed
+                    ? Math.min(totalSteps, (long) (budgetSeconds * detailFraction / stepDuration)) : totalSteps;
+            this.framesLeft = compressed
+                    ? Math.max(1, (long) ((budgetSeconds - detailSteps * stepDuration) * fps)) : 0;
+
+            if (compressed) {
+                logger.info("Compressing {} steps into {}s: {} individual steps, then {} frames",
+                        totalSteps, budgetSeconds, detailSteps, framesLeft);
+            }
+        }
+
+        private ScheduledScenes(Iterator<AlgorithmStep> trace, long totalSteps,
+                                long consumed, long framesLeft, int emitted) {
+            this.trace = trace;
+            this.totalSteps = totalSteps;
+            this.compressed = totalSteps * stepDuration > budgetSeconds;
+            this.detailSteps = compressed
+                    ? Math.min(totalSteps, (long) (budgetSeconds * detailFraction / stepDuration)) : totalSteps;
+            this.framesLeft = framesLeft;
+            this.consumed = consumed;
+            this.emitted = emitted;
+            this.reported = true;
+        }
+
+        public ScheduledScenes fork() {
+            if (!pending.isEmpty() || !(trace instanceof ForkableTrace forkable)) {
+                return null;
+            }
+            return new ScheduledScenes(forkable.fork(), totalSteps, consumed, framesLeft, emitted);
+        }
+
+        public int[] saveTraceState() {
+            if (!pending.isEmpty() || !(trace instanceof ForkableTrace forkable)) {
+                return null;
+            }
+            return forkable.saveState();
+        }
+
+        public long getConsumed() {
+            return consumed;
+        }
+
+        public long getFramesLeft() {
+            return framesLeft;
+        }
+
+        public int getEmitted() {
+            return emitted;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pending.isEmpty() && trace.hasNext()) {
+                advance();
+            }
+            if (pending.isEmpty() && compressed && !reported) {
+                reported = true;
+                logger.info("Scheduled {} steps as {} scenes", consumed, emitted);
+            }
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public Scene next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            emitted++;
+            return pending.poll();
+        }
+
+        private void advance() {
+            double frameDuration = 1.0 / fps;
+
+            if (!compressed || consumed < detailSteps) {
+                pending.add(createStepScene(trace.next(), stepDuration, true));
+                consumed++;
+                return;
+            }
+
+            long stepsLeft = totalSteps > consumed ? totalSteps - consumed : Long.MAX_VALUE / 2;
+
+            if (stepsLeft <= framesLeft) {
+                long framesPerScene = framesLeft / stepsLeft;
+                pending.add(createStepScene(trace.next(), framesPerScene * frameDuration, false));
+                consumed++;
+                framesLeft = Math.max(1, framesLeft - framesPerScene);
+                return;
+            }
+
+            long batchSize = (stepsLeft + framesLeft - 1) / framesLeft;
+            int comparisons = 0;
+            int swaps = 0;
+            AlgorithmStep last = null;
+            AlgorithmStep terminal = null;
+
+            for (long b = 0; b < batchSize && trace.hasNext(); b++) {
+                AlgorithmStep step = trace.next();
+                consumed++;
+                if (step.getType() == AlgorithmStep.StepType.COMPLETE) {
+                    terminal = step;
+                    break;
+                } else if (step.getType() == AlgorithmStep.StepType.COMPARE) {
+                    comparisons++;
+                } else if (step.getType() == AlgorithmStep.StepType.SWAP) {
+                    swaps++;
+                }
+                last = step;
+            }
+
+            if (last != null) {
+                pending.add(createBatchScene(last, comparisons, swaps, frameDuration));
+                framesLeft = Math.max(1, framesLeft - 1);
+            }
+            if (terminal != null) {
+                pending.add(createStepScene(terminal, stepDuration, true));
+            }
+        }
+    }
+
+    public static class Summary {
+        private final int sceneCount;
+        private final double duration;
+
+        Summary(int sceneCount, double duration) {
+            this.sceneCount = sceneCount;
+            this.duration = duration;
+        }
+
+        public int getSceneCount() {
+            return sceneCount;
+        }
+
+        public double getDuration() {
+            return duration;
+        }
+    }
+
+    private Scene createStepScene(AlgorithmStep step, double duration, boolean narrated) {
+        Scene.Builder builder = new Scene.Builder(Scene.SceneType.VISUALIZATION, duration)
+                .withVisualData("array", step.getArray().clone())
+                .withVisualData("highlight1", step.getIndex1())
+                .withVisualData("highlight2", step.getIndex2())
+                .withVisualData("stepType", step.getType().name());
+        if (narrated) {
+            builder.withNarration(step.getDescription());
+        } else {
+            builder.withVisualData("description", step.getDescription());
+        }
+        return builder.build();
+    }
+
+    private Scene createBatchScene(AlgorithmStep last, int comparisons, int swaps, double duration) {
+        return new Scene.Builder(Scene.SceneType.VISUALIZATION, duration)
+                .withVisualData("array", last.getArray().clone())
+                .withVisualData("highlight1", last.getIndex1())
+                .withVisualData("highlight2", last.getIndex2())
+                .withVisualData("description",
+                        String.format("Fast-forward: %d comparisons, %d swaps", comparisons, swaps))
+                .withVisualData("stepCount", comparisons + swaps)
+                .build();
+    }
+}
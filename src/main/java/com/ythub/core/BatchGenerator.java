@@ -0,0 +1,157 @@
+package com.ythub.core;
+
+import com.ythub.rendering.AssetCache;
+import com.ythub.voice.TTSEngine;
+import com.ythub.voice.TTSProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BatchGenerator implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchGenerator.class);
+
+    private final VideoConfig config;
+    private final ScriptLoader scriptLoader;
+    private final TTSProvider ttsProvider;
+    private final ExecutorService renderPool;
+    private final ExecutorService decodePool;
+    private final ExecutorService jobPool;
+    private final AssetCache assetCache;
+
+    public BatchGenerator(VideoConfig config) {
+        this.config = config;
+        this.scriptLoader = new ScriptLoader(config);
+        this.ttsProvider = TTSEngine.createTTSProvider(config);
+        this.renderPool = Executors.newFixedThreadPool(config.getRenderThreads(), namedThreads("batch-render"));
+        this.decodePool = TTSEngine.createDecodePool();
+        this.jobPool = Executors.newFixedThreadPool(Math.max(1, config.getBatchConcurrency()),
+            namedThreads("batch-job"));
+        this.assetCache = new AssetCache(config);
+    }
+
+    public List<JobResult> generateAll() throws IOException {
+        Path scriptsDir = Paths.get(config.getScriptsDir());
+        List<Path> scripts = scriptLoader.findScripts(scriptsDir);
+        logger.info("Batch: {} scripts under {}, {} concurrent jobs sharing {} render threads",
+            scripts.size(), scriptsDir, config.getBatchConcurrency(), config.getRenderThreads());
+
+        long start = System.nanoTime();
+        List<CompletableFuture<JobResult>> jobs = new ArrayList<>();
+        for (Path script : scripts) {
+            jobs.add(CompletableFuture.supplyAsync(() -> runJob(scriptsDir, script), jobPool));
+        }
+
+        List<JobResult> results = new ArrayList<>();
+        for (CompletableFuture<JobResult> job : jobs) {
+            results.add(job.join());
+        }
+
+        long failed = results.stream().filter(result -> !result.isSuccessful()).count();
+        logger.info("Batch complete: {} videos, {} failed, in {}s",
+            results.size() - failed, failed, (System.nanoTime() - start) / 1_000_000_000);
+        ttsProvider.logStats();
+        assetCache.logStats();
+        return results;
+    }
+
+    private JobResult runJob(Path scriptsDir, Path script) {
+        long start = System.nanoTime();
+        String outputFileName = outputFileName(scriptsDir, script);
+        try {
+            Timeline timeline = scriptLoader.load(script.toFile());
+            try (VideoGenerator generator = new VideoGenerator(config, ttsProvider, renderPool, assetCache,
+                    decodePool)) {
+                File output = generator.generateVideo(timeline, outputFileName);
+                return new JobResult(script, output, System.nanoTime() - start, null);
+            }
+        } catch (Exception e) {
+            logger.error("Batch job {} failed", script, e);
+            return new JobResult(script, null, System.nanoTime() - start, e);
+        }
+    }
+
+    private String outputFileName(Path scriptsDir, Path script) {
+        String relative = scriptsDir.relativize(script).toString().replace(File.separatorChar, '-');
+        return relative.replaceFirst("\\.json$", "") + "-" + config.getResolution().name + "." + config.getFormat();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void close() {
+        assetCache.close();
+        jobPool.shutdown();
+        renderPool.shutdown();
+        decodePool.shutdown();
+        try {
+            if (!jobPool.awaitTermination(60, TimeUnit.SECONDS)) {
+                jobPool.shutdownNow();
+            }
+            if (!renderPool.awaitTermination(60, TimeUnit.SECONDS)) {
+                renderPool.shutdownNow();
+            }
+            if (!decodePool.awaitTermination(60, TimeUnit.SECONDS)) {
+                decodePool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            jobPool.shutdownNow();
+            renderPool.shutdownNow();
+            decodePool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static class JobResult {
+        private final Path script;
+        private final File output;
+        private final long elapsedNanos;
+        private final Exception error;
+
+        JobResult(Path script, File output, long elapsedNanos, Exception error) {
+            this.script = script;
+            this.output = output;
+            this.elapsedNanos = elapsedNanos;
+            this.error = error;
+        }
+
+        public Path getScript() {
+            return script;
+        }
+
+        public File getOutput() {
+            return output;
+        }
+
+        public double getElapsedSeconds() {
+            return elapsedNanos / 1_000_000_000.0;
+        }
+
+        public Exception getError() {
+            return error;
+        }
+
+        public boolean isSuccessful() {
+            return error == null;
+        }
+    }
+}
@@ -13,13 +13,15 @@ public class Scene {
         CODE_DISPLAY,
         VISUALIZATION,
         ANIMATION,
-        TRANSITION
+        TRANSITION,
+        VIDEO_CLIP
     }
 
     private String id;
     private SceneType type;
     private double duration;
     private String narrationText;
+    private Map<String, String> localizedNarration;
     private Map<String, Object> visualData;
     private Map<String, Object> animationConfig;
     private double startTime;
@@ -31,6 +33,7 @@ public class Scene {
         this.duration = duration;
         this.visualData = new HashMap<>();
         this.animationConfig = new HashMap<>();
+        this.localizedNarration = new HashMap<>();
     }
 
     public Scene(SceneType type, double duration) {
@@ -58,6 +61,11 @@ public class Scene {
             return this;
         }
 
+        public Builder withNarration(String language, String text) {
+            scene.localizedNarration.put(language, text);
+            return this;
+        }
+
         public Builder withVisualData(String key, Object value) {
             scene.visualData.put(key, value);
             return this;
@@ -112,6 +120,18 @@ public class Scene {
         this.narrationText = narrationText;
     }
 
+    public String getNarrationText(String language) {
+        return localizedNarration.getOrDefault(language, narrationText);
+    }
+
+    public void setNarrationText(String language, String text) {
+        localizedNarration.put(language, text);
+    }
+
+    public Map<String, String> getLocalizedNarration() {
+        return localizedNarration;
+    }
+
     public Map<String, Object> getVisualData() {
         return visualData;
     }
@@ -0,0 +1,264 @@
+package com.ythub.core;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.ythub.animation.StepScheduler;
+import com.ythub.animation.StepSceneStream;
+import com.ythub.dsa.algorithms.BubbleSortTrace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class ScriptLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScriptLoader.class);
+
+    private static final double ANIMATION_INTRO_SECONDS = 3;
+    private static final String BUBBLE_SORT = "bubble_sort";
+
+    private final VideoConfig config;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public ScriptLoader(VideoConfig config) {
+        this.config = config;
+    }
+
+    public List<Path> findScripts(Path scriptsDir) throws IOException {
+        if (!Files.isDirectory(scriptsDir)) {
+            throw new IOException("Scripts directory not found: " + scriptsDir);
+        }
+        try (Stream<Path> paths = Files.walk(scriptsDir)) {
+            return paths
+                .filter(Files::isRegularFile)
+                .filter(path -> path.getFileName().toString().endsWith(".json"))
+                .sorted()
+                .toList();
+        }
+    }
+
+    public Timeline load(File script) throws IOException {
+        String name = script.getName().replaceFirst("\\.json$", "");
+        Timeline timeline = new Timeline(name);
+        int lazyBlocks = 0;
+
+        try (JsonParser parser = jsonFactory.createParser(script)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT, script);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "title" -> timeline.setVideoTitle(parser.getText());
+                    case "scenes" -> {
+                        expect(parser, parser.currentToken(), JsonToken.START_ARRAY, script);
+                        int index = 0;
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            lazyBlocks += readScene(parser, timeline, name + "_" + index++, script);
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        if (timeline.isEmpty()) {
+            throw new IOException("Script " + script + " has no scenes");
+        }
+
+        logger.info("Loaded script {}: {} scenes ({} lazily expanded step blocks), {}", script,
+            timeline.getSceneCount(), lazyBlocks, timeline.getFormattedDuration());
+        return timeline;
+    }
+
+    private int readScene(JsonParser parser, Timeline timeline, String id, File script) throws IOException {
+        String type = null;
+        double duration = 5;
+        String narration = null;
+        Map<String, String> localizedNarration = new LinkedHashMap<>();
+        Map<String, Object> visualData = new LinkedHashMap<>();
+        Map<String, Object> animation = new LinkedHashMap<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "type" -> type = parser.getText();
+                case "duration" -> duration = parser.getValueAsDouble(duration);
+                case "narration" -> {
+                    if (token == JsonToken.START_OBJECT) {
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String language = parser.currentName();
+                            parser.nextToken();
+                            localizedNarration.put(language, parser.getText());
+                        }
+                    } else {
+                        narration = parser.getText();
+                    }
+                }
+                case "data", "visuals" -> readObject(parser, visualData);
+                case "animation" -> readObject(parser, animation);
+                default -> parser.skipChildren();
+            }
+        }
+
+        String primary = config.getPrimaryNarrationLanguage();
+        if (narration == null) {
+            narration = localizedNarration.remove(primary);
+        }
+
+        if (BUBBLE_SORT.equals(animation.get("type")) && animation.get("array") instanceof int[] array) {
+            return addBubbleSort(timeline, id, duration, narration, localizedNarration, array,
+                String.valueOf(animation.getOrDefault("speed", "medium")));
+        }
+
+        Scene.Builder builder = new Scene.Builder(parseType(type, script), duration).withId(id);
+        applyNarration(builder, narration, localizedNarration);
+        visualData.forEach(builder::withVisualData);
+        animation.forEach(builder::withAnimationConfig);
+        timeline.addScene(builder.build());
+        return 0;
+    }
+
+    private int addBubbleSort(Timeline timeline, String id, double duration, String narration,
+                              Map<String, String> localizedNarration, int[] array, String speed) {
+        double stepDuration = switch (speed) {
+            case "slow" -> 1.0;
+            case "fast" -> 0.25;
+            default -> 0.5;
+        };
+
+        Scene.Builder intro = new Scene.Builder(Scene.SceneType.VISUALIZATION, ANIMATION_INTRO_SECONDS)
+            .withId(id)
+            .withVisualData("array", array.clone());
+        applyNarration(intro, narration, localizedNarration);
+        timeline.addScene(intro.build());
+
+        StepScheduler scheduler = StepScheduler.forScene(config.getFps(), stepDuration,
+            duration - ANIMATION_INTRO_SECONDS);
+        long totalSteps = BubbleSortTrace.countSteps(array);
+
+        if (totalSteps <= config.getScriptEagerStepLimit()) {
+            scheduler.schedule(new BubbleSortTrace(array), totalSteps, timeline::addScene);
+            return 0;
+        }
+
+        StepSceneStream steps = createStepStream(BUBBLE_SORT, array, scheduler, -1, -1);
+        logger.info("Deferring {} bubble sort steps ({} scenes, {}s) in {} until rendering",
+            totalSteps, steps.getSceneCount(), String.format("%.1f", steps.getDuration()), id);
+        timeline.addScene(new Scene.Builder(Scene.SceneType.VISUALIZATION, steps.getDuration())
+            .withId(id + "_steps")
+            .withVisualData("array", array.clone())
+            .withAnimationConfig(StepSceneStream.CONFIG_KEY, steps)
+            .build());
+        return 1;
+    }
+
+    static StepSceneStream createStepStream(String algorithm, int[] input, StepScheduler scheduler,
+                                            double duration, int sceneCount) {
+        if (!BUBBLE_SORT.equals(algorithm)) {
+            throw new IllegalArgumentException("Unsupported step algorithm: " + algorithm);
+        }
+        return new StepSceneStream(algorithm, input, scheduler, BubbleSortTrace::new,
+            BubbleSortTrace.countSteps(input), duration, sceneCount);
+    }
+
+    private void applyNarration(Scene.Builder builder, String narration, Map<String, String> localizedNarration) {
+        if (narration != null) {
+            builder.withNarration(narration);
+        }
+        localizedNarration.forEach(builder::withNarration);
+    }
+
+    private Scene.SceneType parseType(String type, File script) throws IOException {
+        if (type == null) {
+            throw new IOException("Scene without a type in " + script);
+        }
+        if ("code".equalsIgnoreCase(type)) {
+            return Scene.SceneType.CODE_DISPLAY;
+        }
+        if ("clip".equalsIgnoreCase(type)) {
+            return Scene.SceneType.VIDEO_CLIP;
+        }
+        try {
+            return Scene.SceneType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown scene type '" + type + "' in " + script, e);
+        }
+    }
+
+    private void readObject(JsonParser parser, Map<String, Object> target) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            target.put(field, readValue(parser));
+        }
+    }
+
+    private Object readValue(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                return parser.getIntValue();
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return parser.getBooleanValue();
+            case START_OBJECT:
+                Map<String, Object> values = new LinkedHashMap<>();
+                readObject(parser, values);
+                return values;
+            case START_ARRAY:
+                return readArray(parser);
+            default:
+                return null;
+        }
+    }
+
+    private Object readArray(JsonParser parser) throws IOException {
+        int[] ints = new int[16];
+        int count = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.VALUE_NUMBER_INT) {
+            if (count == ints.length) {
+                ints = Arrays.copyOf(ints, count * 2);
+            }
+            ints[count++] = parser.getIntValue();
+        }
+        if (token == JsonToken.END_ARRAY) {
+            return count > 0 ? Arrays.copyOf(ints, count) : new ArrayList<>();
+        }
+
+        List<Object> values = new ArrayList<>(count + 1);
+        for (int i = 0; i < count; i++) {
+            values.add(ints[i]);
+        }
+        do {
+            values.add(readValue(parser));
+        } while (parser.nextToken() != JsonToken.END_ARRAY);
+        return values;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected, File script)
+            throws IOException {
+        if (actual != expected) {
+            throw new IOException(String.format("Malformed script %s: expected %s but found %s at %s",
+                script, expected, actual, parser.currentLocation()));
+        }
+    }
+}
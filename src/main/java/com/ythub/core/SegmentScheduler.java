@@ -0,0 +1,122 @@
+package com.ythub.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class SegmentScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentScheduler.class);
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<Scene, Segment> segmentByScene = new IdentityHashMap<>();
+    private final Set<Scene> resolved = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final PriorityBlockingQueue<Segment> ready =
+        new PriorityBlockingQueue<>(16, Comparator.comparingInt(Segment::getIndex));
+    private int taken;
+
+    public SegmentScheduler(List<Scene> scenes, List<List<Scene>> pendingGroups) {
+        Map<Scene, List<Scene>> groupByScene = new IdentityHashMap<>();
+        for (List<Scene> group : pendingGroups) {
+            for (Scene scene : group) {
+                groupByScene.put(scene, group);
+            }
+        }
+
+        Segment current = null;
+        List<Scene> currentGroup = null;
+        Scene previous = null;
+        for (Scene scene : scenes) {
+            List<Scene> group = groupByScene.get(scene);
+            boolean clipBoundary = previous != null && (scene.getType() == Scene.SceneType.VIDEO_CLIP
+                || previous.getType() == Scene.SceneType.VIDEO_CLIP);
+            boolean startsSegment = current == null || group != currentGroup || clipBoundary;
+            if (startsSegment) {
+                current = new Segment(segments.size(), previous);
+                segments.add(current);
+                currentGroup = group;
+            }
+            current.scenes.add(scene);
+            if (group != null) {
+                current.pending++;
+                segmentByScene.put(scene, current);
+            }
+            previous = scene;
+        }
+
+        for (Segment segment : segments) {
+            if (segment.pending == 0) {
+                ready.add(segment);
+            }
+        }
+
+        logger.info("Planned {} render segments, {} ready before narration resolves",
+            segments.size(), ready.size());
+    }
+
+    public synchronized void resolve(List<Scene> scenes) {
+        for (Scene scene : scenes) {
+            Segment segment = segmentByScene.get(scene);
+            if (segment != null && resolved.add(scene) && --segment.pending == 0) {
+                ready.add(segment);
+            }
+        }
+    }
+
+    public synchronized void resolveAll() {
+        for (Segment segment : segments) {
+            resolve(segment.scenes);
+        }
+    }
+
+    public Segment next(long timeout, TimeUnit unit) throws InterruptedException {
+        Segment segment = ready.poll(timeout, unit);
+        if (segment != null) {
+            synchronized (this) {
+                taken++;
+            }
+        }
+        return segment;
+    }
+
+    public synchronized boolean hasRemaining() {
+        return taken < segments.size();
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public static class Segment {
+        private final int index;
+        private final Scene previousScene;
+        private final List<Scene> scenes = new ArrayList<>();
+        private int pending;
+
+        Segment(int index, Scene previousScene) {
+            this.index = index;
+            this.previousScene = previousScene;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Scene getPreviousScene() {
+            return previousScene;
+        }
+
+        public List<Scene> getScenes() {
+            return scenes;
+        }
+    }
+}
@@ -55,8 +55,16 @@ public class Timeline {
     }
 
     public Scene getSceneAtTime(double time) {
-        for (Scene scene : scenes) {
-            if (time >= scene.getStartTime() && time < scene.getEndTime()) {
+        int low = 0;
+        int high = scenes.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Scene scene = scenes.get(mid);
+            if (time < scene.getStartTime()) {
+                high = mid - 1;
+            } else if (time >= scene.getEndTime()) {
+                low = mid + 1;
+            } else {
                 return scene;
             }
         }
@@ -83,6 +91,13 @@ public class Timeline {
         recalculateTiming();
     }
 
+    public void quantizeToFrames(int fps) {
+        for (Scene scene : scenes) {
+            scene.setDuration(Math.round(scene.getDuration() * fps) / (double) fps);
+        }
+        recalculateTiming();
+    }
+
     public void clear() {
         scenes.clear();
         totalDuration = 0;
@@ -0,0 +1,519 @@
+package com.ythub.core;
+
+import com.ythub.animation.StepScheduler;
+import com.ythub.animation.StepSceneStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+public class TimelineSnapshot implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineSnapshot.class);
+
+    public static final int VERSION = 2;
+
+    private static final int MAGIC = 0x4C544756;
+    private static final int HEADER_BYTES = 64;
+    private static final int SCENE_RECORD_BYTES = 56;
+    private static final int NO_STRING = -1;
+    private static final long NO_PAYLOAD = -1;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_BOOLEAN = 5;
+    private static final byte TAG_INT_ARRAY = 6;
+    private static final byte TAG_LIST = 7;
+    private static final byte TAG_MAP = 8;
+    private static final byte TAG_STEP_STREAM = 9;
+
+    private static final Scene.SceneType[] SCENE_TYPES = Scene.SceneType.values();
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int sceneCount;
+    private final int titleString;
+    private final double totalDuration;
+    private final int sceneTable;
+    private final int stringPool;
+    private final int stringCount;
+    private final String[] strings;
+
+    private TimelineSnapshot(FileChannel channel, ByteBuffer buffer, Path path) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a timeline snapshot: " + path);
+        }
+        int version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported timeline snapshot version " + version + " in " + path);
+        }
+        if (buffer.getShort(6) != SCENE_RECORD_BYTES) {
+            throw new IOException("Unexpected scene record size " + buffer.getShort(6) + " in " + path);
+        }
+        if (buffer.getLong(48) != buffer.capacity()) {
+            throw new IOException("Truncated timeline snapshot " + path);
+        }
+
+        this.sceneCount = buffer.getInt(8);
+        this.titleString = buffer.getInt(12);
+        this.totalDuration = buffer.getDouble(16);
+        this.sceneTable = (int) buffer.getLong(24);
+        this.stringPool = (int) buffer.getLong(32);
+        this.stringCount = buffer.getInt(stringPool);
+        this.strings = new String[stringCount];
+    }
+
+    public static TimelineSnapshot open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Timeline snapshot larger than 2 GB: " + path);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            return new TimelineSnapshot(channel, buffer, path);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static Timeline load(Path path) throws IOException {
+        try (TimelineSnapshot snapshot = open(path)) {
+            return snapshot.toTimeline();
+        }
+    }
+
+    public int getSceneCount() {
+        return sceneCount;
+    }
+
+    public String getTitle() {
+        return string(titleString);
+    }
+
+    public double getTotalDuration() {
+        return totalDuration;
+    }
+
+    public String getSceneId(int index) {
+        return string(buffer.getInt(record(index)));
+    }
+
+    public Scene.SceneType getSceneType(int index) {
+        return SCENE_TYPES[buffer.get(record(index) + 4)];
+    }
+
+    public double getSceneDuration(int index) {
+        return buffer.getDouble(record(index) + 8);
+    }
+
+    public double getSceneStartTime(int index) {
+        return buffer.getDouble(record(index) + 16);
+    }
+
+    public int findSceneIndex(double time) {
+        int low = 0;
+        int high = sceneCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            double start = getSceneStartTime(mid);
+            if (time < start) {
+                high = mid - 1;
+            } else if (time >= start + getSceneDuration(mid)) {
+                low = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public Scene getScene(int index) {
+        int record = record(index);
+        Scene.Builder builder = new Scene.Builder(SCENE_TYPES[buffer.get(record + 4)], buffer.getDouble(record + 8))
+            .withId(string(buffer.getInt(record)))
+            .withStartTime(buffer.getDouble(record + 16));
+
+        int narration = buffer.getInt(record + 24);
+        if (narration != NO_STRING) {
+            builder.withNarration(string(narration));
+        }
+        decodeMap(buffer.getLong(record + 32), builder::withVisualData);
+        decodeMap(buffer.getLong(record + 40), builder::withAnimationConfig);
+        decodeMap(buffer.getLong(record + 48), (language, text) -> builder.withNarration(language, (String) text));
+        return builder.build();
+    }
+
+    public Timeline toTimeline() {
+        Timeline timeline = new Timeline(getTitle());
+        for (int i = 0; i < sceneCount; i++) {
+            timeline.addScene(getScene(i));
+        }
+        return timeline;
+    }
+
+    private int record(int index) {
+        if (index < 0 || index >= sceneCount) {
+            throw new IndexOutOfBoundsException("Invalid scene index: " + index);
+        }
+        return sceneTable + index * SCENE_RECORD_BYTES;
+    }
+
+    private String string(int index) {
+        if (index == NO_STRING) {
+            return null;
+        }
+        String value = strings[index];
+        if (value == null) {
+            int offsets = stringPool + 4;
+            int bytes = offsets + (stringCount + 1) * 4;
+            int start = buffer.getInt(offsets + index * 4);
+            int end = buffer.getInt(offsets + (index + 1) * 4);
+            byte[] utf8 = new byte[end - start];
+            buffer.get(bytes + start, utf8);
+            value = new String(utf8, StandardCharsets.UTF_8);
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    private void decodeMap(long offset, BiConsumer<String, Object> sink) {
+        if (offset == NO_PAYLOAD) {
+            return;
+        }
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).position((int) offset);
+        int entries = in.getInt();
+        for (int i = 0; i < entries; i++) {
+            String key = string(in.getInt());
+            sink.accept(key, decodeValue(in));
+        }
+    }
+
+    private Object decodeValue(ByteBuffer in) {
+        byte tag = in.get();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return string(in.getInt());
+            case TAG_INT:
+                return in.getInt();
+            case TAG_LONG:
+                return in.getLong();
+            case TAG_DOUBLE:
+                return in.getDouble();
+            case TAG_BOOLEAN:
+                return in.get() != 0;
+            case TAG_INT_ARRAY:
+                return decodeInts(in);
+            case TAG_LIST:
+                int size = in.getInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(decodeValue(in));
+                }
+                return list;
+            case TAG_MAP:
+                int entries = in.getInt();
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < entries; i++) {
+                    String key = string(in.getInt());
+                    map.put(key, decodeValue(in));
+                }
+                return map;
+            case TAG_STEP_STREAM:
+                String algorithm = string(in.getInt());
+                StepScheduler scheduler = new StepScheduler(in.getInt(), in.getDouble(), in.getDouble());
+                scheduler.setDetailFraction(in.getDouble());
+                double duration = in.getDouble();
+                int sceneCount = in.getInt();
+                StepSceneStream steps = ScriptLoader.createStepStream(algorithm, decodeInts(in), scheduler,
+                    duration, sceneCount);
+                int checkpoints = in.getInt();
+                for (int i = 0; i < checkpoints; i++) {
+                    steps.restoreCheckpoint(in.getDouble(), in.getLong(), in.getLong(), in.getInt(), decodeInts(in));
+                }
+                return steps;
+            default:
+                throw new IllegalStateException("Corrupt timeline snapshot: unknown value tag " + tag);
+        }
+    }
+
+    private static int[] decodeInts(ByteBuffer in) {
+        int[] values = new int[in.getInt()];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + values.length * 4);
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static void write(Timeline timeline, Path path) throws IOException {
+        List<Scene> scenes = timeline.getScenes();
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Encoder encoder = new Encoder(out, HEADER_BYTES);
+            ByteBuffer table = ByteBuffer.allocate(scenes.size() * SCENE_RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            int titleString = encoder.intern(timeline.getVideoTitle());
+
+            for (Scene scene : scenes) {
+                table.putInt(encoder.intern(scene.getId()));
+                table.put((byte) scene.getType().ordinal());
+                table.put((byte) 0);
+                table.putShort((short) 0);
+                table.putDouble(scene.getDuration());
+                table.putDouble(scene.getStartTime());
+                table.putInt(encoder.intern(scene.getNarrationText()));
+                table.putInt(0);
+                table.putLong(encoder.map(scene.getVisualData()));
+                table.putLong(encoder.map(scene.getAnimationConfig()));
+                table.putLong(encoder.map(scene.getLocalizedNarration()));
+            }
+
+            long stringPool = encoder.align();
+            encoder.stringPool();
+            long sceneTable = encoder.align();
+            table.flip();
+            encoder.bytes(table);
+            long length = encoder.finish();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC);
+            header.putShort((short) VERSION);
+            header.putShort((short) SCENE_RECORD_BYTES);
+            header.putInt(scenes.size());
+            header.putInt(titleString);
+            header.putDouble(timeline.getTotalDuration());
+            header.putLong(sceneTable);
+            header.putLong(stringPool);
+            header.putLong(HEADER_BYTES);
+            header.putLong(length);
+            header.putLong(0);
+            header.flip();
+            long headerPosition = 0;
+            while (header.hasRemaining()) {
+                headerPosition += out.write(header, headerPosition);
+            }
+
+            logger.info("Wrote timeline snapshot {}: {} scenes, {} strings, {} bytes",
+                path, scenes.size(), encoder.strings.size(), length);
+        }
+    }
+
+    private static class Encoder {
+        private final FileChannel out;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final Map<String, Integer> index = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private long position;
+
+        Encoder(FileChannel out, long start) throws IOException {
+            this.out = out;
+            this.position = start;
+            out.position(start);
+        }
+
+        int intern(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            Integer existing = index.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            int id = strings.size();
+            strings.add(value);
+            index.put(value, id);
+            return id;
+        }
+
+        long map(Map<String, ?> values) throws IOException {
+            if (values == null || values.isEmpty()) {
+                return NO_PAYLOAD;
+            }
+            long offset = position;
+            putInt(values.size());
+            for (Map.Entry<String, ?> entry : values.entrySet()) {
+                putInt(intern(entry.getKey()));
+                value(entry.getKey(), entry.getValue());
+            }
+            return offset;
+        }
+
+        private void value(String key, Object value) throws IOException {
+            if (value == null) {
+                putByte(TAG_NULL);
+            } else if (value instanceof String text) {
+                putByte(TAG_STRING);
+                putInt(intern(text));
+            } else if (value instanceof Integer number) {
+                putByte(TAG_INT);
+                putInt(number);
+            } else if (value instanceof Long number) {
+                putByte(TAG_LONG);
+                putLong(number);
+            } else if (value instanceof Number number) {
+                putByte(TAG_DOUBLE);
+                putDouble(number.doubleValue());
+            } else if (value instanceof Boolean flag) {
+                putByte(TAG_BOOLEAN);
+                putByte((byte) (flag ? 1 : 0));
+            } else if (value instanceof int[] ints) {
+                putByte(TAG_INT_ARRAY);
+                ints(ints);
+            } else if (value instanceof List<?> list) {
+                putByte(TAG_LIST);
+                putInt(list.size());
+                for (Object element : list) {
+                    value(key, element);
+                }
+            } else if (value instanceof Map<?, ?> map) {
+                putByte(TAG_MAP);
+                putInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    putInt(intern(String.valueOf(entry.getKey())));
+                    value(key, entry.getValue());
+                }
+            } else if (value instanceof StepSceneStream steps) {
+                StepScheduler scheduler = steps.getScheduler();
+                putByte(TAG_STEP_STREAM);
+                putInt(intern(steps.getAlgorithm()));
+                putInt(scheduler.getFps());
+                putDouble(scheduler.getStepDuration());
+                putDouble(scheduler.getBudgetSeconds());
+                putDouble(scheduler.getDetailFraction());
+                putDouble(steps.getDuration());
+                putInt(steps.getSceneCount());
+                ints(steps.getInput());
+                List<StepSceneStream.Checkpoint> checkpoints = steps.buildCheckpoints();
+                putInt(checkpoints.size());
+                for (StepSceneStream.Checkpoint checkpoint : checkpoints) {
+                    putDouble(checkpoint.getTime());
+                    putLong(checkpoint.getSteps());
+                    putLong(checkpoint.getFramesLeft());
+                    putInt(checkpoint.getEmitted());
+                    ints(checkpoint.getTraceState());
+                }
+            } else {
+                throw new IllegalArgumentException("Cannot snapshot value of type "
+                    + value.getClass().getName() + " for key '" + key + "'");
+            }
+        }
+
+        private void ints(int[] values) throws IOException {
+            putInt(values.length);
+            int written = 0;
+            while (written < values.length) {
+                ensure(4);
+                int count = Math.min(values.length - written, buffer.remaining() / 4);
+                IntBuffer view = buffer.asIntBuffer();
+                view.put(values, written, count);
+                buffer.position(buffer.position() + count * 4);
+                written += count;
+                position += count * 4L;
+            }
+        }
+
+        void stringPool() throws IOException {
+            putInt(strings.size());
+            List<byte[]> encoded = new ArrayList<>(strings.size());
+            int offset = 0;
+            putInt(offset);
+            for (String value : strings) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                encoded.add(utf8);
+                offset += utf8.length;
+                putInt(offset);
+            }
+            for (byte[] utf8 : encoded) {
+                bytes(ByteBuffer.wrap(utf8));
+            }
+        }
+
+        long align() throws IOException {
+            while (position % 8 != 0) {
+                putByte((byte) 0);
+            }
+            return position;
+        }
+
+        void bytes(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                ensure(1);
+                int count = Math.min(source.remaining(), buffer.remaining());
+                ByteBuffer slice = source.slice().limit(count);
+                buffer.put(slice);
+                source.position(source.position() + count);
+                position += count;
+            }
+        }
+
+        private void putByte(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+            position++;
+        }
+
+        private void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+            position += 4;
+        }
+
+        private void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+            position += 8;
+        }
+
+        private void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+            position += 8;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        long finish() throws IOException {
+            flush();
+            return position;
+        }
+    }
+}
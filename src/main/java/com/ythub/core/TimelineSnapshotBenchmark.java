@@ -0,0 +1,113 @@
+package com.ythub.core;
+
+import com.ythub.animation.StepScheduler;
+import com.ythub.animation.StepSceneStream;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class TimelineSnapshotBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int sceneCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int arraySize = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        Path directory = Paths.get("temp/benchmark");
+        Files.createDirectories(directory);
+        Path snapshotPath = directory.resolve("timeline.snapshot");
+
+        System.out.println("=== Timeline Snapshot Benchmark ===");
+        System.out.printf("Scenes: %d, array size: %d, runs: %d%n", sceneCount, arraySize, runs);
+
+        long start = System.nanoTime();
+        Timeline timeline = createTimeline(sceneCount, arraySize);
+        System.out.printf("Built timeline in memory: %.1f ms%n", millisSince(start));
+
+        for (int run = 1; run <= runs; run++) {
+            start = System.nanoTime();
+            TimelineSnapshot.write(timeline, snapshotPath);
+            double writeMs = millisSince(start);
+
+            start = System.nanoTime();
+            double openMs;
+            double lookupMs;
+            int lookups = Math.min(sceneCount, 100_000);
+            try (TimelineSnapshot snapshot = TimelineSnapshot.open(snapshotPath)) {
+                openMs = millisSince(start);
+
+                Random random = new Random(run);
+                long lookupStart = System.nanoTime();
+                int hits = 0;
+                for (int i = 0; i < lookups; i++) {
+                    int index = snapshot.findSceneIndex(random.nextDouble() * snapshot.getTotalDuration());
+                    if (index >= 0 && snapshot.getSceneType(index) != null) {
+                        hits++;
+                    }
+                }
+                lookupMs = millisSince(lookupStart);
+                if (hits != lookups) {
+                    throw new IllegalStateException("Mapped lookup missed " + (lookups - hits) + " scenes");
+                }
+
+                long materializeStart = System.nanoTime();
+                Timeline loaded = snapshot.toTimeline();
+                System.out.printf("Run %d: write %.1f ms (%d KB), open %.2f ms, %d mapped time lookups %.1f ms, "
+                        + "full materialize %.1f ms (%d scenes)%n", run, writeMs, Files.size(snapshotPath) / 1024,
+                    openMs, lookups, lookupMs, millisSince(materializeStart), loaded.getScenes().size());
+            }
+        }
+
+        Files.deleteIfExists(snapshotPath);
+    }
+
+    private static Timeline createTimeline(int sceneCount, int arraySize) {
+        Random random = new Random(42);
+        Timeline timeline = new Timeline("Snapshot Benchmark");
+        int[] array = new int[arraySize];
+        for (int i = 0; i < arraySize; i++) {
+            array[i] = random.nextInt(1000);
+        }
+
+        for (int i = 0; i < sceneCount; i++) {
+            if (i % 20 == 0) {
+                timeline.addScene(new Scene.Builder(Scene.SceneType.NARRATION, 10)
+                    .withId("narration_" + i)
+                    .withNarration("Part " + (i / 20) + " walks through the next passes of the algorithm.")
+                    .withNarration("es", "La parte " + (i / 20) + " recorre las siguientes pasadas.")
+                    .withVisualData("title", "Part " + (i / 20))
+                    .withVisualData("bullets", List.of("Compare neighbours", "Swap when out of order"))
+                    .build());
+            } else {
+                int j = random.nextInt(arraySize - 1);
+                int temp = array[j];
+                array[j] = array[j + 1];
+                array[j + 1] = temp;
+                timeline.addScene(new Scene.Builder(Scene.SceneType.VISUALIZATION, 1 / 30.0)
+                    .withId("step_" + i)
+                    .withVisualData("array", array.clone())
+                    .withVisualData("highlight1", j)
+                    .withVisualData("highlight2", j + 1)
+                    .withVisualData("description", "Swapped " + array[j + 1] + " and " + array[j])
+                    .build());
+            }
+        }
+
+        StepScheduler scheduler = new StepScheduler(30, 0.5, 60);
+        StepSceneStream steps = ScriptLoader.createStepStream("bubble_sort", Arrays.copyOf(array, 300),
+            scheduler, -1, -1);
+        timeline.addScene(new Scene.Builder(Scene.SceneType.VISUALIZATION, steps.getDuration())
+            .withId("lazy_steps")
+            .withAnimationConfig(StepSceneStream.CONFIG_KEY, steps)
+            .build());
+        return timeline;
+    }
+
+    private static double millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+}
@@ -1,5 +1,8 @@
 package com.ythub.core;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class VideoConfig {
 
     public enum Resolution {
@@ -26,10 +29,35 @@ public class VideoConfig {
     private String codec = "hevc";
     private int bitrate = 45000;
     private String format = "mp4";
+    private int renderThreads = 0;
+    private int batchConcurrency = 2;
+    private int renderWorkers = 0;
+    private int renderWorkerHeapMb = 4096;
+    private int renderWorkerTimeoutSeconds = 60;
+    private int renderWorkerMaxAttempts = 3;
+    private boolean renderAdaptive = true;
+    private int renderMemoryBudgetMb = 1024;
+    private double renderCpuBudget = 0.9;
+    private int renderLayerCacheMb = 256;
+    private boolean encoderSceneAware = true;
+    private double encoderStaticGopSeconds = 10;
+    private double encoderDynamicGopSeconds = 2;
+    private String encoderName = null;
+    private String encoderPreset = "medium";
+    private int encoderThreads = 0;
+    private String encoderProfile = null;
 
     private int audioSampleRate = 48000;
     private int audioBitrate = 320;
     private int audioChannels = 2;
+    private boolean loudnessNormalizationEnabled = true;
+    private double audioTargetLufs = -14.0;
+    private boolean musicEnabled = true;
+    private String musicFile = "music/background.mp3";
+    private double musicVolumeDb = -18.0;
+    private double musicDuckDb = -12.0;
+    private int musicDuckAttackMs = 40;
+    private int musicDuckReleaseMs = 400;
 
     private String primaryColor = "#FFFFFF";
     private String secondaryColor = "#FFFFFF";
@@ -41,13 +69,32 @@ public class VideoConfig {
     private String ttsApiKey = null;
     private String ttsVoice = "21m00Tcm4TlvDq8ikWAM";
     private String ttsGender = "male";
+    private String ttsBaseUrl = "https://translate.google.com/translate_tts";
     private float ttsSpeed = 1.0f;
     private float ttsPitch = 0.0f;
+    private boolean ttsCacheEnabled = true;
+    private String ttsCacheDir = "cache/tts";
+    private long ttsCacheMaxBytes = 512L * 1024 * 1024;
+    private int ttsCacheMaxAgeDays = 30;
+    private int ttsInitialConcurrency = 4;
+    private int ttsMaxConcurrency = 32;
+    private int ttsMaxRetries = 4;
+    private int ttsTimeoutSeconds = 30;
+    private int ttsChunkChars = 200;
+    private int ttsSentenceGapMs = 250;
+    private List<String> narrationLanguages = new ArrayList<>(List.of("en"));
+    private String narrationTrackMode = "streams";
 
     private String outputDir = "output";
     private String tempDir = "temp";
     private String assetsDir = "src/main/resources/assets";
+    private long assetCacheMaxBytes = 256L * 1024 * 1024;
+    private int assetLoaderThreads = 2;
+    private String logoFile = null;
+    private int clipDecodeAheadFrames = 48;
+    private boolean clipStreamCopy = true;
     private String scriptsDir = "src/main/resources/scripts";
+    private long scriptEagerStepLimit = 500;
 
     public VideoConfig() {
     }
@@ -124,6 +171,142 @@ public class VideoConfig {
         this.format = format;
     }
 
+    public int getRenderThreads() {
+        return renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors() * 4;
+    }
+
+    public void setRenderThreads(int renderThreads) {
+        this.renderThreads = renderThreads;
+    }
+
+    public int getBatchConcurrency() {
+        return batchConcurrency;
+    }
+
+    public void setBatchConcurrency(int batchConcurrency) {
+        this.batchConcurrency = batchConcurrency;
+    }
+
+    public int getRenderWorkers() {
+        return renderWorkers;
+    }
+
+    public void setRenderWorkers(int renderWorkers) {
+        this.renderWorkers = renderWorkers;
+    }
+
+    public int getRenderWorkerHeapMb() {
+        return renderWorkerHeapMb;
+    }
+
+    public void setRenderWorkerHeapMb(int renderWorkerHeapMb) {
+        this.renderWorkerHeapMb = renderWorkerHeapMb;
+    }
+
+    public int getRenderWorkerTimeoutSeconds() {
+        return renderWorkerTimeoutSeconds;
+    }
+
+    public void setRenderWorkerTimeoutSeconds(int renderWorkerTimeoutSeconds) {
+        this.renderWorkerTimeoutSeconds = renderWorkerTimeoutSeconds;
+    }
+
+    public int getRenderWorkerMaxAttempts() {
+        return renderWorkerMaxAttempts;
+    }
+
+    public void setRenderWorkerMaxAttempts(int renderWorkerMaxAttempts) {
+        this.renderWorkerMaxAttempts = renderWorkerMaxAttempts;
+    }
+
+    public boolean isRenderAdaptive() {
+        return renderAdaptive;
+    }
+
+    public void setRenderAdaptive(boolean renderAdaptive) {
+        this.renderAdaptive = renderAdaptive;
+    }
+
+    public int getRenderMemoryBudgetMb() {
+        return renderMemoryBudgetMb;
+    }
+
+    public void setRenderMemoryBudgetMb(int renderMemoryBudgetMb) {
+        this.renderMemoryBudgetMb = renderMemoryBudgetMb;
+    }
+
+    public double getRenderCpuBudget() {
+        return renderCpuBudget;
+    }
+
+    public void setRenderCpuBudget(double renderCpuBudget) {
+        this.renderCpuBudget = renderCpuBudget;
+    }
+
+    public int getRenderLayerCacheMb() {
+        return renderLayerCacheMb;
+    }
+
+    public void setRenderLayerCacheMb(int renderLayerCacheMb) {
+        this.renderLayerCacheMb = renderLayerCacheMb;
+    }
+
+    public boolean isEncoderSceneAware() {
+        return encoderSceneAware;
+    }
+
+    public void setEncoderSceneAware(boolean encoderSceneAware) {
+        this.encoderSceneAware = encoderSceneAware;
+    }
+
+    public double getEncoderStaticGopSeconds() {
+        return encoderStaticGopSeconds;
+    }
+
+    public void setEncoderStaticGopSeconds(double encoderStaticGopSeconds) {
+        this.encoderStaticGopSeconds = encoderStaticGopSeconds;
+    }
+
+    public double getEncoderDynamicGopSeconds() {
+        return encoderDynamicGopSeconds;
+    }
+
+    public void setEncoderDynamicGopSeconds(double encoderDynamicGopSeconds) {
+        this.encoderDynamicGopSeconds = encoderDynamicGopSeconds;
+    }
+
+    public String getEncoderName() {
+        return encoderName;
+    }
+
+    public void setEncoderName(String encoderName) {
+        this.encoderName = encoderName;
+    }
+
+    public String getEncoderPreset() {
+        return encoderPreset;
+    }
+
+    public void setEncoderPreset(String encoderPreset) {
+        this.encoderPreset = encoderPreset;
+    }
+
+    public int getEncoderThreads() {
+        return encoderThreads;
+    }
+
+    public void setEncoderThreads(int encoderThreads) {
+        this.encoderThreads = encoderThreads;
+    }
+
+    public String getEncoderProfile() {
+        return encoderProfile;
+    }
+
+    public void setEncoderProfile(String encoderProfile) {
+        this.encoderProfile = encoderProfile;
+    }
+
     public int getAudioSampleRate() {
         return audioSampleRate;
     }
@@ -148,6 +331,70 @@ public class VideoConfig {
         this.audioChannels = audioChannels;
     }
 
+    public boolean isLoudnessNormalizationEnabled() {
+        return loudnessNormalizationEnabled;
+    }
+
+    public void setLoudnessNormalizationEnabled(boolean loudnessNormalizationEnabled) {
+        this.loudnessNormalizationEnabled = loudnessNormalizationEnabled;
+    }
+
+    public double getAudioTargetLufs() {
+        return audioTargetLufs;
+    }
+
+    public void setAudioTargetLufs(double audioTargetLufs) {
+        this.audioTargetLufs = audioTargetLufs;
+    }
+
+    public boolean isMusicEnabled() {
+        return musicEnabled;
+    }
+
+    public void setMusicEnabled(boolean musicEnabled) {
+        this.musicEnabled = musicEnabled;
+    }
+
+    public String getMusicFile() {
+        return musicFile;
+    }
+
+    public void setMusicFile(String musicFile) {
+        this.musicFile = musicFile;
+    }
+
+    public double getMusicVolumeDb() {
+        return musicVolumeDb;
+    }
+
+    public void setMusicVolumeDb(double musicVolumeDb) {
+        this.musicVolumeDb = musicVolumeDb;
+    }
+
+    public double getMusicDuckDb() {
+        return musicDuckDb;
+    }
+
+    public void setMusicDuckDb(double musicDuckDb) {
+        this.musicDuckDb = musicDuckDb;
+    }
+
+    public int getMusicDuckAttackMs() {
+        return musicDuckAttackMs;
+    }
+
+    public void setMusicDuckAttackMs(int musicDuckAttackMs) {
+        this.musicDuckAttackMs = musicDuckAttackMs;
+    }
+
+    public int getMusicDuckReleaseMs() {
+        return musicDuckReleaseMs;
+    }
+
+    public void setMusicDuckReleaseMs(int musicDuckReleaseMs) {
+        this.musicDuckReleaseMs = musicDuckReleaseMs;
+    }
+
     public String getPrimaryColor() {
         return primaryColor;
     }
@@ -236,6 +483,114 @@ public class VideoConfig {
         this.ttsGender = ttsGender;
     }
 
+    public String getTtsBaseUrl() {
+        return ttsBaseUrl;
+    }
+
+    public void setTtsBaseUrl(String ttsBaseUrl) {
+        this.ttsBaseUrl = ttsBaseUrl;
+    }
+
+    public boolean isTtsCacheEnabled() {
+        return ttsCacheEnabled;
+    }
+
+    public void setTtsCacheEnabled(boolean ttsCacheEnabled) {
+        this.ttsCacheEnabled = ttsCacheEnabled;
+    }
+
+    public String getTtsCacheDir() {
+        return ttsCacheDir;
+    }
+
+    public void setTtsCacheDir(String ttsCacheDir) {
+        this.ttsCacheDir = ttsCacheDir;
+    }
+
+    public long getTtsCacheMaxBytes() {
+        return ttsCacheMaxBytes;
+    }
+
+    public void setTtsCacheMaxBytes(long ttsCacheMaxBytes) {
+        this.ttsCacheMaxBytes = ttsCacheMaxBytes;
+    }
+
+    public int getTtsCacheMaxAgeDays() {
+        return ttsCacheMaxAgeDays;
+    }
+
+    public void setTtsCacheMaxAgeDays(int ttsCacheMaxAgeDays) {
+        this.ttsCacheMaxAgeDays = ttsCacheMaxAgeDays;
+    }
+
+    public int getTtsInitialConcurrency() {
+        return ttsInitialConcurrency;
+    }
+
+    public void setTtsInitialConcurrency(int ttsInitialConcurrency) {
+        this.ttsInitialConcurrency = ttsInitialConcurrency;
+    }
+
+    public int getTtsMaxConcurrency() {
+        return ttsMaxConcurrency;
+    }
+
+    public void setTtsMaxConcurrency(int ttsMaxConcurrency) {
+        this.ttsMaxConcurrency = ttsMaxConcurrency;
+    }
+
+    public int getTtsMaxRetries() {
+        return ttsMaxRetries;
+    }
+
+    public void setTtsMaxRetries(int ttsMaxRetries) {
+        this.ttsMaxRetries = ttsMaxRetries;
+    }
+
+    public int getTtsTimeoutSeconds() {
+        return ttsTimeoutSeconds;
+    }
+
+    public void setTtsTimeoutSeconds(int ttsTimeoutSeconds) {
+        this.ttsTimeoutSeconds = ttsTimeoutSeconds;
+    }
+
+    public int getTtsChunkChars() {
+        return ttsChunkChars;
+    }
+
+    public void setTtsChunkChars(int ttsChunkChars) {
+        this.ttsChunkChars = ttsChunkChars;
+    }
+
+    public int getTtsSentenceGapMs() {
+        return ttsSentenceGapMs;
+    }
+
+    public void setTtsSentenceGapMs(int ttsSentenceGapMs) {
+        this.ttsSentenceGapMs = ttsSentenceGapMs;
+    }
+
+    public List<String> getNarrationLanguages() {
+        return narrationLanguages;
+    }
+
+    public void setNarrationLanguages(List<String> narrationLanguages) {
+        this.narrationLanguages = narrationLanguages;
+    }
+
+    public String getPrimaryNarrationLanguage() {
+        return narrationLanguages.isEmpty() ? "en" : narrationLanguages.get(0);
+    }
+
+    public String getNarrationTrackMode() {
+        return narrationTrackMode;
+    }
+
+    public void setNarrationTrackMode(String narrationTrackMode) {
+        this.narrationTrackMode = narrationTrackMode;
+    }
+
     public String getOutputDir() {
         return outputDir;
     }
@@ -260,6 +615,46 @@ public class VideoConfig {
         this.assetsDir = assetsDir;
     }
 
+    public long getAssetCacheMaxBytes() {
+        return assetCacheMaxBytes;
+    }
+
+    public void setAssetCacheMaxBytes(long assetCacheMaxBytes) {
+        this.assetCacheMaxBytes = assetCacheMaxBytes;
+    }
+
+    public int getAssetLoaderThreads() {
+        return assetLoaderThreads;
+    }
+
+    public void setAssetLoaderThreads(int assetLoaderThreads) {
+        this.assetLoaderThreads = assetLoaderThreads;
+    }
+
+    public int getClipDecodeAheadFrames() {
+        return clipDecodeAheadFrames;
+    }
+
+    public void setClipDecodeAheadFrames(int clipDecodeAheadFrames) {
+        this.clipDecodeAheadFrames = clipDecodeAheadFrames;
+    }
+
+    public boolean isClipStreamCopy() {
+        return clipStreamCopy;
+    }
+
+    public void setClipStreamCopy(boolean clipStreamCopy) {
+        this.clipStreamCopy = clipStreamCopy;
+    }
+
+    public String getLogoFile() {
+        return logoFile;
+    }
+
+    public void setLogoFile(String logoFile) {
+        this.logoFile = logoFile;
+    }
+
     public String getScriptsDir() {
         return scriptsDir;
     }
@@ -268,6 +663,14 @@ public class VideoConfig {
         this.scriptsDir = scriptsDir;
     }
 
+    public long getScriptEagerStepLimit() {
+        return scriptEagerStepLimit;
+    }
+
+    public void setScriptEagerStepLimit(long scriptEagerStepLimit) {
+        this.scriptEagerStepLimit = scriptEagerStepLimit;
+    }
+
     @Override
     public String toString() {
         return String.format("VideoConfig{resolution=%s, fps=%d, codec='%s', bitrate=%d kbps}",
@@ -1,14 +1,31 @@
 package com.ythub.core;
 
+import com.ythub.rendering.AssetCache;
 import com.ythub.rendering.DirectVideoRenderer;
+import com.ythub.rendering.RenderCoordinator;
 import com.ythub.rendering.VideoEncoder;
+import com.ythub.voice.NarrationCoalescer;
 import com.ythub.voice.TTSEngine;
+import com.ythub.voice.TTSProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-
-public class VideoGenerator {
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class VideoGenerator implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(VideoGenerator.class);
 
@@ -18,38 +35,61 @@ public class VideoGenerator {
     private final TTSEngine ttsEngine;
 
     public VideoGenerator(VideoConfig config) {
+        this(config, TTSEngine.createTTSProvider(config), null);
+    }
+
+    public VideoGenerator(VideoConfig config, TTSProvider ttsProvider, ExecutorService renderPool) {
+        this(config, ttsProvider, renderPool, new AssetCache(config));
+    }
+
+    public VideoGenerator(VideoConfig config, TTSProvider ttsProvider, ExecutorService renderPool,
+                          AssetCache assetCache) {
+        this(config, ttsProvider, renderPool, assetCache, null);
+    }
+
+    public VideoGenerator(VideoConfig config, TTSProvider ttsProvider, ExecutorService renderPool,
+                          AssetCache assetCache, ExecutorService decodePool) {
         this.config = config;
-        this.directRenderer = new DirectVideoRenderer(config);
+        this.directRenderer = new DirectVideoRenderer(config, renderPool, assetCache);
         this.videoEncoder = new VideoEncoder(config);
-        this.ttsEngine = new TTSEngine(config);
+        this.ttsEngine = new TTSEngine(config, ttsProvider, decodePool);
     }
 
     public VideoGenerator() {
         this(new VideoConfig());
     }
 
+    @Override
+    public void close() {
+        ttsEngine.close();
+    }
+
     public File generateVideo(Timeline timeline, String outputFileName) {
+        Path workspace = null;
         try {
             logger.info("Starting video generation: {}", timeline.getVideoTitle());
             logger.info(config.toString());
 
-            ensureDirectories();
+            workspace = createWorkspace(outputFileName);
 
             String videoPath = config.getOutputDir() + "/" + outputFileName;
-            String tempVideoPath = config.getTempDir() + "/temp_video.mp4";
-            String tempAudioPath = config.getTempDir() + "/temp_audio.mp3";
-
-            logger.info("Generating audio from narration...");
-            generateAudio(timeline, tempAudioPath);
-
-            logger.info("Rendering video directly (no intermediate frames)...");
-            directRenderer.renderTimelineDirectly(timeline, tempVideoPath);
+            String tempVideoPath = workspace.resolve("temp_video.mp4").toString();
+            Map<String, String> tempAudioPaths = new LinkedHashMap<>();
+            List<String> languages = config.getNarrationLanguages();
+            for (String language : languages) {
+                tempAudioPaths.put(language, workspace.resolve(languages.size() == 1
+                    ? "temp_audio.wav" : "temp_audio_" + language + ".wav").toString());
+            }
+
+            if (config.getRenderWorkers() > 0) {
+                renderWithWorkers(timeline, workspace, tempVideoPath, tempAudioPaths);
+            } else {
+                logger.info("Generating audio and rendering resolved scenes concurrently...");
+                renderWhileGeneratingAudio(timeline, workspace, tempVideoPath, tempAudioPaths);
+            }
 
             logger.info("Merging audio and video...");
-            videoEncoder.mergeAudioVideo(tempVideoPath, tempAudioPath, videoPath);
-
-            logger.info("Cleaning up temporary files...");
-            cleanup(tempVideoPath, tempAudioPath);
+            mergeNarrationTracks(tempVideoPath, tempAudioPaths, videoPath);
 
             logger.info("Video generation complete: {}", videoPath);
 
@@ -58,22 +98,124 @@ public class VideoGenerator {
         } catch (Exception e) {
             logger.error("Error generating video", e);
             throw new RuntimeException("Video generation failed", e);
+        } finally {
+            if (workspace != null) {
+                logger.info("Cleaning up workspace {}", workspace);
+                deleteWorkspace(workspace);
+            }
         }
     }
 
-    private void ensureDirectories() {
+    private Path createWorkspace(String outputFileName) throws IOException {
         new File(config.getOutputDir()).mkdirs();
-        new File(config.getTempDir()).mkdirs();
+        Path tempRoot = Paths.get(config.getTempDir());
+        Files.createDirectories(tempRoot);
+        int extension = outputFileName.lastIndexOf('.');
+        String jobName = (extension > 0 ? outputFileName.substring(0, extension) : outputFileName)
+            .replaceAll("[^A-Za-z0-9._-]", "_");
+        return Files.createTempDirectory(tempRoot, jobName + "-");
+    }
+
+    private void deleteWorkspace(Path workspace) {
+        try (Stream<Path> paths = Files.walk(workspace)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to clean up workspace {}: {}", workspace, e.getMessage());
+        }
+    }
+
+    private void mergeNarrationTracks(String videoPath, Map<String, String> audioPaths, String outputPath) {
+        if (audioPaths.size() == 1) {
+            videoEncoder.mergeAudioVideo(videoPath, audioPaths.values().iterator().next(), outputPath);
+            return;
+        }
+
+        if ("outputs".equalsIgnoreCase(config.getNarrationTrackMode())) {
+            int extension = outputPath.lastIndexOf('.');
+            String base = extension > 0 ? outputPath.substring(0, extension) : outputPath;
+            String suffix = extension > 0 ? outputPath.substring(extension) : "";
+            for (Map.Entry<String, String> track : audioPaths.entrySet()) {
+                String languagePath = track.getKey().equals(config.getPrimaryNarrationLanguage())
+                    ? outputPath : base + "_" + track.getKey() + suffix;
+                videoEncoder.mergeAudioVideo(videoPath, track.getValue(), languagePath);
+            }
+            return;
+        }
+
+        videoEncoder.mergeAudioTracks(videoPath, audioPaths, outputPath);
     }
 
-    private void generateAudio(Timeline timeline, String outputPath) {
-        ttsEngine.generateTimelinedAudio(timeline, outputPath);
+    private void renderWithWorkers(Timeline timeline, Path workspace, String videoPath,
+                                   Map<String, String> audioPaths) throws IOException, InterruptedException {
+        logger.info("Generating audio before handing the timeline to {} render workers...", config.getRenderWorkers());
+        ttsEngine.generateTimelinedAudio(timeline, audioPaths, scenes -> { });
+        timeline.quantizeToFrames(config.getFps());
+
+        logger.info("Rendering on the local render farm...");
+        new RenderCoordinator(config).render(timeline, workspace, videoPath);
     }
 
-    private void cleanup(String... tempFiles) {
-        for (String tempFile : tempFiles) {
-            new File(tempFile).delete();
+    private void renderWhileGeneratingAudio(Timeline timeline, Path workspace, String videoPath,
+                                            Map<String, String> audioPaths) throws InterruptedException {
+        timeline.quantizeToFrames(config.getFps());
+
+        List<List<Scene>> pendingGroups = new ArrayList<>();
+        for (NarrationCoalescer.NarrationGroup group : ttsEngine.planNarration(timeline)) {
+            pendingGroups.add(group.getScenes());
+        }
+        SegmentScheduler scheduler = new SegmentScheduler(timeline.getScenes(), pendingGroups);
+
+        CompletableFuture<Void> audioFuture = CompletableFuture.runAsync(
+            () -> ttsEngine.generateTimelinedAudio(timeline, audioPaths, scheduler::resolve),
+            runnable -> {
+                Thread thread = new Thread(runnable, "tts-audio");
+                thread.setDaemon(true);
+                thread.start();
+            });
+
+        String segmentDir = workspace.resolve("segments").toString();
+        new File(segmentDir).mkdirs();
+        String[] segmentPaths = new String[scheduler.getSegmentCount()];
+
+        long waitNanos = 0;
+        long renderNanos = 0;
+        while (scheduler.hasRemaining()) {
+            long waitStart = System.nanoTime();
+            SegmentScheduler.Segment segment = scheduler.next(100, TimeUnit.MILLISECONDS);
+            waitNanos += System.nanoTime() - waitStart;
+
+            if (segment == null) {
+                if (audioFuture.isDone()) {
+                    scheduler.resolveAll();
+                }
+                continue;
+            }
+
+            long renderStart = System.nanoTime();
+            String segmentPath = String.format("%s/segment_%05d.mp4", segmentDir, segment.getIndex());
+            int frames = directRenderer.renderSceneSegment(segment.getScenes(), segment.getPreviousScene(), segmentPath);
+            if (frames > 0) {
+                segmentPaths[segment.getIndex()] = segmentPath;
+            }
+            renderNanos += System.nanoTime() - renderStart;
+        }
+
+        long audioWaitStart = System.nanoTime();
+        audioFuture.join();
+        waitNanos += System.nanoTime() - audioWaitStart;
+
+        logger.info("Rendered {} segments in {}ms, renderer waited {}ms for narration",
+            segmentPaths.length, renderNanos / 1_000_000, waitNanos / 1_000_000);
+
+        List<String> orderedSegments = new ArrayList<>();
+        for (String segmentPath : segmentPaths) {
+            if (segmentPath != null) {
+                orderedSegments.add(segmentPath);
+            }
         }
+        videoEncoder.concatSegments(orderedSegments, videoPath);
     }
 
     public VideoConfig getConfig() {
@@ -0,0 +1,148 @@
+package com.ythub.dsa.algorithms;
+
+import com.ythub.animation.AlgorithmStep;
+import com.ythub.animation.AlgorithmStep.StepType;
+import com.ythub.animation.ForkableTrace;
+
+import java.util.NoSuchElementException;
+
+public class BubbleSortTrace implements ForkableTrace {
+
+    private final int[] array;
+    private final int n;
+    private int i;
+    private int j;
+    private boolean started;
+    private boolean pendingSwap;
+    private boolean finished;
+
+    public BubbleSortTrace(int[] input) {
+        this.array = input.clone();
+        this.n = array.length;
+    }
+
+    private BubbleSortTrace(BubbleSortTrace other) {
+        this.array = other.array.clone();
+        this.n = other.n;
+        this.i = other.i;
+        this.j = other.j;
+        this.started = other.started;
+        this.pendingSwap = other.pendingSwap;
+        this.finished = other.finished;
+    }
+
+    @Override
+    public BubbleSortTrace fork() {
+        return new BubbleSortTrace(this);
+    }
+
+    @Override
+    public int[] saveState() {
+        int[] state = new int[n + 3];
+        System.arraycopy(array, 0, state, 0, n);
+        state[n] = i;
+        state[n + 1] = j;
+        state[n + 2] = (started ? 1 : 0) | (pendingSwap ? 2 : 0) | (finished ? 4 : 0);
+        return state;
+    }
+
+    @Override
+    public void restoreState(int[] state) {
+        if (state.length != n + 3) {
+            throw new IllegalArgumentException("Bubble sort state for " + (state.length - 3)
+                    + " elements does not match an array of " + n);
+        }
+        System.arraycopy(state, 0, array, 0, n);
+        i = state[n];
+        j = state[n + 1];
+        started = (state[n + 2] & 1) != 0;
+        pendingSwap = (state[n + 2] & 2) != 0;
+        finished = (state[n + 2] & 4) != 0;
+    }
+
+    public static long countSteps(int[] input) {
+        long n = input.length;
+        long comparisons = n * (n - 1) / 2;
+        return 2 + comparisons + countInversions(input.clone());
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !finished;
+    }
+
+    @Override
+    public AlgorithmStep next() {
+        if (finished) {
+            throw new NoSuchElementException();
+        }
+
+        if (!started) {
+            started = true;
+            return new AlgorithmStep(StepType.START, array, -1, -1, "Starting array");
+        }
+
+        if (pendingSwap) {
+            pendingSwap = false;
+            int temp = array[j];
+            array[j] = array[j + 1];
+            array[j + 1] = temp;
+            AlgorithmStep step = new AlgorithmStep(StepType.SWAP, array, j, j + 1,
+                    "Swapped %d and %d", array[j + 1], array[j]);
+            advance();
+            return step;
+        }
+
+        if (i < n - 1) {
+            AlgorithmStep step = new AlgorithmStep(StepType.COMPARE, array, j, j + 1,
+                    "Comparing %d and %d", array[j], array[j + 1]);
+            if (array[j] > array[j + 1]) {
+                pendingSwap = true;
+            } else {
+                advance();
+            }
+            return step;
+        }
+
+        finished = true;
+        return new AlgorithmStep(StepType.COMPLETE, array, -1, -1, "Sorting complete!");
+    }
+
+    private void advance() {
+        j++;
+        if (j >= n - i - 1) {
+            j = 0;
+            i++;
+        }
+    }
+
+    private static long countInversions(int[] a) {
+        int[] buffer = new int[a.length];
+        long inversions = 0;
+        for (int width = 1; width < a.length; width *= 2) {
+            for (int lo = 0; lo < a.length - width; lo += 2 * width) {
+                int mid = lo + width;
+                int hi = Math.min(lo + 2 * width, a.length);
+                int left = lo;
+                int right = mid;
+                int k = lo;
+                while (left < mid && right < hi) {
+                    if (a[right] < a[left]) {
+                        inversions += mid - left;
+                        buffer[k++] = a[right++];
+                    } else {
+                        buffer[k++] = a[left++];
+                    }
+                }
+                while (left < mid) {
+                    buffer[k++] = a[left++];
+                }
+                while (right < hi) {
+                    buffer[k++] = a[right++];
+                }
+                System.arraycopy(buffer, lo, a, lo, hi - lo);
+            }
+        }
+        return inversions;
+    }
+}
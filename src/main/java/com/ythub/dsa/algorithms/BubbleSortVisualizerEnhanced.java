@@ -1,13 +1,11 @@
 package com.ythub.dsa.algorithms;
 
 import com.ythub.animation.AnimationEngine;
+import com.ythub.animation.StepScheduler;
 import com.ythub.core.Scene;
 import com.ythub.core.Timeline;
 import com.ythub.core.VideoConfig;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class BubbleSortVisualizerEnhanced {
 
     private final VideoConfig config;
@@ -121,7 +119,7 @@ public class BubbleSortVisualizerEnhanced {
         timeline.addScene(exampleIntro);
 
         int[] array1 = {5, 2, 8, 1, 9};
-        addSortingVisualization(timeline, array1, 2.0);
+        addSortingVisualization(timeline, array1, 2.0, 30);
 
         Scene exampleSummary = new Scene.Builder(Scene.SceneType.NARRATION, 15)
                 .withNarration("As you can see, the array is now completely sorted. Notice how the larger elements bubbled up to the right side of the array with each pass.")
@@ -138,7 +136,7 @@ public class BubbleSortVisualizerEnhanced {
         timeline.addScene(exampleIntro);
 
         int[] array2 = {64, 34, 25, 12, 22, 11, 90, 88};
-        addSortingVisualization(timeline, array2, 1.5);
+        addSortingVisualization(timeline, array2, 1.5, 60);
 
         Scene exampleSummary = new Scene.Builder(Scene.SceneType.NARRATION, 20)
                 .withNarration("With eight elements, you can see the algorithm required multiple passes. Each pass reduced the unsorted portion of the array by one element. This demonstrates why the time complexity is O of n squared.")
@@ -155,7 +153,7 @@ public class BubbleSortVisualizerEnhanced {
         timeline.addScene(exampleIntro);
 
         int[] array3 = {9, 8, 7, 6, 5, 4};
-        addSortingVisualization(timeline, array3, 1.5);
+        addSortingVisualization(timeline, array3, 1.5, 45);
 
         Scene exampleSummary = new Scene.Builder(Scene.SceneType.NARRATION, 15)
                 .withNarration("As expected, this required the maximum number of comparisons and swaps. This is why Bubble Sort is inefficient for large datasets, especially when they are in reverse order.")
@@ -172,7 +170,7 @@ public class BubbleSortVisualizerEnhanced {
         timeline.addScene(exampleIntro);
 
         int[] array4 = {1, 2, 3, 4, 5, 6};
-        addSortingVisualization(timeline, array4, 1.5);
+        addSortingVisualization(timeline, array4, 1.5, 30);
 
         Scene exampleSummary = new Scene.Builder(Scene.SceneType.NARRATION, 15)
                 .withNarration("Notice that even though the array was already sorted, the basic Bubble Sort still went through multiple passes. This is where optimization comes in, which we'll discuss next.")
@@ -287,57 +285,8 @@ public class BubbleSortVisualizerEnhanced {
         timeline.addScene(outro);
     }
 
-    private void addSortingVisualization(Timeline timeline, int[] array, double speedMultiplier) {
-        List<SortStep> steps = generateBubbleSortSteps(array.clone());
-        for (SortStep step : steps) {
-            Scene visualScene = new Scene.Builder(Scene.SceneType.VISUALIZATION, 0.5 * speedMultiplier)
-                    .withNarration(step.description)
-                    .withVisualData("array", step.array)
-                    .withVisualData("highlight1", step.index1)
-                    .withVisualData("highlight2", step.index2)
-                    .build();
-            timeline.addScene(visualScene);
-        }
-    }
-
-    private List<SortStep> generateBubbleSortSteps(int[] array) {
-        List<SortStep> steps = new ArrayList<>();
-        int n = array.length;
-
-        steps.add(new SortStep(array.clone(), -1, -1, "Starting array"));
-
-        for (int i = 0; i < n - 1; i++) {
-            for (int j = 0; j < n - i - 1; j++) {
-                steps.add(new SortStep(array.clone(), j, j + 1,
-                    String.format("Comparing %d and %d", array[j], array[j + 1])));
-
-                if (array[j] > array[j + 1]) {
-                    int temp = array[j];
-                    array[j] = array[j + 1];
-                    array[j + 1] = temp;
-
-                    steps.add(new SortStep(array.clone(), j, j + 1,
-                        String.format("Swapped %d and %d", array[j + 1], array[j])));
-                }
-            }
-        }
-
-        steps.add(new SortStep(array.clone(), -1, -1, "Sorting complete!"));
-
-        return steps;
-    }
-
-    private static class SortStep {
-        int[] array;
-        int index1;
-        int index2;
-        String description;
-
-        SortStep(int[] array, int index1, int index2, String description) {
-            this.array = array;
-            this.index1 = index1;
-            this.index2 = index2;
-            this.description = description;
-        }
+    private void addSortingVisualization(Timeline timeline, int[] array, double speedMultiplier, double duration) {
+        StepScheduler scheduler = StepScheduler.forScene(config.getFps(), 0.5 * speedMultiplier, duration);
+        scheduler.schedule(new BubbleSortTrace(array), BubbleSortTrace.countSteps(array), timeline::addScene);
     }
 }
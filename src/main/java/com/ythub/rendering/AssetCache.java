@@ -0,0 +1,316 @@
+package com.ythub.rendering;
+
+import com.ythub.core.VideoConfig;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.Image;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AssetCache implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssetCache.class);
+
+    private final Path assetsDir;
+    private final long maxBytes;
+    private final ExecutorService loader;
+
+    private final Map<Key, Asset> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Key, CompletableFuture<Asset>> inFlight = new ConcurrentHashMap<>();
+    private final Set<Key> failed = ConcurrentHashMap.newKeySet();
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong prefetches = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong loadNanos = new AtomicLong();
+
+    public AssetCache(VideoConfig config) {
+        this.assetsDir = Paths.get(config.getAssetsDir());
+        this.maxBytes = config.getAssetCacheMaxBytes();
+        AtomicInteger counter = new AtomicInteger();
+        this.loader = Executors.newFixedThreadPool(Math.max(1, config.getAssetLoaderThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "asset-loader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<Asset> prefetch(String path, int width, int height) {
+        Key key = new Key(path, width, height);
+        Asset cached = lookup(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        if (failed.contains(key)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return inFlight.computeIfAbsent(key, k -> {
+            prefetches.incrementAndGet();
+            return CompletableFuture.supplyAsync(() -> load(k), loader);
+        });
+    }
+
+    public Asset get(String path, int width, int height) {
+        Key key = new Key(path, width, height);
+        Asset cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        if (failed.contains(key)) {
+            return null;
+        }
+
+        CompletableFuture<Asset> pending = inFlight.get(key);
+        if (pending == null) {
+            misses.incrementAndGet();
+            return load(key);
+        }
+        waits.incrementAndGet();
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            return null;
+        }
+    }
+
+    private synchronized Asset lookup(Key key) {
+        return entries.get(key);
+    }
+
+    private Asset load(Key key) {
+        long start = System.nanoTime();
+        try {
+            BufferedImage source = decode(resolve(key.path));
+            BufferedImage scaled = scaleToFit(source, key.width, key.height);
+            Asset asset = new Asset(key.path, scaled);
+            store(key, asset);
+            logger.debug("Loaded asset {} ({}x{} -> {}x{}) in {} ms", key.path, source.getWidth(), source.getHeight(),
+                scaled.getWidth(), scaled.getHeight(), (System.nanoTime() - start) / 1_000_000);
+            return asset;
+        } catch (IOException | RuntimeException e) {
+            failed.add(key);
+            logger.warn("Failed to load asset {}: {}", key.path, e.getMessage());
+            return null;
+        } finally {
+            loadNanos.addAndGet(System.nanoTime() - start);
+            inFlight.remove(key);
+        }
+    }
+
+    private Path resolve(String path) {
+        Path file = Paths.get(path);
+        return file.isAbsolute() ? file : assetsDir.resolve(file);
+    }
+
+    private static BufferedImage decode(Path file) throws IOException {
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".svg")) {
+            throw new IOException("SVG assets are not supported, export them as PNG");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new IOException("File not found: " + file);
+        }
+        BufferedImage image = ImageIO.read(file.toFile());
+        if (image == null) {
+            throw new IOException("Unsupported image format: " + file);
+        }
+        return image;
+    }
+
+    static BufferedImage scaleToFit(BufferedImage source, int maxWidth, int maxHeight) {
+        double scale = Math.min((double) maxWidth / source.getWidth(), (double) maxHeight / source.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = width / 2 >= targetWidth ? width / 2 : targetWidth;
+            height = height / 2 >= targetHeight ? height / 2 : targetHeight;
+            if (scale > 1) {
+                width = targetWidth;
+                height = targetHeight;
+            }
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, width == targetWidth && height == targetHeight
+                ? RenderingHints.VALUE_INTERPOLATION_BICUBIC : RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, width, height, null);
+            g.dispose();
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private synchronized void store(Key key, Asset asset) {
+        Asset previous = entries.put(key, asset);
+        if (previous != null) {
+            totalBytes -= previous.getBytes();
+        }
+        totalBytes += asset.getBytes();
+        Iterator<Map.Entry<Key, Asset>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, Asset> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                continue;
+            }
+            totalBytes -= entry.getValue().getBytes();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits.get(), misses.get(), waits.get(), prefetches.get(), evictions.get(),
+            failed.size(), entries.size(), totalBytes, loadNanos.get());
+    }
+
+    public void logStats() {
+        logger.info("Asset cache: {}", getStats());
+    }
+
+    @Override
+    public void close() {
+        loader.shutdown();
+        try {
+            if (!loader.awaitTermination(10, TimeUnit.SECONDS)) {
+                loader.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            loader.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static class Asset {
+        private final String path;
+        private final BufferedImage image;
+        private volatile Image fxImage;
+
+        Asset(String path, BufferedImage image) {
+            this.path = path;
+            this.image = image;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public BufferedImage getImage() {
+            return image;
+        }
+
+        public Image getFxImage() {
+            Image result = fxImage;
+            if (result == null) {
+                synchronized (this) {
+                    if (fxImage == null) {
+                        fxImage = SwingFXUtils.toFXImage(image, null);
+                    }
+                    result = fxImage;
+                }
+            }
+            return result;
+        }
+
+        public int getWidth() {
+            return image.getWidth();
+        }
+
+        public int getHeight() {
+            return image.getHeight();
+        }
+
+        public long getBytes() {
+            return (long) image.getWidth() * image.getHeight() * 4 * 2;
+        }
+    }
+
+    private static class Key {
+        final String path;
+        final int width;
+        final int height;
+
+        Key(String path, int width, int height) {
+            this.path = path;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return width == other.width && height == other.height && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, width, height);
+        }
+    }
+
+    public static class CacheStats {
+        public final long hits;
+        public final long misses;
+        public final long waits;
+        public final long prefetches;
+        public final long evictions;
+        public final int failures;
+        public final int entries;
+        public final long totalBytes;
+        public final long loadNanos;
+
+        CacheStats(long hits, long misses, long waits, long prefetches, long evictions, int failures, int entries,
+                   long totalBytes, long loadNanos) {
+            this.hits = hits;
+            this.misses = misses;
+            this.waits = waits;
+            this.prefetches = prefetches;
+            this.evictions = evictions;
+            this.failures = failures;
+            this.entries = entries;
+            this.totalBytes = totalBytes;
+            this.loadNanos = loadNanos;
+        }
+
+        public double getHitRate() {
+            long lookups = hits + misses + waits;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CacheStats{hits=%d, misses=%d, waits=%d, hitRate=%.1f%%, prefetches=%d, "
+                    + "evictions=%d, failures=%d, entries=%d, bytes=%d, loadMs=%d}", hits, misses, waits,
+                getHitRate() * 100, prefetches, evictions, failures, entries, totalBytes, loadNanos / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.ythub.rendering;
+
+import com.ythub.core.VideoConfig;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AssetCacheBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int assets = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int scenes = args.length > 1 ? Integer.parseInt(args[1]) : 24;
+        int framesPerScene = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        long budgetMb = args.length > 3 ? Long.parseLong(args[3]) : 24;
+
+        Path directory = Paths.get("temp/benchmark/assets");
+        Files.createDirectories(directory);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < assets; i++) {
+            String name = "diagram_" + i + ".png";
+            ImageIO.write(createImage(2400, 1600, i), "png", directory.resolve(name).toFile());
+            names.add(name);
+        }
+
+        VideoConfig config = new VideoConfig();
+        config.setResolution(VideoConfig.Resolution.HD_1080P_30);
+        config.setAssetsDir(directory.toString());
+        config.setAssetCacheMaxBytes(budgetMb * 1024 * 1024);
+        int boxWidth = (int) (config.getWidth() * 0.8);
+        int boxHeight = (int) (config.getHeight() * 0.6);
+
+        System.out.println("=== Asset Cache Benchmark ===");
+        System.out.printf("%d assets (2400x1600 PNG) scaled to %dx%d, %d scenes x %d frames, budget %d MB%n",
+            assets, boxWidth, boxHeight, scenes, framesPerScene, budgetMb);
+
+        long start = System.nanoTime();
+        for (int scene = 0; scene < scenes; scene++) {
+            Path file = directory.resolve(names.get(scene % assets));
+            BufferedImage source = ImageIO.read(file.toFile());
+            AssetCache.scaleToFit(source, boxWidth, boxHeight);
+        }
+        double perScene = (System.nanoTime() - start) / 1e9;
+        System.out.printf("decode per scene:   %.2f s (decode per frame would be ~%.1f s)%n", perScene,
+            perScene * framesPerScene);
+
+        for (boolean prefetch : new boolean[] {false, true}) {
+            try (AssetCache cache = new AssetCache(config)) {
+                long blockedNanos = 0;
+                for (int scene = 0; scene < scenes; scene++) {
+                    if (prefetch && scene + 1 < scenes) {
+                        cache.prefetch(names.get((scene + 1) % assets), boxWidth, boxHeight);
+                    }
+                    for (int frame = 0; frame < framesPerScene; frame++) {
+                        long getStart = System.nanoTime();
+                        cache.get(names.get(scene % assets), boxWidth, boxHeight);
+                        blockedNanos += System.nanoTime() - getStart;
+                        Thread.sleep(2);
+                    }
+                }
+                System.out.printf("%-19s %.2f s blocked on the render thread, %s%n",
+                    prefetch ? "cache + prefetch:" : "cache on demand:", blockedNanos / 1e9, cache.getStats());
+            }
+        }
+
+        for (String name : names) {
+            Files.deleteIfExists(directory.resolve(name));
+        }
+    }
+
+    private static BufferedImage createImage(int width, int height, int seed) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setPaint(new GradientPaint(0, 0, Color.getHSBColor(seed * 0.13f, 0.4f, 1f), width, height, Color.WHITE));
+        g.fillRect(0, 0, width, height);
+        g.setColor(new Color(0x21, 0x21, 0x21));
+        g.setFont(new Font("SansSerif", Font.BOLD, height / 8));
+        g.drawString("Diagram " + seed, width / 10, height / 2);
+        for (int i = 0; i < 40; i++) {
+            g.drawOval((i * 97 + seed * 31) % width, (i * 53 + seed * 17) % height, 120, 120);
+        }
+        g.dispose();
+        return image;
+    }
+}
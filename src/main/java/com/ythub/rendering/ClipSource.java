@@ -0,0 +1,398 @@
+package com.ythub.rendering;
+
+import com.ythub.core.Scene;
+import com.ythub.core.VideoConfig;
+import org.bytedeco.ffmpeg.avcodec.AVCodecParameters;
+import org.bytedeco.ffmpeg.avcodec.AVPacket;
+import org.bytedeco.ffmpeg.avformat.AVStream;
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ClipSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClipSource.class);
+
+    public static final String CLIP_KEY = "clip";
+    public static final String CLIP_START_KEY = "clipStart";
+
+    private static final Map<String, StreamFormat> ENCODER_FORMATS = new ConcurrentHashMap<>();
+
+    private final Scene scene;
+    private final VideoConfig config;
+    private final String path;
+    private final int fps;
+    private final Thread decoder;
+    private final Map<Integer, BufferedImage> frames = new HashMap<>();
+
+    private int capacity;
+    private int width;
+    private int height;
+    private int produced;
+    private int highestRequested;
+    private int decodedFrames;
+    private BufferedImage lastFrame;
+    private boolean finished;
+    private volatile boolean closed;
+    private Exception failure;
+
+    public ClipSource(Scene scene, VideoConfig config) {
+        this.scene = scene;
+        this.config = config;
+        this.path = resolve(scene, config).toString();
+        this.fps = config.getFps();
+        this.capacity = Math.max(2, config.getClipDecodeAheadFrames());
+        double clipStart = scene.getVisualData(CLIP_START_KEY) instanceof Number start ? start.doubleValue() : 0;
+        int totalFrames = (int) Math.round(scene.getDuration() * fps);
+
+        this.decoder = new Thread(() -> decode(clipStart, totalFrames, config.getWidth(), config.getHeight()),
+            "clip-decoder-" + scene.getId());
+        this.decoder.setDaemon(true);
+        this.decoder.start();
+    }
+
+    public static boolean isClip(Scene scene) {
+        return scene != null && scene.getType() == Scene.SceneType.VIDEO_CLIP
+            && scene.getVisualData(CLIP_KEY) instanceof String;
+    }
+
+    static Path resolve(Scene scene, VideoConfig config) {
+        Path file = Paths.get((String) scene.getVisualData(CLIP_KEY));
+        return file.isAbsolute() ? file : Paths.get(config.getAssetsDir()).resolve(file);
+    }
+
+    private void decode(double clipStart, int totalFrames, int maxWidth, int maxHeight) {
+        long start = System.nanoTime();
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(path);
+             Java2DFrameConverter converter = new Java2DFrameConverter()) {
+            grabber.start();
+            fitTo(grabber, maxWidth, maxHeight);
+            if (clipStart > 0) {
+                grabber.setTimestamp(Math.round(clipStart * 1_000_000));
+            }
+            logger.info("Decoding clip {} ({} fps) -> {}x{} at {} fps, {} frames ahead", path,
+                String.format("%.2f", grabber.getFrameRate()), grabber.getImageWidth(), grabber.getImageHeight(),
+                fps, getCapacity());
+
+            BufferedImage current = null;
+            Frame next = grabber.grabImage();
+            long origin = next != null ? next.timestamp : 0;
+            for (int frame = 0; frame < totalFrames && !closed; frame++) {
+                long target = origin + Math.round(frame * 1_000_000.0 / fps);
+                while (next != null && (current == null || next.timestamp <= target)) {
+                    current = copy(converter.getBufferedImage(next));
+                    decodedFrames++;
+                    next = grabber.grabImage();
+                }
+                if (current == null) {
+                    break;
+                }
+                publish(frame, current);
+                if (next == null && frame + 1 < totalFrames) {
+                    logger.info("Clip {} ended at frame {} of {}, holding its last frame", path, frame + 1,
+                        totalFrames);
+                    break;
+                }
+            }
+            grabber.stop();
+        } catch (Exception e) {
+            logger.error("Failed to decode clip {}", path, e);
+            synchronized (this) {
+                failure = e;
+            }
+        } finally {
+            synchronized (this) {
+                finished = true;
+                notifyAll();
+            }
+            logger.debug("Clip {} decoded {} source frames into {} output frames in {} ms", path, decodedFrames,
+                produced, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private static void fitTo(FFmpegFrameGrabber grabber, int maxWidth, int maxHeight) {
+        double scale = Math.min((double) maxWidth / grabber.getImageWidth(),
+            (double) maxHeight / grabber.getImageHeight());
+        grabber.setImageWidth(Math.max(2, (int) Math.round(grabber.getImageWidth() * scale) & ~1));
+        grabber.setImageHeight(Math.max(2, (int) Math.round(grabber.getImageHeight() * scale) & ~1));
+    }
+
+    public static BufferedImage frameAt(Scene scene, VideoConfig config, double localTime) {
+        String path = resolve(scene, config).toString();
+        double clipStart = scene.getVisualData(CLIP_START_KEY) instanceof Number start ? start.doubleValue() : 0;
+        long start = System.nanoTime();
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(path);
+             Java2DFrameConverter converter = new Java2DFrameConverter()) {
+            grabber.start();
+            fitTo(grabber, config.getWidth(), config.getHeight());
+            long target = Math.round((clipStart + Math.max(0, localTime)) * 1_000_000);
+            if (target > 0) {
+                grabber.setTimestamp(Math.min(target, Math.max(0, grabber.getLengthInTime() - 1)));
+            }
+            Frame frame = grabber.grabImage();
+            BufferedImage image = frame != null ? copy(converter.getBufferedImage(frame)) : null;
+            grabber.stop();
+            logger.debug("Seeked clip {} to {} s in {} ms", path, String.format("%.3f", target / 1e6),
+                (System.nanoTime() - start) / 1_000_000);
+            return image;
+        } catch (Exception e) {
+            logger.warn("Cannot seek clip {} to {} s: {}", path, String.format("%.3f", localTime), e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void publish(int frame, BufferedImage image) throws InterruptedException {
+        while (frame >= highestRequested + capacity && !closed) {
+            wait();
+        }
+        frames.put(frame, image);
+        lastFrame = image;
+        produced = frame + 1;
+        width = image.getWidth();
+        height = image.getHeight();
+        notifyAll();
+    }
+
+    private static BufferedImage copy(BufferedImage image) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_3BYTE_BGR);
+        copy.getRaster().setRect(image.getRaster());
+        return copy;
+    }
+
+    public BufferedImage frameAt(int frame) {
+        synchronized (this) {
+            if (frame > highestRequested) {
+                highestRequested = frame;
+                frames.keySet().removeIf(index -> index < highestRequested - capacity);
+                notifyAll();
+            }
+            try {
+                while (frame >= produced && !finished) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for clip " + path + " frame " + frame, e);
+            }
+            if (failure != null && lastFrame == null) {
+                throw new IllegalStateException("Clip " + path + " could not be decoded", failure);
+            }
+            BufferedImage image = frames.get(frame);
+            if (image != null || frame >= produced) {
+                return image != null ? image : lastFrame;
+            }
+        }
+
+        logger.debug("Clip {} frame {} fell out of the decode-ahead window, seeking", path, frame);
+        BufferedImage image = frameAt(scene, config, (double) frame / fps);
+        if (image == null) {
+            throw new IllegalStateException("Clip " + path + " frame " + frame
+                + " is no longer buffered and could not be re-read");
+        }
+        return image;
+    }
+
+    public synchronized void retainFrames(int count) {
+        if (count > capacity) {
+            capacity = count;
+            notifyAll();
+        }
+    }
+
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int getWidth() {
+        return width;
+    }
+
+    public synchronized int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (this) {
+            notifyAll();
+        }
+        try {
+            decoder.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            frames.clear();
+        }
+    }
+
+    public static boolean canStreamCopy(Scene scene, VideoConfig config) {
+        if (!config.isClipStreamCopy() || !isClip(scene)
+                || scene.getVisualData(CLIP_START_KEY) instanceof Number start && start.doubleValue() > 0) {
+            return false;
+        }
+        File file = resolve(scene, config).toFile();
+        if (!file.isFile()) {
+            return false;
+        }
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(file)) {
+            grabber.start();
+            AVStream stream = grabber.getFormatContext().streams(grabber.getVideoStream());
+            AVCodecParameters parameters = stream.codecpar();
+            int codecId = DirectVideoRenderer.codecId(config);
+            boolean matches = parameters.codec_id() == codecId
+                && parameters.width() == config.getWidth() && parameters.height() == config.getHeight()
+                && parameters.format() == avutil.AV_PIX_FMT_YUV420P
+                && Math.abs(grabber.getFrameRate() - config.getFps()) < 0.01
+                && grabber.getLengthInTime() >= Math.round((scene.getDuration() - 1.0 / config.getFps()) * 1_000_000)
+                && config.getFormat().equalsIgnoreCase(extension(file.getName()));
+            StreamFormat encoderFormat = matches ? encoderFormat(config) : null;
+            boolean sameFormat = encoderFormat != null && encoderFormat.equals(new StreamFormat(parameters));
+            logger.info("Clip {} is {} {}x{} {} fps{}: {}", file, avcodec.avcodec_get_name(parameters.codec_id())
+                    .getString(), parameters.width(), parameters.height(), String.format("%.2f", grabber.getFrameRate()),
+                matches && !sameFormat ? " with different encoder parameters" : "",
+                sameFormat ? "stream copy" : "decoding and re-encoding");
+            grabber.stop();
+            return sameFormat;
+        } catch (Exception e) {
+            logger.warn("Cannot probe clip {} for stream copy: {}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    private static StreamFormat encoderFormat(VideoConfig config) {
+        String key = String.join("|", String.valueOf(DirectVideoRenderer.codecId(config)), config.getEncoderName(),
+            config.getEncoderPreset(), config.getFormat(), String.valueOf(config.getWidth()),
+            String.valueOf(config.getHeight()), String.valueOf(config.getFps()), String.valueOf(config.getBitrate()));
+        return ENCODER_FORMATS.computeIfAbsent(key, k -> probeEncoder(config));
+    }
+
+    private static StreamFormat probeEncoder(VideoConfig config) {
+        Path probe = null;
+        try {
+            probe = Files.createTempFile("encoder-probe", "." + config.getFormat());
+            EncodingPlan plan = EncodingPlan.forScenes(List.of(), null, config);
+            FFmpegFrameRecorder recorder = DirectVideoRenderer.createRecorder(probe.toString(), config, plan);
+            try {
+                recorder.start();
+                recorder.record(new Frame(config.getWidth(), config.getHeight(), Frame.DEPTH_UBYTE, 3));
+                recorder.stop();
+            } finally {
+                recorder.release();
+            }
+            try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(probe.toFile())) {
+                grabber.start();
+                StreamFormat format = new StreamFormat(
+                    grabber.getFormatContext().streams(grabber.getVideoStream()).codecpar());
+                grabber.stop();
+                return format;
+            }
+        } catch (Exception e) {
+            logger.warn("Cannot probe {} encoder parameters for stream copy: {}", config.getCodec(), e.getMessage());
+            return null;
+        } finally {
+            if (probe != null) {
+                probe.toFile().delete();
+            }
+        }
+    }
+
+    public static int streamCopy(Scene scene, VideoConfig config, String outputPath) {
+        File file = resolve(scene, config).toFile();
+        int fps = config.getFps();
+        int frames = (int) Math.round(scene.getDuration() * fps);
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(file)) {
+            grabber.start();
+            int videoStream = grabber.getVideoStream();
+            AVStream stream = grabber.getFormatContext().streams(videoStream);
+            double timeBase = avutil.av_q2d(stream.time_base());
+
+            FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(outputPath, grabber.getImageWidth(),
+                grabber.getImageHeight(), 0);
+            try {
+                recorder.setFormat(config.getFormat());
+                recorder.setFrameRate(fps);
+                recorder.start(grabber.getFormatContext());
+
+                int copied = 0;
+                long firstPts = Long.MIN_VALUE;
+                AVPacket packet;
+                while (copied < frames && (packet = grabber.grabPacket()) != null) {
+                    try {
+                        if (packet.stream_index() != videoStream) {
+                            continue;
+                        }
+                        long pts = packet.pts() != avutil.AV_NOPTS_VALUE ? packet.pts() : packet.dts();
+                        if (firstPts == Long.MIN_VALUE) {
+                            firstPts = pts;
+                        }
+                        boolean keyframe = (packet.flags() & avcodec.AV_PKT_FLAG_KEY) != 0;
+                        if (keyframe && (pts - firstPts) * timeBase >= scene.getDuration() - 0.5 / fps) {
+                            break;
+                        }
+                        recorder.recordPacket(packet);
+                        copied++;
+                    } finally {
+                        avcodec.av_packet_unref(packet);
+                    }
+                }
+                recorder.stop();
+                logger.info("Stream-copied {} of {} frames from clip {} into {}", copied, frames, file, outputPath);
+                return copied;
+            } finally {
+                recorder.release();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Stream copy of clip " + file + " failed", e);
+        }
+    }
+
+    private static String extension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 ? name.substring(dot + 1) : "";
+    }
+
+    private static class StreamFormat {
+        final int profile;
+        final int level;
+        final byte[] extradata;
+
+        StreamFormat(AVCodecParameters parameters) {
+            this.profile = parameters.profile();
+            this.level = parameters.level();
+            this.extradata = new byte[Math.max(0, parameters.extradata_size())];
+            if (extradata.length > 0) {
+                parameters.extradata().get(extradata);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof StreamFormat other)) return false;
+            return profile == other.profile && level == other.level && Arrays.equals(extradata, other.extradata);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * profile + level) + Arrays.hashCode(extradata);
+        }
+    }
+}
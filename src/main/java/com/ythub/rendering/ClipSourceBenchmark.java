@@ -0,0 +1,200 @@
+package com.ythub.rendering;
+
+import com.ythub.core.Scene;
+import com.ythub.core.VideoConfig;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Java2DFrameConverter;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ClipSourceBenchmark {
+
+    private static final int BITS = 10;
+
+    public static void main(String[] args) throws Exception {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 6;
+        int sourceFps = args.length > 1 ? Integer.parseInt(args[1]) : 24;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        Path directory = Paths.get("temp/benchmark/clips");
+        Files.createDirectories(directory);
+
+        VideoConfig config = new VideoConfig();
+        config.setResolution(VideoConfig.Resolution.HD_1080P_30);
+        config.setFps(config.getResolution().fps);
+        config.setCodec("h264");
+        config.setFormat("mp4");
+        config.setBitrate(8000);
+        config.setAssetsDir(directory.toString());
+
+        System.out.println("=== Clip Source Benchmark ===");
+        Path recording = directory.resolve("recording.mp4");
+        writeClip(recording, 1280, 720, sourceFps, (int) Math.round(seconds * sourceFps));
+        Scene scene = new Scene.Builder(Scene.SceneType.VIDEO_CLIP, seconds)
+            .withId("recording")
+            .withVisualData(ClipSource.CLIP_KEY, recording.getFileName().toString())
+            .build();
+
+        int frames = (int) Math.round(seconds * config.getFps());
+        int[] sourceIndex = new int[frames];
+        AtomicInteger width = new AtomicInteger();
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (ClipSource clip = new ClipSource(scene, config)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int frame = 0; frame < frames; frame++) {
+                int index = frame;
+                futures.add(pool.submit(() -> {
+                    BufferedImage image = clip.frameAt(index);
+                    width.set(image.getWidth());
+                    sourceIndex[index] = readIndex(image);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double decodeSeconds = (System.nanoTime() - start) / 1e9;
+
+        int wrong = 0;
+        int duplicated = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            int expected = (int) Math.floor(frame * (double) sourceFps / config.getFps() + 1e-9);
+            if (sourceIndex[frame] != expected) {
+                wrong++;
+            }
+            if (frame > 0 && sourceIndex[frame] == sourceIndex[frame - 1]) {
+                duplicated++;
+            }
+        }
+        System.out.printf("decode-ahead: %d source frames at %d fps -> %d frames at %d fps (%d px wide) in %.2f s "
+                + "(%.0f fps) on %d threads, %d repeated, %d mismatched%n", (int) Math.round(seconds * sourceFps),
+            sourceFps, frames, config.getFps(), width.get(), decodeSeconds, frames / decodeSeconds, threads,
+            duplicated, wrong);
+
+        Path matching = directory.resolve("matching.mp4");
+        writeMatchingClip(matching, config, frames);
+        Scene matchingScene = new Scene.Builder(Scene.SceneType.VIDEO_CLIP, seconds)
+            .withId("matching")
+            .withVisualData(ClipSource.CLIP_KEY, matching.getFileName().toString())
+            .build();
+
+        start = System.nanoTime();
+        boolean copyable = ClipSource.canStreamCopy(matchingScene, config);
+        Path copied = directory.resolve("copied.mp4");
+        int copiedFrames = ClipSource.streamCopy(matchingScene, config, copied.toString());
+        double copySeconds = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        Path reencoded = directory.resolve("reencoded.mp4");
+        EncodingPlan plan = EncodingPlan.forScenes(List.of(matchingScene), null, config);
+        FFmpegFrameRecorder recorder = DirectVideoRenderer.createRecorder(reencoded.toString(), config, plan);
+        try (ClipSource clip = new ClipSource(matchingScene, config);
+             Java2DFrameConverter converter = new Java2DFrameConverter()) {
+            recorder.start();
+            for (int frame = 0; frame < frames; frame++) {
+                plan.record(recorder, converter.convert(clip.frameAt(frame)), frame);
+            }
+            recorder.stop();
+        } finally {
+            recorder.release();
+        }
+        double reencodeSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("matching clip: canStreamCopy=%s, stream copy %.2f s (%d copied, %d decodable frames, "
+                + "%d KB), decode + re-encode %.2f s (%d frames, %d KB)%n", copyable, copySeconds, copiedFrames,
+            countFrames(copied), Files.size(copied) / 1024, reencodeSeconds, countFrames(reencoded), Files.size(reencoded) / 1024);
+
+        for (Path path : List.of(recording, matching, copied, reencoded)) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static void writeClip(Path path, int width, int height, int fps, int frames) throws Exception {
+        FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(path.toString(), width, height);
+        recorder.setVideoCodec(org.bytedeco.ffmpeg.global.avcodec.AV_CODEC_ID_H264);
+        recorder.setFormat("mp4");
+        recorder.setFrameRate(fps);
+        recorder.setPixelFormat(avutil.AV_PIX_FMT_YUV420P);
+        recorder.setVideoBitrate(4_000_000);
+        try (Java2DFrameConverter converter = new Java2DFrameConverter()) {
+            recorder.start();
+            for (int frame = 0; frame < frames; frame++) {
+                recorder.record(converter.convert(drawIndex(width, height, frame)));
+            }
+            recorder.stop();
+        } finally {
+            recorder.release();
+        }
+    }
+
+    private static void writeMatchingClip(Path path, VideoConfig config, int frames) throws Exception {
+        Scene scene = new Scene.Builder(Scene.SceneType.VIDEO_CLIP, (double) frames / config.getFps()).build();
+        EncodingPlan plan = EncodingPlan.forScenes(List.of(scene), null, config);
+        FFmpegFrameRecorder recorder = DirectVideoRenderer.createRecorder(path.toString(), config, plan);
+        try (Java2DFrameConverter converter = new Java2DFrameConverter()) {
+            recorder.start();
+            for (int frame = 0; frame < frames; frame++) {
+                plan.record(recorder, converter.convert(drawIndex(config.getWidth(), config.getHeight(), frame)), frame);
+            }
+            recorder.stop();
+        } finally {
+            recorder.release();
+        }
+    }
+
+    private static BufferedImage drawIndex(int width, int height, int index) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(0x30, 0x30, 0x30));
+        g.fillRect(0, 0, width, height);
+        int cell = width / BITS;
+        for (int bit = 0; bit < BITS; bit++) {
+            g.setColor((index >> bit & 1) == 1 ? Color.WHITE : Color.BLACK);
+            g.fillRect(bit * cell, 0, cell, height / 4);
+        }
+        g.setColor(Color.ORANGE);
+        g.fillRect((index * 7) % (width - 100), height / 2, 100, 100);
+        g.dispose();
+        return image;
+    }
+
+    private static int readIndex(BufferedImage image) {
+        int cell = image.getWidth() / BITS;
+        int index = 0;
+        for (int bit = 0; bit < BITS; bit++) {
+            int rgb = image.getRGB(bit * cell + cell / 2, image.getHeight() / 8);
+            if ((rgb >> 8 & 0xFF) > 128) {
+                index |= 1 << bit;
+            }
+        }
+        return index;
+    }
+
+    private static int countFrames(Path path) throws Exception {
+        int frames = 0;
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(path.toFile())) {
+            grabber.start();
+            while (grabber.grabImage() != null) {
+                frames++;
+            }
+            grabber.stop();
+        }
+        return frames;
+    }
+}
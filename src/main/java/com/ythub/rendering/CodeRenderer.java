@@ -0,0 +1,178 @@
+package com.ythub.rendering;
+
+import com.ythub.animation.Easing;
+import com.ythub.core.Scene;
+import com.ythub.core.VideoConfig;
+import com.ythub.utils.CodeHighlighter;
+import com.ythub.utils.CodeTheme;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+public class CodeRenderer {
+
+    private static final double FONT_SIZE = 35;
+    private static final double LINE_HEIGHT = 50;
+    private static final double PANEL_MARGIN = 100;
+    private static final double PANEL_PADDING = 50;
+    private static final double GUTTER_WIDTH = 90;
+
+    private final CodeTheme theme;
+    private final CodeHighlighter highlighter = new CodeHighlighter();
+    private final Map<Scene, CodeLayout> layouts = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<CodeHighlighter.TokenStyle, Color> styleColors = new EnumMap<>(CodeHighlighter.TokenStyle.class);
+    private final Color backgroundColor;
+    private final Color lineNumberColor;
+    private final Color activeLineColor;
+    private Font font;
+    private double charWidth;
+
+    public CodeRenderer(VideoConfig config) {
+        this.theme = CodeTheme.fromName(config.getCodeTheme());
+        for (CodeHighlighter.TokenStyle style : CodeHighlighter.TokenStyle.values()) {
+            styleColors.put(style, Color.web(theme.colorFor(style)));
+        }
+        this.backgroundColor = Color.web(theme.background);
+        this.lineNumberColor = Color.web(theme.lineNumber);
+        this.activeLineColor = Color.web(theme.activeLine);
+    }
+
+    public void render(GraphicsContext gc, double width, double height, Scene scene, double progress) {
+        CodeLayout layout = getLayout(scene);
+        if (layout == null) {
+            return;
+        }
+
+        double panelX = PANEL_MARGIN;
+        double panelY = PANEL_MARGIN;
+        double panelWidth = width - 2 * PANEL_MARGIN;
+        double panelHeight = height - 2 * PANEL_MARGIN;
+        double textTop = panelY + PANEL_PADDING;
+        double textHeight = panelHeight - 2 * PANEL_PADDING;
+        double codeX = panelX + PANEL_PADDING + GUTTER_WIDTH;
+
+        gc.setFill(backgroundColor);
+        gc.fillRect(panelX, panelY, panelWidth, panelHeight);
+
+        int lineCount = layout.lines.length;
+        int visibleLines = Math.max(1, (int) (textHeight / LINE_HEIGHT));
+        int activeLine = activeLine(scene, progress);
+        double scroll = scrollOffset(lineCount, visibleLines, activeLine, progress);
+
+        int first = (int) Math.floor(scroll);
+        int last = Math.min(lineCount - 1, first + visibleLines);
+        double y = textTop - (scroll - first) * LINE_HEIGHT;
+
+        gc.save();
+        gc.beginPath();
+        gc.rect(panelX, textTop, panelWidth, textHeight);
+        gc.clip();
+
+        gc.setFont(font);
+        gc.setTextBaseline(VPos.TOP);
+
+        for (int i = first; i <= last; i++) {
+            double lineY = y + (i - first) * LINE_HEIGHT;
+
+            if (i == activeLine) {
+                gc.setFill(activeLineColor);
+                gc.fillRect(panelX, lineY - (LINE_HEIGHT - FONT_SIZE) / 2, panelWidth, LINE_HEIGHT);
+            }
+
+            gc.setFill(lineNumberColor);
+            gc.setTextAlign(TextAlignment.RIGHT);
+            gc.fillText(String.valueOf(i + 1), codeX - PANEL_PADDING / 2, lineY);
+
+            gc.setTextAlign(TextAlignment.LEFT);
+            for (LayoutSpan span : layout.lines[i]) {
+                gc.setFill(span.color);
+                gc.fillText(span.text, codeX + span.x, lineY);
+            }
+        }
+
+        gc.restore();
+    }
+
+    private CodeLayout getLayout(Scene scene) {
+        CodeLayout layout = layouts.get(scene);
+        if (layout == null) {
+            String code = (String) scene.getVisualData("code");
+            if (code == null) {
+                return null;
+            }
+            layout = buildLayout(code);
+            layouts.put(scene, layout);
+        }
+        return layout;
+    }
+
+    private CodeLayout buildLayout(String code) {
+        if (font == null) {
+            font = Font.font("Courier New", FONT_SIZE);
+            Text probe = new Text("M");
+            probe.setFont(font);
+            charWidth = probe.getLayoutBounds().getWidth();
+        }
+
+        List<CodeHighlighter.StyledLine> styledLines = highlighter.highlight(code);
+        LayoutSpan[][] lines = new LayoutSpan[styledLines.size()][];
+        for (int i = 0; i < lines.length; i++) {
+            List<CodeHighlighter.Span> spans = styledLines.get(i).getSpans();
+            lines[i] = new LayoutSpan[spans.size()];
+            for (int j = 0; j < spans.size(); j++) {
+                CodeHighlighter.Span span = spans.get(j);
+                lines[i][j] = new LayoutSpan(span.text, span.column * charWidth, styleColors.get(span.style));
+            }
+        }
+        return new CodeLayout(lines);
+    }
+
+    private int activeLine(Scene scene, double progress) {
+        Object activeLines = scene.getVisualData("activeLines");
+        if (activeLines instanceof int[] trace && trace.length > 0) {
+            return trace[Math.min(trace.length - 1, (int) (progress * trace.length))];
+        }
+        Object activeLine = scene.getVisualData("activeLine");
+        return activeLine instanceof Integer line ? line : -1;
+    }
+
+    private double scrollOffset(int lineCount, int visibleLines, int activeLine, double progress) {
+        int maxScroll = lineCount - visibleLines;
+        if (maxScroll <= 0) {
+            return 0;
+        }
+        if (activeLine >= 0) {
+            return Math.max(0, Math.min(maxScroll, activeLine - visibleLines / 2));
+        }
+        return Easing.EASE_IN_OUT.apply(progress) * maxScroll;
+    }
+
+    private static class CodeLayout {
+        final LayoutSpan[][] lines;
+
+        CodeLayout(LayoutSpan[][] lines) {
+            this.lines = lines;
+        }
+    }
+
+    private static class LayoutSpan {
+        final String text;
+        final double x;
+        final Color color;
+
+        LayoutSpan(String text, double x, Color color) {
+            this.text = text;
+            this.x = x;
+            this.color = color;
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package com.ythub.rendering;
 
+import com.ythub.animation.AnimationEngine;
+import com.ythub.animation.ArrayRasterizer;
+import com.ythub.animation.SceneAnimation;
+import com.ythub.animation.StepSceneStream;
 import com.ythub.core.Scene;
 import com.ythub.core.Timeline;
+import com.ythub.core.TimelineSnapshot;
 import com.ythub.core.VideoConfig;
 import javafx.application.Platform;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
 import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
@@ -21,12 +27,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
 
 public class DirectVideoRenderer {
 
@@ -35,22 +47,41 @@ public class DirectVideoRenderer {
     private final VideoConfig config;
     private Canvas canvas;
     private GraphicsContext gc;
+    private AnimationEngine animationEngine;
     private static boolean javaFXInitialized = false;
     private final Object canvasLock = new Object();
+    private final ArrayRasterizer arrayRasterizer = new ArrayRasterizer();
+    private final CodeRenderer codeRenderer;
+    private final LayerCompositor compositor;
+    private final ExecutorService sharedRenderPool;
+    private final AssetCache assetCache;
+    private final Map<Scene, ClipSource> clips = Collections.synchronizedMap(new IdentityHashMap<>());
+    private volatile IntConsumer frameListener = frames -> { };
 
     public DirectVideoRenderer(VideoConfig config) {
+        this(config, null);
+    }
+
+    public DirectVideoRenderer(VideoConfig config, ExecutorService sharedRenderPool) {
+        this(config, sharedRenderPool, new AssetCache(config));
+    }
+
+    public DirectVideoRenderer(VideoConfig config, ExecutorService sharedRenderPool, AssetCache assetCache) {
         this.config = config;
+        this.assetCache = assetCache;
+        this.codeRenderer = new CodeRenderer(config);
+        this.compositor = new LayerCompositor((long) config.getRenderLayerCacheMb() * 1024 * 1024);
+        this.sharedRenderPool = sharedRenderPool;
 
-        if (!javaFXInitialized) {
-            initJavaFX();
-            javaFXInitialized = true;
-        }
+        initJavaFX();
 
         CountDownLatch latch = new CountDownLatch(1);
 
         Platform.runLater(() -> {
             canvas = new Canvas(config.getWidth(), config.getHeight());
             gc = canvas.getGraphicsContext2D();
+            animationEngine = new AnimationEngine(gc, config.getWidth(), config.getHeight(),
+                Color.web(config.getBackgroundColor()));
             latch.countDown();
         });
 
@@ -61,7 +92,11 @@ public class DirectVideoRenderer {
         }
     }
 
-    private void initJavaFX() {
+    private static synchronized void initJavaFX() {
+        if (javaFXInitialized) {
+            return;
+        }
+        javaFXInitialized = true;
         CountDownLatch latch = new CountDownLatch(1);
         Platform.startup(latch::countDown);
         try {
@@ -71,138 +106,237 @@ public class DirectVideoRenderer {
         }
     }
 
-    @SuppressWarnings("UseSpecificCatch")
+    public void setFrameListener(IntConsumer frameListener) {
+        this.frameListener = frameListener;
+    }
+
     public void renderTimelineDirectly(Timeline timeline, String outputPath) {
-        ExecutorService renderPool = null;
-        FFmpegFrameRecorder tempRecorder = null;
+        int fps = config.getFps();
+        int totalFrames = (int) (timeline.getTotalDuration() * fps);
+        EncodingPlan plan = EncodingPlan.forScenes(timeline.getScenes(), null, config);
+        prefetchAssets(timeline.getScenes());
 
         try {
-            tempRecorder = new FFmpegFrameRecorder(outputPath, config.getWidth(), config.getHeight());
-            final FFmpegFrameRecorder recorder = tempRecorder;
-            final Java2DFrameConverter converter = new Java2DFrameConverter();
-            recorder.setFrameRate(config.getFps());
-            recorder.setVideoBitrate(config.getBitrate() * 1000);
-
-            if ("hevc".equalsIgnoreCase(config.getCodec())) {
-                recorder.setVideoCodec(avcodec.AV_CODEC_ID_HEVC);
-                recorder.setVideoOption("preset", "medium");
-                recorder.setVideoOption("tune", "animation");
-            } else {
-                recorder.setVideoCodec(avcodec.AV_CODEC_ID_H264);
-                recorder.setVideoOption("preset", "medium");
-                recorder.setVideoOption("tune", "animation");
-            }
+            openClips(timeline.getScenes());
+            renderFrames(outputPath, timeline.getScenes(), totalFrames, plan,
+                frameIndex -> timelineFrame(timeline, frameIndex, config.getFps()));
+        } finally {
+            closeClips();
+        }
+    }
 
-            recorder.setVideoOption("g", String.valueOf(config.getFps()));
-            recorder.setVideoOption("keyint_min", String.valueOf(config.getFps()));
+    static FrameSpec timelineFrame(Timeline timeline, int frameIndex, int fps) {
+        double currentTime = (double) frameIndex / fps;
+        Scene scene = timeline.getSceneAtTime(currentTime);
+        if (scene == null) {
+            return null;
+        }
+        Scene prevScene = frameIndex > 0 ? timeline.getSceneAtTime((double) (frameIndex - 1) / fps) : null;
+        return frameSpec(scene, prevScene, currentTime - scene.getStartTime(), fps);
+    }
 
-            recorder.setFormat(config.getFormat());
-            recorder.setPixelFormat(avutil.AV_PIX_FMT_YUV420P);
+    public BufferedImage renderFrameAt(Timeline timeline, double time) {
+        int frameIndex = frameIndexAt(time, timeline.getTotalDuration());
+        return renderFrameToImageThreadSafe(timelineFrame(timeline, frameIndex, config.getFps()), true);
+    }
 
-            logger.info("Starting video encoder with ultrafast preset for maximum performance");
-            recorder.start();
+    public BufferedImage renderFrameAt(TimelineSnapshot snapshot, double time) {
+        int fps = config.getFps();
+        int frameIndex = frameIndexAt(time, snapshot.getTotalDuration());
+        double currentTime = (double) frameIndex / fps;
+        int sceneIndex = snapshot.findSceneIndex(currentTime);
+        if (sceneIndex < 0) {
+            return renderFrameToImageThreadSafe(null, true);
+        }
+        Scene scene = snapshot.getScene(sceneIndex);
+        Scene prevScene = null;
+        if (frameIndex > 0) {
+            int prevIndex = snapshot.findSceneIndex((double) (frameIndex - 1) / fps);
+            prevScene = prevIndex == sceneIndex ? scene : prevIndex >= 0 ? snapshot.getScene(prevIndex) : null;
+        }
+        return renderFrameToImageThreadSafe(frameSpec(scene, prevScene, currentTime - scene.getStartTime(), fps), true);
+    }
 
-            double totalDuration = timeline.getTotalDuration();
-            int totalFrames = (int) (totalDuration * config.getFps());
+    private int frameIndexAt(double time, double totalDuration) {
+        int fps = config.getFps();
+        int lastFrame = Math.max(0, (int) (totalDuration * fps) - 1);
+        return Math.max(0, Math.min(lastFrame, (int) Math.floor(time * fps + 1e-6)));
+    }
 
-            int numThreads = Runtime.getRuntime().availableProcessors() * 4;
-            int batchSize = Math.max(config.getFps() * 2, 120);
+    public int renderSceneSegment(List<Scene> scenes, Scene previousScene, String outputPath) {
+        int fps = config.getFps();
+        int[] sceneEndFrames = new int[scenes.size()];
+        int totalFrames = 0;
+        for (int i = 0; i < scenes.size(); i++) {
+            totalFrames += frameCount(scenes.get(i), fps);
+            sceneEndFrames[i] = totalFrames;
+        }
 
-            logger.info("ULTRA-FAST MODE: Rendering {} frames with {} threads in batches of {} frames",
-                totalFrames, numThreads, batchSize);
-            logger.info("Target: 10-minute video in under 1 minute");
+        if (totalFrames == 0) {
+            return 0;
+        }
+        if (scenes.size() == 1 && ClipSource.canStreamCopy(scenes.get(0), config)) {
+            int copied = ClipSource.streamCopy(scenes.get(0), config, outputPath);
+            if (copied == totalFrames) {
+                return copied;
+            }
+            logger.warn("Stream copy of clip scene {} produced {} of {} frames, re-encoding it instead",
+                scenes.get(0).getId(), copied, totalFrames);
+        }
 
-            renderPool = Executors.newFixedThreadPool(numThreads);
-            AtomicInteger framesRendered = new AtomicInteger(0);
-            AtomicInteger framesWritten = new AtomicInteger(0);
-            ConcurrentHashMap<Integer, BufferedImage> frameBuffer = new ConcurrentHashMap<>();
-            AtomicLong startTime = new AtomicLong(System.currentTimeMillis());
+        EncodingPlan plan = EncodingPlan.forScenes(scenes, previousScene, config);
+        prefetchAssets(scenes);
+        openClips(scenes);
+        try {
+            renderSegmentFrames(scenes, previousScene, sceneEndFrames, totalFrames, plan, outputPath);
+        } finally {
+            closeClips();
+        }
+        return totalFrames;
+    }
 
-            Thread writerThread = new Thread(() -> {
-                try {
-                    while (framesWritten.get() < totalFrames) {
-                        int nextFrame = framesWritten.get();
-                        BufferedImage frameImage = frameBuffer.remove(nextFrame);
-
-                        if (frameImage != null) {
-                            Frame frame = converter.convert(frameImage);
-                            recorder.record(frame);
-                            framesWritten.incrementAndGet();
-
-                            if (framesWritten.get() % (config.getFps() * 3) == 0) {
-                                int secondsRendered = framesWritten.get() / config.getFps();
-                                int totalSeconds = (int) totalDuration;
-                                double speedMultiplier = (double) framesWritten.get() /
-                                    (System.currentTimeMillis() - startTime.get()) * 1000 / config.getFps();
-                                logger.info("Progress: {}/{} seconds ({}%) - Speed: {:.1f}x realtime",
-                                    secondsRendered, totalSeconds,
-                                    (framesWritten.get() * 100 / totalFrames), speedMultiplier);
-                            }
-                        } else {
-                            Thread.sleep(1);
-                        }
-                    }
-                } catch (Exception e) {
-                    logger.error("Writer thread error", e);
+    private void renderSegmentFrames(List<Scene> scenes, Scene previousScene, int[] sceneEndFrames, int totalFrames,
+                                     EncodingPlan plan, String outputPath) {
+        int fps = config.getFps();
+        renderFrames(outputPath, scenes, totalFrames, plan, frameIndex -> {
+            int sceneIndex = Arrays.binarySearch(sceneEndFrames, frameIndex + 1);
+            if (sceneIndex < 0) {
+                sceneIndex = -sceneIndex - 1;
+            }
+            while (sceneIndex > 0 && sceneEndFrames[sceneIndex - 1] == sceneEndFrames[sceneIndex]) {
+                sceneIndex--;
+            }
+            Scene scene = scenes.get(sceneIndex);
+            int sceneStartFrame = sceneIndex > 0 ? sceneEndFrames[sceneIndex - 1] : 0;
+            int localFrame = frameIndex - sceneStartFrame;
+
+            Scene prevScene;
+            if (localFrame > 0) {
+                prevScene = scene;
+            } else {
+                int prevIndex = sceneIndex - 1;
+                while (prevIndex >= 0 && frameCount(scenes.get(prevIndex), fps) == 0) {
+                    prevIndex--;
                 }
-            });
+                prevScene = prevIndex >= 0 ? scenes.get(prevIndex) : previousScene;
+            }
+            return frameSpec(scene, prevScene, (double) localFrame / fps, fps);
+        });
+    }
+
+    private void openClips(List<Scene> scenes) {
+        for (Scene scene : scenes) {
+            if (ClipSource.isClip(scene)) {
+                clips.computeIfAbsent(scene, clip -> new ClipSource(clip, config));
+            }
+        }
+    }
 
-            writerThread.start();
+    private void closeClips() {
+        synchronized (clips) {
+            for (ClipSource clip : clips.values()) {
+                clip.close();
+            }
+            clips.clear();
+        }
+    }
 
-            for (int batchStart = 0; batchStart < totalFrames; batchStart += batchSize) {
-                int batchEnd = Math.min(batchStart + batchSize, totalFrames);
-                List<Future<?>> batchFutures = new ArrayList<>();
+    BufferedImage renderFrameImage(Scene scene, Scene prevScene, double localTime) {
+        return renderFrameToImageThreadSafe(frameSpec(scene, prevScene, localTime, config.getFps()));
+    }
 
-                for (int frameIndex = batchStart; frameIndex < batchEnd; frameIndex++) {
-                    final int finalFrameIndex = frameIndex;
-                    Future<?> future = renderPool.submit(() -> {
-                        try {
-                            double currentTime = (double) finalFrameIndex / config.getFps();
-                            Scene currentScene = timeline.getSceneAtTime(currentTime);
+    static FrameSpec frameSpec(Scene scene, Scene prevScene, double localTime, int fps) {
+        if (prevScene != scene) {
+            prevScene = StepSceneStream.lastStep(prevScene);
+        }
+        if (scene.getAnimationConfig(StepSceneStream.CONFIG_KEY) instanceof StepSceneStream steps
+                && steps.getSceneCount() > 0) {
+            Scene step = steps.sceneAt(localTime);
+            double frameTime = 1.0 / fps;
+            Scene prevStep = localTime >= frameTime ? steps.sceneAt(localTime - frameTime) : prevScene;
+            return new FrameSpec(step, prevStep, progress(step, localTime - step.getStartTime()));
+        }
+        return new FrameSpec(scene, prevScene, progress(scene, localTime));
+    }
 
-                            if (currentScene != null) {
-                                Scene prevScene = finalFrameIndex > 0 ?
-                                    timeline.getSceneAtTime((double) (finalFrameIndex - 1) / config.getFps()) : null;
+    private static double progress(Scene scene, double localTime) {
+        return scene.getDuration() > 0 ? Math.min(1, Math.max(0, localTime / scene.getDuration())) : 0;
+    }
 
-                                BufferedImage frameImage = renderFrameToImageThreadSafe(
-                                    currentScene, prevScene, currentTime, finalFrameIndex);
+    private static int frameCount(Scene scene, int fps) {
+        return (int) Math.round(scene.getDuration() * fps);
+    }
 
-                                frameBuffer.put(finalFrameIndex, frameImage);
-                                framesRendered.incrementAndGet();
-                            }
-                        } catch (Exception e) {
-                            logger.error("Error rendering frame {}", finalFrameIndex, e);
-                        }
-                    });
-                    batchFutures.add(future);
-                }
+    static int codecId(VideoConfig config) {
+        if ("hevc".equalsIgnoreCase(config.getCodec())) {
+            return avcodec.AV_CODEC_ID_HEVC;
+        } else if ("av1".equalsIgnoreCase(config.getCodec())) {
+            return avcodec.AV_CODEC_ID_AV1;
+        }
+        return avcodec.AV_CODEC_ID_H264;
+    }
 
-                for (Future<?> f : batchFutures) {
-                    f.get();
-                }
+    static FFmpegFrameRecorder createRecorder(String outputPath, VideoConfig config, EncodingPlan plan) {
+        FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(outputPath, config.getWidth(), config.getHeight());
+        recorder.setFrameRate(config.getFps());
+        recorder.setVideoBitrate(config.getBitrate() * 1000);
 
-                while (framesWritten.get() < batchEnd) {
-                    Thread.sleep(10);
-                }
+        recorder.setVideoCodec(codecId(config));
+        if (config.getEncoderName() != null && !config.getEncoderName().isEmpty()) {
+            recorder.setVideoCodecName(config.getEncoderName());
+        }
 
-                batchFutures.clear();
-            }
+        String encoder = EncodingPlan.getEncoderName(recorder);
+        if (config.getEncoderPreset() != null && !config.getEncoderPreset().isEmpty()) {
+            recorder.setVideoOption("preset", config.getEncoderPreset());
+        }
+        if ("libx264".equals(encoder) || "libx265".equals(encoder)) {
+            recorder.setVideoOption("tune", "animation");
+        }
+        if (config.getEncoderThreads() > 0) {
+            recorder.setVideoOption("threads", String.valueOf(config.getEncoderThreads()));
+        }
+        plan.applyTo(recorder);
 
-            writerThread.join();
+        recorder.setFormat(config.getFormat());
+        recorder.setPixelFormat(avutil.AV_PIX_FMT_YUV420P);
+        return recorder;
+    }
 
-            long elapsedMs = System.currentTimeMillis() - startTime.get();
-            double elapsedSec = elapsedMs / 1000.0;
-            double speedMultiplier = totalDuration / elapsedSec;
-            logger.info("Rendering completed in {:.1f} seconds ({:.1f}x realtime speed)",
-                elapsedSec, speedMultiplier);
+    @SuppressWarnings("UseSpecificCatch")
+    private void renderFrames(String outputPath, List<Scene> scenes, int totalFrames, EncodingPlan plan,
+                              IntFunction<FrameSpec> frames) {
+        ExecutorService renderPool = null;
+        FFmpegFrameRecorder tempRecorder = null;
+
+        try {
+            tempRecorder = createRecorder(outputPath, config, plan);
+            final FFmpegFrameRecorder recorder = tempRecorder;
+
+            logger.info("Starting {} encoder (preset {}, {} threads) with {}", EncodingPlan.getEncoderName(recorder),
+                config.getEncoderPreset(), config.getEncoderThreads() > 0 ? config.getEncoderThreads() : "auto", plan);
+            recorder.start();
+
+            int numThreads = config.getRenderThreads();
+            RenderController controller = new RenderController(config, (long) config.getWidth() * config.getHeight() * 8);
+            logger.info("Rendering {} frames with up to {} threads: {}", totalFrames, numThreads, controller);
+            retainWindows(scenes, controller);
+
+            ExecutorService framePool = sharedRenderPool;
+            if (framePool == null) {
+                renderPool = Executors.newFixedThreadPool(numThreads);
+                framePool = renderPool;
+            }
+            runPipeline(recorder, plan, config, totalFrames, framePool, controller,
+                frameIndex -> renderFrameToImageThreadSafe(frames.apply(frameIndex)), frameListener);
 
             recorder.stop();
             recorder.release();
 
+            logger.info("Layer cache: {}", compositor.getStats());
+            assetCache.logStats();
             logger.info("Multi-threaded video rendering complete: {}", outputPath);
 
-            converter.close();
-
         } catch (Exception e) {
             logger.error("Error rendering video directly", e);
             throw new RuntimeException("Direct video rendering failed", e);
@@ -228,28 +362,212 @@ public class DirectVideoRenderer {
         }
     }
 
-    private BufferedImage renderFrameToImageThreadSafe(Scene scene, Scene prevScene,
-                                                        double currentTime, @SuppressWarnings("unused") int frameIndex) {
+    private void retainWindows(List<Scene> scenes, RenderController controller) {
+        double seconds = (double) controller.getMaxWindow() / config.getFps() + 1;
+        for (Scene scene : scenes) {
+            if (scene.getAnimationConfig(StepSceneStream.CONFIG_KEY) instanceof StepSceneStream steps) {
+                steps.retainSeconds(seconds);
+            }
+            ClipSource clip = clips.get(scene);
+            if (clip != null) {
+                clip.retainFrames(controller.getMaxWindow() + 1);
+            }
+        }
+    }
+
+    static void runPipeline(FFmpegFrameRecorder recorder, EncodingPlan plan, VideoConfig config, int totalFrames,
+                            ExecutorService framePool, RenderController controller,
+                            IntFunction<BufferedImage> rasterizer, IntConsumer listener) throws Exception {
+        final Java2DFrameConverter converter = new Java2DFrameConverter();
+        double totalDuration = (double) totalFrames / config.getFps();
+
+        AtomicInteger framesRendered = new AtomicInteger(0);
+        AtomicInteger framesWritten = new AtomicInteger(0);
+        ConcurrentHashMap<Integer, PendingFrame> frameBuffer = new ConcurrentHashMap<>();
+        ThreadLocal<Java2DFrameConverter> renderConverters = ThreadLocal.withInitial(Java2DFrameConverter::new);
+        AtomicLong startTime = new AtomicLong(System.currentTimeMillis());
+        AtomicReference<Throwable> writerError = new AtomicReference<>();
+
+        Thread writerThread = new Thread(() -> {
+            try {
+                while (framesWritten.get() < totalFrames) {
+                    int nextFrame = framesWritten.get();
+                    PendingFrame pending = frameBuffer.remove(nextFrame);
+
+                    if (pending != null) {
+                        Frame frame = pending.frame;
+                        if (frame == null) {
+                            long convertStart = System.nanoTime();
+                            frame = converter.convert(pending.image);
+                            controller.recordWriterConversion(System.nanoTime() - convertStart);
+                        }
+                        long encodeStart = System.nanoTime();
+                        plan.record(recorder, frame, nextFrame);
+                        controller.recordEncode(System.nanoTime() - encodeStart);
+                        if (pending.frame != null) {
+                            pending.frame.close();
+                        }
+                        listener.accept(framesWritten.incrementAndGet());
+
+                        if (framesWritten.get() % (config.getFps() * 3) == 0) {
+                            int secondsRendered = framesWritten.get() / config.getFps();
+                            int totalSeconds = (int) totalDuration;
+                            double speedMultiplier = (double) framesWritten.get() /
+                                (System.currentTimeMillis() - startTime.get()) * 1000 / config.getFps();
+                            logger.info("Progress: {}/{} seconds ({}%) - Speed: {}x realtime",
+                                secondsRendered, totalSeconds,
+                                (framesWritten.get() * 100 / totalFrames), String.format("%.1f", speedMultiplier));
+                        }
+                    } else {
+                        long idleStart = System.nanoTime();
+                        Thread.sleep(1);
+                        controller.recordWriterIdle(System.nanoTime() - idleStart);
+                    }
+                }
+            } catch (Exception e) {
+                logger.error("Writer thread error", e);
+                writerError.set(e);
+            }
+        });
+
+        writerThread.start();
+
+        List<Future<?>> futures = new ArrayList<>();
+        int nextFrame = 0;
+        while (nextFrame < totalFrames) {
+            if (writerError.get() != null) {
+                throw new IllegalStateException("Video writer failed", writerError.get());
+            }
+            controller.sampleOccupancy(frameBuffer.size());
+            controller.update(framesRendered.get(), framesWritten.get());
+
+            if (!controller.tryAcquire(nextFrame, framesWritten.get())) {
+                futures.removeIf(Future::isDone);
+                Thread.sleep(1);
+                continue;
+            }
+
+            final int finalFrameIndex = nextFrame++;
+            final boolean convertInRenderer = controller.isConvertInRenderers();
+            futures.add(framePool.submit(() -> {
+                try {
+                    long renderStart = System.nanoTime();
+                    BufferedImage frameImage = rasterizer.apply(finalFrameIndex);
+                    controller.recordRender(System.nanoTime() - renderStart);
+                    PendingFrame pending = new PendingFrame(frameImage);
+                    if (convertInRenderer) {
+                        long convertStart = System.nanoTime();
+                        pending.frame = renderConverters.get().convert(frameImage).clone();
+                        pending.image = null;
+                        controller.recordRenderConversion(System.nanoTime() - convertStart);
+                    }
+                    frameBuffer.put(finalFrameIndex, pending);
+                    framesRendered.incrementAndGet();
+                } catch (Exception e) {
+                    logger.error("Error rendering frame {}", finalFrameIndex, e);
+                } finally {
+                    controller.release();
+                }
+            }));
+        }
+
+        for (Future<?> f : futures) {
+            f.get();
+        }
+
+        while (writerThread.isAlive()) {
+            controller.update(framesRendered.get(), framesWritten.get());
+            writerThread.join(100);
+        }
+        if (writerError.get() != null) {
+            throw new IllegalStateException("Video writer failed", writerError.get());
+        }
+        logger.info("Render pipeline finished after {} controller decisions: {}", controller.getDecisions(),
+            controller);
+
+        long elapsedMs = System.currentTimeMillis() - startTime.get();
+        double elapsedSec = elapsedMs / 1000.0;
+        double speedMultiplier = totalDuration / elapsedSec;
+        logger.info("Rendering completed in {} seconds ({}x realtime speed)",
+            String.format("%.1f", elapsedSec), String.format("%.1f", speedMultiplier));
+
+        converter.close();
+    }
+
+    private void prefetchAssets(List<Scene> scenes) {
+        if (config.getLogoFile() != null) {
+            double[] box = logoBox();
+            assetCache.prefetch(config.getLogoFile(), (int) box[2], (int) box[3]);
+        }
+        for (Scene scene : scenes) {
+            if (scene.getVisualData("image") instanceof String path) {
+                double[] box = imageBox(scene);
+                assetCache.prefetch(path, (int) box[2], (int) box[3]);
+            }
+        }
+    }
+
+    private void awaitAssets(Scene scene) {
+        if (scene != null && scene.getVisualData("image") instanceof String path) {
+            double[] box = imageBox(scene);
+            AssetCache.Asset asset = assetCache.prefetch(path, (int) box[2], (int) box[3]).join();
+            if (asset != null) {
+                asset.getFxImage();
+            }
+        }
+    }
+
+    private Map<Scene, Image> decodeClipFrames(FrameSpec spec, boolean seekClips) {
+        Map<Scene, Image> clipFrames = new IdentityHashMap<>();
+        for (Scene scene : new Scene[] {spec.scene, spec.prevScene}) {
+            ClipSource clip = scene != null ? clips.get(scene) : null;
+            if ((clip != null || seekClips && ClipSource.isClip(scene)) && !clipFrames.containsKey(scene)) {
+                int frames = (int) Math.round(scene.getDuration() * config.getFps());
+                int frame = scene == spec.scene
+                    ? (int) Math.round(spec.progress * scene.getDuration() * config.getFps()) : frames - 1;
+                frame = Math.max(0, Math.min(frames - 1, frame));
+                BufferedImage image = clip != null
+                    ? clip.frameAt(frame) : ClipSource.frameAt(scene, config, (double) frame / config.getFps());
+                if (image != null) {
+                    clipFrames.put(scene, SwingFXUtils.toFXImage(image, null));
+                }
+            }
+        }
+        return clipFrames;
+    }
+
+    private BufferedImage renderFrameToImageThreadSafe(FrameSpec spec) {
+        return renderFrameToImageThreadSafe(spec, false);
+    }
+
+    private BufferedImage renderFrameToImageThreadSafe(FrameSpec spec, boolean seekClips) {
+        Map<Scene, Image> clipFrames = Map.of();
+        if (spec != null) {
+            awaitAssets(spec.scene);
+            awaitAssets(spec.prevScene);
+            clipFrames = decodeClipFrames(spec, seekClips);
+        }
+        final Map<Scene, Image> frameClips = clipFrames;
         synchronized (canvasLock) {
             AtomicReference<BufferedImage> imageRef = new AtomicReference<>();
             CountDownLatch latch = new CountDownLatch(1);
 
             Platform.runLater(() -> {
                 try {
-                    clearCanvas(gc, canvas);
-
-                    double sceneProgress = scene.getStartTime() > 0 ?
-                        (currentTime - scene.getStartTime()) / scene.getDuration() : 0;
-
-                    boolean isTransitioning = prevScene != null &&
-                        !prevScene.equals(scene) &&
-                        sceneProgress < 0.2;
-
-                    if (isTransitioning) {
-                        double transitionProgress = sceneProgress / 0.2;
-                        renderTransitionEffect(gc, canvas, prevScene, scene, transitionProgress);
+                    if (spec == null) {
+                        compositor.composite(gc, List.of(backgroundLayer(canvas)), 1);
                     } else {
-                        renderSceneWithAnimation(gc, canvas, scene, sceneProgress);
+                        boolean isTransitioning = spec.prevScene != null &&
+                            !spec.prevScene.equals(spec.scene) &&
+                            spec.progress < 0.2;
+
+                        if (isTransitioning) {
+                            double transitionProgress = spec.progress / 0.2;
+                            renderTransitionEffect(gc, canvas, spec.prevScene, spec.scene, transitionProgress,
+                                frameClips);
+                        } else {
+                            renderSceneWithAnimation(gc, canvas, spec.scene, spec.progress, frameClips);
+                        }
                     }
 
                     WritableImage snapshot = new WritableImage((int) canvas.getWidth(), (int) canvas.getHeight());
@@ -271,161 +589,238 @@ public class DirectVideoRenderer {
         }
     }
 
-    private void renderTransitionEffect(GraphicsContext gc, Canvas canvas, Scene prevScene, Scene newScene, double progress) {
+    private void renderTransitionEffect(GraphicsContext gc, Canvas canvas, Scene prevScene, Scene newScene, double progress,
+                                        Map<Scene, Image> clipFrames) {
         if (progress < 0.5) {
-            renderSceneWithAnimation(gc, canvas, prevScene, 1.0);
+            renderSceneWithAnimation(gc, canvas, prevScene, 1.0, clipFrames);
         } else {
-            renderSceneWithAnimation(gc, canvas, newScene, 0.0);
+            renderSceneWithAnimation(gc, canvas, newScene, 0.0, clipFrames);
         }
     }
 
-    private void renderSceneWithAnimation(GraphicsContext gc, Canvas canvas, Scene scene, @SuppressWarnings("unused") double progress) {
+    private void renderSceneWithAnimation(GraphicsContext gc, Canvas canvas, Scene scene, double progress,
+                                          Map<Scene, Image> clipFrames) {
+        SceneAnimation animation = animationEngine.getSceneAnimation(scene);
+        List<LayerCompositor.Layer> layers = new ArrayList<>();
+        layers.add(backgroundLayer(canvas));
+
         switch (scene.getType()) {
-            case INTRO -> renderIntro(gc, canvas, scene);
-            case OUTRO -> renderOutro(gc, canvas, scene);
-            case TITLE_SLIDE -> renderTitleSlide(gc, canvas, scene);
-            case NARRATION -> renderNarration(gc, canvas, scene);
-            case CODE_DISPLAY -> renderCodeDisplay(gc, canvas, scene);
-            case VISUALIZATION -> renderVisualization(gc, canvas, scene);
-            case ANIMATION -> renderAnimation(gc, canvas, scene);
-            case TRANSITION -> renderTransition(gc, canvas);
+            case INTRO -> addIntroLayers(layers, canvas, scene);
+            case OUTRO -> addOutroLayers(layers, canvas);
+            case TITLE_SLIDE, ANIMATION -> addTitleSlideLayers(layers, canvas, scene);
+            case NARRATION -> addNarrationLayers(layers, canvas, scene);
+            case CODE_DISPLAY -> layers.add(LayerCompositor.Layer.dynamic("code", true,
+                g -> codeRenderer.render(g, canvas.getWidth(), canvas.getHeight(), scene, progress)));
+            case VISUALIZATION -> addVisualizationLayers(layers, canvas, scene, animation, progress);
+            case VIDEO_CLIP -> addClipLayer(layers, canvas, clipFrames.get(scene));
+            case TRANSITION -> { }
+        }
+
+        if (scene.getVisualData("image") instanceof String path) {
+            double[] box = imageBox(scene);
+            addImageLayer(layers, "image", path, box, true);
+        }
+        if (config.getLogoFile() != null) {
+            addImageLayer(layers, "logo", config.getLogoFile(), logoBox(), false);
+        }
+
+        compositor.composite(gc, layers, animation.valueAt(AnimationEngine.SCENE_ALPHA, progress, 1));
+    }
+
+    private void addClipLayer(List<LayerCompositor.Layer> layers, Canvas canvas, Image frame) {
+        if (frame != null) {
+            layers.add(LayerCompositor.Layer.image("clip", frame, (canvas.getWidth() - frame.getWidth()) / 2,
+                (canvas.getHeight() - frame.getHeight()) / 2, true));
         }
     }
 
-    private void clearCanvas(GraphicsContext gc, Canvas canvas) {
-        gc.setFill(Color.web(config.getBackgroundColor()));
-        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+    private void addImageLayer(List<LayerCompositor.Layer> layers, String name, String path, double[] box,
+                               boolean fades) {
+        AssetCache.Asset asset = assetCache.get(path, (int) box[2], (int) box[3]);
+        if (asset != null) {
+            layers.add(LayerCompositor.Layer.image(name, asset.getFxImage(),
+                box[0] + (box[2] - asset.getWidth()) / 2, box[1] + (box[3] - asset.getHeight()) / 2, fades));
+        }
     }
 
-    private void renderIntro(GraphicsContext gc, Canvas canvas, Scene scene) {
-        String title = (String) scene.getVisualData("title");
-        if (title == null) title = "Educational Video";
+    private double[] imageBox(Scene scene) {
+        double[] fractions = {0.1, 0.22, 0.8, 0.6};
+        Object box = scene.getVisualData("imageBox");
+        if (box instanceof double[] values && values.length == 4) {
+            fractions = values;
+        } else if (box instanceof List<?> values && values.size() == 4) {
+            for (int i = 0; i < 4; i++) {
+                fractions[i] = ((Number) values.get(i)).doubleValue();
+            }
+        }
+        double width = config.getWidth();
+        double height = config.getHeight();
+        return new double[] {fractions[0] * width, fractions[1] * height,
+            Math.max(1, fractions[2] * width), Math.max(1, fractions[3] * height)};
+    }
 
-        gc.setFill(Color.WHITE);
-        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+    private double[] logoBox() {
+        double width = config.getWidth() * 0.12;
+        double height = config.getHeight() * 0.12;
+        double margin = config.getHeight() * 0.03;
+        return new double[] {config.getWidth() - width - margin, margin, width, height};
+    }
 
-        gc.setFill(Color.BLACK);
-        gc.setFont(Font.font("Arial", FontWeight.BOLD, 120));
-        gc.setTextAlign(TextAlignment.CENTER);
-        gc.fillText(title, canvas.getWidth() / 2, canvas.getHeight() / 2);
+    private LayerCompositor.Layer backgroundLayer(Canvas canvas) {
+        String color = config.getBackgroundColor();
+        return LayerCompositor.Layer.dynamic("background", false,
+            g -> {
+                g.setFill(Color.web(color));
+                g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+            });
     }
 
-    private void renderOutro(GraphicsContext gc, Canvas canvas, @SuppressWarnings("unused") Scene scene) {
-        gc.setFill(Color.WHITE);
-        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+    private LayerCompositor.Layer textLayer(String name, Object content, Canvas canvas, double baseline,
+                                            double fontSize, int lines, double lineHeight,
+                                            LayerCompositor.Painter painter) {
+        double top = Math.max(0, baseline - fontSize);
+        double bottom = Math.min(canvas.getHeight(), baseline + fontSize * 0.4 + (lines - 1) * lineHeight);
+        return LayerCompositor.Layer.cached(name, content, 0, top, canvas.getWidth(), bottom - top, true, painter);
+    }
 
-        gc.setFill(Color.BLACK);
-        gc.setFont(Font.font("Arial", FontWeight.BOLD, 100));
-        gc.setTextAlign(TextAlignment.CENTER);
-        gc.fillText("Thank You!", canvas.getWidth() / 2, canvas.getHeight() / 2);
-        gc.setFont(Font.font("Arial", 60));
-        gc.fillText("Subscribe for More!", canvas.getWidth() / 2, canvas.getHeight() / 2 + 100);
+    private void addIntroLayers(List<LayerCompositor.Layer> layers, Canvas canvas, Scene scene) {
+        String title = (String) scene.getVisualData("title");
+        if (title == null) title = "Educational Video";
+
+        final String text = title;
+        layers.add(LayerCompositor.Layer.cached("intro", text, 0, 0, canvas.getWidth(), canvas.getHeight(), true,
+            g -> {
+                g.setFill(Color.WHITE);
+                g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+                g.setFill(Color.BLACK);
+                g.setFont(Font.font("Arial", FontWeight.BOLD, 120));
+                g.setTextAlign(TextAlignment.CENTER);
+                g.fillText(text, canvas.getWidth() / 2, canvas.getHeight() / 2);
+            }));
+    }
+
+    private void addOutroLayers(List<LayerCompositor.Layer> layers, Canvas canvas) {
+        layers.add(LayerCompositor.Layer.cached("outro", "Thank You!", 0, 0, canvas.getWidth(), canvas.getHeight(),
+            true, g -> {
+                g.setFill(Color.WHITE);
+                g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+                g.setFill(Color.BLACK);
+                g.setFont(Font.font("Arial", FontWeight.BOLD, 100));
+                g.setTextAlign(TextAlignment.CENTER);
+                g.fillText("Thank You!", canvas.getWidth() / 2, canvas.getHeight() / 2);
+                g.setFont(Font.font("Arial", 60));
+                g.fillText("Subscribe for More!", canvas.getWidth() / 2, canvas.getHeight() / 2 + 100);
+            }));
     }
 
-    private void renderTitleSlide(GraphicsContext gc, Canvas canvas, Scene scene) {
+    private void addTitleSlideLayers(List<LayerCompositor.Layer> layers, Canvas canvas, Scene scene) {
         String title = (String) scene.getVisualData("title");
         if (title != null) {
-            gc.setFill(Color.web(config.getTextColor()));
-            gc.setFont(Font.font("Arial", FontWeight.BOLD, 80));
-            gc.setTextAlign(TextAlignment.CENTER);
-            gc.fillText(title, canvas.getWidth() / 2, canvas.getHeight() / 2);
+            layers.add(centeredTextLayer("title", canvas, title, Font.font("Arial", FontWeight.BOLD, 80),
+                canvas.getHeight() / 2));
         }
     }
 
-    private void renderNarration(GraphicsContext gc, Canvas canvas, Scene scene) {
+    private void addNarrationLayers(List<LayerCompositor.Layer> layers, Canvas canvas, Scene scene) {
         String title = (String) scene.getVisualData("title");
         if (title != null) {
-            gc.setFill(Color.web(config.getTextColor()));
-            gc.setFont(Font.font("Arial", FontWeight.BOLD, 100));
-            gc.setTextAlign(TextAlignment.CENTER);
-            gc.fillText(title, canvas.getWidth() / 2, 300);
+            layers.add(centeredTextLayer("title", canvas, title, Font.font("Arial", FontWeight.BOLD, 100), 300));
         }
 
         String text = scene.getNarrationText();
         if (text != null) {
-            gc.setFill(Color.web(config.getTextColor()));
-            gc.setFont(Font.font("Arial", 45));
-            gc.setTextAlign(TextAlignment.CENTER);
-            wrapText(gc, text, canvas.getWidth() / 2, canvas.getHeight() / 2 + 100, canvas.getWidth() - 400);
+            String color = config.getTextColor();
+            double y = canvas.getHeight() / 2 + 100;
+            int lines = Math.max(1, (text.split(" ").length + 11) / 12);
+            layers.add(textLayer("caption", List.of(text, color), canvas, y, 45, lines, 65, g -> {
+                g.setFill(Color.web(color));
+                g.setFont(Font.font("Arial", 45));
+                g.setTextAlign(TextAlignment.CENTER);
+                wrapText(g, text, canvas.getWidth() / 2, y, canvas.getWidth() - 400);
+            }));
         }
     }
 
-    private void renderCodeDisplay(GraphicsContext gc, Canvas canvas, Scene scene) {
-        String code = (String) scene.getVisualData("code");
-        if (code != null) {
-            gc.setFill(Color.WHITE);
-            gc.fillRect(100, 100, canvas.getWidth() - 200, canvas.getHeight() - 200);
+    private void addVisualizationLayers(List<LayerCompositor.Layer> layers, Canvas canvas, Scene scene,
+                                        SceneAnimation animation, double progress) {
+        int[] array = (int[]) scene.getVisualData("array");
+        if (array == null) {
+            addTitleSlideLayers(layers, canvas, scene);
+            return;
+        }
 
-            gc.setFill(Color.BLACK);
-            gc.setFont(Font.font("Courier New", 35));
-            gc.setTextAlign(TextAlignment.LEFT);
+        layers.add(centeredTextLayer("title", canvas, "Bubble Sort", Font.font("Arial", FontWeight.BOLD, 90), 180));
+        layers.add(LayerCompositor.Layer.dynamic("bars", true,
+            g -> renderBars(g, canvas, scene, array, animation, progress)));
 
-            String[] lines = code.split("\n");
-            double y = 180;
-            for (String line : lines) {
-                gc.fillText(line, 150, y);
-                y += 50;
-            }
+        String description = scene.getNarrationText();
+        if (description == null) {
+            description = (String) scene.getVisualData("description");
+        }
+        if (description != null) {
+            layers.add(centeredTextLayer("caption", canvas, description, Font.font("Arial", 55),
+                canvas.getHeight() - 80));
         }
     }
 
-    private void renderVisualization(GraphicsContext gc, Canvas canvas, Scene scene) {
-        int[] array = (int[]) scene.getVisualData("array");
+    private LayerCompositor.Layer centeredTextLayer(String name, Canvas canvas, String text, Font font, double y) {
+        String color = config.getTextColor();
+        return textLayer(name, List.of(text, color, font), canvas, y, font.getSize(), 1, 0, g -> {
+            g.setFill(Color.web(color));
+            g.setFont(font);
+            g.setTextAlign(TextAlignment.CENTER);
+            g.fillText(text, canvas.getWidth() / 2, y);
+        });
+    }
+
+    private void renderBars(GraphicsContext gc, Canvas canvas, Scene scene, int[] array,
+                            SceneAnimation animation, double progress) {
         Integer highlight1 = (Integer) scene.getVisualData("highlight1");
         Integer highlight2 = (Integer) scene.getVisualData("highlight2");
 
-        if (array != null) {
-            gc.setFill(Color.web(config.getTextColor()));
-            gc.setFont(Font.font("Arial", FontWeight.BOLD, 90));
-            gc.setTextAlign(TextAlignment.CENTER);
-            gc.fillText("Bubble Sort", canvas.getWidth() / 2, 180);
+        double plotWidth = canvas.getWidth() - 300;
+        double barWidth = plotWidth / array.length;
+        double maxBarHeight = canvas.getHeight() - 600;
+        double x = 150;
+        double y = 300;
 
-            double barWidth = (canvas.getWidth() - 300) / array.length;
-            double maxBarHeight = canvas.getHeight() - 600;
-            double x = 150;
-            double y = 300;
+        int h1 = highlight1 != null ? highlight1 : -1;
+        int h2 = highlight2 != null ? highlight2 : -1;
+        Color barColor = Color.web("#2196F3");
+        Color highlightColor = Color.web("#FFD700");
 
+        if (ArrayRasterizer.shouldRasterize(array.length, plotWidth)) {
+            arrayRasterizer.draw(gc, array, (int) x, (int) y, (int) plotWidth, (int) maxBarHeight,
+                    barColor, highlightColor, Color.web(config.getBackgroundColor()), h1, h2);
+        } else {
             int maxValue = findMax(array);
+            boolean drawLabels = ArrayRasterizer.shouldDrawLabels(array.length, plotWidth);
+            Color labelColor = Color.web(config.getTextColor());
+            double offset1 = animation.valueAt(AnimationEngine.HIGHLIGHT1_OFFSET, progress, 0) * barWidth;
+            double offset2 = animation.valueAt(AnimationEngine.HIGHLIGHT2_OFFSET, progress, 0) * barWidth;
+            Color activeColor = barColor.interpolate(highlightColor,
+                    animation.valueAt(AnimationEngine.HIGHLIGHT_ALPHA, progress, 1));
+            gc.setFont(Font.font("Arial", FontWeight.BOLD, 50));
+            gc.setTextAlign(TextAlignment.CENTER);
 
             for (int i = 0; i < array.length; i++) {
                 double barHeight = (array[i] / (double) maxValue) * maxBarHeight;
-                double barX = x + i * barWidth;
+                double barX = x + i * barWidth + (i == h1 ? offset1 : i == h2 ? offset2 : 0);
                 double barY = y + maxBarHeight - barHeight;
 
-                if ((highlight1 != null && i == highlight1) || (highlight2 != null && i == highlight2)) {
-                    gc.setFill(Color.web("#FFD700"));
-                } else {
-                    gc.setFill(Color.web("#2196F3"));
-                }
-
+                gc.setFill(i == h1 || i == h2 ? activeColor : barColor);
                 gc.fillRect(barX, barY, barWidth - 15, barHeight);
 
-                gc.setFill(Color.web(config.getTextColor()));
-                gc.setFont(Font.font("Arial", FontWeight.BOLD, 50));
-                gc.setTextAlign(TextAlignment.CENTER);
-                gc.fillText(String.valueOf(array[i]), barX + barWidth / 2, y + maxBarHeight + 70);
-            }
-
-            String description = scene.getNarrationText();
-            if (description != null) {
-                gc.setFill(Color.web(config.getTextColor()));
-                gc.setFont(Font.font("Arial", 55));
-                gc.setTextAlign(TextAlignment.CENTER);
-                gc.fillText(description, canvas.getWidth() / 2, canvas.getHeight() - 80);
+                if (drawLabels) {
+                    gc.setFill(labelColor);
+                    gc.fillText(String.valueOf(array[i]), barX + barWidth / 2, y + maxBarHeight + 70);
+                }
             }
-        } else {
-            renderTitleSlide(gc, canvas, scene);
         }
     }
 
-    private void renderAnimation(GraphicsContext gc, Canvas canvas, Scene scene) {
-        renderTitleSlide(gc, canvas, scene);
-    }
-
-    private void renderTransition(GraphicsContext gc, Canvas canvas) {
-        clearCanvas(gc, canvas);
-    }
-
     private void wrapText(GraphicsContext gc, String text, double x, double y, @SuppressWarnings("unused") double maxWidth) {
         String[] words = text.split(" ");
         StringBuilder line = new StringBuilder();
@@ -457,4 +852,25 @@ public class DirectVideoRenderer {
         }
         return max;
     }
+
+    private static class PendingFrame {
+        BufferedImage image;
+        Frame frame;
+
+        PendingFrame(BufferedImage image) {
+            this.image = image;
+        }
+    }
+
+    static class FrameSpec {
+        final Scene scene;
+        final Scene prevScene;
+        final double progress;
+
+        FrameSpec(Scene scene, Scene prevScene, double progress) {
+            this.scene = scene;
+            this.prevScene = prevScene;
+            this.progress = progress;
+        }
+    }
 }
@@ -0,0 +1,491 @@
+package com.ythub.rendering;
+
+import com.ythub.animation.StepSceneStream;
+import com.ythub.core.Scene;
+import com.ythub.core.ScriptLoader;
+import com.ythub.core.Timeline;
+import com.ythub.core.VideoConfig;
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.File;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+public class EncoderAutotuner {
+
+    private static final Candidate[] CANDIDATES = {
+        new Candidate("h264", "libx264", null, "ultrafast", "veryfast", "medium"),
+        new Candidate("hevc", "libx265", null, "ultrafast", "veryfast", "medium"),
+        new Candidate("h264", "libopenh264", null),
+        new Candidate("h264", "h264_nvenc", "/dev/nvidiactl", "p1", "p4"),
+        new Candidate("hevc", "hevc_nvenc", "/dev/nvidiactl", "p1", "p4"),
+        new Candidate("av1", "libsvtav1", null, "12", "10")
+    };
+
+    private static final String RENDERER_FRAMES = "renderer";
+    private static final String STAND_IN_FRAMES = "headless stand-in";
+    private static final double SSIM_TOLERANCE = 0.01;
+    private static final int QUALITY_STRIDE = 2;
+
+    public static void main(String[] args) throws Exception {
+        File script = new File(args.length > 0 ? args[0] : "src/main/resources/scripts/dsa/bubble-sort.json");
+        String start = args.length > 1 ? args[1] : "auto";
+        double sliceSeconds = args.length > 2 ? Double.parseDouble(args[2]) : 4;
+        String resolutionList = args.length > 3 ? args[3] : "HD_1080P_30,UHD_4K";
+        Path profilePath = Paths.get(args.length > 4 ? args[4] : "config/encoder-profile.json");
+
+        Path directory = Paths.get("temp/autotune");
+        Files.createDirectories(directory);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        TreeSet<Integer> threadCounts = new TreeSet<>(List.of(0, 1, 2, 4, cores));
+        threadCounts.removeIf(threads -> threads > cores);
+        List<Integer> parallelCounts = cores > 1 ? List.of(1, 2) : List.of(1);
+
+        System.out.println("=== Encoder Autotuner ===");
+        System.out.printf("Script: %s, %.1f s slice starting at %s, %d cores, threads %s, parallel encoders %s%n",
+            script, sliceSeconds, start, cores, threadCounts, parallelCounts);
+
+        EncoderProfile profile = Files.isRegularFile(profilePath) ? EncoderProfile.load(profilePath) : new EncoderProfile();
+        profile.setGeneratedAt(Instant.now().toString());
+        profile.setHost(InetAddress.getLocalHost().getHostName() + " (" + cores + " cores)");
+
+        boolean standIn = false;
+        for (String name : resolutionList.split(",")) {
+            VideoConfig.Resolution resolution = VideoConfig.Resolution.valueOf(name.trim());
+            VideoConfig config = new VideoConfig(resolution);
+
+            Timeline timeline = new ScriptLoader(config).load(script);
+            timeline.quantizeToFrames(config.getFps());
+            double startSeconds = "auto".equals(start)
+                ? representativeStart(timeline, sliceSeconds) : Double.parseDouble(start);
+            List<Scene> scenes = slice(timeline, startSeconds, sliceSeconds);
+            FrameSet frames = FrameSet.render(timeline, startSeconds, scenes, config);
+            standIn |= STAND_IN_FRAMES.equals(frames.source);
+
+            System.out.printf("%n--- %s: %.1f-%.1f s, %d frames (%d distinct) from %d scenes, %s source frames ---%n",
+                resolution.name, startSeconds, startSeconds + sliceSeconds, frames.sequence.length,
+                frames.images.size(), scenes.size(), frames.source);
+
+            List<EncoderProfile.Entry> results = new ArrayList<>();
+            for (Candidate candidate : CANDIDATES) {
+                if (avcodec.avcodec_find_encoder_by_name(candidate.encoder) == null) {
+                    System.out.printf("  %-12s not built into this FFmpeg%n", candidate.encoder);
+                    continue;
+                }
+                if (candidate.device != null && !Files.exists(Paths.get(candidate.device))) {
+                    System.out.printf("  %-12s skipped, no %s device%n", candidate.encoder, candidate.device);
+                    continue;
+                }
+                sweep:
+                for (String preset : candidate.presets) {
+                    for (int threads : threadCounts) {
+                        for (int parallel : parallelCounts) {
+                            VideoConfig trial = new VideoConfig(resolution);
+                            trial.setCodec(candidate.codec);
+                            trial.setEncoderName(candidate.encoder);
+                            trial.setEncoderPreset(preset);
+                            trial.setEncoderThreads(threads);
+                            trial.setFormat("mp4");
+                            try {
+                                EncoderProfile.Entry result = run(trial, scenes, frames, parallel, directory);
+                                results.add(result);
+                                System.out.println("  " + result);
+                            } catch (Exception e) {
+                                System.out.printf("  %-12s unavailable: %s%n", candidate.encoder, e.getMessage());
+                                break sweep;
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (results.isEmpty()) {
+                System.out.println("  No encoder could be opened, nothing written for " + resolution.name);
+                continue;
+            }
+
+            List<EncoderProfile.Entry> front = paretoFront(results);
+            EncoderProfile.Entry best = choose(front);
+            System.out.println("  Pareto front (fps / size / SSIM):");
+            for (EncoderProfile.Entry entry : front) {
+                System.out.println((entry == best ? "  > " : "    ") + entry);
+            }
+            profile.put(resolution, best);
+        }
+
+        if (standIn) {
+            System.out.println("\nSweep ran on headless stand-in frames, which do not match rendered output;"
+                + " not writing " + profilePath.toAbsolutePath() + ". Rerun with a display or under xvfb-run.");
+            return;
+        }
+        profile.save(profilePath);
+        System.out.println("\nWrote encoder profile " + profilePath.toAbsolutePath()
+            + " (load it with video.encoder.profile)");
+    }
+
+    private static double representativeStart(Timeline timeline, double sliceSeconds) {
+        List<Scene> scenes = timeline.getScenes();
+        int limit = Math.min(scenes.size(), 5000);
+        double window = sliceSeconds * 0.75;
+        int bestStart = 0;
+        int bestCount = 0;
+        int end = 0;
+        for (int i = 0; i < limit; i++) {
+            double windowEnd = scenes.get(i).getStartTime() + window;
+            while (end < limit && scenes.get(end).getStartTime() < windowEnd) {
+                end++;
+            }
+            if (end - i > bestCount) {
+                bestCount = end - i;
+                bestStart = i;
+            }
+        }
+        return Math.max(0, scenes.get(bestStart).getStartTime() - sliceSeconds / 4);
+    }
+
+    private static List<Scene> slice(Timeline timeline, double startSeconds, double sliceSeconds) {
+        double end = Math.min(timeline.getTotalDuration(), startSeconds + sliceSeconds);
+        List<Scene> scenes = new ArrayList<>();
+        for (Scene scene : timeline.getScenes()) {
+            double from = Math.max(scene.getStartTime(), startSeconds);
+            double to = Math.min(scene.getEndTime(), end);
+            if (to <= from) {
+                continue;
+            }
+            Scene.Builder builder = new Scene.Builder(scene.getType(), to - from).withId(scene.getId());
+            if (scene.getNarrationText() != null) {
+                builder.withNarration(scene.getNarrationText());
+            }
+            scene.getVisualData().forEach(builder::withVisualData);
+            scene.getAnimationConfig().forEach(builder::withAnimationConfig);
+            scenes.add(builder.build());
+        }
+        if (scenes.isEmpty()) {
+            throw new IllegalArgumentException("Slice starting at " + startSeconds + "s is past the end of "
+                + timeline.getVideoTitle() + " (" + timeline.getFormattedDuration() + ")");
+        }
+        return scenes;
+    }
+
+    private static EncoderProfile.Entry run(VideoConfig config, List<Scene> scenes, FrameSet frames, int parallel,
+                                            Path directory) throws Exception {
+        List<int[]> parts = split(scenes, config.getFps(), parallel);
+        ExecutorService pool = Executors.newFixedThreadPool(parts.size());
+        List<Path> outputs = new ArrayList<>();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < parts.size(); i++) {
+                int[] part = parts.get(i);
+                Path output = directory.resolve("part-" + i + ".mp4");
+                outputs.add(output);
+                futures.add(pool.submit(() -> {
+                    encodePart(config, scenes, frames, part, output);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            EncoderProfile.Entry entry = new EncoderProfile.Entry();
+            entry.setCodec(config.getCodec());
+            entry.setEncoder(config.getEncoderName());
+            entry.setPreset(config.getEncoderPreset());
+            entry.setThreads(config.getEncoderThreads());
+            entry.setParallelEncoders(parts.size());
+            entry.setSource(frames.source);
+            entry.setFramesPerSecond(frames.sequence.length / seconds);
+
+            long bytes = 0;
+            Quality quality = new Quality();
+            for (int i = 0; i < parts.size(); i++) {
+                bytes += Files.size(outputs.get(i));
+                measure(outputs.get(i), frames, parts.get(i)[2], quality);
+            }
+            entry.setBytes(bytes);
+            entry.setPsnr(quality.samples > 0 ? quality.psnr / quality.samples : 0);
+            entry.setSsim(quality.samples > 0 ? quality.ssim / quality.samples : 0);
+            return entry;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            pool.shutdownNow();
+            for (Path output : outputs) {
+                Files.deleteIfExists(output);
+            }
+        }
+    }
+
+    private static List<int[]> split(List<Scene> scenes, int fps, int parallel) {
+        int totalFrames = 0;
+        for (Scene scene : scenes) {
+            totalFrames += (int) Math.round(scene.getDuration() * fps);
+        }
+        List<int[]> parts = new ArrayList<>();
+        int target = (totalFrames + parallel - 1) / parallel;
+        int firstScene = 0;
+        int firstFrame = 0;
+        int frame = 0;
+        for (int i = 0; i < scenes.size(); i++) {
+            frame += (int) Math.round(scenes.get(i).getDuration() * fps);
+            if (frame - firstFrame >= target || i == scenes.size() - 1) {
+                if (frame > firstFrame) {
+                    parts.add(new int[] {firstScene, i + 1, firstFrame, frame});
+                }
+                firstScene = i + 1;
+                firstFrame = frame;
+            }
+        }
+        return parts;
+    }
+
+    private static void encodePart(VideoConfig config, List<Scene> scenes, FrameSet frames, int[] part, Path output)
+            throws Exception {
+        Scene previous = part[0] > 0 ? scenes.get(part[0] - 1) : null;
+        EncodingPlan plan = EncodingPlan.forScenes(scenes.subList(part[0], part[1]), previous, config);
+        FFmpegFrameRecorder recorder = DirectVideoRenderer.createRecorder(output.toString(), config, plan);
+        try (Java2DFrameConverter converter = new Java2DFrameConverter()) {
+            recorder.start();
+            for (int frame = part[2]; frame < part[3]; frame++) {
+                plan.record(recorder, converter.convert(frames.images.get(frames.sequence[frame])), frame - part[2]);
+            }
+            recorder.stop();
+        } finally {
+            recorder.release();
+        }
+    }
+
+    private static void measure(Path output, FrameSet frames, int firstFrame, Quality quality) throws Exception {
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(output.toFile());
+             Java2DFrameConverter converter = new Java2DFrameConverter()) {
+            grabber.start();
+            Frame frame;
+            int index = 0;
+            while ((frame = grabber.grabImage()) != null) {
+                int sourceFrame = firstFrame + index++;
+                if (sourceFrame >= frames.sequence.length || index % QUALITY_STRIDE != 0) {
+                    continue;
+                }
+                BufferedImage source = frames.images.get(frames.sequence[sourceFrame]);
+                BufferedImage decoded = toBgr(converter.convert(frame));
+                quality.psnr += psnr(source, decoded);
+                quality.ssim += ssim(source, decoded);
+                quality.samples++;
+            }
+            grabber.stop();
+        }
+    }
+
+    private static List<EncoderProfile.Entry> paretoFront(List<EncoderProfile.Entry> results) {
+        List<EncoderProfile.Entry> front = new ArrayList<>();
+        for (EncoderProfile.Entry candidate : results) {
+            boolean dominated = false;
+            for (EncoderProfile.Entry other : results) {
+                if (other != candidate && dominates(other, candidate)) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated) {
+                front.add(candidate);
+            }
+        }
+        front.sort((a, b) -> Double.compare(b.getFramesPerSecond(), a.getFramesPerSecond()));
+        return front;
+    }
+
+    private static boolean dominates(EncoderProfile.Entry a, EncoderProfile.Entry b) {
+        boolean noWorse = a.getFramesPerSecond() >= b.getFramesPerSecond() && a.getBytes() <= b.getBytes()
+            && a.getSsim() >= b.getSsim();
+        boolean better = a.getFramesPerSecond() > b.getFramesPerSecond() || a.getBytes() < b.getBytes()
+            || a.getSsim() > b.getSsim();
+        return noWorse && better;
+    }
+
+    private static EncoderProfile.Entry choose(List<EncoderProfile.Entry> front) {
+        double bestSsim = 0;
+        for (EncoderProfile.Entry entry : front) {
+            bestSsim = Math.max(bestSsim, entry.getSsim());
+        }
+        EncoderProfile.Entry best = null;
+        for (EncoderProfile.Entry entry : front) {
+            if (entry.getSsim() >= bestSsim - SSIM_TOLERANCE
+                    && (best == null || entry.getFramesPerSecond() > best.getFramesPerSecond())) {
+                best = entry;
+            }
+        }
+        return best;
+    }
+
+    private static BufferedImage toBgr(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+            return image;
+        }
+        BufferedImage bgr = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_3BYTE_BGR);
+        bgr.getGraphics().drawImage(image, 0, 0, null);
+        return bgr;
+    }
+
+    private static double psnr(BufferedImage expected, BufferedImage actual) {
+        byte[] a = ((DataBufferByte) expected.getRaster().getDataBuffer()).getData();
+        byte[] b = ((DataBufferByte) actual.getRaster().getDataBuffer()).getData();
+        int length = Math.min(a.length, b.length);
+        double squaredError = 0;
+        for (int i = 0; i < length; i++) {
+            int diff = (a[i] & 0xFF) - (b[i] & 0xFF);
+            squaredError += diff * diff;
+        }
+        double mse = squaredError / length;
+        return mse == 0 ? 100 : 10 * Math.log10(255.0 * 255.0 / mse);
+    }
+
+    private static double ssim(BufferedImage expected, BufferedImage actual) {
+        int width = Math.min(expected.getWidth(), actual.getWidth());
+        int height = Math.min(expected.getHeight(), actual.getHeight());
+        float[] x = luma(expected, width, height);
+        float[] y = luma(actual, width, height);
+        double c1 = Math.pow(0.01 * 255, 2);
+        double c2 = Math.pow(0.03 * 255, 2);
+        double total = 0;
+        int windows = 0;
+        for (int top = 0; top + 8 <= height; top += 8) {
+            for (int left = 0; left + 8 <= width; left += 8) {
+                double sumX = 0, sumY = 0, sumXX = 0, sumYY = 0, sumXY = 0;
+                for (int row = top; row < top + 8; row++) {
+                    int offset = row * width;
+                    for (int col = left; col < left + 8; col++) {
+                        double vx = x[offset + col];
+                        double vy = y[offset + col];
+                        sumX += vx;
+                        sumY += vy;
+                        sumXX += vx * vx;
+                        sumYY += vy * vy;
+                        sumXY += vx * vy;
+                    }
+                }
+                double meanX = sumX / 64;
+                double meanY = sumY / 64;
+                double varX = sumXX / 64 - meanX * meanX;
+                double varY = sumYY / 64 - meanY * meanY;
+                double covariance = sumXY / 64 - meanX * meanY;
+                total += ((2 * meanX * meanY + c1) * (2 * covariance + c2))
+                    / ((meanX * meanX + meanY * meanY + c1) * (varX + varY + c2));
+                windows++;
+            }
+        }
+        return windows > 0 ? total / windows : 1;
+    }
+
+    private static float[] luma(BufferedImage image, int width, int height) {
+        byte[] bgr = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        int stride = image.getWidth() * 3;
+        float[] luma = new float[width * height];
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                int i = row * stride + col * 3;
+                luma[row * width + col] = 0.114f * (bgr[i] & 0xFF) + 0.587f * (bgr[i + 1] & 0xFF)
+                    + 0.299f * (bgr[i + 2] & 0xFF);
+            }
+        }
+        return luma;
+    }
+
+    private static class FrameSet {
+        final List<BufferedImage> images = new ArrayList<>();
+        int[] sequence;
+        String source;
+
+        static FrameSet render(Timeline timeline, double startSeconds, List<Scene> scenes, VideoConfig config) {
+            FrameSet frames = new FrameSet();
+            DirectVideoRenderer renderer = GraphicsEnvironment.isHeadless() ? null : new DirectVideoRenderer(config);
+            frames.source = renderer != null ? RENDERER_FRAMES : STAND_IN_FRAMES;
+
+            int fps = config.getFps();
+            int total = 0;
+            for (Scene scene : scenes) {
+                total += (int) Math.round(scene.getDuration() * fps);
+            }
+            frames.sequence = new int[total];
+
+            long budget = Runtime.getRuntime().maxMemory() / 2;
+            long bytes = 0;
+            Map<Long, Integer> distinct = new HashMap<>();
+            for (int frame = 0; frame < total; frame++) {
+                double time = startSeconds + (double) frame / fps;
+                Scene scene = timeline.getSceneAtTime(time);
+                Scene previous = time >= 1.0 / fps ? timeline.getSceneAtTime(time - 1.0 / fps) : null;
+                double localTime = time - scene.getStartTime();
+
+                BufferedImage image;
+                if (renderer != null) {
+                    image = toBgr(renderer.renderFrameImage(scene, previous, localTime));
+                } else if (scene.getAnimationConfig(StepSceneStream.CONFIG_KEY) instanceof StepSceneStream steps) {
+                    image = EncoderSettingsBenchmark.draw(steps.sceneAt(localTime), config);
+                } else {
+                    image = EncoderSettingsBenchmark.draw(scene, config);
+                }
+
+                byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+                CRC32 crc = new CRC32();
+                crc.update(pixels);
+                Integer index = distinct.get(crc.getValue());
+                if (index == null) {
+                    bytes += pixels.length;
+                    if (bytes > budget) {
+                        throw new IllegalStateException("Slice needs more than " + budget / (1024 * 1024)
+                            + " MB of distinct frames, use a shorter slice or a larger -Xmx");
+                    }
+                    index = frames.images.size();
+                    frames.images.add(image);
+                    distinct.put(crc.getValue(), index);
+                }
+                frames.sequence[frame] = index;
+            }
+            return frames;
+        }
+    }
+
+    private static class Candidate {
+        final String codec;
+        final String encoder;
+        final String device;
+        final String[] presets;
+
+        Candidate(String codec, String encoder, String device, String... presets) {
+            this.codec = codec;
+            this.encoder = encoder;
+            this.device = device;
+            this.presets = presets.length > 0 ? presets : new String[] {null};
+        }
+    }
+
+    private static class Quality {
+        double psnr;
+        double ssim;
+        int samples;
+    }
+
+}
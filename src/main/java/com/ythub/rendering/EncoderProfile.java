@@ -0,0 +1,199 @@
+package com.ythub.rendering;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ythub.core.VideoConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class EncoderProfile {
+
+    private static final Logger logger = LoggerFactory.getLogger(EncoderProfile.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT)
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private String generatedAt;
+    private String host;
+    private Map<String, Entry> resolutions = new LinkedHashMap<>();
+
+    public static EncoderProfile load(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), EncoderProfile.class);
+    }
+
+    public static void applyConfigured(VideoConfig config) {
+        String profile = config.getEncoderProfile();
+        if (profile == null || profile.isEmpty()) {
+            return;
+        }
+        Path path = Paths.get(profile);
+        if (!Files.isRegularFile(path)) {
+            logger.info("Encoder profile {} not found, keeping configured encoder settings", path);
+            return;
+        }
+        try {
+            load(path).applyTo(config);
+        } catch (IOException e) {
+            logger.warn("Failed to read encoder profile {}: {}", path, e.getMessage());
+        }
+    }
+
+    public void save(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        MAPPER.writeValue(path.toFile(), this);
+    }
+
+    public boolean applyTo(VideoConfig config) {
+        Entry entry = resolutions.get(config.getResolution().name);
+        if (entry == null) {
+            logger.info("Encoder profile has no entry for {}, keeping configured encoder settings",
+                config.getResolution().name);
+            return false;
+        }
+        config.setCodec(entry.getCodec());
+        config.setEncoderName(entry.getEncoder());
+        config.setEncoderPreset(entry.getPreset());
+        config.setEncoderThreads(entry.getThreads());
+        logger.info("Applied encoder profile for {}: {}", config.getResolution().name, entry);
+        return true;
+    }
+
+    public void put(VideoConfig.Resolution resolution, Entry entry) {
+        resolutions.put(resolution.name, entry);
+    }
+
+    public String getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(String generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public Map<String, Entry> getResolutions() {
+        return resolutions;
+    }
+
+    public void setResolutions(Map<String, Entry> resolutions) {
+        this.resolutions = resolutions;
+    }
+
+    public static class Entry {
+        private String codec;
+        private String encoder;
+        private String preset;
+        private int threads;
+        private int parallelEncoders = 1;
+        private double framesPerSecond;
+        private long bytes;
+        private double psnr;
+        private double ssim;
+        private String source;
+
+        public String getCodec() {
+            return codec;
+        }
+
+        public void setCodec(String codec) {
+            this.codec = codec;
+        }
+
+        public String getEncoder() {
+            return encoder;
+        }
+
+        public void setEncoder(String encoder) {
+            this.encoder = encoder;
+        }
+
+        public String getPreset() {
+            return preset;
+        }
+
+        public void setPreset(String preset) {
+            this.preset = preset;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getParallelEncoders() {
+            return parallelEncoders;
+        }
+
+        public void setParallelEncoders(int parallelEncoders) {
+            this.parallelEncoders = parallelEncoders;
+        }
+
+        public double getFramesPerSecond() {
+            return framesPerSecond;
+        }
+
+        public void setFramesPerSecond(double framesPerSecond) {
+            this.framesPerSecond = framesPerSecond;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public void setBytes(long bytes) {
+            this.bytes = bytes;
+        }
+
+        public double getPsnr() {
+            return psnr;
+        }
+
+        public void setPsnr(double psnr) {
+            this.psnr = psnr;
+        }
+
+        public double getSsim() {
+            return ssim;
+        }
+
+        public void setSsim(double ssim) {
+            this.ssim = ssim;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public void setSource(String source) {
+            this.source = source;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s/%s preset=%s threads=%s parallel=%d: %.1f fps, %d KB, PSNR %.2f dB, SSIM %.4f",
+                codec, encoder, preset == null ? "-" : preset, threads > 0 ? threads : "auto", parallelEncoders,
+                framesPerSecond, bytes / 1024, psnr, ssim);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.ythub.rendering;
+
+import com.ythub.core.Scene;
+import com.ythub.core.VideoConfig;
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class EncoderSettingsBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        VideoConfig.Resolution resolution = args.length > 0
+            ? VideoConfig.Resolution.valueOf(args[0]) : VideoConfig.Resolution.HD_1080P_30;
+        int parts = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int bitrateKbps = args.length > 2 ? Integer.parseInt(args[2]) : 8000;
+
+        Path directory = Paths.get("temp/benchmark");
+        Files.createDirectories(directory);
+
+        List<Scene> scenes = createScenes(parts);
+        System.out.println("=== Encoder Settings Benchmark ===");
+        System.out.printf("Resolution: %s, encoder: %s, bitrate: %d kbps, scenes: %d%n", resolution.name,
+            EncodingPlan.getEncoderName(avcodec.AV_CODEC_ID_H264), bitrateKbps, scenes.size());
+
+        for (boolean sceneAware : new boolean[] {false, true}) {
+            VideoConfig config = new VideoConfig();
+            config.setResolution(resolution);
+            config.setFps(resolution.fps);
+            config.setBitrate(bitrateKbps);
+            config.setCodec("h264");
+            config.setFormat("mp4");
+            config.setEncoderSceneAware(sceneAware);
+
+            EncodingPlan plan = EncodingPlan.forScenes(scenes, null, config);
+            Path output = directory.resolve(sceneAware ? "scene-aware.mp4" : "fixed-gop.mp4");
+
+            long start = System.nanoTime();
+            encode(scenes, config, plan, output);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Quality quality = measure(scenes, config, output);
+
+            System.out.printf("%-11s %s%n", sceneAware ? "scene-aware" : "fixed-gop", plan);
+            System.out.printf("            encode %.1f s (%.0f fps), %d KB, %d keyframes decoded "
+                    + "(%d on scene starts), PSNR %.2f dB (min %.2f)%n",
+                seconds, plan.getTotalFrames() / seconds, Files.size(output) / 1024, quality.keyframes,
+                quality.keyframesOnCuts, quality.meanPsnr, quality.minPsnr);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    private static List<Scene> createScenes(int parts) {
+        Random random = new Random(7);
+        List<Scene> scenes = new ArrayList<>();
+        for (int part = 0; part < parts; part++) {
+            scenes.add(new Scene.Builder(Scene.SceneType.NARRATION, 6)
+                .withId("slide_" + part)
+                .withVisualData("title", "Part " + (part + 1))
+                .withNarration("Each pass compares neighbours and swaps them when they are out of order.")
+                .build());
+
+            int[] array = new int[24];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = 10 + random.nextInt(90);
+            }
+            for (int step = 0; step < 60; step++) {
+                int j = random.nextInt(array.length - 1);
+                int temp = array[j];
+                array[j] = array[j + 1];
+                array[j + 1] = temp;
+                scenes.add(new Scene.Builder(Scene.SceneType.VISUALIZATION, 0.2)
+                    .withId("step_" + part + "_" + step)
+                    .withVisualData("array", array.clone())
+                    .withVisualData("highlight1", j)
+                    .withVisualData("highlight2", j + 1)
+                    .build());
+            }
+        }
+        return scenes;
+    }
+
+    private static void encode(List<Scene> scenes, VideoConfig config, EncodingPlan plan, Path output)
+            throws Exception {
+        FFmpegFrameRecorder recorder = DirectVideoRenderer.createRecorder(output.toString(), config, plan);
+
+        try (Java2DFrameConverter converter = new Java2DFrameConverter()) {
+            recorder.start();
+            int frameIndex = 0;
+            for (Scene scene : scenes) {
+                BufferedImage image = draw(scene, config);
+                int frames = (int) Math.round(scene.getDuration() * config.getFps());
+                for (int i = 0; i < frames; i++) {
+                    Frame frame = converter.convert(image);
+                    plan.record(recorder, frame, frameIndex++);
+                }
+            }
+            recorder.stop();
+        } finally {
+            recorder.release();
+        }
+    }
+
+    private static Quality measure(List<Scene> scenes, VideoConfig config, Path output) throws Exception {
+        List<Integer> cuts = new ArrayList<>();
+        List<Integer> sceneEnds = new ArrayList<>();
+        int frames = 0;
+        for (int i = 0; i < scenes.size(); i++) {
+            Scene scene = scenes.get(i);
+            if (i == 0 || scene.getType() != scenes.get(i - 1).getType()) {
+                cuts.add(frames);
+            }
+            frames += (int) Math.round(scene.getDuration() * config.getFps());
+            sceneEnds.add(frames);
+        }
+
+        Quality quality = new Quality();
+        double psnrSum = 0;
+        int decoded = 0;
+        int sceneIndex = 0;
+        BufferedImage source = draw(scenes.get(0), config);
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(output.toFile());
+             Java2DFrameConverter converter = new Java2DFrameConverter()) {
+            grabber.start();
+            Frame frame;
+            while ((frame = grabber.grabImage()) != null) {
+                if (sceneIndex < sceneEnds.size() - 1 && decoded >= sceneEnds.get(sceneIndex)) {
+                    while (sceneIndex < sceneEnds.size() - 1 && decoded >= sceneEnds.get(sceneIndex)) {
+                        sceneIndex++;
+                    }
+                    source = draw(scenes.get(sceneIndex), config);
+                }
+                if (frame.keyFrame) {
+                    quality.keyframes++;
+                    if (cuts.contains(decoded)) {
+                        quality.keyframesOnCuts++;
+                    }
+                }
+                double psnr = psnr(source, converter.convert(frame));
+                psnrSum += psnr;
+                quality.minPsnr = Math.min(quality.minPsnr, psnr);
+                decoded++;
+            }
+            grabber.stop();
+        }
+        quality.meanPsnr = decoded > 0 ? psnrSum / decoded : 0;
+        return quality;
+    }
+
+    static BufferedImage draw(Scene scene, VideoConfig config) {
+        int width = config.getWidth();
+        int height = config.getHeight();
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+        g.setColor(new Color(0x21, 0x21, 0x21));
+
+        int[] array = (int[]) scene.getVisualData("array");
+        if (array == null) {
+            g.setFont(new Font("SansSerif", Font.BOLD, height / 11));
+            g.drawString(String.valueOf(scene.getVisualData().getOrDefault("title", scene.getType())), width / 10,
+                height / 3);
+            if (scene.getNarrationText() != null) {
+                g.setFont(new Font("SansSerif", Font.PLAIN, height / 24));
+                g.drawString(scene.getNarrationText(), width / 10, height / 2);
+            }
+        } else {
+            int highlight1 = scene.getVisualData("highlight1") instanceof Integer h ? h : -1;
+            int highlight2 = scene.getVisualData("highlight2") instanceof Integer h ? h : -1;
+            double barWidth = (width * 0.8) / array.length;
+            int maxHeight = height * 3 / 5;
+            for (int i = 0; i < array.length; i++) {
+                int barHeight = maxHeight * Math.min(array[i], 100) / 100;
+                g.setColor(i == highlight1 || i == highlight2 ? new Color(0xFF, 0xD7, 0x00) : new Color(0x21, 0x96, 0xF3));
+                g.fillRect((int) (width * 0.1 + i * barWidth), height * 4 / 5 - barHeight, (int) (barWidth * 0.8), barHeight);
+            }
+        }
+        g.dispose();
+        return image;
+    }
+
+    private static double psnr(BufferedImage expected, BufferedImage actual) {
+        byte[] a = ((DataBufferByte) expected.getRaster().getDataBuffer()).getData();
+        byte[] b = ((DataBufferByte) actual.getRaster().getDataBuffer()).getData();
+        int length = Math.min(a.length, b.length);
+        double squaredError = 0;
+        for (int i = 0; i < length; i++) {
+            int diff = (a[i] & 0xFF) - (b[i] & 0xFF);
+            squaredError += diff * diff;
+        }
+        double mse = squaredError / length;
+        return mse == 0 ? 100 : 10 * Math.log10(255.0 * 255.0 / mse);
+    }
+
+    private static class Quality {
+        int keyframes;
+        int keyframesOnCuts;
+        double meanPsnr;
+        double minPsnr = Double.MAX_VALUE;
+    }
+}
@@ -0,0 +1,242 @@
+package com.ythub.rendering;
+
+import com.ythub.animation.StepSceneStream;
+import com.ythub.core.Scene;
+import com.ythub.core.VideoConfig;
+import org.bytedeco.ffmpeg.avcodec.AVCodec;
+import org.bytedeco.ffmpeg.avutil.AVFrame;
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Frame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+public class EncodingPlan {
+
+    private static final Logger logger = LoggerFactory.getLogger(EncodingPlan.class);
+
+    private static final Field PICTURE_FIELD = pictureField();
+
+    public enum Motion {
+        STATIC(0.5),
+        DYNAMIC(1.25);
+
+        public final double rateFactor;
+
+        Motion(double rateFactor) {
+            this.rateFactor = rateFactor;
+        }
+    }
+
+    private final int totalFrames;
+    private final int gopFrames;
+    private final int minKeyframeDistance;
+    private final BitSet keyframes = new BitSet();
+    private final List<Run> runs = new ArrayList<>();
+    private int sceneCuts;
+
+    private EncodingPlan(int totalFrames, int gopFrames, int minKeyframeDistance) {
+        this.totalFrames = totalFrames;
+        this.gopFrames = gopFrames;
+        this.minKeyframeDistance = minKeyframeDistance;
+    }
+
+    public static EncodingPlan forScenes(List<Scene> scenes, Scene previousScene, VideoConfig config) {
+        int fps = config.getFps();
+        if (!config.isEncoderSceneAware()) {
+            int totalFrames = 0;
+            for (Scene scene : scenes) {
+                totalFrames += Math.round(scene.getDuration() * fps);
+            }
+            return new EncodingPlan(totalFrames, fps, fps);
+        }
+
+        int staticGop = Math.max(1, (int) Math.round(config.getEncoderStaticGopSeconds() * fps));
+        int dynamicGop = Math.max(1, (int) Math.round(config.getEncoderDynamicGopSeconds() * fps));
+        int minKeyframeDistance = Math.max(1, fps / 2);
+
+        int totalFrames = 0;
+        for (Scene scene : scenes) {
+            totalFrames += Math.round(scene.getDuration() * fps);
+        }
+        EncodingPlan plan = new EncodingPlan(totalFrames, staticGop, minKeyframeDistance);
+        if (totalFrames == 0) {
+            return plan;
+        }
+
+        int frame = 0;
+        int lastKeyframe = 0;
+        Scene prev = previousScene;
+        plan.keyframes.set(0);
+        for (Scene scene : scenes) {
+            int frames = (int) Math.round(scene.getDuration() * fps);
+            if (frames == 0) {
+                continue;
+            }
+            Motion motion = classify(scene);
+            boolean cut = prev == null || !continues(prev, scene);
+
+            if (cut && frame > 0 && frame - lastKeyframe >= minKeyframeDistance) {
+                plan.keyframes.set(frame);
+                plan.sceneCuts++;
+                lastKeyframe = frame;
+            }
+            if (motion == Motion.DYNAMIC) {
+                while (lastKeyframe + dynamicGop < frame + frames) {
+                    lastKeyframe = Math.max(lastKeyframe + dynamicGop, frame);
+                    plan.keyframes.set(lastKeyframe);
+                }
+            }
+            plan.addRun(frame, frame + frames, motion);
+
+            frame += frames;
+            prev = scene;
+        }
+        return plan;
+    }
+
+    static Motion classify(Scene scene) {
+        return switch (scene.getType()) {
+            case VISUALIZATION -> scene.getVisualData("array") != null
+                || scene.getAnimationConfig(StepSceneStream.CONFIG_KEY) != null ? Motion.DYNAMIC : Motion.STATIC;
+            case CODE_DISPLAY, VIDEO_CLIP -> Motion.DYNAMIC;
+            case INTRO, OUTRO, TITLE_SLIDE, NARRATION, ANIMATION, TRANSITION ->
+                scene.getAnimationConfig().isEmpty() ? Motion.STATIC : Motion.DYNAMIC;
+        };
+    }
+
+    private static boolean continues(Scene prev, Scene scene) {
+        return prev.getType() == Scene.SceneType.VISUALIZATION && scene.getType() == Scene.SceneType.VISUALIZATION
+            && classify(prev) == Motion.DYNAMIC && classify(scene) == Motion.DYNAMIC;
+    }
+
+    private void addRun(int startFrame, int endFrame, Motion motion) {
+        if (!runs.isEmpty()) {
+            Run last = runs.get(runs.size() - 1);
+            if (last.motion == motion && last.endFrame == startFrame) {
+                last.endFrame = endFrame;
+                return;
+            }
+        }
+        runs.add(new Run(startFrame, endFrame, motion));
+    }
+
+    public void applyTo(FFmpegFrameRecorder recorder) {
+        recorder.setGopSize(gopFrames);
+        recorder.setVideoOption("keyint_min", String.valueOf(minKeyframeDistance));
+        recorder.setVideoOption("forced-idr", "1");
+
+        String encoder = getEncoderName(recorder);
+        if (!runs.isEmpty() && ("libx264".equals(encoder) || "libx265".equals(encoder))) {
+            recorder.setVideoOption(encoder.equals("libx264") ? "x264-params" : "x265-params", "zones=" + getRateZones());
+        }
+    }
+
+    public void record(FFmpegFrameRecorder recorder, Frame frame, int frameIndex) throws FFmpegFrameRecorder.Exception {
+        AVFrame picture = picture(recorder);
+        if (picture != null) {
+            picture.pict_type(keyframes.get(frameIndex) ? avutil.AV_PICTURE_TYPE_I : avutil.AV_PICTURE_TYPE_NONE);
+        }
+        recorder.record(frame);
+    }
+
+    public static String getEncoderName(FFmpegFrameRecorder recorder) {
+        String name = recorder.getVideoCodecName();
+        return name != null && !name.isEmpty() ? name : getEncoderName(recorder.getVideoCodec());
+    }
+
+    public static String getEncoderName(int codecId) {
+        AVCodec codec = avcodec.avcodec_find_encoder(codecId);
+        return codec != null ? codec.name().getString() : "none";
+    }
+
+    private static AVFrame picture(FFmpegFrameRecorder recorder) {
+        if (PICTURE_FIELD == null) {
+            return null;
+        }
+        try {
+            return (AVFrame) PICTURE_FIELD.get(recorder);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static Field pictureField() {
+        try {
+            Field field = FFmpegFrameRecorder.class.getDeclaredField("picture");
+            field.setAccessible(true);
+            return field;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("Cannot force keyframes on this JavaCV version, relying on encoder scene detection: {}",
+                e.getMessage());
+            return null;
+        }
+    }
+
+    public boolean isKeyframe(int frameIndex) {
+        return keyframes.get(frameIndex);
+    }
+
+    public int getTotalFrames() {
+        return totalFrames;
+    }
+
+    public int getGopFrames() {
+        return gopFrames;
+    }
+
+    public int getKeyframeCount() {
+        return keyframes.cardinality();
+    }
+
+    public int getSceneCuts() {
+        return sceneCuts;
+    }
+
+    public int getFrameCount(Motion motion) {
+        int frames = 0;
+        for (Run run : runs) {
+            if (run.motion == motion) {
+                frames += run.endFrame - run.startFrame;
+            }
+        }
+        return frames;
+    }
+
+    public String getRateZones() {
+        StringBuilder zones = new StringBuilder();
+        for (Run run : runs) {
+            if (zones.length() > 0) {
+                zones.append('/');
+            }
+            zones.append(run.startFrame).append(',').append(run.endFrame - 1)
+                .append(",b=").append(run.motion.rateFactor);
+        }
+        return zones.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EncodingPlan{frames=%d, keyframes=%d, sceneCuts=%d, gop=%d, static=%d, dynamic=%d}",
+            totalFrames, getKeyframeCount(), sceneCuts, gopFrames, getFrameCount(Motion.STATIC),
+            getFrameCount(Motion.DYNAMIC));
+    }
+
+    private static class Run {
+        final int startFrame;
+        int endFrame;
+        final Motion motion;
+
+        Run(int startFrame, int endFrame, Motion motion) {
+            this.startFrame = startFrame;
+            this.endFrame = endFrame;
+            this.motion = motion;
+        }
+    }
+}
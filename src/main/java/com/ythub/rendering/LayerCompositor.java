@@ -0,0 +1,187 @@
+package com.ythub.rendering;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class LayerCompositor {
+
+    private static final int ADMIT_AFTER_USES = 2;
+    private static final int MAX_TRACKED_KEYS = 4096;
+
+    private final long budgetBytes;
+    private final Map<Object, WritableImage> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Object, Integer> uses = new HashMap<>();
+    private final SnapshotParameters snapshotParameters = new SnapshotParameters();
+    private Canvas scratch;
+    private long cachedBytes;
+    private long hits;
+    private long directDraws;
+    private long rasterized;
+    private long evictions;
+
+    public LayerCompositor(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        this.snapshotParameters.setFill(Color.TRANSPARENT);
+    }
+
+    public void composite(GraphicsContext gc, List<Layer> layers, double sceneAlpha) {
+        for (Layer layer : layers) {
+            gc.setGlobalAlpha(layer.fades ? sceneAlpha : 1);
+            if (layer.key == null) {
+                layer.painter.paint(gc);
+                continue;
+            }
+
+            WritableImage image = cache.get(layer.key);
+            if (image == null && admit(layer)) {
+                image = rasterize(layer);
+                rasterized++;
+                uses.remove(layer.key);
+                store(layer.key, image);
+            }
+            if (image != null) {
+                hits++;
+                gc.drawImage(image, layer.x, layer.y);
+            } else {
+                directDraws++;
+                layer.painter.paint(gc);
+            }
+        }
+        gc.setGlobalAlpha(1);
+    }
+
+    private boolean admit(Layer layer) {
+        if (layer.bytes() > budgetBytes / 2) {
+            return false;
+        }
+        if (uses.size() >= MAX_TRACKED_KEYS) {
+            uses.clear();
+        }
+        return uses.merge(layer.key, 1, Integer::sum) >= ADMIT_AFTER_USES;
+    }
+
+    WritableImage rasterize(Layer layer) {
+        if (scratch == null || scratch.getWidth() < layer.width || scratch.getHeight() < layer.height) {
+            scratch = new Canvas(Math.max(layer.width, scratch == null ? 0 : scratch.getWidth()),
+                Math.max(layer.height, scratch == null ? 0 : scratch.getHeight()));
+        }
+        GraphicsContext scratchGc = scratch.getGraphicsContext2D();
+        scratchGc.clearRect(0, 0, scratch.getWidth(), scratch.getHeight());
+        scratchGc.save();
+        scratchGc.translate(-layer.x, -layer.y);
+        layer.painter.paint(scratchGc);
+        scratchGc.restore();
+
+        snapshotParameters.setViewport(new Rectangle2D(0, 0, layer.width, layer.height));
+        WritableImage image = new WritableImage(layer.width, layer.height);
+        scratch.snapshot(snapshotParameters, image);
+        return image;
+    }
+
+    private void store(Object key, WritableImage image) {
+        cache.put(key, image);
+        cachedBytes += bytes(image);
+        Iterator<Map.Entry<Object, WritableImage>> eldest = cache.entrySet().iterator();
+        while (cachedBytes > budgetBytes && eldest.hasNext()) {
+            Map.Entry<Object, WritableImage> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                continue;
+            }
+            cachedBytes -= bytes(entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static long bytes(WritableImage image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+
+    public void clear() {
+        cache.clear();
+        uses.clear();
+        cachedBytes = 0;
+    }
+
+    public int getCachedLayers() {
+        return cache.size();
+    }
+
+    public long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public String getStats() {
+        long total = hits + directDraws;
+        return String.format("%d layers cached (%d KB), %d blits, %d direct draws (%.1f%% hit rate), "
+                + "%d rasterized, %d evicted", cache.size(), cachedBytes / 1024, hits, directDraws,
+            total > 0 ? hits * 100.0 / total : 0, rasterized, evictions);
+    }
+
+    @FunctionalInterface
+    public interface Painter {
+        void paint(GraphicsContext gc);
+    }
+
+    public static class Layer {
+        final String name;
+        final Object key;
+        final int x;
+        final int y;
+        final int width;
+        final int height;
+        final boolean fades;
+        final Painter painter;
+
+        private Layer(String name, Object key, int x, int y, int width, int height, boolean fades, Painter painter) {
+            this.name = name;
+            this.key = key;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.fades = fades;
+            this.painter = painter;
+        }
+
+        public static Layer cached(String name, Object content, double x, double y, double width, double height,
+                                   boolean fades, Painter painter) {
+            int left = (int) Math.floor(x);
+            int top = (int) Math.floor(y);
+            int w = Math.max(1, (int) Math.ceil(x + width) - left);
+            int h = Math.max(1, (int) Math.ceil(y + height) - top);
+            return new Layer(name, List.of(name, content, left, top, w, h), left, top, w, h, fades, painter);
+        }
+
+        public static Layer dynamic(String name, boolean fades, Painter painter) {
+            return new Layer(name, null, 0, 0, 0, 0, fades, painter);
+        }
+
+        public static Layer image(String name, Image image, double x, double y, boolean fades) {
+            return new Layer(name, null, 0, 0, 0, 0, fades, gc -> gc.drawImage(image, x, y));
+        }
+
+        long bytes() {
+            return (long) width * height * 4;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isCached() {
+            return key != null;
+        }
+    }
+}
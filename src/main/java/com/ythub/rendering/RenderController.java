@@ -0,0 +1,249 @@
+package com.ythub.rendering;
+
+import com.ythub.core.VideoConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RenderController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderController.class);
+
+    private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int HOLD_INTERVALS = 5;
+
+    private final boolean adaptive;
+    private final int maxRenderThreads;
+    private final int maxWindow;
+    private final int minWindow;
+    private final double cpuBudget;
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+
+    private final LongAdder renderNanos = new LongAdder();
+    private final LongAdder renderConvertNanos = new LongAdder();
+    private final LongAdder writerConvertNanos = new LongAdder();
+    private final LongAdder encodeNanos = new LongAdder();
+    private final LongAdder writerIdleNanos = new LongAdder();
+    private final LongAdder occupancySum = new LongAdder();
+    private final LongAdder occupancySamples = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int renderConcurrency;
+    private volatile int window;
+    private volatile boolean convertInRenderers;
+
+    private long intervalStart = System.nanoTime();
+    private int renderedAtIntervalStart;
+    private int writtenAtIntervalStart;
+    private double rateBeforeProbe = -1;
+    private int holdIntervals;
+    private int decisions;
+
+    public RenderController(VideoConfig config, long frameBytes) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        this.adaptive = config.isRenderAdaptive();
+        this.maxRenderThreads = Math.max(1, config.getRenderThreads());
+        this.cpuBudget = config.getRenderCpuBudget();
+
+        int batchSize = Math.max(config.getFps() * 2, 120);
+        long budgetBytes = (long) config.getRenderMemoryBudgetMb() * 1024 * 1024;
+        this.maxWindow = (int) Math.max(2, Math.min(batchSize * 4L, budgetBytes / Math.max(1, frameBytes)));
+
+        if (adaptive) {
+            this.renderConcurrency = Math.min(maxRenderThreads, processors);
+            this.minWindow = Math.min(maxWindow, Math.max(config.getFps() / 2, renderConcurrency * 2));
+            this.window = Math.min(maxWindow, batchSize);
+        } else {
+            this.renderConcurrency = maxRenderThreads;
+            this.minWindow = Math.min(maxWindow, batchSize);
+            this.window = minWindow;
+        }
+    }
+
+    public boolean tryAcquire(int nextFrame, int framesWritten) {
+        if (nextFrame - framesWritten >= window) {
+            return false;
+        }
+        while (true) {
+            int current = inFlight.get();
+            if (current >= renderConcurrency) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public void recordRender(long nanos) {
+        renderNanos.add(nanos);
+    }
+
+    public void recordRenderConversion(long nanos) {
+        renderConvertNanos.add(nanos);
+    }
+
+    public void recordWriterConversion(long nanos) {
+        writerConvertNanos.add(nanos);
+    }
+
+    public void recordEncode(long nanos) {
+        encodeNanos.add(nanos);
+    }
+
+    public void recordWriterIdle(long nanos) {
+        writerIdleNanos.add(nanos);
+    }
+
+    public void sampleOccupancy(int bufferedFrames) {
+        occupancySum.add(bufferedFrames);
+        occupancySamples.increment();
+    }
+
+    public void update(int framesRendered, int framesWritten) {
+        long now = System.nanoTime();
+        long elapsed = now - intervalStart;
+        if (elapsed < INTERVAL_NANOS) {
+            return;
+        }
+
+        int rendered = framesRendered - renderedAtIntervalStart;
+        int written = framesWritten - writtenAtIntervalStart;
+        double seconds = elapsed / 1e9;
+        double renderRate = rendered / seconds;
+        double encodeRate = written / seconds;
+        double writerBusy = (writerConvertNanos.sum() + encodeNanos.sum()) / (double) elapsed;
+        double writerIdle = writerIdleNanos.sum() / (double) elapsed;
+        double convertShare = writerConvertNanos.sum() / (double) Math.max(1, writerConvertNanos.sum() + encodeNanos.sum());
+        double renderMs = rendered > 0 ? renderNanos.sum() / 1e6 / rendered : 0;
+        long samples = occupancySamples.sum();
+        double occupancy = samples > 0 ? Math.min(1, occupancySum.sum() / (double) samples / window) : 0;
+        double cpuLoad = processCpuLoad();
+
+        logger.debug("Pipeline: render {} fps ({} ms/frame), encode {} fps, writer busy {}%, idle {}%, "
+                + "queue {}% of {}, cpu {}%", String.format("%.1f", renderRate), String.format("%.1f", renderMs),
+            String.format("%.1f", encodeRate), Math.round(writerBusy * 100), Math.round(writerIdle * 100),
+            Math.round(occupancy * 100), window, cpuLoad < 0 ? "?" : Math.round(cpuLoad * 100));
+
+        if (adaptive && written > 0) {
+            decide(renderRate, encodeRate, writerBusy, writerIdle, convertShare, occupancy, cpuLoad);
+        }
+
+        intervalStart = now;
+        renderedAtIntervalStart = framesRendered;
+        writtenAtIntervalStart = framesWritten;
+        renderNanos.reset();
+        renderConvertNanos.reset();
+        writerConvertNanos.reset();
+        encodeNanos.reset();
+        writerIdleNanos.reset();
+        occupancySum.reset();
+        occupancySamples.reset();
+    }
+
+    void decide(double renderRate, double encodeRate, double writerBusy, double writerIdle,
+                        double convertShare, double occupancy, double cpuLoad) {
+        if (rateBeforeProbe >= 0) {
+            if (renderRate < rateBeforeProbe * 1.05 && renderConcurrency > 1) {
+                renderConcurrency--;
+                holdIntervals = HOLD_INTERVALS;
+                decision("render threads {} -> {}: extra thread gave {} fps vs {} fps before",
+                    renderConcurrency + 1, renderConcurrency, String.format("%.1f", renderRate),
+                    String.format("%.1f", rateBeforeProbe));
+            }
+            rateBeforeProbe = -1;
+            return;
+        }
+        if (holdIntervals > 0) {
+            holdIntervals--;
+            return;
+        }
+
+        boolean encoderBound = writerBusy > 0.9 && occupancy > 0.75;
+        boolean renderBound = writerIdle > 0.2 && occupancy < 0.25;
+        boolean cpuSaturated = cpuLoad >= 0 && cpuLoad > cpuBudget;
+
+        if (encoderBound) {
+            if (!convertInRenderers && convertShare > 0.15) {
+                convertInRenderers = true;
+                decision("moving pixel conversion to render threads: encoder-bound at {} fps, conversion is {}% "
+                    + "of writer time", String.format("%.1f", encodeRate), Math.round(convertShare * 100));
+            } else if (renderConcurrency > 1 && (cpuSaturated || renderRate > encodeRate * 1.2)) {
+                renderConcurrency--;
+                decision("render threads {} -> {}: encoder-bound at {} fps while rendering runs at {} fps",
+                    renderConcurrency + 1, renderConcurrency, String.format("%.1f", encodeRate),
+                    String.format("%.1f", renderRate));
+            } else if (window > minWindow) {
+                int previous = window;
+                window = Math.max(minWindow, window / 2);
+                decision("queue window {} -> {} frames: queue stays {}% full behind the encoder",
+                    previous, window, Math.round(occupancy * 100));
+            }
+        } else if (renderBound) {
+            if (convertInRenderers && writerIdle > 0.5) {
+                convertInRenderers = false;
+                decision("moving pixel conversion back to the writer: render-bound, writer idle {}%",
+                    Math.round(writerIdle * 100));
+            } else if (renderConcurrency < maxRenderThreads && !cpuSaturated) {
+                rateBeforeProbe = renderRate;
+                renderConcurrency++;
+                decision("render threads {} -> {}: render-bound at {} fps, writer idle {}%",
+                    renderConcurrency - 1, renderConcurrency, String.format("%.1f", renderRate),
+                    Math.round(writerIdle * 100));
+            }
+            if (window < maxWindow && window < renderConcurrency * 4) {
+                int previous = window;
+                window = Math.min(maxWindow, renderConcurrency * 4);
+                decision("queue window {} -> {} frames to keep {} render threads fed", previous, window,
+                    renderConcurrency);
+            }
+        }
+    }
+
+    private void decision(String message, Object... args) {
+        decisions++;
+        logger.info("Render controller: " + message, args);
+    }
+
+    private double processCpuLoad() {
+        if (os instanceof com.sun.management.OperatingSystemMXBean sunOs) {
+            return sunOs.getProcessCpuLoad();
+        }
+        return -1;
+    }
+
+    public boolean isConvertInRenderers() {
+        return convertInRenderers;
+    }
+
+    public int getRenderConcurrency() {
+        return renderConcurrency;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public int getMaxWindow() {
+        return maxWindow;
+    }
+
+    public int getDecisions() {
+        return decisions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RenderController{adaptive=%s, renderThreads=%d/%d, window=%d/%d, convertInRenderers=%s}",
+            adaptive, renderConcurrency, maxRenderThreads, window, maxWindow, convertInRenderers);
+    }
+}
@@ -0,0 +1,353 @@
+package com.ythub.rendering;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ythub.core.Scene;
+import com.ythub.core.Timeline;
+import com.ythub.core.TimelineSnapshot;
+import com.ythub.core.VideoConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class RenderCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderCoordinator.class);
+
+    static final String PROTOCOL_PREFIX = "@@farm ";
+    static final String READY = "READY";
+    static final String HEARTBEAT = "HEARTBEAT";
+    static final String DONE = "DONE";
+    static final String FAILED = "FAILED";
+    static final String RENDER = "RENDER";
+    static final String EXIT = "EXIT";
+
+    private static final int SEGMENTS_PER_WORKER = 4;
+
+    private final VideoConfig config;
+    private final VideoEncoder videoEncoder;
+    private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+    private int nextWorkerId;
+
+    public RenderCoordinator(VideoConfig config) {
+        this.config = config;
+        this.videoEncoder = new VideoEncoder(config);
+    }
+
+    public void render(Timeline timeline, Path workspace, String outputPath) throws IOException, InterruptedException {
+        int workerCount = Math.max(1, config.getRenderWorkers());
+        List<Task> tasks = split(timeline, workerCount * SEGMENTS_PER_WORKER, workspace.resolve("segments"));
+        if (tasks.isEmpty()) {
+            throw new IllegalStateException("Timeline " + timeline.getVideoTitle() + " has no frames to render");
+        }
+        workerCount = Math.min(workerCount, tasks.size());
+
+        Path snapshotPath = workspace.resolve("timeline.snapshot");
+        TimelineSnapshot.write(timeline, snapshotPath);
+        Path configPath = workspace.resolve("worker-config.json");
+        ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        VideoConfig workerConfig = mapper.convertValue(config, VideoConfig.class);
+        workerConfig.setRenderThreads(Math.max(2, config.getRenderThreads() / workerCount));
+        mapper.writeValue(configPath.toFile(), workerConfig);
+
+        logger.info("Render farm: {} segments across {} worker JVMs ({} MB heap, {} render threads each)",
+            tasks.size(), workerCount, config.getRenderWorkerHeapMb(), workerConfig.getRenderThreads());
+
+        long start = System.nanoTime();
+        Deque<Task> pending = new ArrayDeque<>(tasks);
+        List<Worker> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(launch(snapshotPath, configPath, workspace));
+            }
+            runScheduler(tasks.size(), pending, workers, snapshotPath, configPath, workspace);
+        } finally {
+            for (Worker worker : workers) {
+                worker.shutdown();
+            }
+        }
+
+        List<String> segmentPaths = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.frames > 0) {
+                segmentPaths.add(task.outputPath);
+            }
+        }
+        logger.info("Render farm finished {} segments in {}ms, concatenating", segmentPaths.size(),
+            (System.nanoTime() - start) / 1_000_000);
+        videoEncoder.concatSegments(segmentPaths, outputPath);
+    }
+
+    private void runScheduler(int taskCount, Deque<Task> pending, List<Worker> workers, Path snapshotPath,
+                              Path configPath, Path workspace) throws IOException, InterruptedException {
+        long timeoutNanos = TimeUnit.SECONDS.toNanos(config.getRenderWorkerTimeoutSeconds());
+        int completed = 0;
+        int startupFailures = 0;
+
+        while (completed < taskCount) {
+            for (Worker worker : workers) {
+                if (worker.ready && worker.task == null && !pending.isEmpty()) {
+                    worker.assign(pending.poll());
+                }
+            }
+
+            Event event = events.poll(1, TimeUnit.SECONDS);
+            if (event != null) {
+                Worker worker = event.worker;
+                switch (event.type) {
+                    case READY -> {
+                        worker.ready = true;
+                        startupFailures = 0;
+                        worker.lastProgress = System.nanoTime();
+                    }
+                    case HEARTBEAT -> {
+                        if (worker.task != null && event.value != worker.framesWritten) {
+                            worker.framesWritten = event.value;
+                            worker.lastProgress = System.nanoTime();
+                        }
+                    }
+                    case DONE -> {
+                        Task task = worker.task;
+                        if (task != null && task.index == event.segment) {
+                            task.frames = event.value;
+                            worker.task = null;
+                            completed++;
+                            logger.info("Worker {} finished segment {} ({} frames), {}/{} done",
+                                worker.id, task.index, task.frames, completed, taskCount);
+                        }
+                    }
+                    case FAILED -> {
+                        Task task = worker.task;
+                        if (task != null && task.index == event.segment) {
+                            worker.task = null;
+                            retry(task, pending, "worker " + worker.id + " reported: " + event.message);
+                        }
+                    }
+                    case EXITED -> {
+                        if (workers.remove(worker)) {
+                            Task task = worker.task;
+                            worker.task = null;
+                            if (task != null) {
+                                retry(task, pending, "worker " + worker.id + " exited with code " + event.value);
+                            }
+                            if (!worker.ready && ++startupFailures >= config.getRenderWorkerMaxAttempts()) {
+                                throw new IllegalStateException(startupFailures + " render workers in a row exited "
+                                    + "before becoming ready, last with code " + event.value + " (see "
+                                    + workspace.resolve("worker-" + worker.id + ".err") + ")");
+                            }
+                            if (completed < taskCount) {
+                                workers.add(launch(snapshotPath, configPath, workspace));
+                            }
+                        }
+                    }
+                    default -> { }
+                }
+            }
+
+            long now = System.nanoTime();
+            for (Worker worker : workers) {
+                long silent = now - (worker.ready ? Math.max(worker.lastHeartbeat, worker.lastProgress) : worker.started);
+                boolean stalled = worker.task != null && now - worker.lastProgress > timeoutNanos;
+                if (!worker.killed && (silent > timeoutNanos || stalled)) {
+                    logger.warn("Worker {} {} for {}s, killing it", worker.id,
+                        stalled ? "made no progress" : "sent no heartbeat", config.getRenderWorkerTimeoutSeconds());
+                    worker.kill();
+                }
+            }
+        }
+    }
+
+    private void retry(Task task, Deque<Task> pending, String reason) {
+        task.attempts++;
+        if (task.attempts >= config.getRenderWorkerMaxAttempts()) {
+            throw new IllegalStateException("Segment " + task.index + " failed " + task.attempts
+                + " times, giving up: " + reason);
+        }
+        logger.warn("Reassigning segment {} (attempt {}): {}", task.index, task.attempts + 1, reason);
+        pending.addFirst(task);
+    }
+
+    private List<Task> split(Timeline timeline, int targetSegments, Path segmentDir) throws IOException {
+        Files.createDirectories(segmentDir);
+        List<Scene> scenes = timeline.getScenes();
+        int fps = config.getFps();
+        long totalFrames = 0;
+        for (Scene scene : scenes) {
+            totalFrames += Math.round(scene.getDuration() * fps);
+        }
+        long framesPerSegment = Math.max(1, (totalFrames + targetSegments - 1) / targetSegments);
+
+        List<Task> tasks = new ArrayList<>();
+        int first = 0;
+        long frames = 0;
+        for (int i = 0; i < scenes.size(); i++) {
+            frames += Math.round(scenes.get(i).getDuration() * fps);
+            if (frames >= framesPerSegment || i == scenes.size() - 1) {
+                if (frames > 0) {
+                    int index = tasks.size();
+                    tasks.add(new Task(index, first, i + 1,
+                        segmentDir.resolve(String.format("segment_%05d.mp4", index)).toString()));
+                }
+                first = i + 1;
+                frames = 0;
+            }
+        }
+        return tasks;
+    }
+
+    private Worker launch(Path snapshotPath, Path configPath, Path workspace) throws IOException {
+        int id = nextWorkerId++;
+        String java = ProcessHandle.current().info().command().orElse("java");
+        ProcessBuilder builder = new ProcessBuilder(java,
+            "-Xmx" + config.getRenderWorkerHeapMb() + "m",
+            "-cp", System.getProperty("java.class.path"),
+            RenderWorker.class.getName(),
+            snapshotPath.toString(), configPath.toString(), String.valueOf(id));
+        builder.redirectError(workspace.resolve("worker-" + id + ".err").toFile());
+
+        Worker worker = new Worker(id, builder.start());
+        logger.info("Launched render worker {} (pid {})", id, worker.process.pid());
+        return worker;
+    }
+
+    private enum EventType {
+        READY, HEARTBEAT, DONE, FAILED, EXITED
+    }
+
+    private static class Event {
+        final Worker worker;
+        final EventType type;
+        final int segment;
+        final int value;
+        final String message;
+
+        Event(Worker worker, EventType type, int segment, int value, String message) {
+            this.worker = worker;
+            this.type = type;
+            this.segment = segment;
+            this.value = value;
+            this.message = message;
+        }
+    }
+
+    private static class Task {
+        final int index;
+        final int firstScene;
+        final int endScene;
+        final String outputPath;
+        int attempts;
+        int frames;
+
+        Task(int index, int firstScene, int endScene, String outputPath) {
+            this.index = index;
+            this.firstScene = firstScene;
+            this.endScene = endScene;
+            this.outputPath = outputPath;
+        }
+    }
+
+    private class Worker {
+        final int id;
+        final Process process;
+        final PrintWriter commands;
+        final long started = System.nanoTime();
+        volatile long lastHeartbeat = started;
+        long lastProgress = started;
+        int framesWritten;
+        boolean ready;
+        boolean killed;
+        Task task;
+
+        Worker(int id, Process process) {
+            this.id = id;
+            this.process = process;
+            this.commands = new PrintWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8), true);
+
+            Thread reader = new Thread(this::readEvents, "render-worker-" + id + "-reader");
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        private void readEvents() {
+            try (BufferedReader output = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = output.readLine()) != null) {
+                    if (!line.startsWith(PROTOCOL_PREFIX)) {
+                        logger.debug("[worker {}] {}", id, line);
+                        continue;
+                    }
+                    lastHeartbeat = System.nanoTime();
+                    String[] parts = line.substring(PROTOCOL_PREFIX.length()).split(" ", 3);
+                    switch (parts[0]) {
+                        case READY -> events.add(new Event(this, EventType.READY, -1, 0, null));
+                        case HEARTBEAT -> events.add(new Event(this, EventType.HEARTBEAT,
+                            Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), null));
+                        case DONE -> events.add(new Event(this, EventType.DONE,
+                            Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), null));
+                        case FAILED -> events.add(new Event(this, EventType.FAILED,
+                            Integer.parseInt(parts[1]), 0, parts.length > 2 ? parts[2] : "unknown error"));
+                        default -> logger.debug("[worker {}] unknown message {}", id, line);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Worker {} output closed: {}", id, e.getMessage());
+            }
+
+            int exitCode;
+            try {
+                exitCode = process.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exitCode = -1;
+            }
+            events.add(new Event(this, EventType.EXITED, -1, exitCode, null));
+        }
+
+        void assign(Task task) {
+            this.task = task;
+            this.framesWritten = 0;
+            this.lastProgress = System.nanoTime();
+            logger.info("Assigning segment {} (scenes {}-{}) to worker {}", task.index, task.firstScene,
+                task.endScene - 1, id);
+            commands.println(RENDER + " " + task.index + " " + task.firstScene + " " + task.endScene + " "
+                + task.outputPath);
+        }
+
+        void kill() {
+            killed = true;
+            process.destroyForcibly();
+        }
+
+        void shutdown() {
+            if (!process.isAlive()) {
+                return;
+            }
+            commands.println(EXIT);
+            try {
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ythub.rendering;
+
+import com.ythub.core.Scene;
+import com.ythub.core.VideoConfig;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class RenderPipelineBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        VideoConfig.Resolution resolution = args.length > 0
+            ? VideoConfig.Resolution.valueOf(args[0]) : VideoConfig.Resolution.HD_1080P_30;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 20;
+        String preset = args.length > 2 ? args[2] : "medium";
+
+        Path directory = Paths.get("temp/benchmark");
+        Files.createDirectories(directory);
+
+        System.out.println("=== Render Pipeline Benchmark ===");
+        System.out.printf("Resolution: %s, %.0f s, preset %s, %d cores%n", resolution.name, seconds, preset,
+            Runtime.getRuntime().availableProcessors());
+
+        for (boolean adaptive : new boolean[] {false, true}) {
+            VideoConfig config = new VideoConfig();
+            config.setResolution(resolution);
+            config.setFps(resolution.fps);
+            config.setCodec("h264");
+            config.setFormat("mp4");
+            config.setBitrate(8000);
+            config.setEncoderPreset(preset);
+            config.setRenderAdaptive(adaptive);
+
+            List<Scene> scenes = createScenes((int) Math.round(seconds * config.getFps()), config.getFps());
+            EncodingPlan plan = EncodingPlan.forScenes(scenes, null, config);
+            Path output = directory.resolve(adaptive ? "adaptive.mp4" : "fixed.mp4");
+            RenderController controller = new RenderController(config,
+                (long) config.getWidth() * config.getHeight() * 8);
+
+            Runtime runtime = Runtime.getRuntime();
+            runtime.gc();
+            long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+            long[] peak = {usedBefore};
+
+            ExecutorService pool = Executors.newFixedThreadPool(config.getRenderThreads());
+            var recorder = DirectVideoRenderer.createRecorder(output.toString(), config, plan);
+            long start = System.nanoTime();
+            try {
+                recorder.start();
+                DirectVideoRenderer.runPipeline(recorder, plan, config, plan.getTotalFrames(), pool, controller,
+                    frameIndex -> {
+                        BufferedImage image = rasterize(scenes.get(frameIndex), config);
+                        peak[0] = Math.max(peak[0], runtime.totalMemory() - runtime.freeMemory());
+                        return image;
+                    }, frames -> { });
+                recorder.stop();
+            } finally {
+                recorder.release();
+                pool.shutdown();
+                pool.awaitTermination(10, TimeUnit.SECONDS);
+            }
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%-8s %.1f s, %.1f fps, peak heap %d MB, %d decisions, final %s%n",
+                adaptive ? "adaptive" : "fixed", elapsed, plan.getTotalFrames() / elapsed,
+                (peak[0] - usedBefore) / (1024 * 1024), controller.getDecisions(), controller);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    private static List<Scene> createScenes(int frames, int fps) {
+        Random random = new Random(11);
+        int[] array = new int[32];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = 10 + random.nextInt(90);
+        }
+        List<Scene> scenes = new ArrayList<>();
+        for (int frame = 0; frame < frames; frame++) {
+            int j = random.nextInt(array.length - 1);
+            int temp = array[j];
+            array[j] = array[j + 1];
+            array[j + 1] = temp;
+            scenes.add(new Scene.Builder(Scene.SceneType.VISUALIZATION, 1.0 / fps)
+                .withVisualData("array", array.clone())
+                .withVisualData("highlight1", j)
+                .withVisualData("highlight2", j + 1)
+                .build());
+        }
+        return scenes;
+    }
+
+    private static BufferedImage rasterize(Scene scene, VideoConfig config) {
+        BufferedImage source = EncoderSettingsBenchmark.draw(scene, config);
+        BufferedImage image = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return image;
+    }
+}
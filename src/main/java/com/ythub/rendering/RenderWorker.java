@@ -0,0 +1,120 @@
+package com.ythub.rendering;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ythub.core.Scene;
+import com.ythub.core.TimelineSnapshot;
+import com.ythub.core.VideoConfig;
+import javafx.application.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RenderWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderWorker.class);
+
+    private static final long HEARTBEAT_INTERVAL_MS = 1000;
+
+    private final PrintStream protocol;
+    private final TimelineSnapshot snapshot;
+    private final DirectVideoRenderer renderer;
+    private final AtomicInteger framesWritten = new AtomicInteger();
+    private volatile int currentSegment = -1;
+
+    private RenderWorker(PrintStream protocol, TimelineSnapshot snapshot, VideoConfig config) {
+        this.protocol = protocol;
+        this.snapshot = snapshot;
+        this.renderer = new DirectVideoRenderer(config);
+        this.renderer.setFrameListener(framesWritten::set);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: RenderWorker <snapshot> <config.json> <workerId>");
+            System.exit(2);
+        }
+
+        ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        VideoConfig config = mapper.readValue(new File(args[1]), VideoConfig.class);
+        String workerId = args[2];
+
+        int exitCode = 0;
+        try (TimelineSnapshot snapshot = TimelineSnapshot.open(Paths.get(args[0]))) {
+            logger.info("Render worker {} loaded {} scenes from {}", workerId, snapshot.getSceneCount(), args[0]);
+            new RenderWorker(System.out, snapshot, config).run();
+        } catch (Exception e) {
+            logger.error("Render worker {} failed", workerId, e);
+            exitCode = 1;
+        } finally {
+            Platform.exit();
+        }
+        System.exit(exitCode);
+    }
+
+    private void run() throws Exception {
+        Thread heartbeat = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                send(RenderCoordinator.HEARTBEAT + " " + currentSegment + " " + framesWritten.get());
+                try {
+                    Thread.sleep(HEARTBEAT_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "render-worker-heartbeat");
+        heartbeat.setDaemon(true);
+        heartbeat.start();
+
+        send(RenderCoordinator.READY);
+        BufferedReader commands = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = commands.readLine()) != null) {
+            String[] parts = line.trim().split(" ", 5);
+            if (parts[0].equals(RenderCoordinator.EXIT)) {
+                break;
+            }
+            if (parts[0].equals(RenderCoordinator.RENDER) && parts.length == 5) {
+                render(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), parts[4]);
+            }
+        }
+        heartbeat.interrupt();
+    }
+
+    private void render(int segment, int firstScene, int endScene, String outputPath) {
+        framesWritten.set(0);
+        currentSegment = segment;
+        try {
+            List<Scene> scenes = new ArrayList<>(endScene - firstScene);
+            for (int i = firstScene; i < endScene; i++) {
+                scenes.add(snapshot.getScene(i));
+            }
+            Scene previousScene = firstScene > 0 ? snapshot.getScene(firstScene - 1) : null;
+
+            int frames = renderer.renderSceneSegment(scenes, previousScene, outputPath);
+            send(RenderCoordinator.DONE + " " + segment + " " + frames);
+        } catch (Exception e) {
+            logger.error("Segment {} failed", segment, e);
+            send(RenderCoordinator.FAILED + " " + segment + " " + e.getMessage());
+        } finally {
+            currentSegment = -1;
+        }
+    }
+
+    private void send(String message) {
+        synchronized (protocol) {
+            protocol.println(RenderCoordinator.PROTOCOL_PREFIX + message);
+            protocol.flush();
+        }
+    }
+}
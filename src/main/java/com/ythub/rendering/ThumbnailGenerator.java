@@ -0,0 +1,385 @@
+package com.ythub.rendering;
+
+import com.ythub.core.Scene;
+import com.ythub.core.ScriptLoader;
+import com.ythub.core.Timeline;
+import com.ythub.core.TimelineSnapshot;
+import com.ythub.core.VideoConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+public class ThumbnailGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailGenerator.class);
+
+    public static final String CHAPTER_KEY = "chapter";
+
+    private static final double POSTER_POSITION = 0.6;
+
+    private final VideoConfig config;
+    private final FrameSource source;
+    private final ExecutorService pool;
+
+    public ThumbnailGenerator(VideoConfig config, FrameSource source, ExecutorService pool) {
+        this.config = config;
+        this.source = source;
+        this.pool = pool;
+    }
+
+    public BufferedImage contactSheet(double duration, int columns, int rows, int thumbWidth) {
+        long start = System.nanoTime();
+        int count = columns * rows;
+        int thumbHeight = Math.max(1, (int) Math.round((double) thumbWidth * config.getHeight() / config.getWidth()));
+
+        List<CompletableFuture<BufferedImage>> thumbnails = new ArrayList<>(count);
+        double[] times = new double[count];
+        for (int i = 0; i < count; i++) {
+            times[i] = duration * (i + 0.5) / count;
+            thumbnails.add(thumbnail(times[i], thumbWidth, thumbHeight));
+        }
+
+        int gap = Math.max(4, thumbWidth / 40);
+        BufferedImage sheet = new BufferedImage(columns * (thumbWidth + gap) + gap, rows * (thumbHeight + gap) + gap,
+            BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = sheet.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(new Color(0x12, 0x12, 0x12));
+        g.fillRect(0, 0, sheet.getWidth(), sheet.getHeight());
+        g.setFont(new Font("SansSerif", Font.BOLD, Math.max(10, thumbHeight / 10)));
+        FontMetrics metrics = g.getFontMetrics();
+
+        for (int i = 0; i < count; i++) {
+            int x = gap + (i % columns) * (thumbWidth + gap);
+            int y = gap + (i / columns) * (thumbHeight + gap);
+            g.drawImage(join(thumbnails.get(i), times[i]), x, y, null);
+
+            String label = formatTime(times[i]);
+            int labelWidth = metrics.stringWidth(label) + gap * 2;
+            int labelHeight = metrics.getHeight();
+            g.setColor(new Color(0, 0, 0, 160));
+            g.fillRect(x, y + thumbHeight - labelHeight, labelWidth, labelHeight);
+            g.setColor(Color.WHITE);
+            g.drawString(label, x + gap, y + thumbHeight - metrics.getDescent());
+        }
+        g.dispose();
+
+        logger.info("Contact sheet {}x{} ({} frames of {}x{}) built in {} ms", sheet.getWidth(), sheet.getHeight(),
+            count, thumbWidth, thumbHeight, (System.nanoTime() - start) / 1_000_000);
+        return sheet;
+    }
+
+    public List<BufferedImage> posters(List<Chapter> chapters, int width) {
+        long start = System.nanoTime();
+        int height = Math.max(1, (int) Math.round((double) width * config.getHeight() / config.getWidth()));
+        List<CompletableFuture<BufferedImage>> pending = new ArrayList<>(chapters.size());
+        for (Chapter chapter : chapters) {
+            pending.add(thumbnail(chapter.getPosterTime(), width, height));
+        }
+
+        List<BufferedImage> posters = new ArrayList<>(chapters.size());
+        for (int i = 0; i < chapters.size(); i++) {
+            posters.add(join(pending.get(i), chapters.get(i).getPosterTime()));
+        }
+        logger.info("Rendered {} chapter posters at {}x{} in {} ms", posters.size(), width, height,
+            (System.nanoTime() - start) / 1_000_000);
+        return posters;
+    }
+
+    public List<Path> writePosters(List<Chapter> chapters, int width, Path directory) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        int height = Math.max(1, (int) Math.round((double) width * config.getHeight() / config.getWidth()));
+        List<CompletableFuture<Path>> pending = new ArrayList<>(chapters.size());
+        for (Chapter chapter : chapters) {
+            Path file = directory.resolve(String.format("chapter-%02d-%s.png", chapter.getIndex() + 1,
+                slug(chapter.getTitle())));
+            pending.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    ImageIO.write(renderThumbnail(chapter.getPosterTime(), width, height), "png", file.toFile());
+                    return file;
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to write poster " + file, e);
+                }
+            }, pool));
+        }
+
+        List<Path> files = new ArrayList<>(chapters.size());
+        for (int i = 0; i < chapters.size(); i++) {
+            files.add(join(pending.get(i), chapters.get(i).getPosterTime()));
+        }
+        logger.info("Wrote {} chapter posters at {}x{} to {} in {} ms", files.size(), width, height, directory,
+            (System.nanoTime() - start) / 1_000_000);
+        return files;
+    }
+
+    private CompletableFuture<BufferedImage> thumbnail(double time, int width, int height) {
+        return CompletableFuture.supplyAsync(() -> renderThumbnail(time, width, height), pool);
+    }
+
+    private BufferedImage renderThumbnail(double time, int width, int height) {
+        BufferedImage frame = source.render(time);
+        if (frame == null) {
+            throw new IllegalStateException("No frame rendered at " + formatTime(time));
+        }
+        return shrink(frame, width, height);
+    }
+
+    static BufferedImage shrink(BufferedImage source, int width, int height) {
+        int type = source.getType();
+        if (type != BufferedImage.TYPE_3BYTE_BGR && type != BufferedImage.TYPE_INT_RGB
+                && type != BufferedImage.TYPE_INT_ARGB && type != BufferedImage.TYPE_INT_ARGB_PRE) {
+            BufferedImage converted = new BufferedImage(source.getWidth(), source.getHeight(),
+                BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = converted.createGraphics();
+            g.drawImage(source, 0, 0, null);
+            g.dispose();
+            source = converted;
+            type = BufferedImage.TYPE_INT_RGB;
+        }
+        int sourceWidth = source.getWidth();
+        int sourceHeight = source.getHeight();
+        byte[] bytes = type == BufferedImage.TYPE_3BYTE_BGR
+            ? ((DataBufferByte) source.getRaster().getDataBuffer()).getData() : null;
+        int[] ints = bytes == null ? ((DataBufferInt) source.getRaster().getDataBuffer()).getData() : null;
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+        int[] columns = new int[width + 1];
+        for (int x = 0; x <= width; x++) {
+            columns[x] = (int) ((long) x * sourceWidth / width);
+        }
+
+        for (int y = 0; y < height; y++) {
+            int top = (int) ((long) y * sourceHeight / height);
+            int bottom = Math.max(top + 1, (int) ((long) (y + 1) * sourceHeight / height));
+            for (int x = 0; x < width; x++) {
+                int left = columns[x];
+                int right = Math.max(left + 1, columns[x + 1]);
+                int red = 0;
+                int green = 0;
+                int blue = 0;
+                for (int row = top; row < bottom; row++) {
+                    if (bytes != null) {
+                        for (int i = (row * sourceWidth + left) * 3, end = (row * sourceWidth + right) * 3; i < end; i += 3) {
+                            blue += bytes[i] & 0xFF;
+                            green += bytes[i + 1] & 0xFF;
+                            red += bytes[i + 2] & 0xFF;
+                        }
+                    } else {
+                        for (int i = row * sourceWidth + left, end = row * sourceWidth + right; i < end; i++) {
+                            int pixel = ints[i];
+                            red += (pixel >> 16) & 0xFF;
+                            green += (pixel >> 8) & 0xFF;
+                            blue += pixel & 0xFF;
+                        }
+                    }
+                }
+                int samples = (bottom - top) * (right - left);
+                pixels[y * width + x] = red / samples << 16 | green / samples << 8 | blue / samples;
+            }
+        }
+        return target;
+    }
+
+    private static <T> T join(CompletableFuture<T> future, double time) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to render thumbnail at " + formatTime(time), e.getCause());
+        }
+    }
+
+    public static List<Chapter> chapters(Timeline timeline) {
+        List<Scene> scenes = timeline.getScenes();
+        return chapters(scenes.size(), scenes::get, timeline.getTotalDuration());
+    }
+
+    public static List<Chapter> chapters(TimelineSnapshot snapshot) {
+        return chapters(snapshot.getSceneCount(), snapshot::getScene, snapshot.getTotalDuration());
+    }
+
+    private static List<Chapter> chapters(int sceneCount, IntFunction<Scene> scenes, double totalDuration) {
+        List<Chapter> chapters = new ArrayList<>();
+        for (int i = 0; i < sceneCount; i++) {
+            Scene scene = scenes.apply(i);
+            String title = chapterTitle(scene);
+            if (title == null) {
+                continue;
+            }
+            if (!chapters.isEmpty()) {
+                chapters.get(chapters.size() - 1).endTime = scene.getStartTime();
+            }
+            double posterTime = scene.getStartTime() + scene.getDuration() * POSTER_POSITION;
+            chapters.add(new Chapter(chapters.size(), title, scene.getStartTime(), totalDuration, posterTime));
+        }
+        if (chapters.isEmpty() && totalDuration > 0) {
+            chapters.add(new Chapter(0, "Video", 0, totalDuration, totalDuration * 0.5));
+        }
+        return chapters;
+    }
+
+    private static String chapterTitle(Scene scene) {
+        if (scene.getVisualData(CHAPTER_KEY) instanceof String chapter) {
+            return chapter;
+        }
+        if (scene.getType() == Scene.SceneType.INTRO || scene.getType() == Scene.SceneType.TITLE_SLIDE) {
+            return scene.getVisualData("title") instanceof String title ? title : scene.getId();
+        }
+        return null;
+    }
+
+    static String formatTime(double seconds) {
+        long total = (long) Math.floor(seconds);
+        long hours = total / 3600;
+        long minutes = (total % 3600) / 60;
+        long secs = total % 60;
+        return hours > 0 ? String.format("%d:%02d:%02d", hours, minutes, secs) : String.format("%02d:%02d", minutes, secs);
+    }
+
+    private static String slug(String title) {
+        String slug = title.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("^-+|-+$", "");
+        return slug.isEmpty() ? "chapter" : slug.substring(0, Math.min(40, slug.length()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        String input = args.length > 0 ? args[0] : "src/main/resources/scripts/dsa/bubble-sort.json";
+        VideoConfig config = new VideoConfig();
+        Path directory = args.length > 1 ? Paths.get(args[1]) : Paths.get(config.getOutputDir(), "thumbnails");
+        int columns = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int rows = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        int thumbWidth = args.length > 4 ? Integer.parseInt(args[4]) : 320;
+        if (GraphicsEnvironment.isHeadless()) {
+            throw new IllegalStateException("Thumbnails are rendered with JavaFX, which cannot start without a display;"
+                + " run under a desktop session or xvfb-run");
+        }
+        Files.createDirectories(directory);
+
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "thumbnail-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        long loadStart = System.nanoTime();
+        TimelineSnapshot snapshot = input.endsWith(".snapshot") ? TimelineSnapshot.open(Paths.get(input)) : null;
+        Timeline timeline = null;
+        if (snapshot == null) {
+            timeline = new ScriptLoader(config).load(new File(input));
+            timeline.quantizeToFrames(config.getFps());
+        }
+        double duration = snapshot != null ? snapshot.getTotalDuration() : timeline.getTotalDuration();
+        int sceneCount = snapshot != null ? snapshot.getSceneCount() : timeline.getSceneCount();
+        double loadMs = (System.nanoTime() - loadStart) / 1e6;
+
+        DirectVideoRenderer renderer = new DirectVideoRenderer(config);
+        Timeline loaded = timeline;
+        FrameSource source = snapshot != null ? time -> renderer.renderFrameAt(snapshot, time)
+            : time -> renderer.renderFrameAt(loaded, time);
+
+        System.out.println("=== Thumbnail Generator ===");
+        System.out.printf("Input: %s (%d scenes, %s), loaded in %.1f ms, %d threads%n", input,
+            sceneCount, formatTime(duration), loadMs, Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+        ThumbnailGenerator generator = new ThumbnailGenerator(config, source, pool);
+
+        long start = System.nanoTime();
+        generator.renderThumbnail(0, thumbWidth, (int) Math.round((double) thumbWidth * config.getHeight()
+            / config.getWidth()));
+        System.out.printf("Warm-up frame: %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        BufferedImage sheet = generator.contactSheet(duration, columns, rows, thumbWidth);
+        Path sheetFile = directory.resolve("contact-sheet.png");
+        ImageIO.write(sheet, "png", sheetFile.toFile());
+        System.out.printf("Contact sheet: %d frames -> %s in %.1f ms%n", columns * rows, sheetFile,
+            (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        List<Chapter> chapters = snapshot != null ? chapters(snapshot) : chapters(timeline);
+        double scanMs = (System.nanoTime() - start) / 1e6;
+        List<Path> posters = generator.writePosters(chapters, thumbWidth * 2, directory);
+        System.out.printf("Chapter posters: %d chapters (scan %.1f ms) written in %.1f ms%n", posters.size(), scanMs,
+            (System.nanoTime() - start) / 1e6);
+        for (int i = 0; i < Math.min(chapters.size(), 20); i++) {
+            System.out.printf("  %s  %s -> %s%n", formatTime(chapters.get(i).getStartTime()),
+                chapters.get(i).getTitle(), posters.get(i).getFileName());
+        }
+        if (chapters.size() > 20) {
+            System.out.printf("  ... %d more%n", chapters.size() - 20);
+        }
+
+        if (snapshot != null) {
+            snapshot.close();
+        }
+        pool.shutdown();
+        System.exit(0);
+    }
+
+    @FunctionalInterface
+    public interface FrameSource {
+        BufferedImage render(double time);
+    }
+
+    public static class Chapter {
+        private final int index;
+        private final String title;
+        private final double startTime;
+        private double endTime;
+        private final double posterTime;
+
+        Chapter(int index, String title, double startTime, double endTime, double posterTime) {
+            this.index = index;
+            this.title = title;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.posterTime = posterTime;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public double getStartTime() {
+            return startTime;
+        }
+
+        public double getEndTime() {
+            return endTime;
+        }
+
+        public double getPosterTime() {
+            return posterTime;
+        }
+    }
+}
@@ -13,7 +13,12 @@ import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
 
 public class VideoEncoder {
 
@@ -124,6 +129,104 @@ public class VideoEncoder {
         }
     }
 
+    public void mergeAudioTracks(String videoPath, Map<String, String> audioPaths, String outputPath) {
+        try {
+            if (!new File(videoPath).exists()) {
+                throw new RuntimeException("Video file not found: " + videoPath);
+            }
+
+            List<String> command = new ArrayList<>(List.of("ffmpeg", "-y", "-i", videoPath));
+            List<String> languages = new ArrayList<>();
+            for (Map.Entry<String, String> track : audioPaths.entrySet()) {
+                if (!new File(track.getValue()).exists()) {
+                    logger.warn("Audio track {} not found: {}. Skipping it.", track.getKey(), track.getValue());
+                    continue;
+                }
+                command.add("-i");
+                command.add(track.getValue());
+                languages.add(track.getKey());
+            }
+
+            command.addAll(List.of("-map", "0:v:0"));
+            for (int i = 0; i < languages.size(); i++) {
+                command.addAll(List.of("-map", (i + 1) + ":a:0"));
+            }
+            command.addAll(List.of("-c:v", "copy", "-c:a", "aac", "-b:a", config.getAudioBitrate() + "k"));
+            for (int i = 0; i < languages.size(); i++) {
+                command.add("-metadata:s:a:" + i);
+                command.add("language=" + iso639Alpha3(languages.get(i)));
+                command.add("-disposition:a:" + i);
+                command.add(i == 0 ? "default" : "0");
+            }
+            command.add("-shortest");
+            command.add(outputPath);
+
+            logger.info("Muxing video {} with {} narration tracks {}", videoPath, languages.size(), languages);
+
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.inheritIO();
+            Process process = pb.start();
+            int exitCode = process.waitFor();
+
+            if (exitCode != 0) {
+                throw new RuntimeException("FFmpeg multi-track merge failed with exit code: " + exitCode);
+            }
+
+            logger.info("Multi-language merge complete: {}", outputPath);
+
+        } catch (Exception e) {
+            logger.error("Error merging audio tracks", e);
+            throw new RuntimeException("Multi-track audio merge failed", e);
+        }
+    }
+
+    private static String iso639Alpha3(String language) {
+        try {
+            String code = Locale.forLanguageTag(language).getISO3Language();
+            return code.isEmpty() ? language : code;
+        } catch (MissingResourceException e) {
+            return language;
+        }
+    }
+
+    public void concatSegments(List<String> segmentPaths, String outputPath) {
+        File listFile = new File(outputPath + ".segments.txt");
+        try {
+            StringBuilder list = new StringBuilder();
+            for (String segmentPath : segmentPaths) {
+                String absolutePath = new File(segmentPath).getAbsolutePath().replace("'", "'\\''");
+                list.append("file '").append(absolutePath).append("'\n");
+            }
+            Files.writeString(listFile.toPath(), list.toString());
+
+            logger.info("Concatenating {} encoded segments into {}", segmentPaths.size(), outputPath);
+
+            ProcessBuilder pb = new ProcessBuilder(
+                    "ffmpeg",
+                    "-y",
+                    "-f", "concat",
+                    "-safe", "0",
+                    "-i", listFile.getPath(),
+                    "-c", "copy",
+                    outputPath
+            );
+
+            pb.inheritIO();
+            Process process = pb.start();
+            int exitCode = process.waitFor();
+
+            if (exitCode != 0) {
+                throw new RuntimeException("FFmpeg concat failed with exit code: " + exitCode);
+            }
+
+        } catch (Exception e) {
+            logger.error("Error concatenating segments", e);
+            throw new RuntimeException("Segment concatenation failed", e);
+        } finally {
+            listFile.delete();
+        }
+    }
+
     private void copyVideoWithoutAudio(String videoPath, String outputPath) {
         try {
             ProcessBuilder pb = new ProcessBuilder(
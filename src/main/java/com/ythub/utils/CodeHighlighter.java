@@ -0,0 +1,227 @@
+package com.ythub.utils;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.JavaToken;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParseStart;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.Providers;
+import com.github.javaparser.TokenRange;
+import com.github.javaparser.ast.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class CodeHighlighter {
+
+    public enum TokenStyle {
+        PLAIN,
+        KEYWORD,
+        TYPE,
+        STRING,
+        NUMBER,
+        COMMENT,
+        FUNCTION,
+        OPERATOR
+    }
+
+    private static final int TAB_WIDTH = 4;
+
+    private static final List<ParseStart<? extends Node>> PARSE_STARTS = List.of(
+            ParseStart.COMPILATION_UNIT,
+            ParseStart.CLASS_BODY,
+            ParseStart.BLOCK,
+            ParseStart.STATEMENT
+    );
+
+    private final JavaParser parser;
+
+    public CodeHighlighter() {
+        ParserConfiguration configuration = new ParserConfiguration()
+                .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17)
+                .setAttributeComments(false);
+        this.parser = new JavaParser(configuration);
+    }
+
+    public List<StyledLine> highlight(String code) {
+        Optional<List<JavaToken>> tokens = tokenize(code);
+        if (tokens.isEmpty()) {
+            return plainLines(code);
+        }
+
+        List<StyledLine> lines = new ArrayList<>();
+        StyledLine current = new StyledLine();
+        JavaToken previous = null;
+
+        for (JavaToken token : tokens.get()) {
+            JavaToken.Category category = token.getCategory();
+            if (category.isEndOfLine()) {
+                lines.add(current);
+                current = new StyledLine();
+                previous = null;
+                continue;
+            }
+
+            String text = token.getText();
+            if (category.isWhitespace()) {
+                current.column += expandedLength(text, current.column);
+                continue;
+            }
+
+            String[] parts = text.split("\\R", -1);
+            TokenStyle style = styleOf(token, previous);
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    lines.add(current);
+                    current = new StyledLine();
+                }
+                if (!parts[i].isEmpty()) {
+                    current.add(parts[i], style);
+                }
+            }
+            previous = token;
+        }
+        lines.add(current);
+
+        if (lines.size() != code.split("\\R", -1).length) {
+            return plainLines(code);
+        }
+        return lines;
+    }
+
+    private Optional<List<JavaToken>> tokenize(String code) {
+        for (ParseStart<? extends Node> start : PARSE_STARTS) {
+            Optional<List<JavaToken>> tokens = parseTokens(start, code, 0, 0);
+            if (tokens.isPresent()) {
+                return tokens;
+            }
+        }
+        return parseTokens(ParseStart.BLOCK, "{" + code + "\n}", 1, 2);
+    }
+
+    private Optional<List<JavaToken>> parseTokens(ParseStart<? extends Node> start, String source, int skipFirst,
+                                                  int skipLast) {
+        ParseResult<? extends Node> result = parser.parse(start, Providers.provider(source));
+        if (!result.isSuccessful() || result.getResult().isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<TokenRange> range = result.getResult().get().getTokenRange();
+        if (range.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<JavaToken> tokens = new ArrayList<>();
+        Optional<JavaToken> token = Optional.of(range.get().getBegin().findFirstToken());
+        while (token.isPresent()) {
+            if (token.get().getKind() != JavaToken.Kind.EOF.getKind()) {
+                tokens.add(token.get());
+            }
+            token = token.get().getNextToken();
+        }
+        if (tokens.size() < skipFirst + skipLast) {
+            return Optional.empty();
+        }
+        return Optional.of(tokens.subList(skipFirst, tokens.size() - skipLast));
+    }
+
+    private TokenStyle styleOf(JavaToken token, JavaToken previous) {
+        JavaToken.Category category = token.getCategory();
+        int kind = token.getKind();
+
+        if (category.isComment()) {
+            return TokenStyle.COMMENT;
+        }
+        if (category.isLiteral()) {
+            if (kind == JavaToken.Kind.STRING_LITERAL.getKind()
+                    || kind == JavaToken.Kind.TEXT_BLOCK_LITERAL.getKind()
+                    || kind == JavaToken.Kind.CHARACTER_LITERAL.getKind()) {
+                return TokenStyle.STRING;
+            }
+            return TokenStyle.NUMBER;
+        }
+        if (category.isKeyword()) {
+            return isPrimitiveType(kind) ? TokenStyle.TYPE : TokenStyle.KEYWORD;
+        }
+        if (category.isOperator()) {
+            return TokenStyle.OPERATOR;
+        }
+        if (category.isIdentifier()) {
+            Optional<JavaToken> next = token.getNextToken();
+            while (next.isPresent() && next.get().getCategory().isWhitespace()) {
+                next = next.get().getNextToken();
+            }
+            if (next.isPresent() && "(".equals(next.get().getText())) {
+                return TokenStyle.FUNCTION;
+            }
+            if (!token.getText().isEmpty() && Character.isUpperCase(token.getText().charAt(0))) {
+                return TokenStyle.TYPE;
+            }
+        }
+        return TokenStyle.PLAIN;
+    }
+
+    private boolean isPrimitiveType(int kind) {
+        return kind == JavaToken.Kind.INT.getKind()
+                || kind == JavaToken.Kind.LONG.getKind()
+                || kind == JavaToken.Kind.SHORT.getKind()
+                || kind == JavaToken.Kind.BYTE.getKind()
+                || kind == JavaToken.Kind.CHAR.getKind()
+                || kind == JavaToken.Kind.BOOLEAN.getKind()
+                || kind == JavaToken.Kind.FLOAT.getKind()
+                || kind == JavaToken.Kind.DOUBLE.getKind()
+                || kind == JavaToken.Kind.VOID.getKind();
+    }
+
+    private List<StyledLine> plainLines(String code) {
+        List<StyledLine> lines = new ArrayList<>();
+        for (String text : code.split("\\R", -1)) {
+            StyledLine line = new StyledLine();
+            line.add(text.replace("\t", " ".repeat(TAB_WIDTH)), TokenStyle.PLAIN);
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private int expandedLength(String whitespace, int column) {
+        int length = 0;
+        for (char c : whitespace.toCharArray()) {
+            if (c == '\t') {
+                length += TAB_WIDTH - ((column + length) % TAB_WIDTH);
+            } else {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    public static class Span {
+        public final int column;
+        public final String text;
+        public final TokenStyle style;
+
+        Span(int column, String text, TokenStyle style) {
+            this.column = column;
+            this.text = text;
+            this.style = style;
+        }
+    }
+
+    public static class StyledLine {
+        private final List<Span> spans = new ArrayList<>();
+        private int column;
+
+        void add(String text, TokenStyle style) {
+            spans.add(new Span(column, text, style));
+            column += text.length();
+        }
+
+        public List<Span> getSpans() {
+            return spans;
+        }
+
+        public int getLength() {
+            return column;
+        }
+    }
+}
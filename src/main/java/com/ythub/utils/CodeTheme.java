@@ -0,0 +1,72 @@
+package com.ythub.utils;
+
+public enum CodeTheme {
+    MONOKAI("#272822", "#F8F8F2", "#F92672", "#66D9EF", "#E6DB74", "#AE81FF", "#75715E", "#A6E22E", "#F8F8F2", "#90908A", "#3E3D32"),
+    ONE_DARK("#282C34", "#ABB2BF", "#C678DD", "#E5C07B", "#98C379", "#D19A66", "#5C6370", "#61AFEF", "#56B6C2", "#4B5263", "#2C313C"),
+    LIGHT("#FFFFFF", "#000000", "#0000FF", "#267F99", "#A31515", "#098658", "#008000", "#795E26", "#000000", "#237893", "#FFF8C5");
+
+    public final String background;
+    public final String plain;
+    public final String keyword;
+    public final String type;
+    public final String string;
+    public final String number;
+    public final String comment;
+    public final String function;
+    public final String operator;
+    public final String lineNumber;
+    public final String activeLine;
+
+    CodeTheme(String background, String plain, String keyword, String type, String string, String number,
+              String comment, String function, String operator, String lineNumber, String activeLine) {
+        this.background = background;
+        this.plain = plain;
+        this.keyword = keyword;
+        this.type = type;
+        this.string = string;
+        this.number = number;
+        this.comment = comment;
+        this.function = function;
+        this.operator = operator;
+        this.lineNumber = lineNumber;
+        this.activeLine = activeLine;
+    }
+
+    public String colorFor(CodeHighlighter.TokenStyle style) {
+        switch (style) {
+            case KEYWORD:
+                return keyword;
+            case TYPE:
+                return type;
+            case STRING:
+                return string;
+            case NUMBER:
+                return number;
+            case COMMENT:
+                return comment;
+            case FUNCTION:
+                return function;
+            case OPERATOR:
+                return operator;
+            case PLAIN:
+            default:
+                return plain;
+        }
+    }
+
+    public static CodeTheme fromName(String name) {
+        if (name == null) {
+            return MONOKAI;
+        }
+        switch (name.toLowerCase().replace("-", "").replace("_", "")) {
+            case "onedark":
+                return ONE_DARK;
+            case "light":
+            case "github":
+                return LIGHT;
+            case "monokai":
+            default:
+                return MONOKAI;
+        }
+    }
+}
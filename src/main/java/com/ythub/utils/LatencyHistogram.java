@@ -0,0 +1,88 @@
+package com.ythub.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+    private static final int SUB_BUCKETS = 4;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS * SUB_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(1, nanos / 1000);
+        counts.incrementAndGet(bucketOf(micros));
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        totalMicros.set(0);
+        maxMicros.set(0);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public double getMeanMillis() {
+        long n = count.get();
+        return n == 0 ? 0 : totalMicros.get() / 1000.0 / n;
+    }
+
+    public double getMaxMillis() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    public double percentileMillis(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(n * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(upperBoundMicros(i), maxMicros.get()) / 1000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    private static int bucketOf(long micros) {
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = exponent >= 2 ? (int) ((micros >> (exponent - 2)) & (SUB_BUCKETS - 1)) : 0;
+        return Math.min(BUCKETS * SUB_BUCKETS - 1, exponent * SUB_BUCKETS + sub);
+    }
+
+    private static long upperBoundMicros(int bucket) {
+        int exponent = bucket / SUB_BUCKETS;
+        int sub = bucket % SUB_BUCKETS;
+        if (exponent < 2) {
+            return 1L << (exponent + 1);
+        }
+        return (1L << exponent) + ((long) (sub + 1) << (exponent - 2));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{count=%d, mean=%.1fms, p50=%.1fms, p90=%.1fms, p99=%.1fms, max=%.1fms}",
+                name, getCount(), getMeanMillis(), percentileMillis(50), percentileMillis(90),
+                percentileMillis(99), getMaxMillis());
+    }
+}
@@ -0,0 +1,109 @@
+package com.ythub.voice;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final long DECREASE_COOLDOWN_MS = 1000;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private long lastDecrease;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public CompletableFuture<Void> acquire() {
+        synchronized (this) {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.addLast(waiter);
+            return waiter;
+        }
+    }
+
+    public void onSuccess() {
+        List<CompletableFuture<Void>> granted;
+        synchronized (this) {
+            inFlight--;
+            if (limit < maxLimit) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            granted = grantWaiters();
+        }
+        granted.forEach(w -> w.complete(null));
+    }
+
+    public void onOverload() {
+        List<CompletableFuture<Void>> granted;
+        synchronized (this) {
+            inFlight--;
+            long now = System.currentTimeMillis();
+            if (now - lastDecrease >= DECREASE_COOLDOWN_MS) {
+                double previous = limit;
+                limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+                lastDecrease = now;
+                logger.warn("{}: overload signal, concurrency limit {} -> {}", name,
+                        (int) previous, (int) limit);
+            }
+            granted = grantWaiters();
+        }
+        granted.forEach(w -> w.complete(null));
+    }
+
+    public void onIgnore() {
+        List<CompletableFuture<Void>> granted;
+        synchronized (this) {
+            inFlight--;
+            granted = grantWaiters();
+        }
+        granted.forEach(w -> w.complete(null));
+    }
+
+    private List<CompletableFuture<Void>> grantWaiters() {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        while (!waiters.isEmpty() && inFlight < (int) limit) {
+            inFlight++;
+            granted.add(waiters.pollFirst());
+        }
+        return granted;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return waiters.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s{limit=%d, inFlight=%d, queued=%d}", name, (int) limit, inFlight, waiters.size());
+    }
+}
@@ -0,0 +1,65 @@
+package com.ythub.voice;
+
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.FrameGrabber;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+public class AudioDecoder {
+
+    private final int sampleRate;
+    private final int channels;
+
+    public AudioDecoder(int sampleRate, int channels) {
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+    }
+
+    public short[] decode(byte[] encoded) throws IOException {
+        avutil.av_log_set_level(avutil.AV_LOG_ERROR);
+
+        try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(new ByteArrayInputStream(encoded), 0)) {
+            grabber.setSampleMode(FrameGrabber.SampleMode.SHORT);
+            grabber.setSampleRate(sampleRate);
+            grabber.setAudioChannels(channels);
+            grabber.start();
+
+            short[] pcm = new short[Math.max(channels * 1024, encoded.length * 4)];
+            int length = 0;
+
+            Frame frame;
+            while ((frame = grabber.grabSamples()) != null) {
+                if (frame.samples == null) {
+                    continue;
+                }
+                ShortBuffer samples = (ShortBuffer) frame.samples[0];
+                int count = samples.remaining();
+                if (length + count > pcm.length) {
+                    pcm = Arrays.copyOf(pcm, Math.max(pcm.length * 2, length + count));
+                }
+                samples.get(pcm, length, count);
+                length += count;
+            }
+
+            grabber.stop();
+            return Arrays.copyOf(pcm, length - (length % channels));
+        }
+    }
+
+    public double durationOf(short[] pcm) {
+        return (double) (pcm.length / channels) / sampleRate;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+}
@@ -0,0 +1,446 @@
+package com.ythub.voice;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+public class AudioMixer implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AudioMixer.class);
+
+    private static final int STRETCH_WINDOW = 1024;
+    private static final int BLOCK_FRAMES = 8192;
+    private static final double DUCK_THRESHOLD = 32768 * Math.pow(10, -40 / 20.0);
+    private static final double ENVELOPE_RELEASE_SECONDS = 0.15;
+    private static final double LIMIT_KNEE = 0.9 * Short.MAX_VALUE;
+
+    private final int sampleRate;
+    private final int channels;
+    private final Path spoolPath;
+    private final FileChannel spool;
+    private final List<Clip> placed = new ArrayList<>();
+    private final LoudnessMeter narrationLoudness;
+    private long spoolBytes;
+    private MusicBed music;
+    private double musicLufs = Double.NEGATIVE_INFINITY;
+    private double musicGain = 1;
+    private double duckGain = 1;
+    private int duckAttackMs = 40;
+    private int duckReleaseMs = 400;
+    private double targetLufs = Double.NaN;
+
+    public AudioMixer(int sampleRate, int channels) throws IOException {
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        this.narrationLoudness = new LoudnessMeter(sampleRate, channels);
+        this.spoolPath = Files.createTempFile("audio-mix", ".pcm");
+        this.spool = FileChannel.open(spoolPath, StandardOpenOption.READ, StandardOpenOption.WRITE,
+            StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    public Clip add(short[] pcm, int sourceRate, int sourceChannels) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(pcm.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asShortBuffer().put(pcm);
+
+        long offset;
+        synchronized (spool) {
+            offset = spoolBytes;
+            spoolBytes += bytes.capacity();
+        }
+        while (bytes.hasRemaining()) {
+            spool.write(bytes, offset + bytes.position());
+        }
+
+        LoudnessMeter clipLoudness = new LoudnessMeter(sourceRate, sourceChannels);
+        clipLoudness.accept(pcm, 0, pcm.length / sourceChannels);
+        narrationLoudness.merge(clipLoudness);
+
+        return new Clip(offset, pcm.length / sourceChannels, sourceRate, sourceChannels);
+    }
+
+    public Clip add(short[] pcm) throws IOException {
+        return add(pcm, sampleRate, channels);
+    }
+
+    public synchronized void place(Clip clip, double startSeconds, double slotSeconds) {
+        clip.startFrame = Math.round(startSeconds * sampleRate);
+        clip.slotFrames = Math.round(slotSeconds * sampleRate);
+        placed.add(clip);
+    }
+
+    public void place(short[] pcm, double startSeconds, double slotSeconds) throws IOException {
+        place(add(pcm), startSeconds, slotSeconds);
+    }
+
+    public void attachMusic(MusicBed music, double volumeDb, double duckDb, int attackMs, int releaseMs)
+            throws IOException {
+        try {
+            this.musicLufs = music.measureLoopLufs() + volumeDb;
+        } catch (IOException e) {
+            music.close();
+            throw e;
+        }
+        this.music = music;
+        this.musicGain = dbToGain(volumeDb);
+        this.duckGain = dbToGain(duckDb);
+        this.duckAttackMs = attackMs;
+        this.duckReleaseMs = releaseMs;
+    }
+
+    public void setTargetLufs(double targetLufs) {
+        this.targetLufs = targetLufs;
+    }
+
+    public void writeWav(File output, double durationSeconds) throws IOException {
+        try (WavAudioSink sink = new WavAudioSink(output)) {
+            write(sink, durationSeconds);
+        }
+    }
+
+    public synchronized void write(AudioSink sink, double durationSeconds) throws IOException {
+        long totalFrames = (long) Math.ceil(durationSeconds * sampleRate);
+        sink.open(sampleRate, channels, totalFrames);
+
+        List<Clip> pending = new ArrayList<>(placed);
+        pending.sort(Comparator.comparingLong(clip -> clip.startFrame));
+        Iterator<Clip> upcoming = pending.iterator();
+        Clip next = upcoming.hasNext() ? upcoming.next() : null;
+        List<Clip> active = new ArrayList<>();
+
+        double narrationLufs = narrationLoudness.integratedLufs();
+        double programLufs = predictProgramLufs(narrationLufs, totalFrames);
+        double outputGain = !Double.isNaN(targetLufs) && Double.isFinite(programLufs)
+            ? dbToGain(targetLufs - programLufs) : 1;
+        LoudnessMeter outputLoudness = new LoudnessMeter(sampleRate, channels);
+
+        double envelopeRelease = Math.exp(-1 / (ENVELOPE_RELEASE_SECONDS * sampleRate));
+        double attackCoefficient = 1 - Math.exp(-1000.0 / (Math.max(1, duckAttackMs) * sampleRate));
+        double releaseCoefficient = 1 - Math.exp(-1000.0 / (Math.max(1, duckReleaseMs) * sampleRate));
+        double envelope = 0;
+        double duck = 1;
+
+        int[] mix = new int[BLOCK_FRAMES * channels];
+        short[] musicBlock = music != null ? new short[BLOCK_FRAMES * channels] : null;
+        short[] block = new short[BLOCK_FRAMES * channels];
+        for (long blockStart = 0; blockStart < totalFrames; blockStart += BLOCK_FRAMES) {
+            int frames = (int) Math.min(BLOCK_FRAMES, totalFrames - blockStart);
+            long blockEnd = blockStart + frames;
+            Arrays.fill(mix, 0, frames * channels, 0);
+
+            while (next != null && next.startFrame < blockEnd) {
+                active.add(next);
+                next = upcoming.hasNext() ? upcoming.next() : null;
+            }
+
+            for (Iterator<Clip> it = active.iterator(); it.hasNext(); ) {
+                Clip clip = it.next();
+                mixInto(clip, mix, blockStart, frames);
+                if (clip.startFrame + clip.outputFrames(sampleRate) <= blockEnd) {
+                    clip.stretched = null;
+                    it.remove();
+                }
+            }
+
+            if (music != null) {
+                music.read(musicBlock, frames);
+            }
+
+            for (int frame = 0; frame < frames; frame++) {
+                int base = frame * channels;
+                if (music != null) {
+                    int peak = 0;
+                    for (int c = 0; c < channels; c++) {
+                        peak = Math.max(peak, Math.abs(mix[base + c]));
+                    }
+                    envelope = peak > envelope ? peak : envelope * envelopeRelease;
+                    double target = envelope > DUCK_THRESHOLD ? duckGain : 1;
+                    duck += (target - duck) * (target < duck ? attackCoefficient : releaseCoefficient);
+                }
+                for (int c = 0; c < channels; c++) {
+                    double value = mix[base + c];
+                    if (music != null) {
+                        value += musicBlock[base + c] * musicGain * duck;
+                    }
+                    block[base + c] = limit(value * outputGain);
+                }
+            }
+            outputLoudness.accept(block, 0, frames);
+            sink.write(block, 0, frames * channels);
+        }
+
+        logger.info("Mixed {} narration clips{}: narration {} LUFS, predicted {} LUFS, output {} LUFS (target {})",
+            placed.size(), music != null ? " over " + music.getFile().getName() : "",
+            formatLufs(narrationLufs), formatLufs(programLufs), formatLufs(outputLoudness.integratedLufs()),
+            Double.isNaN(targetLufs) ? "none" : formatLufs(targetLufs));
+    }
+
+    private double predictProgramLufs(double narrationLufs, long totalFrames) {
+        if (music == null || !Double.isFinite(musicLufs)) {
+            return narrationLufs;
+        }
+
+        long narratedFrames = 0;
+        for (Clip clip : placed) {
+            narratedFrames += clip.outputFrames(sampleRate);
+        }
+        double narratedFraction = totalFrames > 0 ? Math.min(1, (double) narratedFrames / totalFrames) : 0;
+
+        double duckedMusicPower = LoudnessMeter.toPower(musicLufs) * duckGain * duckGain;
+        double underNarration = Double.isFinite(narrationLufs)
+            ? LoudnessMeter.toLufs(LoudnessMeter.toPower(narrationLufs) + duckedMusicPower)
+            : LoudnessMeter.toLufs(duckedMusicPower);
+        return LoudnessMeter.predictIntegratedLufs(
+            new double[]{underNarration, musicLufs},
+            new double[]{narratedFraction, 1 - narratedFraction});
+    }
+
+    private static short limit(double value) {
+        double magnitude = Math.abs(value);
+        if (magnitude <= LIMIT_KNEE) {
+            return (short) Math.round(value);
+        }
+        double headroom = Short.MAX_VALUE - LIMIT_KNEE;
+        double limited = LIMIT_KNEE + headroom * Math.tanh((magnitude - LIMIT_KNEE) / headroom);
+        return (short) Math.round(Math.copySign(limited, value));
+    }
+
+    private static double dbToGain(double db) {
+        return Math.pow(10, db / 20);
+    }
+
+    private static String formatLufs(double lufs) {
+        return Double.isFinite(lufs) ? String.format("%.1f", lufs) : "-inf";
+    }
+
+    private void mixInto(Clip clip, int[] mix, long blockStart, int frames) throws IOException {
+        long clipFrames = clip.outputFrames(sampleRate);
+        long from = Math.max(blockStart, clip.startFrame);
+        long to = Math.min(blockStart + frames, clip.startFrame + clipFrames);
+        if (from >= to) {
+            return;
+        }
+
+        if (clip.needsStretch(sampleRate)) {
+            if (clip.stretched == null) {
+                clip.stretched = timeStretch(convert(clip, readAll(clip), clip.unstretchedFrames(sampleRate)),
+                    channels, (int) clip.slotFrames);
+            }
+            for (long frame = from; frame < to; frame++) {
+                int source = (int) (frame - clip.startFrame) * channels;
+                int target = (int) (frame - blockStart) * channels;
+                for (int c = 0; c < channels; c++) {
+                    mix[target + c] += clip.stretched[source + c];
+                }
+            }
+            return;
+        }
+
+        if (clip.sourceRate == sampleRate && clip.sourceChannels == channels) {
+            short[] source = read(clip, from - clip.startFrame, (int) (to - from));
+            int target = (int) (from - blockStart) * channels;
+            for (int i = 0; i < source.length; i++) {
+                mix[target + i] += source[i];
+            }
+            return;
+        }
+
+        double step = (double) clip.sourceRate / sampleRate;
+        long firstSource = (long) ((from - clip.startFrame) * step);
+        long lastSource = Math.min(clip.sourceFrames - 1, (long) ((to - 1 - clip.startFrame) * step) + 1);
+        short[] source = read(clip, firstSource, (int) (lastSource - firstSource + 1));
+
+        for (long frame = from; frame < to; frame++) {
+            double position = (frame - clip.startFrame) * step - firstSource;
+            int index = (int) position;
+            double fraction = position - index;
+            int nextIndex = Math.min(index + 1, (int) (lastSource - firstSource));
+            int target = (int) (frame - blockStart) * channels;
+            for (int c = 0; c < channels; c++) {
+                double a = sampleFor(source, index, c, clip.sourceChannels);
+                double b = sampleFor(source, nextIndex, c, clip.sourceChannels);
+                mix[target + c] += (int) Math.round(a + (b - a) * fraction);
+            }
+        }
+    }
+
+    private double sampleFor(short[] source, int frame, int channel, int sourceChannels) {
+        int base = frame * sourceChannels;
+        if (sourceChannels == channels) {
+            return source[base + channel];
+        }
+        if (channels == 1) {
+            double sum = 0;
+            for (int c = 0; c < sourceChannels; c++) {
+                sum += source[base + c];
+            }
+            return sum / sourceChannels;
+        }
+        return source[base + Math.min(channel, sourceChannels - 1)];
+    }
+
+    private short[] convert(Clip clip, short[] source, int outputFrames) {
+        short[] converted = new short[outputFrames * channels];
+        double step = (double) clip.sourceRate / sampleRate;
+        for (int frame = 0; frame < outputFrames; frame++) {
+            double position = frame * step;
+            int index = Math.min((int) position, clip.sourceFrames - 1);
+            int nextIndex = Math.min(index + 1, clip.sourceFrames - 1);
+            double fraction = position - index;
+            for (int c = 0; c < channels; c++) {
+                double a = sampleFor(source, index, c, clip.sourceChannels);
+                double b = sampleFor(source, nextIndex, c, clip.sourceChannels);
+                converted[frame * channels + c] = (short) Math.round(a + (b - a) * Math.min(1, fraction));
+            }
+        }
+        return converted;
+    }
+
+    private short[] readAll(Clip clip) throws IOException {
+        return read(clip, 0, clip.sourceFrames);
+    }
+
+    private short[] read(Clip clip, long firstFrame, int frameCount) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(frameCount * clip.sourceChannels * 2).order(ByteOrder.LITTLE_ENDIAN);
+        long position = clip.spoolOffset + firstFrame * clip.sourceChannels * 2;
+        while (bytes.hasRemaining()) {
+            if (spool.read(bytes, position + bytes.position()) < 0) {
+                break;
+            }
+        }
+        bytes.flip();
+        short[] samples = new short[frameCount * clip.sourceChannels];
+        bytes.asShortBuffer().get(samples, 0, bytes.remaining() / 2);
+        return samples;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (music != null) {
+            music.close();
+        }
+        spool.close();
+        Files.deleteIfExists(spoolPath);
+    }
+
+    static void writeWavHeader(OutputStream out, int sampleRate, int channels, long dataBytes) throws IOException {
+        long riffSize = Math.min(0xFFFFFFFFL, 36 + dataBytes);
+        ByteBuffer header = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(new byte[]{'R', 'I', 'F', 'F'});
+        header.putInt((int) riffSize);
+        header.put(new byte[]{'W', 'A', 'V', 'E', 'f', 'm', 't', ' '});
+        header.putInt(16);
+        header.putShort((short) 1);
+        header.putShort((short) channels);
+        header.putInt(sampleRate);
+        header.putInt(sampleRate * channels * 2);
+        header.putShort((short) (channels * 2));
+        header.putShort((short) 16);
+        header.put(new byte[]{'d', 'a', 't', 'a'});
+        header.putInt((int) Math.min(0xFFFFFFFFL, dataBytes));
+        out.write(header.array());
+    }
+
+    static short[] timeStretch(short[] pcm, int channels, int targetFrames) {
+        int sourceFrames = pcm.length / channels;
+        if (sourceFrames == 0 || targetFrames <= 0) {
+            return new short[0];
+        }
+
+        int window = Math.min(STRETCH_WINDOW, sourceFrames);
+        int outputHop = Math.max(1, window / 2);
+        double inputHop = outputHop * (double) sourceFrames / targetFrames;
+
+        float[] accumulator = new float[targetFrames * channels];
+        float[] weights = new float[targetFrames];
+        float[] hann = new float[window];
+        for (int i = 0; i < window; i++) {
+            hann[i] = (float) (0.5 - 0.5 * Math.cos(2 * Math.PI * i / Math.max(1, window - 1)));
+        }
+
+        for (int block = 0; ; block++) {
+            int outStart = block * outputHop;
+            if (outStart >= targetFrames) {
+                break;
+            }
+            int inStart = (int) Math.min(sourceFrames - 1, Math.round(block * inputHop));
+            for (int i = 0; i < window; i++) {
+                int outFrame = outStart + i;
+                int inFrame = inStart + i;
+                if (outFrame >= targetFrames || inFrame >= sourceFrames) {
+                    break;
+                }
+                float w = hann[i];
+                weights[outFrame] += w;
+                for (int c = 0; c < channels; c++) {
+                    accumulator[outFrame * channels + c] += w * pcm[inFrame * channels + c];
+                }
+            }
+        }
+
+        short[] stretched = new short[targetFrames * channels];
+        for (int frame = 0; frame < targetFrames; frame++) {
+            float w = weights[frame] > 1e-3f ? weights[frame] : 1f;
+            for (int c = 0; c < channels; c++) {
+                float value = accumulator[frame * channels + c] / w;
+                stretched[frame * channels + c] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+            }
+        }
+        return stretched;
+    }
+
+    public static class Clip {
+        private final long spoolOffset;
+        private final int sourceFrames;
+        private final int sourceRate;
+        private final int sourceChannels;
+        private long startFrame;
+        private long slotFrames;
+        private short[] stretched;
+
+        Clip(long spoolOffset, int sourceFrames, int sourceRate, int sourceChannels) {
+            this.spoolOffset = spoolOffset;
+            this.sourceFrames = sourceFrames;
+            this.sourceRate = sourceRate;
+            this.sourceChannels = sourceChannels;
+        }
+
+        int unstretchedFrames(int outputRate) {
+            return (int) ((long) sourceFrames * outputRate / sourceRate);
+        }
+
+        boolean needsStretch(int outputRate) {
+            return slotFrames > 0 && unstretchedFrames(outputRate) > slotFrames + outputRate / 10;
+        }
+
+        long outputFrames(int outputRate) {
+            return needsStretch(outputRate) ? slotFrames : unstretchedFrames(outputRate);
+        }
+
+        public double getDuration() {
+            return (double) sourceFrames / sourceRate;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.ythub.voice;
+
+import com.ythub.core.Scene;
+import com.ythub.core.Timeline;
+import com.ythub.core.VideoConfig;
+import org.bytedeco.ffmpeg.global.avutil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class AudioPipelineBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int sceneCount = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        avutil.av_log_set_level(avutil.AV_LOG_ERROR);
+
+        VideoConfig config = new VideoConfig();
+        config.setTempDir("temp/benchmark");
+        TTSEngine engine = new TTSEngine(config, new ToneTTSProvider(config));
+        File output = new File(config.getTempDir(), "benchmark_audio.wav");
+
+        System.out.println("=== Audio Pipeline Benchmark ===");
+        System.out.printf("Scenes: %d, runs: %d, format: %d Hz x %d ch%n",
+                sceneCount, runs, config.getAudioSampleRate(), config.getAudioChannels());
+
+        for (int run = 1; run <= runs; run++) {
+            Timeline timeline = createTimeline(sceneCount);
+            long start = System.nanoTime();
+            engine.generateTimelinedAudio(timeline, output.getPath());
+            double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+
+            System.out.printf("Run %d: %.1f ms for %s of audio (%.0fx realtime, %d bytes)%n",
+                    run, elapsedMs, timeline.getFormattedDuration(),
+                    timeline.getTotalDuration() * 1000 / elapsedMs, output.length());
+        }
+
+        output.delete();
+        engine.close();
+    }
+
+    private static Timeline createTimeline(int sceneCount) {
+        Timeline timeline = new Timeline("Audio Benchmark");
+        timeline.addScene(new Scene.Builder(Scene.SceneType.INTRO, 5).build());
+        for (int i = 0; i < sceneCount; i++) {
+            if (i % 20 == 0) {
+                timeline.addScene(new Scene.Builder(Scene.SceneType.NARRATION, 10)
+                        .withNarration("This is a longer explanatory narration that introduces the next part "
+                                + "of the lesson and walks through what is about to happen on screen.")
+                        .build());
+            } else {
+                timeline.addScene(new Scene.Builder(Scene.SceneType.VISUALIZATION, 0.75)
+                        .withNarration("Comparing " + i + " and " + (i + 1))
+                        .build());
+            }
+        }
+        timeline.addScene(new Scene.Builder(Scene.SceneType.OUTRO, 5).build());
+        return timeline;
+    }
+
+    private static class ToneTTSProvider implements TTSProvider {
+
+        private static final double SECONDS_PER_CHAR = 0.06;
+
+        private final Map<Integer, byte[]> encodedTones = new ConcurrentHashMap<>();
+
+        private ToneTTSProvider(@SuppressWarnings("unused") VideoConfig config) {
+        }
+
+        @Override
+        public byte[] generateAudio(String text) throws IOException {
+            int tenths = (int) Math.max(5, Math.round(text.length() * SECONDS_PER_CHAR * 10));
+            byte[] encoded = encodedTones.get(tenths);
+            if (encoded == null) {
+                encoded = StubTTSServer.encodeTone(tenths / 10.0);
+                encodedTones.put(tenths, encoded);
+            }
+            return encoded;
+        }
+
+        @Override
+        public String getProviderName() {
+            return "Synthetic tone (benchmark)";
+        }
+
+        @Override
+        public boolean isConfigured() {
+            return true;
+        }
+    }
+}
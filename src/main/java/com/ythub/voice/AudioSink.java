@@ -0,0 +1,11 @@
+package com.ythub.voice;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface AudioSink extends Closeable {
+
+    void open(int sampleRate, int channels, long totalFrames) throws IOException;
+
+    void write(short[] samples, int offset, int length) throws IOException;
+}
@@ -0,0 +1,341 @@
+package com.ythub.voice;
+
+import com.ythub.core.VideoConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CachingTTSProvider implements TTSProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingTTSProvider.class);
+
+    private static final String AUDIO_SUFFIX = ".audio";
+    private static final String LOCK_FILE = ".lock";
+
+    private final TTSProvider delegate;
+    private final VideoConfig config;
+    private final Path cacheDir;
+    private final long maxBytes;
+    private final long maxAgeMillis;
+
+    private final Map<String, CacheEntry> index = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong oldestAccess = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+
+    public CachingTTSProvider(TTSProvider delegate, VideoConfig config) {
+        this.delegate = delegate;
+        this.config = config;
+        this.cacheDir = Paths.get(config.getTtsCacheDir());
+        this.maxBytes = config.getTtsCacheMaxBytes();
+        this.maxAgeMillis = config.getTtsCacheMaxAgeDays() * 24L * 60 * 60 * 1000;
+
+        try {
+            Files.createDirectories(cacheDir);
+            loadIndex();
+            evictIfNeeded();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open TTS cache at " + cacheDir, e);
+        }
+
+        logger.info("TTS cache at {}: {} entries, {} bytes (limit {} bytes, {} days)",
+                cacheDir, index.size(), totalBytes.get(), maxBytes, config.getTtsCacheMaxAgeDays());
+    }
+
+    @Override
+    public byte[] generateAudio(String text) throws IOException {
+        return await(generateAudioAsync(text));
+    }
+
+    @Override
+    public CompletableFuture<byte[]> generateAudioAsync(String text) {
+        return generateAudioAsync(text, config.getPrimaryNarrationLanguage());
+    }
+
+    @Override
+    public CompletableFuture<byte[]> generateAudioAsync(String text, String language) {
+        if (text == null || text.trim().isEmpty()) {
+            return delegate.generateAudioAsync(text, language);
+        }
+
+        String key = cacheKey(text, language);
+        byte[] cached = read(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            bytesServed.addAndGet(cached.length);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<byte[]> pending = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            return existing;
+        }
+
+        misses.incrementAndGet();
+        delegate.generateAudioAsync(text, language).whenComplete((audio, error) -> {
+            inFlight.remove(key);
+            if (error != null) {
+                pending.completeExceptionally(error);
+                return;
+            }
+            if (audio != null && audio.length > 0) {
+                write(key, audio);
+                evictIfNeeded();
+            }
+            pending.complete(audio);
+        });
+        return pending;
+    }
+
+    private byte[] await(CompletableFuture<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for TTS audio", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("TTS generation failed", e.getCause());
+        }
+    }
+
+    String cacheKey(String text, String language) {
+        String material = String.join("\u0000",
+                delegate.getProviderName(),
+                language,
+                config.getTtsVoice(),
+                String.valueOf(config.getTtsSpeed()),
+                String.valueOf(config.getTtsPitch()),
+                text);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Path pathFor(String key) {
+        return cacheDir.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key + AUDIO_SUFFIX);
+    }
+
+    private byte[] read(String key) {
+        Path path = pathFor(key);
+        try {
+            byte[] data = Files.readAllBytes(path);
+            long now = System.currentTimeMillis();
+            Files.setLastModifiedTime(path, FileTime.fromMillis(now));
+            CacheEntry entry = index.get(key);
+            if (entry != null) {
+                entry.lastAccess = now;
+            } else {
+                index.put(key, new CacheEntry(key, data.length, now));
+                totalBytes.addAndGet(data.length);
+                oldestAccess.accumulateAndGet(now, Math::min);
+            }
+            return data;
+        } catch (NoSuchFileException e) {
+            CacheEntry stale = index.remove(key);
+            if (stale != null) {
+                totalBytes.addAndGet(-stale.size);
+            }
+            return null;
+        } catch (IOException e) {
+            logger.warn("Failed to read TTS cache entry {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(String key, byte[] audio) {
+        Path path = pathFor(key);
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), key, ".tmp");
+            Files.write(temp, audio);
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            long now = System.currentTimeMillis();
+            CacheEntry previous = index.put(key, new CacheEntry(key, audio.length, now));
+            totalBytes.addAndGet(audio.length - (previous != null ? previous.size : 0));
+            oldestAccess.accumulateAndGet(now, Math::min);
+        } catch (IOException e) {
+            logger.warn("Failed to store TTS cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(cacheDir, Files::isDirectory)) {
+            for (Path shard : shards) {
+                try (DirectoryStream<Path> subShards = Files.newDirectoryStream(shard, Files::isDirectory)) {
+                    for (Path subShard : subShards) {
+                        try (DirectoryStream<Path> files = Files.newDirectoryStream(subShard, "*" + AUDIO_SUFFIX)) {
+                            for (Path file : files) {
+                                String name = file.getFileName().toString();
+                                String key = name.substring(0, name.length() - AUDIO_SUFFIX.length());
+                                long size = Files.size(file);
+                                long modified = Files.getLastModifiedTime(file).toMillis();
+                                index.put(key, new CacheEntry(key, size, modified));
+                                totalBytes.addAndGet(size);
+                                oldestAccess.accumulateAndGet(modified, Math::min);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void evictIfNeeded() {
+        long now = System.currentTimeMillis();
+        boolean expired = maxAgeMillis > 0 && now - oldestAccess.get() > maxAgeMillis;
+        if (totalBytes.get() <= maxBytes && !expired) {
+            return;
+        }
+
+        synchronized (this) {
+            try (FileChannel lockChannel = FileChannel.open(cacheDir.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = lockChannel.lock();
+                try {
+                    evict(now);
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                logger.warn("TTS cache eviction failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void evict(long now) throws IOException {
+        List<CacheEntry> entries = new ArrayList<>(index.values());
+        entries.sort(Comparator.comparingLong(e -> e.lastAccess));
+
+        long oldest = Long.MAX_VALUE;
+        for (CacheEntry entry : entries) {
+            boolean tooOld = maxAgeMillis > 0 && now - entry.lastAccess > maxAgeMillis;
+            if (!tooOld && totalBytes.get() <= maxBytes) {
+                oldest = entry.lastAccess;
+                break;
+            }
+            Path path = pathFor(entry.key);
+            if (!tooOld && Files.exists(path)
+                    && Files.getLastModifiedTime(path).toMillis() > entry.lastAccess) {
+                oldest = Math.min(oldest, entry.lastAccess);
+                continue;
+            }
+            Files.deleteIfExists(path);
+            if (index.remove(entry.key) != null) {
+                totalBytes.addAndGet(-entry.size);
+                evictions.incrementAndGet();
+            }
+        }
+        oldestAccess.set(Math.min(oldest, now));
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hits.get(), misses.get(), evictions.get(), bytesServed.get(),
+                index.size(), totalBytes.get());
+    }
+
+    @Override
+    public void logStats() {
+        logger.info("TTS cache: {}", getStats());
+        delegate.logStats();
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName() + " (cached)";
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return delegate.isConfigured();
+    }
+
+    @Override
+    public int getMaxTextLength() {
+        return delegate.getMaxTextLength();
+    }
+
+    public TTSProvider getDelegate() {
+        return delegate;
+    }
+
+    private static class CacheEntry {
+        final String key;
+        final long size;
+        volatile long lastAccess;
+
+        CacheEntry(String key, long size, long lastAccess) {
+            this.key = key;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    public static class CacheStats {
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+        public final long bytesServed;
+        public final int entries;
+        public final long totalBytes;
+
+        CacheStats(long hits, long misses, long evictions, long bytesServed, int entries, long totalBytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.bytesServed = bytesServed;
+            this.entries = entries;
+            this.totalBytes = totalBytes;
+        }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CacheStats{hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, entries=%d, bytes=%d}",
+                    hits, misses, getHitRate() * 100, evictions, entries, totalBytes);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ythub.voice;
+
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ShortBuffer;
+
+public class EncodedAudioSink implements AudioSink {
+
+    private final String outputPath;
+    private final int bitrateKbps;
+    private FFmpegFrameRecorder recorder;
+    private int sampleRate;
+    private int channels;
+
+    public EncodedAudioSink(String outputPath, int bitrateKbps) {
+        this.outputPath = outputPath;
+        this.bitrateKbps = bitrateKbps;
+    }
+
+    @Override
+    public void open(int sampleRate, int channels, long totalFrames) throws IOException {
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        File parent = new File(outputPath).getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        recorder = new FFmpegFrameRecorder(outputPath, channels);
+        recorder.setSampleRate(sampleRate);
+        recorder.setAudioCodec(avcodec.AV_CODEC_ID_AAC);
+        recorder.setAudioBitrate(bitrateKbps * 1000);
+        recorder.start();
+    }
+
+    @Override
+    public void write(short[] samples, int offset, int length) throws IOException {
+        recorder.recordSamples(sampleRate, channels, ShortBuffer.wrap(samples, offset, length));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (recorder != null) {
+            recorder.stop();
+            recorder.release();
+        }
+    }
+}
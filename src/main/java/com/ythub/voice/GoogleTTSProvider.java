@@ -1,6 +1,11 @@
 package com.ythub.voice;
 
 import com.ythub.core.VideoConfig;
+import com.ythub.utils.LatencyHistogram;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -10,30 +15,80 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 public class GoogleTTSProvider implements TTSProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(GoogleTTSProvider.class);
-    private static final String TTS_URL = "https://translate.google.com/translate_tts";
+    private static final long BASE_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final int MAX_TEXT_LENGTH = 200;
+
+    private static final OkHttpClient SHARED_CLIENT = createSharedClient();
+    private static final Map<String, AdaptiveConcurrencyLimiter> LIMITERS = new ConcurrentHashMap<>();
+    private static final LatencyHistogram LATENCY = new LatencyHistogram("google-tts-latency");
+
     private final OkHttpClient client;
     private final VideoConfig config;
+    private final AdaptiveConcurrencyLimiter limiter;
 
     public GoogleTTSProvider(VideoConfig config) {
-        this.client = new OkHttpClient();
         this.config = config;
+        this.client = SHARED_CLIENT.newBuilder()
+                .callTimeout(config.getTtsTimeoutSeconds(), TimeUnit.SECONDS)
+                .readTimeout(config.getTtsTimeoutSeconds(), TimeUnit.SECONDS)
+                .build();
+        this.limiter = LIMITERS.computeIfAbsent(config.getTtsBaseUrl(), url -> new AdaptiveConcurrencyLimiter(
+                "google-tts", config.getTtsInitialConcurrency(), 1, config.getTtsMaxConcurrency()));
+    }
+
+    private static OkHttpClient createSharedClient() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(256);
+        dispatcher.setMaxRequestsPerHost(128);
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(32, 5, TimeUnit.MINUTES))
+                .connectTimeout(10, TimeUnit.SECONDS)
+                .build();
     }
 
     @Override
     public byte[] generateAudio(String text) throws IOException {
+        try {
+            return generateAudioAsync(text).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Google TTS", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Google TTS failed", e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<byte[]> generateAudioAsync(String text) {
+        return generateAudioAsync(text, config.getPrimaryNarrationLanguage());
+    }
+
+    @Override
+    public CompletableFuture<byte[]> generateAudioAsync(String text, String language) {
         if (text == null || text.trim().isEmpty()) {
             logger.warn("Empty text provided, returning silence");
-            return new byte[0];
+            return CompletableFuture.completedFuture(new byte[0]);
         }
 
         String encodedText = URLEncoder.encode(text, StandardCharsets.UTF_8);
 
-        String url = TTS_URL + "?ie=UTF-8&q=" + encodedText
-                + "&tl=en&client=tw-ob"
+        String url = config.getTtsBaseUrl() + "?ie=UTF-8&q=" + encodedText
+                + "&tl=" + URLEncoder.encode(language, StandardCharsets.UTF_8) + "&client=tw-ob"
                 + "&ttsspeed=" + config.getTtsSpeed();
 
         Request request = new Request.Builder()
@@ -41,18 +96,80 @@ public class GoogleTTSProvider implements TTSProvider {
                 .header("User-Agent", "Mozilla/5.0")
                 .build();
 
-        logger.info("Generating free Google TTS audio for text: {} (length: {} chars)",
-                text.substring(0, Math.min(50, text.length())), text.length());
+        logger.info("Generating free Google TTS audio [{}] for text: {} (length: {} chars)",
+                language, text.substring(0, Math.min(50, text.length())), text.length());
 
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                String errorBody = response.body() != null ? response.body().string() : "No error details";
-                throw new IOException("Google TTS error: " + response.code() + " - " + errorBody);
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        limiter.acquire().thenRun(() -> execute(request, 0, result));
+        return result;
+    }
+
+    private void execute(Request request, int attempt, CompletableFuture<byte[]> result) {
+        long start = System.nanoTime();
+
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                LATENCY.recordNanos(System.nanoTime() - start);
+                limiter.onOverload();
+                retryOrFail(request, attempt, result, e, -1);
             }
 
-            byte[] audioData = response.body().bytes();
-            logger.info("Google TTS audio generated successfully, size: {} bytes", audioData.length);
-            return audioData;
+            @Override
+            public void onResponse(Call call, Response response) {
+                LATENCY.recordNanos(System.nanoTime() - start);
+                try (response) {
+                    int code = response.code();
+                    if (response.isSuccessful()) {
+                        byte[] audioData = response.body().bytes();
+                        limiter.onSuccess();
+                        logger.info("Google TTS audio generated successfully, size: {} bytes", audioData.length);
+                        result.complete(audioData);
+                        return;
+                    }
+
+                    String errorBody = response.body() != null ? response.body().string() : "No error details";
+                    IOException error = new IOException("Google TTS error: " + code + " - " + errorBody);
+                    if (code == 429 || code >= 500) {
+                        limiter.onOverload();
+                        retryOrFail(request, attempt, result, error, retryAfterMillis(response));
+                    } else {
+                        limiter.onIgnore();
+                        result.completeExceptionally(error);
+                    }
+                } catch (IOException e) {
+                    limiter.onIgnore();
+                    retryOrFail(request, attempt, result, e, -1);
+                }
+            }
+        });
+    }
+
+    private void retryOrFail(Request request, int attempt, CompletableFuture<byte[]> result,
+                             IOException error, long retryAfterMillis) {
+        if (attempt >= config.getTtsMaxRetries()) {
+            logger.error("Google TTS failed after {} attempts: {}", attempt + 1, error.getMessage());
+            result.completeExceptionally(error);
+            return;
+        }
+
+        long backoff = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << attempt);
+        long delay = retryAfterMillis >= 0 ? retryAfterMillis : ThreadLocalRandom.current().nextLong(backoff + 1);
+        logger.warn("Google TTS attempt {} failed ({}), retrying in {}ms", attempt + 1, error.getMessage(), delay);
+
+        TTSExecutors.SCHEDULER.schedule(() -> limiter.acquire().thenRun(() -> execute(request, attempt + 1, result)),
+                delay, TimeUnit.MILLISECONDS);
+    }
+
+    private long retryAfterMillis(Response response) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter == null) {
+            return -1;
+        }
+        try {
+            return Math.min(MAX_BACKOFF_MS, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            return -1;
         }
     }
 
@@ -65,4 +182,22 @@ public class GoogleTTSProvider implements TTSProvider {
     public boolean isConfigured() {
         return true;
     }
+
+    @Override
+    public int getMaxTextLength() {
+        return MAX_TEXT_LENGTH;
+    }
+
+    @Override
+    public void logStats() {
+        logger.info("Google TTS: {} {}", LATENCY, limiter);
+    }
+
+    AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    public static LatencyHistogram getLatencyHistogram() {
+        return LATENCY;
+    }
 }
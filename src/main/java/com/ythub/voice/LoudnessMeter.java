@@ -0,0 +1,181 @@
+package com.ythub.voice;
+
+import java.util.Arrays;
+
+public class LoudnessMeter {
+
+    private static final double ABSOLUTE_GATE_LUFS = -70.0;
+    private static final double RELATIVE_GATE_LU = -10.0;
+    private static final int SUB_BLOCKS_PER_BLOCK = 4;
+
+    private final int channels;
+    private final int subBlockFrames;
+    private final double[][] shelf;
+    private final double[][] highPass;
+    private final double[] shelfState;
+    private final double[] highPassState;
+    private final double[] recentSubBlocks = new double[SUB_BLOCKS_PER_BLOCK];
+    private double[] blockPowers = new double[64];
+    private int blockCount;
+    private int subBlockCount;
+    private int framesInSubBlock;
+    private double subBlockSum;
+
+    public LoudnessMeter(int sampleRate, int channels) {
+        this.channels = channels;
+        this.subBlockFrames = Math.max(1, sampleRate / 10);
+        this.shelf = highShelf(sampleRate, 1681.974450955533, 3.999843853973347, 0.7071752369554196);
+        this.highPass = highPass(sampleRate, 38.13547087602444, 0.5003270373238773);
+        this.shelfState = new double[channels * 2];
+        this.highPassState = new double[channels * 2];
+    }
+
+    public void accept(short[] samples, int offset, int frames) {
+        int frame = 0;
+        while (frame < frames) {
+            int chunk = Math.min(frames - frame, subBlockFrames - framesInSubBlock);
+            for (int c = 0; c < channels; c++) {
+                subBlockSum += filterChunk(samples, offset + frame * channels + c, chunk, c);
+            }
+            frame += chunk;
+            framesInSubBlock += chunk;
+            if (framesInSubBlock == subBlockFrames) {
+                closeSubBlock();
+            }
+        }
+    }
+
+    private double filterChunk(short[] samples, int start, int frames, int channel) {
+        double sb0 = shelf[0][0], sb1 = shelf[0][1], sb2 = shelf[0][2], sa1 = shelf[1][1], sa2 = shelf[1][2];
+        double hb0 = highPass[0][0], hb1 = highPass[0][1], hb2 = highPass[0][2];
+        double ha1 = highPass[1][1], ha2 = highPass[1][2];
+        int s = channel * 2;
+        double s1 = shelfState[s], s2 = shelfState[s + 1];
+        double h1 = highPassState[s], h2 = highPassState[s + 1];
+
+        double sum = 0;
+        for (int i = 0, index = start; i < frames; i++, index += channels) {
+            double input = samples[index] * (1 / 32768.0);
+            double shelved = sb0 * input + s1;
+            s1 = sb1 * input - sa1 * shelved + s2;
+            s2 = sb2 * input - sa2 * shelved;
+            double weighted = hb0 * shelved + h1;
+            h1 = hb1 * shelved - ha1 * weighted + h2;
+            h2 = hb2 * shelved - ha2 * weighted;
+            sum += weighted * weighted;
+        }
+
+        shelfState[s] = s1;
+        shelfState[s + 1] = s2;
+        highPassState[s] = h1;
+        highPassState[s + 1] = h2;
+        return sum;
+    }
+
+    public synchronized void merge(LoudnessMeter other) {
+        for (int i = 0; i < other.blockCount; i++) {
+            addBlock(other.blockPowers[i]);
+        }
+    }
+
+    public synchronized double integratedLufs() {
+        double absoluteSum = 0;
+        int absoluteCount = 0;
+        for (int i = 0; i < blockCount; i++) {
+            if (toLufs(blockPowers[i]) > ABSOLUTE_GATE_LUFS) {
+                absoluteSum += blockPowers[i];
+                absoluteCount++;
+            }
+        }
+        if (absoluteCount == 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        double relativeGate = toLufs(absoluteSum / absoluteCount) + RELATIVE_GATE_LU;
+        double gatedSum = 0;
+        int gatedCount = 0;
+        for (int i = 0; i < blockCount; i++) {
+            double loudness = toLufs(blockPowers[i]);
+            if (loudness > ABSOLUTE_GATE_LUFS && loudness > relativeGate) {
+                gatedSum += blockPowers[i];
+                gatedCount++;
+            }
+        }
+        return gatedCount == 0 ? Double.NEGATIVE_INFINITY : toLufs(gatedSum / gatedCount);
+    }
+
+    public static double predictIntegratedLufs(double[] classLufs, double[] classWeights) {
+        double absoluteSum = 0;
+        double absoluteWeight = 0;
+        for (int i = 0; i < classLufs.length; i++) {
+            if (classLufs[i] > ABSOLUTE_GATE_LUFS && classWeights[i] > 0) {
+                absoluteSum += toPower(classLufs[i]) * classWeights[i];
+                absoluteWeight += classWeights[i];
+            }
+        }
+        if (absoluteWeight == 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        double relativeGate = toLufs(absoluteSum / absoluteWeight) + RELATIVE_GATE_LU;
+        double gatedSum = 0;
+        double gatedWeight = 0;
+        for (int i = 0; i < classLufs.length; i++) {
+            if (classLufs[i] > ABSOLUTE_GATE_LUFS && classLufs[i] > relativeGate && classWeights[i] > 0) {
+                gatedSum += toPower(classLufs[i]) * classWeights[i];
+                gatedWeight += classWeights[i];
+            }
+        }
+        return toLufs(gatedSum / gatedWeight);
+    }
+
+    static double toPower(double lufs) {
+        return Math.pow(10, (lufs + 0.691) / 10);
+    }
+
+    private void closeSubBlock() {
+        recentSubBlocks[subBlockCount % SUB_BLOCKS_PER_BLOCK] = subBlockSum / subBlockFrames;
+        subBlockCount++;
+        subBlockSum = 0;
+        framesInSubBlock = 0;
+
+        if (subBlockCount >= SUB_BLOCKS_PER_BLOCK) {
+            double power = 0;
+            for (double subBlock : recentSubBlocks) {
+                power += subBlock;
+            }
+            addBlock(power / SUB_BLOCKS_PER_BLOCK);
+        }
+    }
+
+    private synchronized void addBlock(double power) {
+        if (blockCount == blockPowers.length) {
+            blockPowers = Arrays.copyOf(blockPowers, blockCount * 2);
+        }
+        blockPowers[blockCount++] = power;
+    }
+
+    static double toLufs(double power) {
+        return -0.691 + 10 * Math.log10(power);
+    }
+
+    private static double[][] highShelf(int sampleRate, double frequency, double gainDb, double q) {
+        double k = Math.tan(Math.PI * frequency / sampleRate);
+        double vh = Math.pow(10, gainDb / 20);
+        double vb = Math.pow(vh, 0.4996667741545416);
+        double a0 = 1 + k / q + k * k;
+        return new double[][]{
+            {(vh + vb * k / q + k * k) / a0, 2 * (k * k - vh) / a0, (vh - vb * k / q + k * k) / a0},
+            {1, 2 * (k * k - 1) / a0, (1 - k / q + k * k) / a0}
+        };
+    }
+
+    private static double[][] highPass(int sampleRate, double frequency, double q) {
+        double k = Math.tan(Math.PI * frequency / sampleRate);
+        double a0 = 1 + k / q + k * k;
+        return new double[][]{
+            {1, -2, 1},
+            {1, 2 * (k * k - 1) / a0, (1 - k / q + k * k) / a0}
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package com.ythub.voice;
+
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.FrameGrabber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+public class MusicBed implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MusicBed.class);
+
+    private final File file;
+    private final int sampleRate;
+    private final int channels;
+    private FFmpegFrameGrabber grabber;
+    private ShortBuffer pending;
+    private long framesSinceLoop;
+    private int loops;
+    private boolean exhausted;
+
+    public MusicBed(File file, int sampleRate, int channels) throws IOException {
+        this.file = file;
+        this.sampleRate = sampleRate;
+        this.channels = channels;
+        open();
+    }
+
+    public void read(short[] destination, int frames) throws IOException {
+        int needed = frames * channels;
+        int written = 0;
+        while (written < needed) {
+            if (pending == null || !pending.hasRemaining()) {
+                pending = exhausted ? null : nextSamples();
+                if (pending == null) {
+                    Arrays.fill(destination, written, needed, (short) 0);
+                    return;
+                }
+            }
+            int count = Math.min(pending.remaining(), needed - written);
+            pending.get(destination, written, count);
+            written += count;
+        }
+    }
+
+    private ShortBuffer nextSamples() throws IOException {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Frame frame;
+            while ((frame = grabber.grabSamples()) != null) {
+                if (frame.samples != null) {
+                    ShortBuffer samples = (ShortBuffer) frame.samples[0];
+                    framesSinceLoop += samples.remaining() / channels;
+                    return samples;
+                }
+            }
+            if (framesSinceLoop == 0) {
+                break;
+            }
+            loops++;
+            framesSinceLoop = 0;
+            grabber.close();
+            open();
+        }
+        logger.warn("Background music {} produced no audio, continuing without it", file);
+        exhausted = true;
+        return null;
+    }
+
+    private void open() throws IOException {
+        avutil.av_log_set_level(avutil.AV_LOG_ERROR);
+        grabber = new FFmpegFrameGrabber(file);
+        grabber.setSampleMode(FrameGrabber.SampleMode.SHORT);
+        grabber.setSampleRate(sampleRate);
+        grabber.setAudioChannels(channels);
+        grabber.start();
+    }
+
+    public double measureLoopLufs() throws IOException {
+        LoudnessMeter meter = new LoudnessMeter(sampleRate, channels);
+        try (FFmpegFrameGrabber scan = new FFmpegFrameGrabber(file)) {
+            scan.setSampleMode(FrameGrabber.SampleMode.SHORT);
+            scan.setSampleRate(sampleRate);
+            scan.setAudioChannels(channels);
+            scan.start();
+            short[] buffer = new short[0];
+            Frame frame;
+            while ((frame = scan.grabSamples()) != null) {
+                if (frame.samples == null) {
+                    continue;
+                }
+                ShortBuffer samples = (ShortBuffer) frame.samples[0];
+                if (buffer.length < samples.remaining()) {
+                    buffer = new short[samples.remaining()];
+                }
+                int count = samples.remaining();
+                samples.get(buffer, 0, count);
+                meter.accept(buffer, 0, count / channels);
+            }
+            scan.stop();
+        }
+        return meter.integratedLufs();
+    }
+
+    public int getLoops() {
+        return loops;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (grabber != null) {
+            grabber.close();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.ythub.voice;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class NarrationChunker {
+
+    private static final int MIN_CHUNK_CHARS = 40;
+    private static final String CLAUSE_BREAKS = ",;:—–";
+
+    private final int maxChars;
+    private final Locale locale;
+
+    public NarrationChunker(int maxChars) {
+        this(maxChars, Locale.ENGLISH);
+    }
+
+    public NarrationChunker(int maxChars, Locale locale) {
+        this.maxChars = Math.max(MIN_CHUNK_CHARS, maxChars);
+        this.locale = locale;
+    }
+
+    public List<String> split(String text) {
+        List<String> chunks = new ArrayList<>();
+        String trimmed = text.trim();
+        if (trimmed.length() <= maxChars) {
+            chunks.add(trimmed);
+            return chunks;
+        }
+
+        StringBuilder pending = new StringBuilder();
+        for (String sentence : sentences(trimmed)) {
+            for (String piece : fit(sentence)) {
+                if (pending.length() > 0 && pending.length() + 1 + piece.length() > maxChars) {
+                    chunks.add(pending.toString());
+                    pending.setLength(0);
+                }
+                if (pending.length() > 0) {
+                    pending.append(' ');
+                }
+                pending.append(piece);
+                if (pending.length() >= MIN_CHUNK_CHARS) {
+                    chunks.add(pending.toString());
+                    pending.setLength(0);
+                }
+            }
+        }
+        if (pending.length() > 0) {
+            if (!chunks.isEmpty() && chunks.get(chunks.size() - 1).length() + 1 + pending.length() <= maxChars) {
+                chunks.set(chunks.size() - 1, chunks.get(chunks.size() - 1) + " " + pending);
+            } else {
+                chunks.add(pending.toString());
+            }
+        }
+        return chunks;
+    }
+
+    private List<String> sentences(String text) {
+        List<String> sentences = new ArrayList<>();
+        BreakIterator iterator = BreakIterator.getSentenceInstance(locale);
+        iterator.setText(text);
+        int start = iterator.first();
+        for (int end = iterator.next(); end != BreakIterator.DONE; start = end, end = iterator.next()) {
+            String sentence = text.substring(start, end).trim();
+            if (!sentence.isEmpty()) {
+                sentences.add(sentence);
+            }
+        }
+        return sentences;
+    }
+
+    private List<String> fit(String sentence) {
+        List<String> pieces = new ArrayList<>();
+        String rest = sentence;
+        while (rest.length() > maxChars) {
+            int cut = lastBreak(rest, CLAUSE_BREAKS);
+            if (cut < 0) {
+                cut = rest.lastIndexOf(' ', maxChars);
+            }
+            if (cut <= 0) {
+                cut = maxChars;
+            }
+            pieces.add(rest.substring(0, cut + (cut < rest.length() && rest.charAt(cut) != ' ' ? 1 : 0)).trim());
+            rest = rest.substring(Math.min(rest.length(), cut + 1)).trim();
+        }
+        if (!rest.isEmpty()) {
+            pieces.add(rest);
+        }
+        return pieces;
+    }
+
+    private int lastBreak(String text, String breaks) {
+        for (int i = Math.min(maxChars - 1, text.length() - 1); i >= MIN_CHUNK_CHARS / 2; i--) {
+            if (breaks.indexOf(text.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int getMaxChars() {
+        return maxChars;
+    }
+}
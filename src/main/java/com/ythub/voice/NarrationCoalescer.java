@@ -0,0 +1,158 @@
+package com.ythub.voice;
+
+import com.ythub.core.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class NarrationCoalescer {
+
+    public static final int DEFAULT_MAX_SHORT_NARRATION = 60;
+    public static final int DEFAULT_MAX_GROUP_CHARS = 180;
+
+    private final int maxShortNarration;
+    private final int maxGroupChars;
+
+    public NarrationCoalescer() {
+        this(DEFAULT_MAX_SHORT_NARRATION, DEFAULT_MAX_GROUP_CHARS);
+    }
+
+    public NarrationCoalescer(int maxShortNarration, int maxGroupChars) {
+        this.maxShortNarration = maxShortNarration;
+        this.maxGroupChars = maxGroupChars;
+    }
+
+    public List<NarrationGroup> coalesce(List<Scene> scenes) {
+        List<NarrationGroup> groups = new ArrayList<>();
+        NarrationGroup current = null;
+
+        for (Scene scene : scenes) {
+            String text = scene.getNarrationText();
+            if (text == null || text.trim().isEmpty()) {
+                current = null;
+                continue;
+            }
+
+            if (current != null && isShortStep(scene) && current.canAppend(text, maxGroupChars)) {
+                current.add(scene);
+                continue;
+            }
+
+            current = new NarrationGroup(scene);
+            groups.add(current);
+            if (!isShortStep(scene)) {
+                current = null;
+            }
+        }
+
+        return groups;
+    }
+
+    private boolean isShortStep(Scene scene) {
+        return scene.getType() == Scene.SceneType.VISUALIZATION
+                && scene.getNarrationText().length() <= maxShortNarration;
+    }
+
+    public static class NarrationGroup {
+        private final List<Scene> scenes = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+
+        NarrationGroup(Scene first) {
+            add(first);
+        }
+
+        void add(Scene scene) {
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(asSentence(scene.getNarrationText().trim()));
+            scenes.add(scene);
+        }
+
+        boolean canAppend(String narration, int maxChars) {
+            return text.length() + 2 + narration.length() <= maxChars;
+        }
+
+        public List<Scene> getScenes() {
+            return scenes;
+        }
+
+        public String getText() {
+            return text.toString();
+        }
+
+        public String getText(String language) {
+            StringBuilder localized = new StringBuilder();
+            for (Scene scene : scenes) {
+                String narration = scene.getNarrationText(language);
+                if (narration == null || narration.trim().isEmpty()) {
+                    continue;
+                }
+                if (localized.length() > 0) {
+                    localized.append(' ');
+                }
+                localized.append(asSentence(narration.trim()));
+            }
+            return localized.toString();
+        }
+
+        public int size() {
+            return scenes.size();
+        }
+
+        public double getTotalDuration() {
+            double total = 0;
+            for (Scene scene : scenes) {
+                total += scene.getDuration();
+            }
+            return total;
+        }
+
+        public void distributeDuration(double audioDuration, int fps) {
+            applyDurations(planDurations(audioDuration, fps, null));
+        }
+
+        public void applyDurations(double[] durations) {
+            for (int i = 0; i < durations.length; i++) {
+                scenes.get(i).setDuration(durations[i]);
+            }
+        }
+
+        public double[] planDurations(double audioDuration, int fps, String language) {
+            int totalFrames = (int) Math.ceil(audioDuration * fps - 1e-6);
+            double[] durations = new double[scenes.size()];
+            if (scenes.size() == 1) {
+                durations[0] = (double) totalFrames / fps;
+                return durations;
+            }
+
+            double[] weights = new double[scenes.size()];
+            double totalWeight = 0;
+            for (int i = 0; i < weights.length; i++) {
+                Scene scene = scenes.get(i);
+                weights[i] = wordCount(language != null ? scene.getNarrationText(language) : scene.getNarrationText()) + 1;
+                totalWeight += weights[i];
+            }
+
+            double cumulativeWeight = 0;
+            int previousBoundary = 0;
+            for (int i = 0; i < weights.length; i++) {
+                cumulativeWeight += weights[i];
+                int boundary = i == weights.length - 1 ? totalFrames
+                    : (int) Math.round(totalFrames * cumulativeWeight / totalWeight);
+                durations[i] = (double) (boundary - previousBoundary) / fps;
+                previousBoundary = boundary;
+            }
+            return durations;
+        }
+
+        private static String asSentence(String narration) {
+            char last = narration.charAt(narration.length() - 1);
+            return last == '.' || last == '!' || last == '?' ? narration : narration + ".";
+        }
+
+        private static int wordCount(String narration) {
+            return narration.trim().split("\\s+").length;
+        }
+    }
+}
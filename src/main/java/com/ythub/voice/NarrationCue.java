@@ -0,0 +1,31 @@
+package com.ythub.voice;
+
+public class NarrationCue {
+
+    private final String text;
+    private final double start;
+    private final double end;
+
+    public NarrationCue(String text, double start, double end) {
+        this.text = text;
+        this.start = start;
+        this.end = end;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public double getStart() {
+        return start;
+    }
+
+    public double getEnd() {
+        return end;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NarrationCue{%.2fs-%.2fs, '%s'}", start, end, text);
+    }
+}
@@ -1,18 +1,27 @@
 package com.ythub.voice;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
 public class SilentTTSProvider implements TTSProvider {
 
     private final int sampleRate;
+    private final int channels;
 
-    public SilentTTSProvider(int sampleRate) {
+    public SilentTTSProvider(int sampleRate, int channels) {
         this.sampleRate = sampleRate;
+        this.channels = channels;
     }
 
     @Override
-    public byte[] generateAudio(String text) {
+    public byte[] generateAudio(String text) throws IOException {
         int durationMs = text.length() * 50;
-        int numSamples = (sampleRate * durationMs) / 1000;
-        return new byte[numSamples * 2];
+        int numSamples = (int) ((long) sampleRate * durationMs / 1000) * channels;
+
+        ByteArrayOutputStream wav = new ByteArrayOutputStream(44 + numSamples * 2);
+        AudioMixer.writeWavHeader(wav, sampleRate, channels, numSamples * 2L);
+        wav.write(new byte[numSamples * 2]);
+        return wav.toByteArray();
     }
 
     @Override
@@ -0,0 +1,319 @@
+package com.ythub.voice;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ShortBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class StubTTSServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubTTSServer.class);
+
+    private static final String PATH = "/translate_tts";
+    private static final int TTS_SAMPLE_RATE = 24000;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final int latencyMs;
+    private final int jitterMs;
+    private final double msPerChar;
+    private final double errorRate;
+    private final int maxConcurrent;
+    private final int retryAfterSeconds;
+    private final double secondsPerChar;
+    private final String format;
+    private final Random random;
+    private final Map<Integer, byte[]> encodedAudio = new ConcurrentHashMap<>();
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peakActive = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+
+    private StubTTSServer(Builder builder) throws IOException {
+        this.latencyMs = builder.latencyMs;
+        this.jitterMs = builder.jitterMs;
+        this.msPerChar = builder.msPerChar;
+        this.errorRate = builder.errorRate;
+        this.maxConcurrent = builder.maxConcurrent;
+        this.retryAfterSeconds = builder.retryAfterSeconds;
+        this.secondsPerChar = builder.secondsPerChar;
+        this.format = builder.format;
+        this.random = new Random(builder.seed);
+
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-tts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", builder.port), 512);
+        this.server.createContext(PATH, this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+
+        logger.info("Stub TTS server listening on {} (latency={}ms+{}ms/char, jitter={}ms, errorRate={}, maxConcurrent={})",
+            getBaseUrl(), latencyMs, msPerChar, jitterMs, errorRate, maxConcurrent > 0 ? maxConcurrent : "unlimited");
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + PATH;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        int concurrent = active.incrementAndGet();
+        peakActive.accumulateAndGet(concurrent, Math::max);
+        try {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String text = query.get("q");
+            if (text == null || text.isEmpty() || !"tw-ob".equals(query.get("client")) || query.get("tl") == null) {
+                rejected.incrementAndGet();
+                respond(exchange, 400, "text/plain", "missing q, tl or client".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+
+            if (maxConcurrent > 0 && concurrent > maxConcurrent) {
+                throttled.incrementAndGet();
+                if (retryAfterSeconds > 0) {
+                    exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+                }
+                respond(exchange, 429, "text/plain", "Too Many Requests".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+
+            double roll;
+            int jitter;
+            synchronized (random) {
+                roll = random.nextDouble();
+                jitter = jitterMs > 0 ? random.nextInt(jitterMs + 1) : 0;
+            }
+            sleep(latencyMs + (long) (text.length() * msPerChar) + jitter);
+
+            if (roll < errorRate) {
+                failed.incrementAndGet();
+                respond(exchange, 503, "text/plain", "Service Unavailable".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+
+            byte[] audio = audioFor(text);
+            served.incrementAndGet();
+            bytesServed.addAndGet(audio.length);
+            respond(exchange, 200, "wav".equals(format) ? "audio/wav" : "audio/mpeg", audio);
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private byte[] audioFor(String text) throws IOException {
+        int tenths = (int) Math.max(3, Math.round(text.length() * secondsPerChar * 10));
+        byte[] audio = encodedAudio.get(tenths);
+        if (audio == null) {
+            audio = "wav".equals(format) ? wavTone(tenths / 10.0) : encodeTone(tenths / 10.0);
+            encodedAudio.put(tenths, audio);
+        }
+        return audio;
+    }
+
+    static byte[] encodeTone(double seconds) throws IOException {
+        avutil.av_log_set_level(avutil.AV_LOG_ERROR);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(out, 1)) {
+            recorder.setFormat("mp3");
+            recorder.setAudioCodec(avcodec.AV_CODEC_ID_MP3);
+            recorder.setSampleRate(TTS_SAMPLE_RATE);
+            recorder.setAudioBitrate(32000);
+            recorder.start();
+            recorder.recordSamples(TTS_SAMPLE_RATE, 1, ShortBuffer.wrap(tone(seconds)));
+            recorder.stop();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] wavTone(double seconds) throws IOException {
+        short[] samples = tone(seconds);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(44 + samples.length * 2);
+        AudioMixer.writeWavHeader(out, TTS_SAMPLE_RATE, 1, samples.length * 2L);
+        for (short sample : samples) {
+            out.write(sample & 0xFF);
+            out.write((sample >> 8) & 0xFF);
+        }
+        return out.toByteArray();
+    }
+
+    private static short[] tone(double seconds) {
+        short[] samples = new short[(int) (seconds * TTS_SAMPLE_RATE)];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (short) (8000 * Math.sin(2 * Math.PI * 220 * i / TTS_SAMPLE_RATE));
+        }
+        return samples;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getServed() {
+        return served.get();
+    }
+
+    public long getThrottled() {
+        return throttled.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public int getPeakConcurrency() {
+        return peakActive.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StubTTSServer{requests=%d, served=%d, throttled429=%d, failed503=%d, rejected400=%d, "
+                + "peakConcurrency=%d, bytes=%d}", requests.get(), served.get(), throttled.get(), failed.get(),
+            rejected.get(), peakActive.get(), bytesServed.get());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Builder builder = new Builder()
+            .port(args.length > 0 ? Integer.parseInt(args[0]) : 8765)
+            .latencyMs(args.length > 1 ? Integer.parseInt(args[1]) : 150)
+            .errorRate(args.length > 2 ? Double.parseDouble(args[2]) : 0.0)
+            .maxConcurrent(args.length > 3 ? Integer.parseInt(args[3]) : 0);
+        try (StubTTSServer server = builder.build()) {
+            System.out.println("Stub TTS server running at " + server.getBaseUrl() + " (Ctrl+C to stop)");
+            Thread.currentThread().join();
+        }
+    }
+
+    public static class Builder {
+        private int port = 0;
+        private int latencyMs = 150;
+        private int jitterMs = 50;
+        private double msPerChar = 1.0;
+        private double errorRate = 0.0;
+        private int maxConcurrent = 0;
+        private int retryAfterSeconds = 0;
+        private double secondsPerChar = 0.06;
+        private String format = "mp3";
+        private long seed = 42;
+
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder latencyMs(int latencyMs) {
+            this.latencyMs = latencyMs;
+            return this;
+        }
+
+        public Builder jitterMs(int jitterMs) {
+            this.jitterMs = jitterMs;
+            return this;
+        }
+
+        public Builder msPerChar(double msPerChar) {
+            this.msPerChar = msPerChar;
+            return this;
+        }
+
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public Builder maxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+            return this;
+        }
+
+        public Builder retryAfterSeconds(int retryAfterSeconds) {
+            this.retryAfterSeconds = retryAfterSeconds;
+            return this;
+        }
+
+        public Builder secondsPerChar(double secondsPerChar) {
+            this.secondsPerChar = secondsPerChar;
+            return this;
+        }
+
+        public Builder format(String format) {
+            this.format = format;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public StubTTSServer build() throws IOException {
+            return new StubTTSServer(this);
+        }
+    }
+}
@@ -6,364 +6,355 @@ import com.ythub.core.VideoConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.sound.sampled.*;
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
-
-
-public class TTSEngine {
+public class TTSEngine implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(TTSEngine.class);
 
     private final VideoConfig config;
     private final TTSProvider ttsProvider;
+    private final NarrationCoalescer narrationCoalescer = new NarrationCoalescer();
+    private final AudioDecoder audioDecoder;
+    private final ExecutorService decodePool;
+    private final boolean ownsDecodePool;
+    private final Map<String, NarrationChunker> narrationChunkers = new ConcurrentHashMap<>();
 
     public TTSEngine(VideoConfig config) {
+        this(config, createTTSProvider(config));
+    }
+
+    public TTSEngine(VideoConfig config, TTSProvider ttsProvider) {
+        this(config, ttsProvider, null);
+    }
+
+    public TTSEngine(VideoConfig config, TTSProvider ttsProvider, ExecutorService sharedDecodePool) {
         this.config = config;
-        this.ttsProvider = createTTSProvider();
+        this.ttsProvider = ttsProvider;
+        this.audioDecoder = new AudioDecoder(config.getAudioSampleRate(), config.getAudioChannels());
+        this.ownsDecodePool = sharedDecodePool == null;
+        this.decodePool = ownsDecodePool ? createDecodePool() : sharedDecodePool;
         logger.info("TTS Engine initialized using provider: {}", ttsProvider.getProviderName());
     }
 
-    private TTSProvider createTTSProvider() {
+    public static ExecutorService createDecodePool() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "audio-decode-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void close() {
+        if (ownsDecodePool) {
+            decodePool.shutdown();
+        }
+    }
+
+    public static TTSProvider createTTSProvider(VideoConfig config) {
         String provider = config.getTtsProvider().toLowerCase();
 
         switch (provider) {
             case "google":
             case "gtts":
                 logger.info("Using Google Text-to-Speech (FREE - no API key needed, male voice)");
+                if (config.isTtsCacheEnabled()) {
+                    return new CachingTTSProvider(new GoogleTTSProvider(config), config);
+                }
                 return new GoogleTTSProvider(config);
             case "silent":
             default:
                 logger.info("Using silent audio placeholder");
-                return new SilentTTSProvider(config.getAudioSampleRate());
+                return new SilentTTSProvider(config.getAudioSampleRate(), config.getAudioChannels());
         }
     }
 
+    public List<NarrationCoalescer.NarrationGroup> planNarration(Timeline timeline) {
+        return narrationCoalescer.coalesce(timeline.getScenes());
+    }
+
     public void generateTimelinedAudio(Timeline timeline, String outputPath) {
+        generateTimelinedAudio(timeline, outputPath, scenes -> { });
+    }
+
+    public void generateTimelinedAudio(Timeline timeline, String outputPath, Consumer<List<Scene>> onScenesResolved) {
+        generateTimelinedAudio(timeline, Map.of(config.getPrimaryNarrationLanguage(), outputPath), onScenesResolved);
+    }
+
+    public void generateTimelinedAudio(Timeline timeline, Map<String, String> outputPaths,
+                                       Consumer<List<Scene>> onScenesResolved) {
+        List<String> languages = new ArrayList<>(outputPaths.keySet());
+        Map<String, AudioMixer> mixers = new LinkedHashMap<>();
         try {
-            List<AudioSegment> segments = new ArrayList<>();
-
-            logger.info("Generating DYNAMIC audio for {} scenes in parallel", timeline.getScenes().size());
-
-            ExecutorService audioPool = Executors.newFixedThreadPool(
-                Math.min(timeline.getScenes().size(), Runtime.getRuntime().availableProcessors() * 2)
-            );
-
-            List<Future<SceneAudioPair>> futures = new ArrayList<>();
-
-            for (Scene scene : timeline.getScenes()) {
-                if (scene.getNarrationText() != null && !scene.getNarrationText().isEmpty()) {
-                    Future<SceneAudioPair> future = audioPool.submit(() -> {
-                        try {
-                            byte[] audioData = generateAudio(scene.getNarrationText());
-                            if (audioData == null || audioData.length == 0) {
-                                logger.warn("Empty audio for scene {}, using silence", scene.getId());
-                                return null;
-                            }
-                            logger.info("Audio generated for scene: {}", scene.getId());
-                            return new SceneAudioPair(scene, audioData);
-                        } catch (IOException e) {
-                            logger.error("Failed to generate audio for scene {}: {}", scene.getId(), e.getMessage());
+            long stageStart = System.nanoTime();
+            for (String language : languages) {
+                AudioMixer mixer = new AudioMixer(config.getAudioSampleRate(), config.getAudioChannels());
+                mixers.put(language, mixer);
+                configureMix(mixer);
+            }
+
+            List<NarrationCoalescer.NarrationGroup> groups = planNarration(timeline);
+            int narratedScenes = groups.stream().mapToInt(NarrationCoalescer.NarrationGroup::size).sum();
+
+            logger.info("Generating DYNAMIC audio for {} narrated scenes as {} async TTS requests in {}",
+                narratedScenes, groups.size(), languages);
+
+            List<CompletableFuture<List<DecodedGroup>>> futures = new ArrayList<>();
+            List<String> failedScenes = Collections.synchronizedList(new ArrayList<>());
+
+            for (NarrationCoalescer.NarrationGroup group : groups) {
+                String groupId = group.getScenes().get(0).getId();
+                List<CompletableFuture<DecodedGroup>> tracks = new ArrayList<>();
+                for (String language : languages) {
+                    tracks.add(synthesize(group, language, mixers.get(language))
+                        .exceptionally(e -> {
+                            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                            logger.error("Failed to generate {} audio for scene {}: {}",
+                                language, groupId, cause.getMessage());
+                            failedScenes.add(groupId + "/" + language);
                             return null;
-                        }
-                    });
-                    futures.add(future);
-                } else {
-                    futures.add(null);
+                        }));
                 }
+
+                futures.add(CompletableFuture.allOf(tracks.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+                    List<DecodedGroup> results = new ArrayList<>();
+                    for (CompletableFuture<DecodedGroup> track : tracks) {
+                        results.add(track.join());
+                    }
+                    resolveDurations(group, results);
+                    onScenesResolved.accept(group.getScenes());
+                    return results;
+                }));
             }
 
-            File tempDir = new File(config.getTempDir() + "/audio_measure");
-            tempDir.mkdirs();
-
-            int sceneIndex = 0;
-            for (Future<SceneAudioPair> future : futures) {
-                if (future != null) {
-                    SceneAudioPair pair = future.get();
-                    if (pair != null) {
-                        String tempFile = tempDir.getAbsolutePath() + "/temp_" + sceneIndex + ".mp3";
-                        java.nio.file.Files.write(java.nio.file.Paths.get(tempFile), pair.audioData);
-
-                        double actualDuration = getAudioDuration(tempFile);
-                        if (actualDuration > 0) {
-                            logger.info("Scene {} DYNAMIC duration: original={}s, actual audio={}s",
-                                pair.scene.getId(), pair.scene.getDuration(), actualDuration);
-                            pair.scene.setDuration(actualDuration);
-                        }
-
-                        segments.add(new AudioSegment(pair.audioData, pair.scene.getDuration()));
-                        sceneIndex++;
+            Map<String, List<DecodedGroup>> decoded = new LinkedHashMap<>();
+            for (String language : languages) {
+                decoded.put(language, new ArrayList<>());
+            }
+            for (CompletableFuture<List<DecodedGroup>> future : futures) {
+                for (DecodedGroup result : future.join()) {
+                    if (result != null) {
+                        decoded.get(result.language).add(result);
                     }
                 }
             }
 
-            deleteDirectory(tempDir);
+            if (!failedScenes.isEmpty()) {
+                logger.error("{} of {} narration requests failed and will be silent: {}",
+                    failedScenes.size(), groups.size() * languages.size(), failedScenes);
+            }
 
             timeline.recalculateTimings();
+            long synthesisEnd = System.nanoTime();
+
+            List<CompletableFuture<Void>> writes = new ArrayList<>();
+            for (String language : languages) {
+                AudioMixer mixer = mixers.get(language);
+                writes.add(CompletableFuture.runAsync(() -> {
+                    for (DecodedGroup result : decoded.get(language)) {
+                        mixer.place(result.clip, result.group.getScenes().get(0).getStartTime(),
+                            result.group.getTotalDuration());
+                    }
+                    try {
+                        mixer.writeWav(new File(outputPaths.get(language)), timeline.getTotalDuration());
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, decodePool));
+            }
+            CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).join();
+            long writeEnd = System.nanoTime();
 
-            audioPool.shutdown();
-            audioPool.awaitTermination(5, TimeUnit.MINUTES);
+            logger.info("Audio stage timings: synthesis+decode={}ms, mix+write={}ms, total={}ms",
+                (synthesisEnd - stageStart) / 1_000_000, (writeEnd - synthesisEnd) / 1_000_000,
+                (writeEnd - stageStart) / 1_000_000);
+            logger.info("Time-aligned audio written: {} (duration: {}s)", outputPaths.values(),
+                timeline.getTotalDuration());
 
-            if (ttsProvider instanceof GoogleTTSProvider) {
-                mergeMP3Segments(segments, outputPath, timeline.getTotalDuration());
-            } else {
-                mergeAudioSegments(segments, outputPath, timeline.getTotalDuration());
-            }
+            ttsProvider.logStats();
 
         } catch (Exception e) {
             logger.error("Error generating timeline audio", e);
-            createSilence(outputPath, timeline.getTotalDuration());
+            for (String outputPath : outputPaths.values()) {
+                createSilence(outputPath, timeline.getTotalDuration());
+            }
+        } finally {
+            for (AudioMixer mixer : mixers.values()) {
+                try {
+                    mixer.close();
+                } catch (IOException e) {
+                    logger.warn("Error closing audio mixer", e);
+                }
+            }
         }
     }
 
-    public byte[] generateAudio(String text) throws IOException {
-        return ttsProvider.generateAudio(text);
-    }
-
-    private byte[] generateSilence(int durationMs) {
-        int sampleRate = config.getAudioSampleRate();
-        int numSamples = (sampleRate * durationMs) / 1000;
-        byte[] silence = new byte[numSamples * 2];
-        return silence;
-    }
-
-    private void mergeMP3Segments(List<AudioSegment> segments, String outputPath, double totalDuration) {
-        File tempDir = null;
-        try {
-            if (segments.isEmpty()) {
-                logger.warn("No audio segments to merge, creating silence");
-                createSilence(outputPath, totalDuration);
-                return;
+    private void resolveDurations(NarrationCoalescer.NarrationGroup group, List<DecodedGroup> results) {
+        double[] durations = null;
+        for (DecodedGroup result : results) {
+            if (result == null) {
+                continue;
             }
-
-            tempDir = new File(config.getTempDir() + "/audio_segments");
-            tempDir.mkdirs();
-
-            List<String> processedFiles = new ArrayList<>();
-
-            for (int i = 0; i < segments.size(); i++) {
-                AudioSegment segment = segments.get(i);
-                String rawFile = tempDir.getAbsolutePath() + "/raw_" + i + ".mp3";
-                String processedFile = tempDir.getAbsolutePath() + "/processed_" + i + ".mp3";
-
-                java.nio.file.Files.write(java.nio.file.Paths.get(rawFile), segment.data);
-
-                double actualDuration = getAudioDuration(rawFile);
-
-                if (actualDuration > 0 && Math.abs(actualDuration - segment.duration) > 0.1) {
-                    double speedFactor = actualDuration / segment.duration;
-                    speedFactor = Math.max(0.5, Math.min(2.0, speedFactor));
-
-                    logger.info("Time-stretching segment {} from {}s to {}s (factor: {:.2f})",
-                        i, actualDuration, segment.duration, speedFactor);
-
-                    ProcessBuilder stretchPb = new ProcessBuilder(
-                            "ffmpeg",
-                            "-y",
-                            "-i", rawFile,
-                            "-af", String.format("atempo=%.4f,apad=whole_dur=%.3f", speedFactor, segment.duration),
-                            "-c:a", "libmp3lame",
-                            "-b:a", config.getAudioBitrate() + "k",
-                            processedFile
-                    );
-
-                    stretchPb.redirectError(ProcessBuilder.Redirect.DISCARD);
-                    Process stretchProcess = stretchPb.start();
-                    int stretchExit = stretchProcess.waitFor();
-
-                    if (stretchExit == 0) {
-                        processedFiles.add(processedFile);
-                    } else {
-                        logger.warn("Failed to time-stretch segment {}, using original", i);
-                        processedFiles.add(rawFile);
-                    }
-                } else {
-                    ProcessBuilder padPb = new ProcessBuilder(
-                            "ffmpeg",
-                            "-y",
-                            "-i", rawFile,
-                            "-af", String.format("apad=whole_dur=%.3f", segment.duration),
-                            "-c:a", "libmp3lame",
-                            "-b:a", config.getAudioBitrate() + "k",
-                            processedFile
-                    );
-
-                    padPb.redirectError(ProcessBuilder.Redirect.DISCARD);
-                    Process padProcess = padPb.start();
-                    int padExit = padProcess.waitFor();
-
-                    if (padExit == 0) {
-                        processedFiles.add(processedFile);
-                    } else {
-                        processedFiles.add(rawFile);
-                    }
+            double[] planned = group.planDurations(result.clip.getDuration(), config.getFps(), result.language);
+            if (durations == null) {
+                durations = planned;
+            } else {
+                for (int i = 0; i < durations.length; i++) {
+                    durations[i] = Math.max(durations[i], planned[i]);
                 }
             }
-
-            String concatListPath = tempDir.getAbsolutePath() + "/concat_list.txt";
-            StringBuilder concatList = new StringBuilder();
-            for (String file : processedFiles) {
-                concatList.append("file '").append(file).append("'\n");
-            }
-            java.nio.file.Files.write(java.nio.file.Paths.get(concatListPath), concatList.toString().getBytes());
-
-            File outputFile = new File(outputPath);
-            outputFile.getParentFile().mkdirs();
-
-            ProcessBuilder pb = new ProcessBuilder(
-                    "ffmpeg",
-                    "-y",
-                    "-f", "concat",
-                    "-safe", "0",
-                    "-i", concatListPath,
-                    "-c:a", "libmp3lame",
-                    "-b:a", config.getAudioBitrate() + "k",
-                    outputPath
-            );
-
-            pb.inheritIO();
-            Process process = pb.start();
-            int exitCode = process.waitFor();
-
-            if (exitCode != 0) {
-                throw new RuntimeException("FFmpeg audio merge failed with exit code: " + exitCode);
+            if (result.cues.size() > 1) {
+                String key = result.language.equals(config.getPrimaryNarrationLanguage())
+                    ? "narrationCues" : "narrationCues." + result.language;
+                group.getScenes().get(0).addAnimationConfig(key, result.cues);
             }
+        }
 
-            logger.info("Time-aligned MP3 audio merged successfully: {} (duration: {}s)", outputPath, totalDuration);
-
-        } catch (Exception e) {
-            logger.error("Error merging MP3 segments", e);
-            createSilence(outputPath, totalDuration);
-        } finally {
-            if (tempDir != null && tempDir.exists()) {
-                deleteDirectory(tempDir);
+        if (durations != null) {
+            double planned = 0;
+            for (double duration : durations) {
+                planned += duration;
             }
+            logger.info("Scene group {} DYNAMIC duration: original={}s, fitted to {} tracks={}s",
+                group.getScenes().get(0).getId(), group.getTotalDuration(), results.size(), planned);
+            group.applyDurations(durations);
         }
     }
 
-    private double getAudioDuration(String audioFile) {
+    private void configureMix(AudioMixer mixer) {
+        if (config.isLoudnessNormalizationEnabled()) {
+            mixer.setTargetLufs(config.getAudioTargetLufs());
+        }
+        if (!config.isMusicEnabled()) {
+            return;
+        }
+
+        File musicFile = new File(config.getAssetsDir(), config.getMusicFile());
+        if (!musicFile.isFile()) {
+            logger.info("No background music at {}, mixing narration only", musicFile);
+            return;
+        }
         try {
-            ProcessBuilder pb = new ProcessBuilder(
-                    "ffprobe",
-                    "-v", "error",
-                    "-show_entries", "format=duration",
-                    "-of", "default=noprint_wrappers=1:nokey=1",
-                    audioFile
-            );
-
-            Process process = pb.start();
-            java.io.BufferedReader reader = new java.io.BufferedReader(
-                new java.io.InputStreamReader(process.getInputStream()));
-            String durationStr = reader.readLine();
-            process.waitFor();
-
-            if (durationStr != null && !durationStr.isEmpty()) {
-                return Double.parseDouble(durationStr);
-            }
-        } catch (Exception e) {
-            logger.warn("Failed to get audio duration for {}: {}", audioFile, e.getMessage());
+            mixer.attachMusic(new MusicBed(musicFile, config.getAudioSampleRate(), config.getAudioChannels()),
+                config.getMusicVolumeDb(), config.getMusicDuckDb(),
+                config.getMusicDuckAttackMs(), config.getMusicDuckReleaseMs());
+            logger.info("Background music: {} at {} dB, ducking {} dB under narration",
+                musicFile, config.getMusicVolumeDb(), config.getMusicDuckDb());
+        } catch (IOException e) {
+            logger.warn("Could not open background music {}: {}", musicFile, e.getMessage());
         }
-        return 0;
     }
 
-    private void deleteDirectory(File directory) {
-        File[] files = directory.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    deleteDirectory(file);
-                } else {
-                    file.delete();
+    private CompletableFuture<DecodedGroup> synthesize(NarrationCoalescer.NarrationGroup group, String language,
+                                                       AudioMixer mixer) {
+        String groupId = group.getScenes().get(0).getId();
+        String text = group.getText(language);
+        if (text.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<String> chunks = chunkerFor(language).split(text);
+        if (chunks.size() > 1) {
+            logger.info("Splitting {} narration for scene {} into {} chunks", language, groupId, chunks.size());
+        }
+
+        List<CompletableFuture<short[]>> parts = new ArrayList<>();
+        for (String chunk : chunks) {
+            parts.add(ttsProvider.generateAudioAsync(chunk, language).thenApplyAsync(audioData -> {
+                if (audioData == null || audioData.length == 0) {
+                    return new short[0];
                 }
-            }
+                try {
+                    return audioDecoder.decode(audioData);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, decodePool));
         }
-        directory.delete();
-    }
 
-    private void mergeAudioSegments(List<AudioSegment> segments, String outputPath, double totalDuration) {
-        try {
-            AudioFormat format = new AudioFormat(
-                    config.getAudioSampleRate(),
-                    16,
-                    config.getAudioChannels(),
-                    true,
-                    false
-            );
-
-            int totalSamples = (int) (config.getAudioSampleRate() * totalDuration);
-            byte[] finalAudio = new byte[totalSamples * 2 * config.getAudioChannels()];
-
-            int currentPosition = 0;
-            for (AudioSegment segment : segments) {
-                int segmentLength = Math.min(segment.data.length, finalAudio.length - currentPosition);
-                System.arraycopy(segment.data, 0, finalAudio, currentPosition, segmentLength);
-                currentPosition += (int) (config.getAudioSampleRate() * segment.duration * 2 * config.getAudioChannels());
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            int channels = audioDecoder.getChannels();
+            int gapSamples = (int) ((long) audioDecoder.getSampleRate() * config.getTtsSentenceGapMs() / 1000) * channels;
+
+            int totalSamples = 0;
+            for (CompletableFuture<short[]> part : parts) {
+                totalSamples += part.join().length;
+            }
+            if (totalSamples == 0) {
+                logger.warn("Empty audio for scene {}, using silence", groupId);
+                return null;
+            }
+            totalSamples += gapSamples * (parts.size() - 1);
+
+            short[] pcm = new short[totalSamples];
+            List<NarrationCue> cues = new ArrayList<>();
+            int position = 0;
+            for (int i = 0; i < parts.size(); i++) {
+                if (i > 0) {
+                    position += gapSamples;
+                }
+                short[] part = parts.get(i).join();
+                System.arraycopy(part, 0, pcm, position, part.length);
+                double start = (double) (position / channels) / audioDecoder.getSampleRate();
+                position += part.length;
+                double end = (double) (position / channels) / audioDecoder.getSampleRate();
+                cues.add(new NarrationCue(chunks.get(i), start, end));
             }
 
-            ByteArrayInputStream bais = new ByteArrayInputStream(finalAudio);
-            AudioInputStream audioInputStream = new AudioInputStream(bais, format, finalAudio.length / format.getFrameSize());
+            AudioMixer.Clip clip;
+            try {
+                clip = mixer.add(pcm);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
 
-            File outputFile = new File(outputPath);
-            outputFile.getParentFile().mkdirs();
-            AudioSystem.write(audioInputStream, AudioFileFormat.Type.WAVE, outputFile);
+            logger.info("Audio generated for scene: {} [{}] ({} steps)", groupId, language, group.size());
+            return new DecodedGroup(group, language, clip, cues);
+        });
+    }
 
-            logger.info("Audio file created: {}", outputPath);
+    private NarrationChunker chunkerFor(String language) {
+        return narrationChunkers.computeIfAbsent(language, key -> new NarrationChunker(
+            Math.min(ttsProvider.getMaxTextLength(), config.getTtsChunkChars()), Locale.forLanguageTag(key)));
+    }
 
-        } catch (Exception e) {
-            logger.error("Error merging audio segments", e);
-            createSilence(outputPath, totalDuration);
-        }
+    public byte[] generateAudio(String text) throws IOException {
+        return ttsProvider.generateAudio(text);
     }
 
     private void createSilence(String outputPath, double duration) {
-        try {
-            AudioFormat format = new AudioFormat(
-                    config.getAudioSampleRate(),
-                    16,
-                    config.getAudioChannels(),
-                    true,
-                    false
-            );
-
-            int numSamples = (int) (config.getAudioSampleRate() * duration);
-            byte[] silence = new byte[numSamples * 2 * config.getAudioChannels()];
-
-            ByteArrayInputStream bais = new ByteArrayInputStream(silence);
-            AudioInputStream audioInputStream = new AudioInputStream(bais, format, silence.length / format.getFrameSize());
-
-            File outputFile = new File(outputPath);
-            outputFile.getParentFile().mkdirs();
-            AudioSystem.write(audioInputStream, AudioFileFormat.Type.WAVE, outputFile);
-
+        try (AudioMixer mixer = new AudioMixer(config.getAudioSampleRate(), config.getAudioChannels())) {
+            mixer.writeWav(new File(outputPath), duration);
             logger.info("Silent audio file created: {}", outputPath);
-
         } catch (Exception e) {
             logger.error("Error creating silence", e);
         }
     }
 
-    private static class AudioSegment {
-        byte[] data;
-        double duration;
-
-        AudioSegment(byte[] data, double duration) {
-            this.data = data;
-            this.duration = duration;
-        }
-    }
-
-    private static class SceneAudioPair {
-        Scene scene;
-        byte[] audioData;
-
-        SceneAudioPair(Scene scene, byte[] audioData) {
-            this.scene = scene;
-            this.audioData = audioData;
+    private static class DecodedGroup {
+        NarrationCoalescer.NarrationGroup group;
+        String language;
+        AudioMixer.Clip clip;
+        List<NarrationCue> cues;
+
+        DecodedGroup(NarrationCoalescer.NarrationGroup group, String language, AudioMixer.Clip clip,
+                     List<NarrationCue> cues) {
+            this.group = group;
+            this.language = language;
+            this.clip = clip;
+            this.cues = cues;
         }
     }
 }
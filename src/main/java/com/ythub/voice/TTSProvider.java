@@ -1,12 +1,35 @@
 package com.ythub.voice;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public interface TTSProvider {
 
     byte[] generateAudio(String text) throws IOException;
 
+    default CompletableFuture<byte[]> generateAudioAsync(String text) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return generateAudio(text);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, TTSExecutors.BLOCKING);
+    }
+
+    default CompletableFuture<byte[]> generateAudioAsync(String text, String language) {
+        return generateAudioAsync(text);
+    }
+
     String getProviderName();
 
     boolean isConfigured();
+
+    default int getMaxTextLength() {
+        return Integer.MAX_VALUE;
+    }
+
+    default void logStats() {
+    }
 }
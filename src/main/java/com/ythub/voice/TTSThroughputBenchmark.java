@@ -0,0 +1,128 @@
+package com.ythub.voice;
+
+import com.ythub.core.Scene;
+import com.ythub.core.Timeline;
+import com.ythub.core.VideoConfig;
+import com.ythub.utils.LatencyHistogram;
+import org.bytedeco.ffmpeg.global.avutil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+public class TTSThroughputBenchmark {
+
+    private static final String BENCHMARK_DIR = "temp/benchmark";
+
+    public static void main(String[] args) throws Exception {
+        int sceneCount = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int latencyMs = args.length > 1 ? Integer.parseInt(args[1]) : 150;
+        avutil.av_log_set_level(avutil.AV_LOG_ERROR);
+
+        System.out.println("=== TTS Throughput Benchmark ===");
+        System.out.printf("Scenes: %d, stub latency: %d ms%n%n", sceneCount, latencyMs);
+
+        runScenario("baseline", sceneCount,
+            new StubTTSServer.Builder().latencyMs(latencyMs), false);
+        runScenario("throttled (server allows 3 concurrent)", sceneCount,
+            new StubTTSServer.Builder().latencyMs(latencyMs).maxConcurrent(3), false);
+        runScenario("throttled with Retry-After: 1", sceneCount,
+            new StubTTSServer.Builder().latencyMs(latencyMs).maxConcurrent(3).retryAfterSeconds(1), false);
+        runScenario("5% server errors", sceneCount,
+            new StubTTSServer.Builder().latencyMs(latencyMs).errorRate(0.05), false);
+        runScenario("cache", sceneCount,
+            new StubTTSServer.Builder().latencyMs(latencyMs), true);
+
+        deleteRecursively(Paths.get(BENCHMARK_DIR));
+    }
+
+    private static void runScenario(String name, int sceneCount, StubTTSServer.Builder serverBuilder,
+                                    boolean cached) throws IOException {
+        System.out.println("--- " + name + " ---");
+        Path cacheDir = Paths.get(BENCHMARK_DIR, "tts-cache");
+        deleteRecursively(cacheDir);
+
+        try (StubTTSServer server = serverBuilder.build()) {
+            VideoConfig config = new VideoConfig();
+            config.setTempDir(BENCHMARK_DIR);
+            config.setTtsBaseUrl(server.getBaseUrl());
+            config.setTtsCacheDir(cacheDir.toString());
+            config.setMusicEnabled(false);
+
+            GoogleTTSProvider google = new GoogleTTSProvider(config);
+            CachingTTSProvider cache = cached ? new CachingTTSProvider(google, config) : null;
+            TTSEngine engine = new TTSEngine(config, cache != null ? cache : google);
+            File output = new File(BENCHMARK_DIR, "tts_benchmark.wav");
+
+            int passes = cached ? 2 : 1;
+            for (int pass = 1; pass <= passes; pass++) {
+                GoogleTTSProvider.getLatencyHistogram().reset();
+                long requestsBefore = server.getRequests();
+                CachingTTSProvider.CacheStats statsBefore = cache != null ? cache.getStats() : null;
+
+                Timeline timeline = createTimeline(sceneCount);
+                int groups = engine.planNarration(timeline).size();
+                long start = System.nanoTime();
+                engine.generateTimelinedAudio(timeline, output.getPath());
+                double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+
+                LatencyHistogram latency = GoogleTTSProvider.getLatencyHistogram();
+                System.out.printf("%s%.0f ms for %d TTS groups (%.1f groups/s), %d HTTP requests%n",
+                    cached ? (pass == 1 ? "cold: " : "warm: ") : "", elapsedMs, groups,
+                    groups * 1000 / elapsedMs, server.getRequests() - requestsBefore);
+                if (latency.getCount() > 0) {
+                    System.out.printf("  latency p50=%.0f ms, p95=%.0f ms, p99=%.0f ms, max=%.0f ms%n",
+                        latency.percentileMillis(50), latency.percentileMillis(95),
+                        latency.percentileMillis(99), latency.getMaxMillis());
+                }
+                if (cache != null) {
+                    CachingTTSProvider.CacheStats stats = cache.getStats();
+                    long hits = stats.hits - statsBefore.hits;
+                    long misses = stats.misses - statsBefore.misses;
+                    System.out.printf("  cache hits=%d, misses=%d, hitRate=%.1f%%%n",
+                        hits, misses, hits + misses == 0 ? 0 : hits * 100.0 / (hits + misses));
+                }
+            }
+
+            System.out.println("  " + server);
+            System.out.println("  " + google.getLimiter());
+            System.out.println();
+            output.delete();
+            engine.close();
+        }
+    }
+
+    private static Timeline createTimeline(int sceneCount) {
+        Timeline timeline = new Timeline("TTS Benchmark");
+        timeline.addScene(new Scene.Builder(Scene.SceneType.INTRO, 5).build());
+        for (int i = 0; i < sceneCount; i++) {
+            if (i % 20 == 0) {
+                timeline.addScene(new Scene.Builder(Scene.SceneType.NARRATION, 10)
+                        .withNarration("Part " + (i / 20 + 1) + " of the lesson walks through the next passes "
+                                + "of the algorithm and explains what is about to happen on screen.")
+                        .build());
+            } else {
+                timeline.addScene(new Scene.Builder(Scene.SceneType.VISUALIZATION, 0.75)
+                        .withNarration("Comparing " + i + " and " + (i + 1))
+                        .build());
+            }
+        }
+        timeline.addScene(new Scene.Builder(Scene.SceneType.OUTRO, 5).build());
+        return timeline;
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
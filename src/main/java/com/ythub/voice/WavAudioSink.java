@@ -0,0 +1,47 @@
+package com.ythub.voice;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class WavAudioSink implements AudioSink {
+
+    private final File output;
+    private OutputStream out;
+    private ByteBuffer buffer;
+
+    public WavAudioSink(File output) {
+        this.output = output;
+    }
+
+    @Override
+    public void open(int sampleRate, int channels, long totalFrames) throws IOException {
+        File parent = output.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        out = new BufferedOutputStream(new FileOutputStream(output), 1 << 16);
+        AudioMixer.writeWavHeader(out, sampleRate, channels, totalFrames * channels * 2);
+    }
+
+    @Override
+    public void write(short[] samples, int offset, int length) throws IOException {
+        if (buffer == null || buffer.capacity() < length * 2) {
+            buffer = ByteBuffer.allocate(length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        buffer.clear();
+        buffer.asShortBuffer().put(samples, offset, length);
+        out.write(buffer.array(), 0, length * 2);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+    }
+}
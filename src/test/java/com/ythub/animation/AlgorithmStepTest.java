@@ -0,0 +1,37 @@
+package com.ythub.animation;
+
+import com.ythub.dsa.algorithms.BubbleSortTrace;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AlgorithmStepTest {
+
+    @Test
+    void formatsDescriptionFromCapturedValues() {
+        int[] array = {3, 1};
+        AlgorithmStep step = new AlgorithmStep(AlgorithmStep.StepType.COMPARE, array, 0, 1,
+            "Comparing %d and %d", array[0], array[1]);
+        array[0] = 1;
+        array[1] = 3;
+
+        assertEquals("Comparing 3 and 1", step.getDescription());
+        assertEquals(3, step.getValue1());
+        assertEquals(1, step.getValue2());
+    }
+
+    @Test
+    void bubbleSortTraceDescribesEachStep() {
+        List<String> descriptions = new ArrayList<>();
+        BubbleSortTrace trace = new BubbleSortTrace(new int[]{2, 1, 3});
+        while (trace.hasNext()) {
+            descriptions.add(trace.next().getDescription());
+        }
+
+        assertEquals(List.of("Starting array", "Comparing 2 and 1", "Swapped 2 and 1", "Comparing 2 and 3",
+            "Comparing 1 and 2", "Sorting complete!"), descriptions);
+    }
+}
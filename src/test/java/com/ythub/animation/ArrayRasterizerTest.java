@@ -0,0 +1,73 @@
+package com.ythub.animation;
+
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArrayRasterizerTest {
+
+    private static final int BAR = 0xFF0000FF;
+    private static final int HIGHLIGHT = 0xFFFF0000;
+    private static final int BACKGROUND = 0xFF202020;
+    private static final int ENVELOPE = 0xFF10108F;
+
+    @Test
+    void columnsSpanMinimumToMaximumOfTheirElements() {
+        int width = 2;
+        int height = 10;
+        int[] pixels = new ArrayRasterizer().rasterize(new int[] {2, 10, 4, 6}, width, height,
+            BAR, HIGHLIGHT, BACKGROUND, -1, -1);
+
+        for (int row = 0; row < height; row++) {
+            assertEquals(row >= 8 ? BAR : ENVELOPE, pixels[row * width], "column 0 row " + row);
+            int expected = row >= 6 ? BAR : row >= 4 ? ENVELOPE : BACKGROUND;
+            assertEquals(expected, pixels[row * width + 1], "column 1 row " + row);
+        }
+    }
+
+    @Test
+    void highlightColorsTheColumnHoldingTheIndex() {
+        int width = 2;
+        int height = 10;
+        int[] pixels = new ArrayRasterizer().rasterize(new int[] {2, 10, 4, 6}, width, height,
+            BAR, HIGHLIGHT, BACKGROUND, 3, -1);
+
+        assertEquals(BAR, pixels[(height - 1) * width]);
+        assertEquals(HIGHLIGHT, pixels[(height - 1) * width + 1]);
+    }
+
+    @Test
+    void fillsBackgroundAboveBarsAndForEmptyValues() {
+        int width = 4;
+        int height = 8;
+        ArrayRasterizer rasterizer = new ArrayRasterizer();
+        rasterizer.rasterize(new int[] {8, 8, 8, 8}, width, height, BAR, HIGHLIGHT, BACKGROUND, -1, -1);
+        int[] pixels = rasterizer.rasterize(new int[] {0, 0, 4, 0}, width, height, BAR, HIGHLIGHT, BACKGROUND, -1, -1);
+
+        for (int row = 0; row < height; row++) {
+            for (int x = 0; x < width; x++) {
+                int expected = x == 2 ? BAR : BACKGROUND;
+                assertEquals(expected, pixels[row * width + x], "x " + x + " row " + row);
+            }
+        }
+    }
+
+    @Test
+    void switchesToRasterBelowMinimumVectorBarWidth() {
+        double plotWidth = 10 * ArrayRasterizer.MIN_VECTOR_BAR_WIDTH;
+
+        assertFalse(ArrayRasterizer.shouldRasterize(10, plotWidth));
+        assertTrue(ArrayRasterizer.shouldRasterize(11, plotWidth));
+        assertTrue(ArrayRasterizer.shouldRasterize(10, plotWidth - 1));
+        assertFalse(ArrayRasterizer.shouldRasterize(0, plotWidth));
+    }
+
+    @Test
+    void convertsColorsToArgb() {
+        assertEquals(BAR, ArrayRasterizer.toArgb(Color.BLUE));
+        assertEquals(0x80FF0000, ArrayRasterizer.toArgb(Color.rgb(255, 0, 0, 128 / 255.0)));
+    }
+}
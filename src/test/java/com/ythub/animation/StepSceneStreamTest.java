@@ -0,0 +1,126 @@
+package com.ythub.animation;
+
+import com.ythub.core.Scene;
+import com.ythub.dsa.algorithms.BubbleSortTrace;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StepSceneStreamTest {
+
+    @Test
+    void rewindsWhenSeekingBehindDefaultWindow() {
+        StepSceneStream steps = stream();
+        steps.sceneAt(30);
+        steps.sceneAt(15);
+
+        assertEquals(1, steps.getRewinds());
+    }
+
+    @Test
+    void retainedWindowCoversControllerLookback() {
+        StepSceneStream steps = stream();
+        steps.retainSeconds(17);
+        steps.retainSeconds(5);
+        steps.sceneAt(30);
+        steps.sceneAt(15);
+
+        assertEquals(0, steps.getRewinds());
+    }
+
+    @Test
+    void retainedWindowReturnsSameScenesAsReplay() {
+        StepSceneStream retained = stream();
+        retained.retainSeconds(20);
+        StepSceneStream replayed = stream();
+
+        retained.sceneAt(30);
+        double time = 14.2;
+        assertEquals(replayed.sceneAt(time).getStartTime(), retained.sceneAt(time).getStartTime(), 1e-9);
+        assertSame(retained.sceneAt(time), retained.sceneAt(time));
+        assertTrue(retained.sceneAt(time).getEndTime() > time);
+    }
+
+    @Test
+    void seeksFromCheckpointsMatchSequentialReplay() {
+        StepSceneStream seeking = longStream(-1, -1);
+        StepSceneStream sequential = longStream(seeking.getDuration(), seeking.getSceneCount());
+
+        List<Double> times = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            times.add(seeking.getDuration() * (i + 0.5) / 40);
+        }
+        List<Scene> expected = new ArrayList<>();
+        for (double time : times) {
+            expected.add(sequential.sceneAt(time));
+        }
+        assertEquals(0, sequential.getRewinds());
+
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < times.size(); i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, new Random(7));
+        for (int i : order) {
+            Scene scene = seeking.sceneAt(times.get(i));
+            assertEquals(expected.get(i).getStartTime(), scene.getStartTime(), 1e-9, "sample " + i);
+            assertArrayEquals((int[]) expected.get(i).getVisualData("array"), (int[]) scene.getVisualData("array"),
+                "sample " + i);
+        }
+        assertTrue(seeking.getRewinds() > 0);
+    }
+
+    @Test
+    void forwardPassRecordsCheckpoints() {
+        StepSceneStream loaded = longStream(-1, -1);
+        assertEquals(0, stream().getCheckpointCount());
+        assertEquals(0, loaded.getCheckpointCount());
+
+        loaded.sceneAt(loaded.getDuration());
+        assertTrue(loaded.getCheckpointCount() >= 4);
+
+        Scene scene = loaded.sceneAt(loaded.getDuration() / 3);
+        StepSceneStream fresh = longStream(-1, -1);
+        assertEquals(fresh.sceneAt(loaded.getDuration() / 3).getStartTime(), scene.getStartTime(), 1e-9);
+    }
+
+    @Test
+    void checkpointCountIsCappedForLongTraces() {
+        StepSceneStream steps = longStream(1500, -1, -1);
+        steps.sceneAt(steps.getDuration());
+
+        assertTrue(steps.getCheckpointCount() > 4);
+        assertTrue(steps.getCheckpointCount() <= StepSceneStream.MAX_CHECKPOINTS);
+    }
+
+    private static StepSceneStream longStream(double duration, int sceneCount) {
+        return longStream(400, duration, sceneCount);
+    }
+
+    private static StepSceneStream longStream(int size, double duration, int sceneCount) {
+        int[] input = new int[size];
+        Random random = new Random(11);
+        for (int i = 0; i < input.length; i++) {
+            input[i] = random.nextInt(1000);
+        }
+        return new StepSceneStream("bubble_sort", input, new StepScheduler(30, 0.5, 20),
+            BubbleSortTrace::new, BubbleSortTrace.countSteps(input), duration, sceneCount);
+    }
+
+    private static StepSceneStream stream() {
+        int[] input = new int[60];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = input.length - i;
+        }
+        return new StepSceneStream("bubble_sort", input, new StepScheduler(30, 0.5, 40),
+            BubbleSortTrace::new, BubbleSortTrace.countSteps(input));
+    }
+}
@@ -0,0 +1,54 @@
+package com.ythub.animation;
+
+import com.ythub.core.Scene;
+import com.ythub.dsa.algorithms.BubbleSortTrace;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StepSchedulerTest {
+
+    @Test
+    void summaryMatchesScheduledScenesWhenUncompressed() {
+        assertSummaryMatchesScan(new StepScheduler(30, 0.5, 600), input(12, 3));
+    }
+
+    @Test
+    void summaryMatchesScheduledScenesWhenCompressed() {
+        assertSummaryMatchesScan(new StepScheduler(30, 0.5, 20), input(400, 11));
+        assertSummaryMatchesScan(new StepScheduler(24, 0.25, 40), input(150, 5));
+        assertSummaryMatchesScan(new StepScheduler(60, 0.1, 3), input(40, 9));
+    }
+
+    @Test
+    void summaryMatchesScheduledScenesWithSpareFrames() {
+        assertSummaryMatchesScan(new StepScheduler(60, 0.5, 30), input(10, 2));
+    }
+
+    private static void assertSummaryMatchesScan(StepScheduler scheduler, int[] input) {
+        long totalSteps = BubbleSortTrace.countSteps(input);
+        double duration = 0;
+        int count = 0;
+        StepScheduler.ScheduledScenes scenes = scheduler.iterate(new BubbleSortTrace(input), totalSteps);
+        while (scenes.hasNext()) {
+            Scene scene = scenes.next();
+            duration += scene.getDuration();
+            count++;
+        }
+
+        StepScheduler.Summary summary = scheduler.summarize(totalSteps);
+        assertEquals(count, summary.getSceneCount());
+        assertEquals(duration, summary.getDuration());
+    }
+
+    private static int[] input(int size, long seed) {
+        Random random = new Random(seed);
+        int[] input = new int[size];
+        for (int i = 0; i < size; i++) {
+            input[i] = random.nextInt(1000);
+        }
+        return input;
+    }
+}
@@ -0,0 +1,195 @@
+package com.ythub.core;
+
+import com.ythub.animation.StepScheduler;
+import com.ythub.animation.StepSceneStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimelineSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsScenesAndPayloads() throws Exception {
+        Timeline expected = createTimeline();
+        Path path = directory.resolve("timeline.snapshot");
+        TimelineSnapshot.write(expected, path);
+
+        Timeline actual;
+        try (TimelineSnapshot snapshot = TimelineSnapshot.open(path)) {
+            assertEquals(expected.getScenes().size(), snapshot.getSceneCount());
+            assertEquals(expected.getVideoTitle(), snapshot.getTitle());
+            assertEquals(expected.getTotalDuration(), snapshot.getTotalDuration());
+            actual = snapshot.toTimeline();
+        }
+
+        List<Scene> expectedScenes = expected.getScenes();
+        List<Scene> actualScenes = actual.getScenes();
+        assertEquals(expected.getVideoTitle(), actual.getVideoTitle());
+        assertEquals(expectedScenes.size(), actualScenes.size());
+        assertEquals(expected.getTotalDuration(), actual.getTotalDuration());
+        for (int i = 0; i < expectedScenes.size(); i++) {
+            assertSameScene(expectedScenes.get(i), actualScenes.get(i));
+        }
+    }
+
+    @Test
+    void mappedScenesMatchSource() throws Exception {
+        Timeline expected = createTimeline();
+        Path path = directory.resolve("timeline.snapshot");
+        TimelineSnapshot.write(expected, path);
+
+        try (TimelineSnapshot snapshot = TimelineSnapshot.open(path)) {
+            List<Scene> scenes = expected.getScenes();
+            for (int i = 0; i < scenes.size(); i++) {
+                Scene scene = scenes.get(i);
+                assertEquals(scene.getId(), snapshot.getSceneId(i));
+                assertEquals(scene.getType(), snapshot.getSceneType(i));
+                assertEquals(scene.getStartTime(), snapshot.getSceneStartTime(i));
+                assertEquals(scene.getDuration(), snapshot.getSceneDuration(i));
+                assertSameScene(scene, snapshot.getScene(i));
+            }
+        }
+    }
+
+    @Test
+    void findsSceneIndexByTime() throws Exception {
+        Timeline expected = createTimeline();
+        Path path = directory.resolve("timeline.snapshot");
+        TimelineSnapshot.write(expected, path);
+
+        try (TimelineSnapshot snapshot = TimelineSnapshot.open(path)) {
+            List<Scene> scenes = expected.getScenes();
+            for (int i = 0; i < scenes.size(); i++) {
+                Scene scene = scenes.get(i);
+                assertEquals(i, snapshot.findSceneIndex(scene.getStartTime()), "start of scene " + i);
+                assertEquals(i, snapshot.findSceneIndex(scene.getStartTime() + scene.getDuration() / 2),
+                    "middle of scene " + i);
+            }
+            assertEquals(scenes.size() - 1, snapshot.findSceneIndex(snapshot.getTotalDuration() - 1e-6));
+        }
+    }
+
+    @Test
+    void restoresStepStreamCheckpoints() throws Exception {
+        int[] input = new int[400];
+        Random random = new Random(11);
+        for (int i = 0; i < input.length; i++) {
+            input[i] = random.nextInt(1000);
+        }
+        StepSceneStream expected = ScriptLoader.createStepStream("bubble_sort", input,
+            new StepScheduler(30, 0.5, 20), -1, -1);
+        Timeline timeline = new Timeline("Checkpoints");
+        timeline.addScene(new Scene.Builder(Scene.SceneType.VISUALIZATION, expected.getDuration())
+            .withId("lazy_steps")
+            .withAnimationConfig(StepSceneStream.CONFIG_KEY, expected)
+            .build());
+        Path path = directory.resolve("timeline.snapshot");
+        TimelineSnapshot.write(timeline, path);
+
+        StepSceneStream actual = assertInstanceOf(StepSceneStream.class,
+            TimelineSnapshot.load(path).getScenes().get(0).getAnimationConfig(StepSceneStream.CONFIG_KEY));
+        assertTrue(expected.getCheckpointCount() > 0);
+        assertEquals(expected.getCheckpointCount(), actual.getCheckpointCount());
+
+        for (int i = 19; i >= 0; i--) {
+            double time = expected.getDuration() * (i + 0.5) / 20;
+            Scene left = expected.sceneAt(time);
+            Scene right = actual.sceneAt(time);
+            assertEquals(left.getStartTime(), right.getStartTime(), "at " + time);
+            assertArrayEquals((int[]) left.getVisualData("array"), (int[]) right.getVisualData("array"), "at " + time);
+        }
+        assertEquals(expected.getCheckpointCount(), actual.getCheckpointCount());
+    }
+
+    private static Timeline createTimeline() {
+        Timeline timeline = new Timeline("Snapshot Test");
+        int[] array = {5, 3, 8, 1, 9, 2, 7, 4, 6, 0};
+        for (int i = 0; i < 60; i++) {
+            if (i % 20 == 0) {
+                timeline.addScene(new Scene.Builder(Scene.SceneType.NARRATION, 10)
+                    .withId("narration_" + i)
+                    .withNarration("Part " + (i / 20) + " walks through the next passes.")
+                    .withNarration("es", "La parte " + (i / 20) + " recorre las siguientes pasadas.")
+                    .withVisualData("title", "Part " + (i / 20))
+                    .withVisualData("bullets", List.of("Compare neighbours", "Swap when out of order"))
+                    .build());
+            } else {
+                int j = i % (array.length - 1);
+                int temp = array[j];
+                array[j] = array[j + 1];
+                array[j + 1] = temp;
+                timeline.addScene(new Scene.Builder(Scene.SceneType.VISUALIZATION, 1 / 30.0)
+                    .withId("step_" + i)
+                    .withVisualData("array", array.clone())
+                    .withVisualData("highlight1", j)
+                    .withVisualData("highlight2", j + 1)
+                    .withVisualData("description", "Swapped " + array[j + 1] + " and " + array[j])
+                    .build());
+            }
+        }
+
+        StepSceneStream steps = ScriptLoader.createStepStream("bubble_sort", new int[]{9, 4, 7, 1, 8, 2, 6, 3, 5, 0},
+            new StepScheduler(30, 0.5, 5), -1, -1);
+        timeline.addScene(new Scene.Builder(Scene.SceneType.VISUALIZATION, steps.getDuration())
+            .withId("lazy_steps")
+            .withAnimationConfig(StepSceneStream.CONFIG_KEY, steps)
+            .build());
+        return timeline;
+    }
+
+    private static void assertSameScene(Scene expected, Scene actual) {
+        String where = "scene " + expected.getId();
+        assertEquals(expected.getId(), actual.getId(), where);
+        assertEquals(expected.getType(), actual.getType(), where);
+        assertEquals(expected.getDuration(), actual.getDuration(), where);
+        assertEquals(expected.getStartTime(), actual.getStartTime(), where);
+        assertEquals(expected.getNarrationText(), actual.getNarrationText(), where);
+        assertEquals(expected.getLocalizedNarration(), actual.getLocalizedNarration(), where);
+        assertSameValues(expected.getVisualData(), actual.getVisualData(), where);
+        assertSameValues(expected.getAnimationConfig(), actual.getAnimationConfig(), where);
+    }
+
+    private static void assertSameValues(Map<String, Object> expected, Map<String, Object> actual, String where) {
+        assertEquals(expected.keySet(), actual.keySet(), where);
+        for (Map.Entry<String, Object> entry : expected.entrySet()) {
+            Object value = actual.get(entry.getKey());
+            String key = where + " " + entry.getKey();
+            if (entry.getValue() instanceof int[] ints) {
+                assertArrayEquals(ints, assertInstanceOf(int[].class, value), key);
+            } else if (entry.getValue() instanceof StepSceneStream steps) {
+                assertSameSteps(steps, assertInstanceOf(StepSceneStream.class, value), key);
+            } else {
+                assertEquals(entry.getValue(), value, key);
+            }
+        }
+    }
+
+    private static void assertSameSteps(StepSceneStream expected, StepSceneStream actual, String where) {
+        assertEquals(expected.getAlgorithm(), actual.getAlgorithm(), where);
+        assertEquals(expected.getDuration(), actual.getDuration(), where);
+        assertEquals(expected.getSceneCount(), actual.getSceneCount(), where);
+        assertArrayEquals(expected.getInput(), actual.getInput(), where);
+        assertEquals(expected.getScheduler().getFps(), actual.getScheduler().getFps(), where);
+        assertEquals(expected.getScheduler().getStepDuration(), actual.getScheduler().getStepDuration(), where);
+        assertEquals(expected.getScheduler().getBudgetSeconds(), actual.getScheduler().getBudgetSeconds(), where);
+        for (double time = 0; time < expected.getDuration(); time += 0.25) {
+            Scene left = expected.sceneAt(time);
+            Scene right = actual.sceneAt(time);
+            assertEquals(left.getStartTime(), right.getStartTime(), where + " at " + time);
+            assertArrayEquals((int[]) left.getVisualData("array"), (int[]) right.getVisualData("array"),
+                where + " at " + time);
+        }
+    }
+}
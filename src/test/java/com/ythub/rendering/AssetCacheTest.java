@@ -0,0 +1,134 @@
+package com.ythub.rendering;
+
+import com.ythub.core.VideoConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AssetCacheTest {
+
+    private static final long ASSET_BYTES = 50L * 50 * 4 * 2;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void scalesAndCountsHitsAndMisses() throws Exception {
+        write("a.png", 200, 100);
+        try (AssetCache cache = cache(ASSET_BYTES * 4)) {
+            AssetCache.Asset first = cache.get("a.png", 50, 50);
+            AssetCache.Asset second = cache.get("a.png", 50, 50);
+
+            assertSame(first, second);
+            assertEquals(50, first.getWidth());
+            assertEquals(25, first.getHeight());
+            AssetCache.CacheStats stats = cache.getStats();
+            assertEquals(1, stats.hits);
+            assertEquals(1, stats.misses);
+            assertEquals(1, stats.entries);
+            assertEquals(50L * 25 * 4 * 2, stats.totalBytes);
+        }
+    }
+
+    @Test
+    void keysEntriesBySize() throws Exception {
+        write("a.png", 100, 100);
+        try (AssetCache cache = cache(ASSET_BYTES * 4)) {
+            AssetCache.Asset small = cache.get("a.png", 50, 50);
+            AssetCache.Asset large = cache.get("a.png", 80, 80);
+
+            assertNotSame(small, large);
+            assertEquals(2, cache.getStats().entries);
+            assertEquals(ASSET_BYTES + 80L * 80 * 4 * 2, cache.getStats().totalBytes);
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOverBudget() throws Exception {
+        write("a.png", 100, 100);
+        write("b.png", 100, 100);
+        write("c.png", 100, 100);
+        try (AssetCache cache = cache(ASSET_BYTES * 2)) {
+            AssetCache.Asset a = cache.get("a.png", 50, 50);
+            cache.get("b.png", 50, 50);
+            assertSame(a, cache.get("a.png", 50, 50));
+            cache.get("c.png", 50, 50);
+
+            AssetCache.CacheStats stats = cache.getStats();
+            assertEquals(2, stats.entries);
+            assertEquals(ASSET_BYTES * 2, stats.totalBytes);
+            assertEquals(1, stats.evictions);
+
+            assertSame(a, cache.get("a.png", 50, 50));
+            cache.get("b.png", 50, 50);
+            stats = cache.getStats();
+            assertEquals(4, stats.misses);
+            assertEquals(2, stats.evictions);
+            assertEquals(ASSET_BYTES * 2, stats.totalBytes);
+        }
+    }
+
+    @Test
+    void keepsNewestAssetEvenWhenOverBudget() throws Exception {
+        write("a.png", 100, 100);
+        write("b.png", 100, 100);
+        try (AssetCache cache = cache(ASSET_BYTES / 2)) {
+            cache.get("a.png", 50, 50);
+            AssetCache.Asset b = cache.get("b.png", 50, 50);
+
+            AssetCache.CacheStats stats = cache.getStats();
+            assertEquals(1, stats.entries);
+            assertEquals(ASSET_BYTES, stats.totalBytes);
+            assertSame(b, cache.get("b.png", 50, 50));
+        }
+    }
+
+    @Test
+    void prefetchedAssetIsServedFromCache() throws Exception {
+        write("a.png", 100, 100);
+        try (AssetCache cache = cache(ASSET_BYTES * 4)) {
+            AssetCache.Asset prefetched = cache.prefetch("a.png", 50, 50).join();
+
+            assertSame(prefetched, cache.get("a.png", 50, 50));
+            AssetCache.CacheStats stats = cache.getStats();
+            assertEquals(1, stats.prefetches);
+            assertEquals(1, stats.hits);
+            assertEquals(0, stats.misses);
+        }
+    }
+
+    @Test
+    void remembersFailedLoads() {
+        try (AssetCache cache = cache(ASSET_BYTES * 4)) {
+            assertNull(cache.get("missing.png", 50, 50));
+            assertNull(cache.get("missing.png", 50, 50));
+            assertNull(cache.prefetch("missing.png", 50, 50).join());
+
+            AssetCache.CacheStats stats = cache.getStats();
+            assertEquals(1, stats.misses);
+            assertEquals(1, stats.failures);
+            assertEquals(0, stats.entries);
+            assertEquals(0, stats.totalBytes);
+        }
+    }
+
+    private AssetCache cache(long maxBytes) {
+        VideoConfig config = new VideoConfig();
+        config.setAssetsDir(directory.toString());
+        config.setAssetCacheMaxBytes(maxBytes);
+        return new AssetCache(config);
+    }
+
+    private void write(String name, int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ImageIO.write(image, "png", directory.resolve(name).toFile());
+    }
+}
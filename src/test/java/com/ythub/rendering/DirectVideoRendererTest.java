@@ -0,0 +1,71 @@
+package com.ythub.rendering;
+
+import com.ythub.core.Scene;
+import com.ythub.core.ScriptLoader;
+import com.ythub.core.Timeline;
+import com.ythub.core.VideoConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class DirectVideoRendererTest {
+
+    private static final String SCRIPT = """
+        {
+          "title": "Boundary",
+          "scenes": [
+            {"type": "visualization", "duration": 20, "narration": "Sorting",
+             "animation": {"type": "bubble_sort", "array": [9, 4, 7, 1, 8, 2, 6, 3, 5, 0], "speed": "fast"}},
+            {"type": "narration", "duration": 5, "narration": "Done"}
+          ]
+        }
+        """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void lazyBlockHandsOverSortedArrayLikeEagerSteps() throws Exception {
+        Timeline eager = load(Long.MAX_VALUE);
+        Timeline lazy = load(0);
+        assertEquals(eager.getTotalDuration(), lazy.getTotalDuration(), 1e-9);
+
+        Scene next = eager.getScenes().get(eager.getScenes().size() - 1);
+        int fps = 30;
+        int boundary = (int) Math.round(next.getStartTime() * fps);
+        for (int frame = boundary - 1; frame <= boundary + 2; frame++) {
+            DirectVideoRenderer.FrameSpec expected = DirectVideoRenderer.timelineFrame(eager, frame, fps);
+            DirectVideoRenderer.FrameSpec actual = DirectVideoRenderer.timelineFrame(lazy, frame, fps);
+            assertSameStep(expected.scene, actual.scene, "scene at frame " + frame);
+            assertSameStep(expected.prevScene, actual.prevScene, "previous scene at frame " + frame);
+            assertEquals(expected.progress, actual.progress, 1e-9, "progress at frame " + frame);
+        }
+
+        int[] sorted = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        assertArrayEquals(sorted, (int[]) DirectVideoRenderer.timelineFrame(lazy, boundary, fps).prevScene
+            .getVisualData("array"));
+    }
+
+    private Timeline load(long eagerStepLimit) throws Exception {
+        VideoConfig config = new VideoConfig();
+        config.setFps(30);
+        config.setScriptEagerStepLimit(eagerStepLimit);
+        Path script = directory.resolve("boundary.json");
+        Files.writeString(script, SCRIPT);
+        return new ScriptLoader(config).load(script.toFile());
+    }
+
+    private static void assertSameStep(Scene expected, Scene actual, String where) {
+        assertNotNull(actual, where);
+        assertEquals(expected.getType(), actual.getType(), where);
+        assertArrayEquals((int[]) expected.getVisualData("array"), (int[]) actual.getVisualData("array"), where);
+        assertEquals(expected.getVisualData("highlight1"), actual.getVisualData("highlight1"), where);
+        assertEquals(expected.getVisualData("highlight2"), actual.getVisualData("highlight2"), where);
+    }
+}
@@ -0,0 +1,107 @@
+package com.ythub.rendering;
+
+import com.ythub.core.Scene;
+import com.ythub.core.VideoConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EncodingPlanTest {
+
+    @Test
+    void placesKeyframesAtSceneCutsAndDynamicGops() {
+        EncodingPlan plan = EncodingPlan.forScenes(List.of(
+            narration(5),
+            code(4),
+            narration(2)), null, config());
+
+        assertEquals(330, plan.getTotalFrames());
+        assertEquals(300, plan.getGopFrames());
+        assertKeyframes(plan, 0, 150, 210, 270);
+        assertEquals(2, plan.getSceneCuts());
+        assertEquals(210, plan.getFrameCount(EncodingPlan.Motion.STATIC));
+        assertEquals(120, plan.getFrameCount(EncodingPlan.Motion.DYNAMIC));
+        assertEquals("0,149,b=0.5/150,269,b=1.25/270,329,b=0.5", plan.getRateZones());
+    }
+
+    @Test
+    void skipsCutsCloserThanMinimumDistance() {
+        EncodingPlan plan = EncodingPlan.forScenes(List.of(
+            narration(0.2),
+            narration(1)), null, config());
+
+        assertKeyframes(plan, 0);
+        assertEquals(0, plan.getSceneCuts());
+        assertEquals("0,35,b=0.5", plan.getRateZones());
+    }
+
+    @Test
+    void keepsContinuousVisualizationInOneGop() {
+        EncodingPlan plan = EncodingPlan.forScenes(List.of(
+            visualization(1),
+            visualization(2)), visualization(1), config());
+
+        assertKeyframes(plan, 0, 60);
+        assertEquals(0, plan.getSceneCuts());
+        assertEquals("0,89,b=1.25", plan.getRateZones());
+    }
+
+    @Test
+    void skipsZeroFrameScenes() {
+        EncodingPlan plan = EncodingPlan.forScenes(List.of(
+            narration(2),
+            code(0.01),
+            narration(2)), null, config());
+
+        assertKeyframes(plan, 0, 60);
+        assertEquals(1, plan.getSceneCuts());
+        assertEquals(120, plan.getTotalFrames());
+    }
+
+    @Test
+    void fixedGopWhenSceneAwarenessDisabled() {
+        VideoConfig config = config();
+        config.setEncoderSceneAware(false);
+        EncodingPlan plan = EncodingPlan.forScenes(List.of(narration(5), code(4)), null, config);
+
+        assertEquals(270, plan.getTotalFrames());
+        assertEquals(30, plan.getGopFrames());
+        assertEquals(0, plan.getKeyframeCount());
+        assertFalse(plan.isKeyframe(0));
+        assertEquals("", plan.getRateZones());
+    }
+
+    private static void assertKeyframes(EncodingPlan plan, int... frames) {
+        for (int frame : frames) {
+            assertTrue(plan.isKeyframe(frame), "keyframe at " + frame);
+        }
+        assertEquals(frames.length, plan.getKeyframeCount());
+    }
+
+    private static VideoConfig config() {
+        VideoConfig config = new VideoConfig();
+        config.setFps(30);
+        config.setEncoderSceneAware(true);
+        config.setEncoderStaticGopSeconds(10);
+        config.setEncoderDynamicGopSeconds(2);
+        return config;
+    }
+
+    private static Scene narration(double duration) {
+        return new Scene.Builder(Scene.SceneType.NARRATION, duration).build();
+    }
+
+    private static Scene code(double duration) {
+        return new Scene.Builder(Scene.SceneType.CODE_DISPLAY, duration).build();
+    }
+
+    private static Scene visualization(double duration) {
+        return new Scene.Builder(Scene.SceneType.VISUALIZATION, duration)
+            .withVisualData("array", new int[]{3, 1, 2})
+            .build();
+    }
+}
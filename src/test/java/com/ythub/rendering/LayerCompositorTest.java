@@ -0,0 +1,134 @@
+package com.ythub.rendering;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LayerCompositorTest {
+
+    private static final long LAYER_BYTES = 10 * 10 * 4;
+
+    private final Map<String, Integer> paints = new HashMap<>();
+    private final Map<String, Integer> rasterizations = new HashMap<>();
+    private GraphicsContext gc;
+
+    @BeforeEach
+    void setUp() {
+        gc = new Canvas(100, 100).getGraphicsContext2D();
+    }
+
+    @Test
+    void paintsDynamicLayersEveryFrame() {
+        LayerCompositor compositor = compositor(LAYER_BYTES * 4);
+        for (int i = 0; i < 3; i++) {
+            compositor.composite(gc, List.of(LayerCompositor.Layer.dynamic("bars", true, painter("bars"))), 1);
+        }
+
+        assertEquals(3, paints.get("bars"));
+        assertEquals(0, compositor.getCachedLayers());
+    }
+
+    @Test
+    void admitsLayerOnSecondUseAndBlitsAfterwards() {
+        LayerCompositor compositor = compositor(LAYER_BYTES * 4);
+        LayerCompositor.Layer title = layer("title");
+
+        compositor.composite(gc, List.of(title), 1);
+        assertEquals(1, paints.get("title"));
+        assertEquals(0, compositor.getCachedLayers());
+
+        compositor.composite(gc, List.of(title), 1);
+        assertEquals(1, rasterizations.get("title"));
+        assertEquals(1, compositor.getCachedLayers());
+        assertEquals(LAYER_BYTES, compositor.getCachedBytes());
+
+        compositor.composite(gc, List.of(title), 1);
+        compositor.composite(gc, List.of(title), 1);
+        assertEquals(1, paints.get("title"));
+        assertEquals(1, rasterizations.get("title"));
+    }
+
+    @Test
+    void neverAdmitsLayersOverHalfTheBudget() {
+        LayerCompositor compositor = compositor(LAYER_BYTES * 2 - 1);
+        LayerCompositor.Layer title = layer("title");
+        for (int i = 0; i < 4; i++) {
+            compositor.composite(gc, List.of(title), 1);
+        }
+
+        assertEquals(4, paints.get("title"));
+        assertEquals(0, rasterizations.getOrDefault("title", 0));
+        assertEquals(0, compositor.getCachedLayers());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedLayerOverBudget() {
+        LayerCompositor compositor = compositor(LAYER_BYTES * 2);
+        LayerCompositor.Layer a = layer("a");
+        LayerCompositor.Layer b = layer("b");
+        LayerCompositor.Layer c = layer("c");
+
+        compositor.composite(gc, List.of(a, b), 1);
+        compositor.composite(gc, List.of(a, b), 1);
+        assertEquals(2, compositor.getCachedLayers());
+
+        compositor.composite(gc, List.of(a), 1);
+        compositor.composite(gc, List.of(c), 1);
+        compositor.composite(gc, List.of(c), 1);
+        assertEquals(2, compositor.getCachedLayers());
+        assertEquals(LAYER_BYTES * 2, compositor.getCachedBytes());
+
+        compositor.composite(gc, List.of(a, c), 1);
+        assertEquals(1, rasterizations.get("a"));
+        assertEquals(1, rasterizations.get("c"));
+
+        compositor.composite(gc, List.of(b), 1);
+        assertEquals(1, rasterizations.get("b"));
+        assertEquals(2, paints.get("b"));
+        compositor.composite(gc, List.of(b), 1);
+        assertEquals(2, rasterizations.get("b"));
+        assertEquals(LAYER_BYTES * 2, compositor.getCachedBytes());
+    }
+
+    @Test
+    void clearDropsCachedLayersAndUseCounts() {
+        LayerCompositor compositor = compositor(LAYER_BYTES * 4);
+        LayerCompositor.Layer title = layer("title");
+        compositor.composite(gc, List.of(title), 1);
+        compositor.composite(gc, List.of(title), 1);
+
+        compositor.clear();
+        assertEquals(0, compositor.getCachedLayers());
+        assertEquals(0, compositor.getCachedBytes());
+
+        compositor.composite(gc, List.of(title), 1);
+        assertEquals(2, paints.get("title"));
+        assertEquals(1, rasterizations.get("title"));
+    }
+
+    private LayerCompositor compositor(long budgetBytes) {
+        return new LayerCompositor(budgetBytes) {
+            @Override
+            WritableImage rasterize(Layer layer) {
+                rasterizations.merge(layer.getName(), 1, Integer::sum);
+                return new WritableImage(layer.width, layer.height);
+            }
+        };
+    }
+
+    private LayerCompositor.Layer layer(String name) {
+        return LayerCompositor.Layer.cached(name, name, 5, 5, 10, 10, false, painter(name));
+    }
+
+    private LayerCompositor.Painter painter(String name) {
+        return g -> paints.merge(name, 1, Integer::sum);
+    }
+}
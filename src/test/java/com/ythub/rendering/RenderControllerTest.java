@@ -0,0 +1,126 @@
+package com.ythub.rendering;
+
+import com.ythub.core.VideoConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RenderControllerTest {
+
+    private static final long FRAME_BYTES = 640L * 360 * 4;
+
+    @Test
+    void sizesWindowsFromFpsAndMemoryBudget() {
+        RenderController controller = new RenderController(config(1), FRAME_BYTES);
+        assertEquals(120, controller.getWindow());
+        assertEquals(480, controller.getMaxWindow());
+
+        VideoConfig small = config(1);
+        small.setRenderMemoryBudgetMb(1);
+        assertEquals(2, new RenderController(small, FRAME_BYTES).getMaxWindow());
+
+        VideoConfig fixed = config(3);
+        fixed.setRenderAdaptive(false);
+        RenderController nonAdaptive = new RenderController(fixed, FRAME_BYTES);
+        assertEquals(3, nonAdaptive.getRenderConcurrency());
+        assertEquals(120, nonAdaptive.getWindow());
+    }
+
+    @Test
+    void encoderBoundMovesConversionBeforeShrinkingWindow() {
+        RenderController controller = new RenderController(config(1), FRAME_BYTES);
+
+        encoderBound(controller, 0.4);
+        assertTrue(controller.isConvertInRenderers());
+        assertEquals(120, controller.getWindow());
+
+        encoderBound(controller, 0.4);
+        assertEquals(60, controller.getWindow());
+        encoderBound(controller, 0.4);
+        encoderBound(controller, 0.4);
+        encoderBound(controller, 0.4);
+        encoderBound(controller, 0.4);
+        assertEquals(15, controller.getWindow());
+        assertEquals(4, controller.getDecisions());
+    }
+
+    @Test
+    void encoderBoundDropsRenderThreadWhenRenderingOutpacesEncoder() {
+        int threads = Runtime.getRuntime().availableProcessors() + 1;
+        RenderController controller = new RenderController(config(threads), FRAME_BYTES);
+        int start = controller.getRenderConcurrency();
+
+        controller.decide(60, 30, 0.95, 0.0, 0.05, 0.9, 0.5);
+        assertFalse(controller.isConvertInRenderers());
+        if (start > 1) {
+            assertEquals(start - 1, controller.getRenderConcurrency());
+            assertEquals(120, controller.getWindow());
+        } else {
+            assertEquals(1, controller.getRenderConcurrency());
+            assertEquals(60, controller.getWindow());
+        }
+    }
+
+    @Test
+    void renderBoundProbesExtraThreadAndRevertsWithoutGain() {
+        int threads = Runtime.getRuntime().availableProcessors() + 1;
+        RenderController controller = new RenderController(config(threads), FRAME_BYTES);
+        int start = controller.getRenderConcurrency();
+
+        renderBound(controller, 30, 0.5);
+        assertEquals(start + 1, controller.getRenderConcurrency());
+
+        renderBound(controller, 30.5, 0.5);
+        assertEquals(start, controller.getRenderConcurrency());
+
+        for (int i = 0; i < 5; i++) {
+            renderBound(controller, 30, 0.5);
+            assertEquals(start, controller.getRenderConcurrency(), "held after revert");
+        }
+        renderBound(controller, 30, 0.5);
+        assertEquals(start + 1, controller.getRenderConcurrency());
+
+        renderBound(controller, 40, 0.5);
+        assertEquals(start + 1, controller.getRenderConcurrency());
+    }
+
+    @Test
+    void renderBoundDoesNotProbePastCpuBudget() {
+        int threads = Runtime.getRuntime().availableProcessors() + 1;
+        RenderController controller = new RenderController(config(threads), FRAME_BYTES);
+        int start = controller.getRenderConcurrency();
+
+        renderBound(controller, 30, 0.95);
+        assertEquals(start, controller.getRenderConcurrency());
+    }
+
+    @Test
+    void renderBoundMovesConversionBackToIdleWriter() {
+        RenderController controller = new RenderController(config(1), FRAME_BYTES);
+        encoderBound(controller, 0.4);
+        assertTrue(controller.isConvertInRenderers());
+
+        controller.decide(20, 20, 0.3, 0.6, 0.4, 0.1, 0.5);
+        assertFalse(controller.isConvertInRenderers());
+    }
+
+    private static void encoderBound(RenderController controller, double convertShare) {
+        controller.decide(30, 30, 0.95, 0.0, convertShare, 0.9, 0.5);
+    }
+
+    private static void renderBound(RenderController controller, double renderRate, double cpuLoad) {
+        controller.decide(renderRate, renderRate, 0.3, 0.4, 0.1, 0.1, cpuLoad);
+    }
+
+    private static VideoConfig config(int renderThreads) {
+        VideoConfig config = new VideoConfig();
+        config.setFps(30);
+        config.setRenderThreads(renderThreads);
+        config.setRenderAdaptive(true);
+        config.setRenderMemoryBudgetMb(1024);
+        config.setRenderCpuBudget(0.9);
+        return config;
+    }
+}
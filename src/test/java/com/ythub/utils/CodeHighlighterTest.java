@@ -0,0 +1,80 @@
+package com.ythub.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CodeHighlighterTest {
+
+    private final CodeHighlighter highlighter = new CodeHighlighter();
+
+    @Test
+    void keepsLeadingCommentOutsideParsedNode() {
+        String code = "// bubble sort\npublic void sort(int[] a) {\n    int n = a.length;\n}";
+        List<CodeHighlighter.StyledLine> lines = highlighter.highlight(code);
+
+        assertLinesMatch(code, lines);
+        assertEquals(CodeHighlighter.TokenStyle.COMMENT, lines.get(0).getSpans().get(0).style);
+        assertEquals(CodeHighlighter.TokenStyle.KEYWORD, lines.get(1).getSpans().get(0).style);
+    }
+
+    @Test
+    void keepsLeadingBlankLines() {
+        String code = "\n\n\npublic class A {\n  int x;\n}\n";
+        List<CodeHighlighter.StyledLine> lines = highlighter.highlight(code);
+
+        assertLinesMatch(code, lines);
+        assertEquals(CodeHighlighter.TokenStyle.KEYWORD, lines.get(3).getSpans().get(0).style);
+    }
+
+    @Test
+    void highlightsStatementSequences() {
+        String code = "int x = 1;\n\nfoo();\n// trailing\n";
+        List<CodeHighlighter.StyledLine> lines = highlighter.highlight(code);
+
+        assertLinesMatch(code, lines);
+        assertEquals(CodeHighlighter.TokenStyle.TYPE, lines.get(0).getSpans().get(0).style);
+        assertEquals(CodeHighlighter.TokenStyle.FUNCTION, lines.get(2).getSpans().get(0).style);
+        assertEquals(CodeHighlighter.TokenStyle.COMMENT, lines.get(3).getSpans().get(0).style);
+    }
+
+    @Test
+    void expandsTabsAndKeepsMultiLineComments() {
+        String code = "for (int i = 0; i < n; i++) {\n\tswap(a, i, j);\n}\n/* block\ncomment */";
+        List<CodeHighlighter.StyledLine> lines = highlighter.highlight(code);
+
+        assertLinesMatch(code, lines);
+        assertEquals(4, lines.get(1).getSpans().get(0).column);
+        assertEquals(CodeHighlighter.TokenStyle.COMMENT, lines.get(4).getSpans().get(0).style);
+    }
+
+    @Test
+    void fallsBackToPlainTextForInvalidCode() {
+        String code = "not java at all {{{\nsecond line";
+        List<CodeHighlighter.StyledLine> lines = highlighter.highlight(code);
+
+        assertLinesMatch(code, lines);
+        assertEquals(CodeHighlighter.TokenStyle.PLAIN, lines.get(0).getSpans().get(0).style);
+    }
+
+    private static void assertLinesMatch(String code, List<CodeHighlighter.StyledLine> lines) {
+        String[] source = code.split("\\R", -1);
+        assertEquals(source.length, lines.size());
+        for (int i = 0; i < source.length; i++) {
+            assertEquals(source[i].replace("\t", "    ").stripTrailing(), render(lines.get(i)), "line " + (i + 1));
+        }
+    }
+
+    private static String render(CodeHighlighter.StyledLine line) {
+        StringBuilder text = new StringBuilder();
+        for (CodeHighlighter.Span span : line.getSpans()) {
+            while (text.length() < span.column) {
+                text.append(' ');
+            }
+            text.append(span.text);
+        }
+        return text.toString();
+    }
+}